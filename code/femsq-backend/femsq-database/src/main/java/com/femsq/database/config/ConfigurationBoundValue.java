@@ -0,0 +1,50 @@
+package com.femsq.database.config;
+
+import com.femsq.database.config.DatabaseConfigurationService.DatabaseConfigurationProperties;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * Значение, производное от конфигурации подключения (например, квалифицированное имя таблицы).
+ * <p>
+ * Вычисляется один раз на snapshot конфигурации: пока {@link DatabaseConfigurationService#loadConfig()}
+ * возвращает тот же экземпляр, повторное обращение — чтение volatile-поля без пересборки строк.
+ * {@link DatabaseConfigurationService.MissingConfigurationException} пробрасывается вызывающему.
+ * </p>
+ *
+ * @param <T> тип значения
+ */
+public final class ConfigurationBoundValue<T> {
+
+    private final DatabaseConfigurationService configurationService;
+    private final Function<DatabaseConfigurationProperties, T> mapper;
+    private volatile Bound<T> bound;
+
+    /**
+     * @param configurationService источник конфигурации
+     * @param mapper               вычисление значения по конфигурации (без обращений к БД)
+     */
+    public ConfigurationBoundValue(
+            DatabaseConfigurationService configurationService,
+            Function<DatabaseConfigurationProperties, T> mapper) {
+        this.configurationService = Objects.requireNonNull(configurationService, "configurationService");
+        this.mapper = Objects.requireNonNull(mapper, "mapper");
+    }
+
+    /**
+     * @return значение для текущей конфигурации
+     */
+    public T get() {
+        DatabaseConfigurationProperties configuration = configurationService.loadConfig();
+        Bound<T> current = bound;
+        if (current != null && current.source() == configuration) {
+            return current.value();
+        }
+        T value = mapper.apply(configuration);
+        bound = new Bound<>(configuration, value);
+        return value;
+    }
+
+    private record Bound<T>(DatabaseConfigurationProperties source, T value) {
+    }
+}
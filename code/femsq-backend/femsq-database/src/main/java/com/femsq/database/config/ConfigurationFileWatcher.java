@@ -0,0 +1,113 @@
+package com.femsq.database.config;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.Objects;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Наблюдатель за файлом конфигурации подключения.
+ * <p>
+ * Следит за директорией файла через {@link WatchService} и вызывает обработчик при создании, изменении
+ * или удалении файла (а также при переполнении очереди событий). Если директория перестаёт быть доступной,
+ * наблюдатель становится неактивным и {@link DatabaseConfigurationService} возвращается к проверке lastModified.
+ * </p>
+ */
+final class ConfigurationFileWatcher implements AutoCloseable {
+
+    private static final Logger log = Logger.getLogger(ConfigurationFileWatcher.class.getName());
+
+    private final Path fileName;
+    private final Runnable onChange;
+    private final WatchService watchService;
+    private volatile boolean active = true;
+
+    private ConfigurationFileWatcher(Path fileName, Runnable onChange, WatchService watchService) {
+        this.fileName = fileName;
+        this.onChange = onChange;
+        this.watchService = watchService;
+    }
+
+    /**
+     * Запускает наблюдение в фоновом daemon-потоке.
+     *
+     * @param configPath путь к файлу конфигурации
+     * @param onChange   обработчик изменения файла
+     * @return активный наблюдатель
+     * @throws IOException если директорию нельзя зарегистрировать
+     */
+    static ConfigurationFileWatcher start(Path configPath, Runnable onChange) throws IOException {
+        Objects.requireNonNull(configPath, "configPath");
+        Objects.requireNonNull(onChange, "onChange");
+        Path absolute = configPath.toAbsolutePath();
+        Path directory = absolute.getParent();
+        if (directory == null) {
+            throw new IOException("Configuration file has no parent directory: " + absolute);
+        }
+        WatchService watchService = FileSystems.getDefault().newWatchService();
+        try {
+            directory.register(watchService,
+                    StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_MODIFY,
+                    StandardWatchEventKinds.ENTRY_DELETE);
+        } catch (IOException | RuntimeException exception) {
+            watchService.close();
+            throw exception;
+        }
+        ConfigurationFileWatcher watcher = new ConfigurationFileWatcher(absolute.getFileName(), onChange, watchService);
+        Thread.ofPlatform()
+                .name("femsq-config-watcher")
+                .daemon(true)
+                .start(watcher::run);
+        return watcher;
+    }
+
+    boolean isActive() {
+        return active;
+    }
+
+    private void run() {
+        try {
+            while (active) {
+                WatchKey key = watchService.take();
+                boolean changed = false;
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    if (event.kind() == StandardWatchEventKinds.OVERFLOW || fileName.equals(event.context())) {
+                        changed = true;
+                    }
+                }
+                if (changed) {
+                    onChange.run();
+                }
+                if (!key.reset()) {
+                    log.log(Level.WARNING, "Configuration directory is no longer watchable, watcher stopped");
+                    break;
+                }
+            }
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException ignored) {
+            // остановлен через close()
+        } finally {
+            active = false;
+            onChange.run();
+        }
+    }
+
+    @Override
+    public void close() {
+        active = false;
+        try {
+            watchService.close();
+        } catch (IOException exception) {
+            log.log(Level.FINE, "Failed to close configuration watch service", exception);
+        }
+    }
+}
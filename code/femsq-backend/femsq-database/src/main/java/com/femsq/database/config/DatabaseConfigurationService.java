@@ -1,8 +1,10 @@
 package com.femsq.database.config;
 
 import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
 import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -14,7 +16,8 @@ import java.util.logging.Logger;
  * </p>
  * <p>
  * Использует кэширование для уменьшения количества обращений к файловой системе.
- * Кэш автоматически инвалидируется при изменении файла конфигурации (проверка по lastModified).
+ * Кэш — неизменяемый {@link ConfigurationSnapshot} с версией; он инвалидируется при изменении файла
+ * (наблюдение через {@link #startWatching()} или проверка по lastModified) и при сохранении.
  * </p>
  */
 public class DatabaseConfigurationService {
@@ -24,9 +27,11 @@ public class DatabaseConfigurationService {
     private final ConfigurationFileManager fileManager;
     private final ConfigurationValidator validator;
 
-    // Кэш конфигурации с проверкой изменений файла
-    private volatile DatabaseConfigurationProperties cachedConfig;
-    private volatile long configFileLastModified = 0;
+    // Кэш конфигурации: неизменяемый snapshot с версией и временем модификации файла
+    private volatile ConfigurationSnapshot snapshot;
+    private final AtomicLong versionSequence = new AtomicLong();
+    private volatile ConfigurationFileWatcher watcher;
+    private volatile boolean watchRequested;
 
     /**
      * Создает сервис конфигурации с требуемыми зависимостями.
@@ -43,12 +48,22 @@ public class DatabaseConfigurationService {
      * Загружает конфигурацию подключения из файла пользователя.
      * <p>
      * Использует кэширование для уменьшения количества обращений к файловой системе.
-     * Кэш автоматически инвалидируется при изменении файла конфигурации.
+     * Пока активно наблюдение за файлом ({@link #startWatching()}), возвращает текущий snapshot
+     * без блокировок и обращений к файловой системе; иначе кэш проверяется по lastModified.
      * </p>
      *
      * @return валидированные свойства подключения
      */
     public DatabaseConfigurationProperties loadConfig() {
+        ConfigurationSnapshot current = snapshot;
+        ConfigurationFileWatcher activeWatcher = watcher;
+        if (current != null && activeWatcher != null && activeWatcher.isActive()) {
+            return current.properties();
+        }
+        return reloadIfChanged().properties();
+    }
+
+    private ConfigurationSnapshot reloadIfChanged() {
         Path configPath = fileManager.resolveConfigPath();
         
         // Проверяем, существует ли файл
@@ -61,11 +76,12 @@ public class DatabaseConfigurationService {
         synchronized (this) {
             try {
                 long currentLastModified = Files.getLastModifiedTime(configPath).toMillis();
+                ConfigurationSnapshot current = snapshot;
                 
                 // Если файл не изменился и кэш существует - возвращаем кэш
-                if (cachedConfig != null && currentLastModified == configFileLastModified) {
+                if (current != null && currentLastModified == current.fileLastModified()) {
                     log.log(Level.FINE, "Using cached database configuration from {0}", configPath);
-                    return cachedConfig;
+                    return current;
                 }
                 
                 // Файл изменился или кэш пуст - загружаем заново
@@ -79,10 +95,10 @@ public class DatabaseConfigurationService {
                 DatabaseConfigurationProperties config = validator.map(rawProperties);
                 
                 // Обновляем кэш
-                cachedConfig = config;
-                configFileLastModified = currentLastModified;
-                
-                return config;
+                ConfigurationSnapshot loaded = new ConfigurationSnapshot(
+                        versionSequence.incrementAndGet(), config, currentLastModified);
+                snapshot = loaded;
+                return loaded;
             } catch (java.io.IOException ioException) {
                 log.log(Level.SEVERE, "Failed to check file modification time for {0}", configPath);
                 // При ошибке проверки времени модификации - загружаем без кэша
@@ -90,11 +106,89 @@ public class DatabaseConfigurationService {
                 if (rawProperties.isEmpty()) {
                     throw new MissingConfigurationException(configPath);
                 }
-                return validator.map(rawProperties);
+                return new ConfigurationSnapshot(versionSequence.incrementAndGet(), validator.map(rawProperties), 0);
             }
         }
     }
 
+    /**
+     * Возвращает версию текущего snapshot конфигурации ({@code 0} — конфигурация ещё не загружена).
+     * Версия растёт при каждой перезагрузке файла.
+     *
+     * @return версия конфигурации
+     */
+    public long getConfigurationVersion() {
+        ConfigurationSnapshot current = snapshot;
+        return current == null ? 0 : current.version();
+    }
+
+    /**
+     * Сбрасывает snapshot: следующий {@link #loadConfig()} перечитает файл.
+     */
+    public void invalidate() {
+        synchronized (this) {
+            snapshot = null;
+        }
+        log.log(Level.FINE, "Database configuration cache invalidated");
+    }
+
+    /**
+     * Перечитывает конфигурацию немедленно (например, после переподключения).
+     *
+     * @return новая конфигурация
+     */
+    public DatabaseConfigurationProperties refresh() {
+        invalidate();
+        return loadConfig();
+    }
+
+    /**
+     * Запускает наблюдение за файлом конфигурации. Пока наблюдение активно, {@link #loadConfig()}
+     * не обращается к файловой системе, а изменение или удаление файла сбрасывает snapshot.
+     *
+     * @return {@code true}, если наблюдение запущено
+     */
+    public boolean startWatching() {
+        synchronized (this) {
+            watchRequested = true;
+            if (watcher != null && watcher.isActive()) {
+                return true;
+            }
+            Path configPath = fileManager.resolveConfigPath();
+            try {
+                watcher = ConfigurationFileWatcher.start(configPath, this::invalidate);
+                log.log(Level.INFO, "Watching database configuration file {0}", configPath);
+                return true;
+            } catch (NoSuchFileException exception) {
+                // Директории конфигурации ещё нет: наблюдение запустится после saveConfig
+                log.log(Level.INFO, "Database configuration directory {0} does not exist yet, "
+                        + "falling back to lastModified checks", exception.getFile());
+                watcher = null;
+                return false;
+            } catch (java.io.IOException | RuntimeException exception) {
+                log.log(Level.WARNING, "Cannot watch database configuration file " + configPath
+                        + ", falling back to lastModified checks", exception);
+                watcher = null;
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Останавливает наблюдение за файлом конфигурации.
+     */
+    public void stopWatching() {
+        ConfigurationFileWatcher current;
+        synchronized (this) {
+            watchRequested = false;
+            current = watcher;
+            watcher = null;
+        }
+        if (current != null) {
+            current.close();
+        }
+    }
+
     /**
      * Сохраняет конфигурацию подключения в файл пользователя.
      * <p>
@@ -126,13 +220,23 @@ public class DatabaseConfigurationService {
         fileManager.writeProperties(rawProperties);
         
         // Инвалидируем кэш после сохранения
-        synchronized (this) {
-            cachedConfig = null;
-            configFileLastModified = 0;
-            log.log(Level.FINE, "Cache invalidated after saving configuration");
+        invalidate();
+        // Директория конфигурации могла появиться только сейчас — повторяем запуск наблюдения
+        if (watchRequested) {
+            startWatching();
         }
     }
 
+    /**
+     * Неизменяемый snapshot конфигурации.
+     *
+     * @param version          монотонная версия (растёт при каждой перезагрузке)
+     * @param properties       параметры подключения
+     * @param fileLastModified время модификации файла, из которого загружен snapshot
+     */
+    public record ConfigurationSnapshot(long version, DatabaseConfigurationProperties properties, long fileLastModified) {
+    }
+
     /**
      * Контейнер с параметрами подключения к базе данных.
      * <p>
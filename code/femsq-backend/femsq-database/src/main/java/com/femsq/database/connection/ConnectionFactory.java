@@ -23,6 +23,8 @@ public class ConnectionFactory implements AutoCloseable {
     private final DatabaseConfigurationService configurationService;
     private final AuthenticationProviderFactory providerFactory;
     private final boolean ownsConnector;
+    /** Провайдер, URL и JDBC-свойства, подготовленные для текущего snapshot конфигурации. */
+    private volatile ResolvedSettings resolvedSettings;
 
     /**
      * Создает фабрику с дефолтным пулом HikariCP и стандартной фабрикой провайдеров аутентификации.
@@ -47,6 +49,17 @@ public class ConnectionFactory implements AutoCloseable {
         this(connector, configurationService, providerFactory, false);
     }
 
+    /**
+     * Создает фабрику с пулом HikariCP, настроенным переданными параметрами; пул принадлежит фабрике.
+     *
+     * @param poolSettings          размер пула, время стекания и реестр метрик
+     * @param configurationService  сервис доступа к конфигурации базы данных
+     * @param providerFactory       фабрика провайдеров аутентификации
+     */
+    public ConnectionFactory(HikariPoolSettings poolSettings, DatabaseConfigurationService configurationService, AuthenticationProviderFactory providerFactory) {
+        this(new HikariJdbcConnector(poolSettings), configurationService, providerFactory, true);
+    }
+
     private ConnectionFactory(JdbcConnector connector, DatabaseConfigurationService configurationService, AuthenticationProviderFactory providerFactory, boolean ownsConnector) {
         this.connector = Objects.requireNonNull(connector, "connector");
         this.configurationService = Objects.requireNonNull(configurationService, "configurationService");
@@ -62,8 +75,10 @@ public class ConnectionFactory implements AutoCloseable {
     public Connection createConnection() {
         try {
             DatabaseConfigurationProperties configuration = configurationService.loadConfig();
-            AuthenticationProvider provider = providerFactory.create(configuration);
-            return createConnection(configuration, provider);
+            ResolvedSettings settings = resolveSettings(configuration);
+            log.log(Level.FINE, "Opening JDBC connection to {0} using provider {1}",
+                    new Object[]{settings.jdbcUrl(), settings.provider().getName()});
+            return connect(settings.jdbcUrl(), settings.properties());
         } catch (DatabaseConfigurationService.MissingConfigurationException exception) {
             // Пробрасываем MissingConfigurationException дальше для правильной обработки в ApiExceptionHandler
             throw exception;
@@ -117,6 +132,30 @@ public class ConnectionFactory implements AutoCloseable {
             log.log(Level.FINE, "==================================");
         }
         
+        return connect(jdbcUrl, properties);
+    }
+
+    /**
+     * Подготавливает провайдер, URL и свойства один раз на snapshot конфигурации: пока
+     * {@link DatabaseConfigurationService#loadConfig()} возвращает тот же экземпляр, повторная выдача
+     * соединения не создаёт провайдер и не пересобирает {@link Properties}.
+     */
+    private ResolvedSettings resolveSettings(DatabaseConfigurationProperties configuration) {
+        ResolvedSettings current = resolvedSettings;
+        if (current != null && current.configuration() == configuration) {
+            return current;
+        }
+        AuthenticationProvider provider = providerFactory.create(configuration);
+        Properties properties = provider.buildProperties(configuration);
+        properties.putIfAbsent("databaseName", configuration.database());
+        String jdbcUrl = buildJdbcUrl(configuration);
+        log.log(Level.INFO, "Prepared JDBC settings for {0} using provider {1}", new Object[]{jdbcUrl, provider.getName()});
+        ResolvedSettings resolved = new ResolvedSettings(configuration, provider, jdbcUrl, properties);
+        resolvedSettings = resolved;
+        return resolved;
+    }
+
+    private Connection connect(String jdbcUrl, Properties properties) {
         try {
             return connector.connect(jdbcUrl, properties);
         } catch (SQLException sqlException) {
@@ -160,21 +199,23 @@ public class ConnectionFactory implements AutoCloseable {
     }
 
     /**
-     * Принудительно закрывает пул соединений для переподключения.
+     * Принудительно сбрасывает пул соединений для переподключения.
      * <p>
      * После вызова этого метода, при следующем создании соединения пул будет
      * пересоздан с актуальной конфигурацией из {@link DatabaseConfigurationService}.
+     * Уже выданные соединения старого пула дорабатывают (см. {@link JdbcConnector#reset()}).
      * </p>
      * <p>
      * Используется для динамического переподключения без перезапуска приложения.
      * </p>
      */
     public void reloadConnectionPool() {
+        resolvedSettings = null;
         try {
-            connector.close();
-            log.log(Level.INFO, "Connection pool closed, will be recreated on next connection");
+            connector.reset();
+            log.log(Level.INFO, "Connection pool retired, will be recreated on next connection");
         } catch (Exception exception) {
-            log.log(Level.WARNING, "Failed to close connection pool for reload", exception);
+            log.log(Level.WARNING, "Failed to reset connection pool for reload", exception);
         }
     }
 
@@ -188,4 +229,15 @@ public class ConnectionFactory implements AutoCloseable {
             }
         }
     }
+
+    /**
+     * Подготовленные параметры подключения для конкретного экземпляра конфигурации.
+     * Свойства не изменяются после создания.
+     */
+    private record ResolvedSettings(
+            DatabaseConfigurationProperties configuration,
+            AuthenticationProvider provider,
+            String jdbcUrl,
+            Properties properties) {
+    }
 }
@@ -81,13 +81,14 @@ public class ConnectionManager {
         testConnection(newConfig);
         log.log(Level.INFO, "Connection test successful");
 
-        // 3. Сохранение конфигурации в файл
+        // 3. Сохранение конфигурации в файл и публикация нового snapshot
         configurationService.saveConfig(newConfig);
-        log.log(Level.INFO, "Configuration saved to file");
+        configurationService.refresh();
+        log.log(Level.INFO, "Configuration saved to file, version {0}", configurationService.getConfigurationVersion());
 
         // 4. Закрытие старых соединений в пуле
         // При следующем вызове createConnection() пул пересоздастся автоматически
-        // благодаря механизму HikariJdbcConnector.ensureDataSource()
+        // благодаря механизму HikariJdbcConnector.ensurePool(); выданные соединения старого пула дорабатывают
         connectionFactory.reloadConnectionPool();
         log.log(Level.INFO, "Old connections closed, pool will be recreated on next connection");
     }
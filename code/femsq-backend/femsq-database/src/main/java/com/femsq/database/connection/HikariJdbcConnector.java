@@ -2,67 +2,121 @@ package com.femsq.database.connection;
 
 import com.zaxxer.hikari.HikariConfig;
 import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
 import java.sql.Connection;
 import java.sql.SQLException;
 import java.util.Objects;
 import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 /**
  * JDBC connector backed by {@link HikariDataSource}. Reconfigures the pool when JDBC URL or
  * connection properties change.
+ * <p>
+ * Текущий пул публикуется атомарно вместе с отпечатком параметров (URL и свойства): выдача соединения
+ * при неизменной конфигурации — чтение {@link AtomicReference} без блокировок. Пересборка идёт
+ * через compare-and-swap; вытесненный пул не закрывается сразу, а «стекает»: простаивающие соединения
+ * закрываются немедленно, выданные — возвращаются и закрываются, после чего (или по истечении
+ * {@link HikariPoolSettings#drainTimeout()}) пул закрывается в фоновом потоке.
+ * </p>
+ * <p>
+ * Каждый пул получает собственное имя {@code FEMSQ-HikariPool-<поколение>}, чтобы метрики старого и
+ * нового пулов не конфликтовали в общем реестре на время стекания.
+ * </p>
  */
 public class HikariJdbcConnector implements JdbcConnector {
 
     private static final Logger log = Logger.getLogger(HikariJdbcConnector.class.getName());
 
-    private final Object poolLock = new Object();
-    private HikariDataSource dataSource;
-    private String currentJdbcUrl;
-    private Properties currentProperties;
+    private static final String POOL_NAME_PREFIX = "FEMSQ-HikariPool-";
+    private static final long DRAIN_POLL_MILLIS = 250;
+
+    private final HikariPoolSettings settings;
+    private final AtomicReference<PoolState> state = new AtomicReference<>();
+    private final AtomicLong generationSequence = new AtomicLong();
+    /** Сериализует только медленный путь, чтобы одновременные первые запросы не открывали несколько пулов. */
+    private final Object rebuildLock = new Object();
+    private final Set<HikariDataSource> drainingPools = ConcurrentHashMap.newKeySet();
+
+    public HikariJdbcConnector() {
+        this(HikariPoolSettings.defaults());
+    }
+
+    /**
+     * @param settings размер пула, время стекания старого пула и реестр метрик
+     */
+    public HikariJdbcConnector(HikariPoolSettings settings) {
+        this.settings = Objects.requireNonNull(settings, "settings");
+    }
 
     @Override
     public Connection connect(String url, Properties properties) throws SQLException {
         Objects.requireNonNull(url, "url");
         Objects.requireNonNull(properties, "properties");
-        ensureDataSource(url, properties);
-        return dataSource.getConnection();
-    }
-
-    private void ensureDataSource(String url, Properties properties) {
-        synchronized (poolLock) {
-            if (requiresRebuild(url, properties)) {
-                closeQuietly();
-                HikariConfig config = buildConfig(url, properties);
-                dataSource = new HikariDataSource(config);
-                currentJdbcUrl = url;
-                currentProperties = copyProperties(properties);
-                log.log(Level.INFO, "Initialized Hikari pool for {0}", url);
+        while (true) {
+            PoolState pool = ensurePool(url, properties);
+            try {
+                return pool.dataSource().getConnection();
+            } catch (SQLException exception) {
+                // Пул мог быть вытеснен и закрыт между чтением ссылки и выдачей соединения — берём актуальный.
+                if (!pool.dataSource().isClosed() || state.get() == pool) {
+                    throw exception;
+                }
             }
         }
     }
 
-    private boolean requiresRebuild(String url, Properties properties) {
-        if (dataSource == null) {
-            return true;
+    private PoolState ensurePool(String url, Properties properties) {
+        PoolState current = state.get();
+        if (current != null && current.matches(url, properties)) {
+            return current;
         }
-        if (!Objects.equals(currentJdbcUrl, url)) {
-            return true;
+        synchronized (rebuildLock) {
+            while (true) {
+                current = state.get();
+                if (current != null && current.matches(url, properties)) {
+                    return current;
+                }
+                PoolState candidate = createPool(url, properties);
+                if (state.compareAndSet(current, candidate)) {
+                    log.log(Level.INFO, "Initialized Hikari pool {0} for {1}",
+                            new Object[]{candidate.dataSource().getPoolName(), url});
+                    if (current != null) {
+                        retire(current);
+                    }
+                    return candidate;
+                }
+                // Состояние изменил close()/reset() — новый пул не нужен, пробуем снова.
+                closeQuietly(candidate.dataSource());
+            }
         }
-        return !properties.equals(currentProperties);
     }
 
-    private HikariConfig buildConfig(String url, Properties properties) {
+    private PoolState createPool(String url, Properties properties) {
+        long generation = generationSequence.incrementAndGet();
+        HikariDataSource dataSource = new HikariDataSource(buildConfig(url, properties, generation));
+        return new PoolState(dataSource, url, properties, copyProperties(properties));
+    }
+
+    private HikariConfig buildConfig(String url, Properties properties, long generation) {
         HikariConfig config = new HikariConfig();
         config.setJdbcUrl(url);
-        config.setMaximumPoolSize(10);
-        config.setMinimumIdle(2);
-        config.setPoolName("FEMSQ-HikariPool");
+        config.setMaximumPoolSize(settings.maximumPoolSize());
+        config.setMinimumIdle(settings.minimumIdle());
+        config.setPoolName(POOL_NAME_PREFIX + generation);
         config.setConnectionTimeout(10_000);
         config.setValidationTimeout(5_000);
         config.setIdleTimeout(600_000);
         config.setMaxLifetime(1_800_000);
+        if (settings.metricRegistry() != null) {
+            config.setMetricRegistry(settings.metricRegistry());
+        }
 
         properties.forEach((key, value) -> {
             String propertyKey = (String) key;
@@ -84,23 +138,102 @@ public class HikariJdbcConnector implements JdbcConnector {
         return copy;
     }
 
-    private void closeQuietly() {
-        if (dataSource != null) {
-            try {
-                dataSource.close();
-            } catch (Exception ignored) {
-                // Игнорируем исключения при закрытии пула
+    /**
+     * Выводит пул из обращения: новые соединения он больше не выдаёт, выданные дорабатывают.
+     */
+    private void retire(PoolState pool) {
+        HikariDataSource dataSource = pool.dataSource();
+        drainingPools.add(dataSource);
+        HikariPoolMXBean poolBean = dataSource.getHikariPoolMXBean();
+        if (poolBean != null) {
+            poolBean.softEvictConnections();
+        }
+        Thread.ofVirtual()
+                .name("femsq-pool-drain-" + dataSource.getPoolName())
+                .start(() -> drain(dataSource));
+    }
+
+    private void drain(HikariDataSource dataSource) {
+        long deadline = System.nanoTime() + settings.drainTimeout().toNanos();
+        try {
+            while (activeConnections(dataSource) > 0 && System.nanoTime() < deadline) {
+                TimeUnit.MILLISECONDS.sleep(DRAIN_POLL_MILLIS);
             }
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+        int stillActive = activeConnections(dataSource);
+        if (stillActive > 0) {
+            log.log(Level.WARNING, "Closing Hikari pool {0} with {1} connection(s) still in use after drain timeout",
+                    new Object[]{dataSource.getPoolName(), stillActive});
+        } else {
+            log.log(Level.INFO, "Hikari pool {0} drained and closed", dataSource.getPoolName());
+        }
+        drainingPools.remove(dataSource);
+        closeQuietly(dataSource);
+    }
+
+    private int activeConnections(HikariDataSource dataSource) {
+        HikariPoolMXBean poolBean = dataSource.getHikariPoolMXBean();
+        return poolBean == null || dataSource.isClosed() ? 0 : poolBean.getActiveConnections();
+    }
+
+    private void closeQuietly(HikariDataSource dataSource) {
+        try {
+            dataSource.close();
+        } catch (Exception ignored) {
+            // Игнорируем исключения при закрытии пула
+        }
+    }
+
+    /**
+     * Вытесняет текущий пул без обрыва выданных соединений; следующее подключение создаст новый пул.
+     */
+    @Override
+    public void reset() {
+        PoolState previous = state.getAndSet(null);
+        if (previous != null) {
+            retire(previous);
         }
     }
 
     @Override
     public void close() {
-        synchronized (poolLock) {
-            closeQuietly();
-            dataSource = null;
-            currentJdbcUrl = null;
-            currentProperties = null;
+        PoolState previous = state.getAndSet(null);
+        if (previous != null) {
+            closeQuietly(previous.dataSource());
+        }
+        for (HikariDataSource draining : drainingPools) {
+            drainingPools.remove(draining);
+            closeQuietly(draining);
+        }
+    }
+
+    /**
+     * @return имя текущего пула или {@code null}, если пул ещё не создан
+     */
+    String currentPoolName() {
+        PoolState current = state.get();
+        return current == null ? null : current.dataSource().getPoolName();
+    }
+
+    /**
+     * @return число вытесненных пулов, ожидающих возврата соединений
+     */
+    int drainingPoolCount() {
+        return drainingPools.size();
+    }
+
+    /**
+     * Опубликованный пул и отпечаток параметров, с которыми он создан.
+     *
+     * @param source ссылка на исходные свойства — быстрый путь для вызывающих, кэширующих {@link Properties}
+     * @param copy   копия свойств для сравнения по значению
+     */
+    private record PoolState(HikariDataSource dataSource, String url, Properties source, Properties copy) {
+
+        boolean matches(String otherUrl, Properties properties) {
+            return url.equals(otherUrl) && (properties == source || properties.equals(copy));
         }
     }
 }
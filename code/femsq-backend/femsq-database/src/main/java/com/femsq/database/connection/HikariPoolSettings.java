@@ -0,0 +1,39 @@
+package com.femsq.database.connection;
+
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * Параметры пула HikariCP, не зависящие от файла конфигурации подключения.
+ *
+ * @param maximumPoolSize максимальное число соединений в пуле
+ * @param minimumIdle     минимальное число простаивающих соединений
+ * @param drainTimeout    сколько ждать возврата выданных соединений старого пула после его замены
+ * @param metricRegistry  реестр метрик для HikariCP (например, Micrometer {@code MeterRegistry}); может быть {@code null}
+ */
+public record HikariPoolSettings(int maximumPoolSize, int minimumIdle, Duration drainTimeout, Object metricRegistry) {
+
+    public static final int DEFAULT_MAXIMUM_POOL_SIZE = 10;
+    public static final int DEFAULT_MINIMUM_IDLE = 2;
+    public static final Duration DEFAULT_DRAIN_TIMEOUT = Duration.ofSeconds(30);
+
+    public HikariPoolSettings {
+        if (maximumPoolSize < 1) {
+            throw new IllegalArgumentException("maximumPoolSize must be positive: " + maximumPoolSize);
+        }
+        if (minimumIdle < 0 || minimumIdle > maximumPoolSize) {
+            throw new IllegalArgumentException("minimumIdle must be within [0, " + maximumPoolSize + "]: " + minimumIdle);
+        }
+        Objects.requireNonNull(drainTimeout, "drainTimeout");
+        if (drainTimeout.isNegative()) {
+            throw new IllegalArgumentException("drainTimeout must not be negative: " + drainTimeout);
+        }
+    }
+
+    /**
+     * @return параметры, совпадающие с прежними жёстко заданными значениями, без метрик
+     */
+    public static HikariPoolSettings defaults() {
+        return new HikariPoolSettings(DEFAULT_MAXIMUM_POOL_SIZE, DEFAULT_MINIMUM_IDLE, DEFAULT_DRAIN_TIMEOUT, null);
+    }
+}
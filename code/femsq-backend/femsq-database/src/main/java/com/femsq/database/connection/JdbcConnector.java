@@ -19,6 +19,14 @@ public interface JdbcConnector extends AutoCloseable {
      */
     Connection connect(String url, Properties properties) throws SQLException;
 
+    /**
+     * Сбрасывает накопленные соединения, чтобы следующее подключение открывалось с нуля
+     * (например, после смены конфигурации). По умолчанию равносильно {@link #close()}.
+     */
+    default void reset() {
+        close();
+    }
+
     @Override
     default void close() {
         // По умолчанию закрывать нечего
@@ -13,6 +13,14 @@ public interface CnNumDao {
      */
     List<CnNum> findAll();
 
+    /**
+     * Keyset-страница номеров в порядке {@code cnnNum, cnnKey}.
+     *
+     * @param afterCnnKey ключ последнего номера предыдущей страницы или {@code null} для первой страницы
+     * @param limit максимальное количество записей
+     */
+    List<CnNum> findPageAfter(Integer afterCnnKey, int limit);
+
     /**
      * Номера, привязанные к договору.
      */
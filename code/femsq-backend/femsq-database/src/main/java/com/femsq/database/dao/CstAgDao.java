@@ -2,6 +2,7 @@ package com.femsq.database.dao;
 
 import com.femsq.database.exception.DaoException;
 import com.femsq.database.model.CstAg;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -20,6 +21,11 @@ public interface CstAgDao {
      */
     List<CstAg> findByCst(int cstKey);
 
+    /**
+     * Возвращает агентов нескольких строек одним запросом {@code IN} (не больше 2000 ключей за вызов).
+     */
+    List<CstAg> findByCsts(Collection<Integer> cstKeys);
+
     /**
      * Создаёт запись {@code cstAg}.
      *
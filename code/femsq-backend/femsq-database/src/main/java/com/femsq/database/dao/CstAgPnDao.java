@@ -4,6 +4,7 @@ import com.femsq.database.exception.DaoException;
 import com.femsq.database.model.CstAgPn;
 import com.femsq.database.model.CstAgPnCode;
 import com.femsq.database.model.CstAgPnSiteLookup;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -22,6 +23,11 @@ public interface CstAgPnDao {
      */
     List<CstAgPn> findByCstAg(int cstaKey);
 
+    /**
+     * Возвращает САК нескольких агентов стройки одним запросом {@code IN} (не больше 2000 ключей за вызов).
+     */
+    List<CstAgPn> findByCstAgs(Collection<Integer> cstaKeys);
+
     /**
      * Список САК с ключом стройки для формы поиска по коду (как Access {@code cstAgPn}).
      *
@@ -20,6 +20,14 @@ public interface CstDao {
      */
     List<Cst> findAll();
 
+    /**
+     * Keyset-страница строек в порядке {@code cstName, cstKey}.
+     *
+     * @param afterCstKey ключ последней стройки предыдущей страницы или {@code null} для первой страницы
+     * @param limit максимальное количество записей
+     */
+    List<Cst> findPageAfter(Integer afterCstKey, int limit);
+
     /**
      * Создаёт стройку.
      *
@@ -31,6 +31,20 @@ public interface IpgChainDao {
      */
     List<IpgChain> findAll(int page, int size, String sortField, String sortDirection, String nameFilter, Integer yearFilter);
 
+    /**
+     * Keyset-страница цепочек: записи строго после цепочки {@code afterChainKey} в порядке
+     * {@code sortField, ipgcKey}. Цена запроса не зависит от глубины страницы.
+     *
+     * @param afterChainKey ключ последней записи предыдущей страницы или {@code null} для первой страницы
+     * @param limit         максимальное количество записей
+     * @param sortField     поле сортировки
+     * @param sortDirection направление сортировки (ASC/DESC)
+     * @param nameFilter    фильтр по наименованию (LIKE %value%)
+     * @param yearFilter    фильтр по году (точное совпадение)
+     */
+    List<IpgChain> findPageAfter(Integer afterChainKey, int limit, String sortField, String sortDirection,
+                                 String nameFilter, Integer yearFilter);
+
     /**
      * Подсчитывает количество записей с учетом фильтров.
      */
@@ -1,6 +1,8 @@
 package com.femsq.database.dao;
 
+import com.femsq.database.config.ConfigurationBoundValue;
 import com.femsq.database.config.DatabaseConfigurationService;
+import com.femsq.database.config.DatabaseConfigurationService.DatabaseConfigurationProperties;
 import com.femsq.database.connection.ConnectionFactory;
 import com.femsq.database.exception.DaoException;
 import com.femsq.database.model.Cn;
@@ -24,25 +26,31 @@ public class JdbcCnDao implements CnDao {
 
     private final ConnectionFactory connectionFactory;
     private final DatabaseConfigurationService configurationService;
+    private final ConfigurationBoundValue<String> tableNameValue;
 
     public JdbcCnDao(ConnectionFactory connectionFactory, DatabaseConfigurationService configurationService) {
         this.connectionFactory = Objects.requireNonNull(connectionFactory, "connectionFactory");
         this.configurationService = Objects.requireNonNull(configurationService, "configurationService");
+        this.tableNameValue = new ConfigurationBoundValue<>(this.configurationService, this::tableNameOf);
     }
 
     private String tableName() {
         try {
-            String schema = configurationService.loadConfig().schema();
-            if (schema == null || schema.trim().isEmpty()) {
-                return "ags.cn";
-            }
-            return schema.trim() + ".cn";
+            return tableNameValue.get();
         } catch (DatabaseConfigurationService.MissingConfigurationException exception) {
             log.log(Level.WARNING, "Configuration not found, using ags.cn", exception);
             return "ags.cn";
         }
     }
 
+    private String tableNameOf(DatabaseConfigurationProperties configuration) {
+        String schema = configuration.schema();
+        if (schema == null || schema.trim().isEmpty()) {
+            return "ags.cn";
+        }
+        return schema.trim() + ".cn";
+    }
+
     @Override
     public Optional<Cn> findById(int cnKey) {
         String sql = "SELECT cn_key, cn_number, cn_date, cn_note, cnMark FROM " + tableName() + " WHERE cn_key = ?";
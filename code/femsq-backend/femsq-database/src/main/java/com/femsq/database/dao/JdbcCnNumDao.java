@@ -1,6 +1,8 @@
 package com.femsq.database.dao;
 
+import com.femsq.database.config.ConfigurationBoundValue;
 import com.femsq.database.config.DatabaseConfigurationService;
+import com.femsq.database.config.DatabaseConfigurationService.DatabaseConfigurationProperties;
 import com.femsq.database.connection.ConnectionFactory;
 import com.femsq.database.exception.DaoException;
 import com.femsq.database.model.CnNum;
@@ -20,28 +22,35 @@ import java.util.logging.Logger;
 public class JdbcCnNumDao implements CnNumDao {
 
     private static final Logger log = Logger.getLogger(JdbcCnNumDao.class.getName());
+    private static final KeysetSeek PAGE_SEEK = new KeysetSeek("n", "cnnKey", "cnnNum", false);
 
     private final ConnectionFactory connectionFactory;
     private final DatabaseConfigurationService configurationService;
+    private final ConfigurationBoundValue<String> schemaValue;
 
     public JdbcCnNumDao(ConnectionFactory connectionFactory, DatabaseConfigurationService configurationService) {
         this.connectionFactory = Objects.requireNonNull(connectionFactory, "connectionFactory");
         this.configurationService = Objects.requireNonNull(configurationService, "configurationService");
+        this.schemaValue = new ConfigurationBoundValue<>(this.configurationService, this::schemaOf);
     }
 
     private String schema() {
         try {
-            String schema = configurationService.loadConfig().schema();
-            if (schema == null || schema.trim().isEmpty()) {
-                return "ags";
-            }
-            return schema.trim();
+            return schemaValue.get();
         } catch (DatabaseConfigurationService.MissingConfigurationException exception) {
             log.log(Level.WARNING, "Configuration not found, using schema ags", exception);
             return "ags";
         }
     }
 
+    private String schemaOf(DatabaseConfigurationProperties configuration) {
+        String schema = configuration.schema();
+        if (schema == null || schema.trim().isEmpty()) {
+            return "ags";
+        }
+        return schema.trim();
+    }
+
     private String selectSql(String whereClause) {
         String s = schema();
         return "SELECT n.cnnKey, n.cnnNum, n.cnnCn, n.cnnType, t.cnntName, n.cnnNote "
@@ -65,6 +74,39 @@ public class JdbcCnNumDao implements CnNumDao {
         return query(sql, cnKey);
     }
 
+    @Override
+    public List<CnNum> findPageAfter(Integer afterCnnKey, int limit) {
+        String s = schema();
+        String sql = "SELECT TOP (?) n.cnnKey, n.cnnNum, n.cnnCn, n.cnnType, t.cnntName, n.cnnNote "
+                + "FROM " + s + ".cnNum AS n "
+                + "LEFT JOIN " + s + ".cnNumType AS t ON n.cnnType = t.cnntKey"
+                + (afterCnnKey != null
+                        ? PAGE_SEEK.anchorJoin(s + ".cnNum") + " WHERE " + PAGE_SEEK.condition()
+                        : "")
+                + PAGE_SEEK.orderBy();
+        log.log(Level.FINE, "Executing CnNum.findPageAfter after={0}", afterCnnKey);
+        try (Connection connection = connectionFactory.createConnection();
+             PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setInt(1, limit);
+            if (afterCnnKey != null) {
+                int index = PAGE_SEEK.bindAnchor(statement, 2, afterCnnKey);
+                PAGE_SEEK.bindCondition(statement, index, afterCnnKey);
+            }
+            try (ResultSet resultSet = statement.executeQuery()) {
+                List<CnNum> result = new ArrayList<>();
+                while (resultSet.next()) {
+                    result.add(mapRow(resultSet));
+                }
+                return result;
+            }
+        } catch (DatabaseConfigurationService.MissingConfigurationException exception) {
+            throw exception;
+        } catch (SQLException exception) {
+            log.log(Level.SEVERE, "Failed to query cnNum page", exception);
+            throw new DaoException("Не удалось прочитать страницу номеров договоров", exception);
+        }
+    }
+
     private List<CnNum> query(String sql, Integer cnKey) {
         try (Connection connection = connectionFactory.createConnection();
              PreparedStatement statement = connection.prepareStatement(sql)) {
@@ -1,6 +1,8 @@
 package com.femsq.database.dao;
 
+import com.femsq.database.config.ConfigurationBoundValue;
 import com.femsq.database.config.DatabaseConfigurationService;
+import com.femsq.database.config.DatabaseConfigurationService.DatabaseConfigurationProperties;
 import com.femsq.database.connection.ConnectionFactory;
 import com.femsq.database.exception.DaoException;
 import com.femsq.database.model.CnS;
@@ -25,25 +27,31 @@ public class JdbcCnSDao implements CnSDao {
 
     private final ConnectionFactory connectionFactory;
     private final DatabaseConfigurationService configurationService;
+    private final ConfigurationBoundValue<String> schemaPrefixValue;
 
     public JdbcCnSDao(ConnectionFactory connectionFactory, DatabaseConfigurationService configurationService) {
         this.connectionFactory = Objects.requireNonNull(connectionFactory, "connectionFactory");
         this.configurationService = Objects.requireNonNull(configurationService, "configurationService");
+        this.schemaPrefixValue = new ConfigurationBoundValue<>(this.configurationService, this::schemaPrefixOf);
     }
 
     private String schemaPrefix() {
         try {
-            String schema = configurationService.loadConfig().schema();
-            if (schema == null || schema.isBlank()) {
-                return "ags.";
-            }
-            return schema.trim() + ".";
+            return schemaPrefixValue.get();
         } catch (DatabaseConfigurationService.MissingConfigurationException exception) {
             log.log(Level.WARNING, "Configuration missing for cn_s, fallback ags.", exception);
             return "ags.";
         }
     }
 
+    private String schemaPrefixOf(DatabaseConfigurationProperties configuration) {
+        String schema = configuration.schema();
+        if (schema == null || schema.isBlank()) {
+            return "ags.";
+        }
+        return schema.trim() + ".";
+    }
+
     private String tableName() {
         return schemaPrefix() + "cn_s";
     }
@@ -1,6 +1,8 @@
 package com.femsq.database.dao;
 
+import com.femsq.database.config.ConfigurationBoundValue;
 import com.femsq.database.config.DatabaseConfigurationService;
+import com.femsq.database.config.DatabaseConfigurationService.DatabaseConfigurationProperties;
 import com.femsq.database.connection.ConnectionFactory;
 import com.femsq.database.exception.DaoException;
 import com.femsq.database.model.CstAg;
@@ -11,9 +13,11 @@ import java.sql.SQLException;
 import java.sql.Statement;
 import java.sql.Types;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.StringJoiner;
 import java.util.UUID;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -29,26 +33,32 @@ public class JdbcCstAgDao implements CstAgDao {
 
     private final ConnectionFactory connectionFactory;
     private final DatabaseConfigurationService configurationService;
+    private final ConfigurationBoundValue<String> schemaPrefixValue;
 
     public JdbcCstAgDao(ConnectionFactory connectionFactory, DatabaseConfigurationService configurationService) {
         this.connectionFactory = Objects.requireNonNull(connectionFactory, "connectionFactory");
         this.configurationService = Objects.requireNonNull(configurationService, "configurationService");
+        this.schemaPrefixValue = new ConfigurationBoundValue<>(this.configurationService, this::schemaPrefixOf);
     }
 
     private String schemaPrefix() {
         try {
-            String schema = configurationService.loadConfig().schema();
-            if (schema == null || schema.trim().isEmpty()) {
-                log.log(Level.WARNING, "Schema not configured, using default schema 'ags'");
-                return "ags.";
-            }
-            return schema + ".";
+            return schemaPrefixValue.get();
         } catch (DatabaseConfigurationService.MissingConfigurationException exception) {
             log.log(Level.WARNING, "Configuration not found, using default schema", exception);
             return "ags_test.";
         }
     }
 
+    private String schemaPrefixOf(DatabaseConfigurationProperties configuration) {
+        String schema = configuration.schema();
+        if (schema == null || schema.trim().isEmpty()) {
+            log.log(Level.WARNING, "Schema not configured, using default schema 'ags'");
+            return "ags.";
+        }
+        return schema + ".";
+    }
+
     private String getTableName() {
         return schemaPrefix() + TABLE_BASE_NAME;
     }
@@ -100,6 +110,36 @@ public class JdbcCstAgDao implements CstAgDao {
         }
     }
 
+    @Override
+    public List<CstAg> findByCsts(Collection<Integer> cstKeys) {
+        if (cstKeys == null || cstKeys.isEmpty()) {
+            return List.of();
+        }
+        StringJoiner placeholders = new StringJoiner(", ");
+        cstKeys.forEach(key -> placeholders.add("?"));
+        String sql = selectWithLabel() + " WHERE a.cstaCst IN (" + placeholders + ") ORDER BY a.cstaCst, l.ogaNm, a.cstaKey";
+        log.fine(() -> "Executing findByCsts for keys=" + cstKeys);
+        try (Connection connection = connectionFactory.createConnection();
+             PreparedStatement statement = connection.prepareStatement(sql)) {
+            int index = 1;
+            for (Integer key : cstKeys) {
+                statement.setInt(index++, key);
+            }
+            try (ResultSet resultSet = statement.executeQuery()) {
+                List<CstAg> result = new ArrayList<>();
+                while (resultSet.next()) {
+                    result.add(mapRow(resultSet));
+                }
+                return List.copyOf(result);
+            }
+        } catch (DatabaseConfigurationService.MissingConfigurationException exception) {
+            throw exception;
+        } catch (SQLException exception) {
+            log.log(Level.SEVERE, "Failed to execute findByCsts for cstAg", exception);
+            throw new DaoException("Не удалось получить агентов строек", exception);
+        }
+    }
+
     @Override
     public CstAg create(CstAg agent) {
         Objects.requireNonNull(agent, "agent");
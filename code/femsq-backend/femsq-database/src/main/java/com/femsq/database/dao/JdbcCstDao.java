@@ -1,6 +1,8 @@
 package com.femsq.database.dao;
 
+import com.femsq.database.config.ConfigurationBoundValue;
 import com.femsq.database.config.DatabaseConfigurationService;
+import com.femsq.database.config.DatabaseConfigurationService.DatabaseConfigurationProperties;
 import com.femsq.database.connection.ConnectionFactory;
 import com.femsq.database.exception.DaoException;
 import com.femsq.database.model.Cst;
@@ -26,29 +28,36 @@ public class JdbcCstDao implements CstDao {
     private static final Logger log = Logger.getLogger(JdbcCstDao.class.getName());
     private static final String TABLE_BASE_NAME = "cst";
     private static final String COLUMNS = "cstKey, cstName, cstBusSgm, cstOidOld, cstMark";
+    private static final KeysetSeek PAGE_SEEK = new KeysetSeek(null, "cstKey", "cstName", false);
 
     private final ConnectionFactory connectionFactory;
     private final DatabaseConfigurationService configurationService;
+    private final ConfigurationBoundValue<String> tableNameValue;
 
     public JdbcCstDao(ConnectionFactory connectionFactory, DatabaseConfigurationService configurationService) {
         this.connectionFactory = Objects.requireNonNull(connectionFactory, "connectionFactory");
         this.configurationService = Objects.requireNonNull(configurationService, "configurationService");
+        this.tableNameValue = new ConfigurationBoundValue<>(this.configurationService, this::tableNameOf);
     }
 
     private String getTableName() {
         try {
-            String schema = configurationService.loadConfig().schema();
-            if (schema == null || schema.trim().isEmpty()) {
-                log.log(Level.WARNING, "Schema not configured, using default schema 'ags'");
-                return "ags." + TABLE_BASE_NAME;
-            }
-            return schema + "." + TABLE_BASE_NAME;
+            return tableNameValue.get();
         } catch (DatabaseConfigurationService.MissingConfigurationException exception) {
             log.log(Level.WARNING, "Configuration not found, using default schema", exception);
             return "ags_test." + TABLE_BASE_NAME;
         }
     }
 
+    private String tableNameOf(DatabaseConfigurationProperties configuration) {
+        String schema = configuration.schema();
+        if (schema == null || schema.trim().isEmpty()) {
+            log.log(Level.WARNING, "Schema not configured, using default schema 'ags'");
+            return "ags." + TABLE_BASE_NAME;
+        }
+        return schema + "." + TABLE_BASE_NAME;
+    }
+
     @Override
     public Optional<Cst> findById(int cstKey) {
         String sql = "SELECT " + COLUMNS + " FROM " + getTableName() + " WHERE cstKey = ?";
@@ -90,6 +99,35 @@ public class JdbcCstDao implements CstDao {
         }
     }
 
+    @Override
+    public List<Cst> findPageAfter(Integer afterCstKey, int limit) {
+        String tableName = getTableName();
+        String sql = "SELECT TOP (?) " + COLUMNS + " FROM " + tableName
+                + (afterCstKey != null ? PAGE_SEEK.anchorJoin(tableName) + " WHERE " + PAGE_SEEK.condition() : "")
+                + PAGE_SEEK.orderBy();
+        log.log(Level.FINE, "Executing findPageAfter for cst after={0}", afterCstKey);
+        try (Connection connection = connectionFactory.createConnection();
+             PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setInt(1, limit);
+            if (afterCstKey != null) {
+                int index = PAGE_SEEK.bindAnchor(statement, 2, afterCstKey);
+                PAGE_SEEK.bindCondition(statement, index, afterCstKey);
+            }
+            try (ResultSet resultSet = statement.executeQuery()) {
+                List<Cst> result = new ArrayList<>();
+                while (resultSet.next()) {
+                    result.add(mapRow(resultSet));
+                }
+                return List.copyOf(result);
+            }
+        } catch (DatabaseConfigurationService.MissingConfigurationException exception) {
+            throw exception;
+        } catch (SQLException exception) {
+            log.log(Level.SEVERE, "Failed to execute findPageAfter for cst", exception);
+            throw new DaoException("Не удалось получить страницу строек", exception);
+        }
+    }
+
     @Override
     public Cst create(Cst site) {
         Objects.requireNonNull(site, "site");
@@ -1,6 +1,8 @@
 package com.femsq.database.dao;
 
+import com.femsq.database.config.ConfigurationBoundValue;
 import com.femsq.database.config.DatabaseConfigurationService;
+import com.femsq.database.config.DatabaseConfigurationService.DatabaseConfigurationProperties;
 import com.femsq.database.connection.ConnectionFactory;
 import com.femsq.database.exception.DaoException;
 import com.femsq.database.model.InvestmentPlanGroup;
@@ -21,26 +23,32 @@ public class JdbcInvestmentPlanGroupDao implements InvestmentPlanGroupDao {
 
     private final ConnectionFactory connectionFactory;
     private final DatabaseConfigurationService configurationService;
+    private final ConfigurationBoundValue<String> schemaValue;
 
     public JdbcInvestmentPlanGroupDao(ConnectionFactory connectionFactory, DatabaseConfigurationService configurationService) {
         this.connectionFactory = Objects.requireNonNull(connectionFactory, "connectionFactory");
         this.configurationService = Objects.requireNonNull(configurationService, "configurationService");
+        this.schemaValue = new ConfigurationBoundValue<>(this.configurationService, this::schemaOf);
     }
 
     private String resolveSchema() {
         try {
-            String schema = configurationService.loadConfig().schema();
-            if (schema == null || schema.trim().isEmpty()) {
-                log.log(Level.WARNING, "Schema not configured, using default schema 'ags'");
-                return "ags";
-            }
-            return schema.trim();
+            return schemaValue.get();
         } catch (DatabaseConfigurationService.MissingConfigurationException exception) {
             log.log(Level.WARNING, "Configuration not found, using default schema 'ags'", exception);
             return "ags";
         }
     }
 
+    private String schemaOf(DatabaseConfigurationProperties configuration) {
+        String schema = configuration.schema();
+        if (schema == null || schema.trim().isEmpty()) {
+            log.log(Level.WARNING, "Schema not configured, using default schema 'ags'");
+            return "ags";
+        }
+        return schema.trim();
+    }
+
     @Override
     public List<InvestmentPlanGroup> findAllWithDisplayName() {
         String schema = resolveSchema();
@@ -1,6 +1,8 @@
 package com.femsq.database.dao;
 
+import com.femsq.database.config.ConfigurationBoundValue;
 import com.femsq.database.config.DatabaseConfigurationService;
+import com.femsq.database.config.DatabaseConfigurationService.DatabaseConfigurationProperties;
 import com.femsq.database.connection.ConnectionFactory;
 import com.femsq.database.exception.DaoException;
 import com.femsq.database.model.IpgChain;
@@ -26,26 +28,32 @@ public class JdbcIpgChainDao implements IpgChainDao {
 
     private final ConnectionFactory connectionFactory;
     private final DatabaseConfigurationService configurationService;
+    private final ConfigurationBoundValue<String> schemaValue;
 
     public JdbcIpgChainDao(ConnectionFactory connectionFactory, DatabaseConfigurationService configurationService) {
         this.connectionFactory = Objects.requireNonNull(connectionFactory, "connectionFactory");
         this.configurationService = Objects.requireNonNull(configurationService, "configurationService");
+        this.schemaValue = new ConfigurationBoundValue<>(this.configurationService, this::schemaOf);
     }
 
     private String resolveSchema() {
         try {
-            String schema = configurationService.loadConfig().schema();
-            if (schema == null || schema.trim().isEmpty()) {
-                log.log(Level.WARNING, "Schema not configured, using default schema 'ags'");
-                return "ags";
-            }
-            return schema.trim();
+            return schemaValue.get();
         } catch (DatabaseConfigurationService.MissingConfigurationException exception) {
             log.log(Level.WARNING, "Configuration not found, using default schema 'ags'", exception);
             return "ags";
         }
     }
 
+    private String schemaOf(DatabaseConfigurationProperties configuration) {
+        String schema = configuration.schema();
+        if (schema == null || schema.trim().isEmpty()) {
+            log.log(Level.WARNING, "Schema not configured, using default schema 'ags'");
+            return "ags";
+        }
+        return schema.trim();
+    }
+
     private String getTableName() {
         return resolveSchema() + "." + TABLE_BASE_NAME;
     }
@@ -115,8 +123,11 @@ public class JdbcIpgChainDao implements IpgChainDao {
             sqlTypes.add(java.sql.Types.INTEGER);
         }
 
-        sql.append(" ORDER BY ").append(safeSortField).append(' ').append(safeSortDirection)
-                .append(" OFFSET ").append(offset).append(" ROWS FETCH NEXT ").append(size).append(" ROWS ONLY");
+        sql.append(" ORDER BY ").append(safeSortField).append(' ').append(safeSortDirection);
+        if (!"ipgcKey".equals(safeSortField)) {
+            sql.append(", ipgcKey");
+        }
+        sql.append(" OFFSET ").append(offset).append(" ROWS FETCH NEXT ").append(size).append(" ROWS ONLY");
 
         String finalSql = sql.toString();
         log.fine(() -> String.format("Executing paged findAll for ipgCh: page=%d, size=%d, sort=%s %s, filter=%s, year=%s",
@@ -149,6 +160,69 @@ public class JdbcIpgChainDao implements IpgChainDao {
         }
     }
 
+    @Override
+    public List<IpgChain> findPageAfter(Integer afterChainKey, int limit, String sortField, String sortDirection,
+                                        String nameFilter, Integer yearFilter) {
+        String safeSortField = validateSortField(sortField);
+        KeysetSeek seek = new KeysetSeek(null, "ipgcKey", safeSortField, "desc".equalsIgnoreCase(sortDirection));
+        String tableName = getTableName();
+        StringBuilder sql = new StringBuilder("SELECT TOP (?) ipgcKey, ipgcName, ipgcStNetIpg, ipgcIpgLate, ipgcYyyy FROM ")
+                .append(tableName);
+        if (afterChainKey != null) {
+            sql.append(seek.anchorJoin(tableName));
+        }
+
+        String normalizedFilter = normalizeNameFilter(nameFilter);
+        List<String> conditions = new ArrayList<>();
+        if (normalizedFilter != null) {
+            conditions.add("LOWER(ipgcName) LIKE ?");
+        }
+        if (yearFilter != null) {
+            conditions.add("ipgcYyyy = ?");
+        }
+        if (afterChainKey != null) {
+            conditions.add(seek.condition());
+        }
+        if (!conditions.isEmpty()) {
+            sql.append(" WHERE ").append(String.join(" AND ", conditions));
+        }
+        sql.append(seek.orderBy());
+
+        String finalSql = sql.toString();
+        log.fine(() -> String.format("Executing keyset findPageAfter for ipgCh: after=%s, limit=%d, sort=%s %s, filter=%s, year=%s",
+                afterChainKey, limit, safeSortField, sortDirection, normalizedFilter, yearFilter));
+        try (Connection connection = connectionFactory.createConnection();
+             PreparedStatement statement = connection.prepareStatement(finalSql)) {
+            int index = 1;
+            statement.setInt(index++, limit);
+            if (afterChainKey != null) {
+                index = seek.bindAnchor(statement, index, afterChainKey);
+            }
+            if (normalizedFilter != null) {
+                statement.setNString(index++, likePattern(normalizedFilter));
+            }
+            if (yearFilter != null) {
+                statement.setInt(index++, yearFilter);
+            }
+            if (afterChainKey != null) {
+                seek.bindCondition(statement, index, afterChainKey);
+            }
+            try (ResultSet resultSet = statement.executeQuery()) {
+                List<IpgChain> result = new ArrayList<>();
+                while (resultSet.next()) {
+                    result.add(mapChain(resultSet));
+                }
+                return List.copyOf(result);
+            }
+        } catch (DatabaseConfigurationService.MissingConfigurationException exception) {
+            throw exception;
+        } catch (SQLException exception) {
+            log.log(Level.SEVERE, "Failed to execute keyset findPageAfter", exception);
+            log.log(Level.SEVERE, "SQL: " + finalSql, exception);
+            throw new DaoException("Не удалось получить страницу цепочек", exception);
+        }
+    }
+
     @Override
     public long count(String nameFilter, Integer yearFilter) {
         StringBuilder sql = new StringBuilder("SELECT COUNT(*) FROM ").append(getTableName());
@@ -1,6 +1,8 @@
 package com.femsq.database.dao;
 
+import com.femsq.database.config.ConfigurationBoundValue;
 import com.femsq.database.config.DatabaseConfigurationService;
+import com.femsq.database.config.DatabaseConfigurationService.DatabaseConfigurationProperties;
 import com.femsq.database.connection.ConnectionFactory;
 import com.femsq.database.exception.DaoException;
 import com.femsq.database.model.OgAgCs;
@@ -24,26 +26,32 @@ public class JdbcOgAgCsDao implements OgAgCsDao {
 
     private final ConnectionFactory connectionFactory;
     private final DatabaseConfigurationService configurationService;
+    private final ConfigurationBoundValue<String> tableNameValue;
 
     public JdbcOgAgCsDao(ConnectionFactory connectionFactory, DatabaseConfigurationService configurationService) {
         this.connectionFactory = Objects.requireNonNull(connectionFactory, "connectionFactory");
         this.configurationService = Objects.requireNonNull(configurationService, "configurationService");
+        this.tableNameValue = new ConfigurationBoundValue<>(this.configurationService, this::tableNameOf);
     }
 
     private String getTableName() {
         try {
-            String schema = configurationService.loadConfig().schema();
-            if (schema == null || schema.trim().isEmpty()) {
-                log.log(Level.WARNING, "Schema not configured, using default schema 'ags'");
-                return "ags." + TABLE_BASE_NAME;
-            }
-            return schema + "." + TABLE_BASE_NAME;
+            return tableNameValue.get();
         } catch (DatabaseConfigurationService.MissingConfigurationException exception) {
             log.log(Level.WARNING, "Configuration not found, using default schema", exception);
             return "ags_test." + TABLE_BASE_NAME;
         }
     }
 
+    private String tableNameOf(DatabaseConfigurationProperties configuration) {
+        String schema = configuration.schema();
+        if (schema == null || schema.trim().isEmpty()) {
+            log.log(Level.WARNING, "Schema not configured, using default schema 'ags'");
+            return "ags." + TABLE_BASE_NAME;
+        }
+        return schema + "." + TABLE_BASE_NAME;
+    }
+
     @Override
     public List<OgAgCs> findAll() {
         String sql = "SELECT ogaKey, ogaNm FROM " + getTableName() + " ORDER BY ogaNm";
@@ -1,6 +1,8 @@
 package com.femsq.database.dao;
 
+import com.femsq.database.config.ConfigurationBoundValue;
 import com.femsq.database.config.DatabaseConfigurationService;
+import com.femsq.database.config.DatabaseConfigurationService.DatabaseConfigurationProperties;
 import com.femsq.database.connection.ConnectionFactory;
 import com.femsq.database.exception.DaoException;
 import com.femsq.database.model.OgAg;
@@ -11,9 +13,11 @@ import java.sql.SQLException;
 import java.sql.Statement;
 import java.sql.Types;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.StringJoiner;
 import java.util.UUID;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -28,10 +32,12 @@ public class JdbcOgAgDao implements OgAgDao {
 
     private final ConnectionFactory connectionFactory;
     private final DatabaseConfigurationService configurationService;
+    private final ConfigurationBoundValue<String> tableNameValue;
 
     public JdbcOgAgDao(ConnectionFactory connectionFactory, DatabaseConfigurationService configurationService) {
         this.connectionFactory = Objects.requireNonNull(connectionFactory, "connectionFactory");
         this.configurationService = Objects.requireNonNull(configurationService, "configurationService");
+        this.tableNameValue = new ConfigurationBoundValue<>(this.configurationService, this::tableNameOf);
     }
 
     /**
@@ -41,19 +47,23 @@ public class JdbcOgAgDao implements OgAgDao {
      */
     private String getTableName() {
         try {
-            String schema = configurationService.loadConfig().schema();
-            // Если схема не указана (null), используем дефолтную схему "ags"
-            if (schema == null || schema.trim().isEmpty()) {
-                log.log(Level.WARNING, "Schema not configured, using default schema 'ags'");
-                return "ags." + TABLE_BASE_NAME;
-            }
-            return schema + "." + TABLE_BASE_NAME;
+            return tableNameValue.get();
         } catch (DatabaseConfigurationService.MissingConfigurationException exception) {
             log.log(Level.WARNING, "Configuration not found, using default schema", exception);
             return "ags_test." + TABLE_BASE_NAME;
         }
     }
 
+    private String tableNameOf(DatabaseConfigurationProperties configuration) {
+        String schema = configuration.schema();
+        // Если схема не указана (null), используем дефолтную схему "ags"
+        if (schema == null || schema.trim().isEmpty()) {
+            log.log(Level.WARNING, "Schema not configured, using default schema 'ags'");
+            return "ags." + TABLE_BASE_NAME;
+        }
+        return schema + "." + TABLE_BASE_NAME;
+    }
+
     @Override
     public Optional<OgAg> findById(int ogAgKey) {
         String sql = "SELECT ogaKey, ogaCode, ogaOg, ogaOidOld FROM " + getTableName() + " WHERE ogaKey = ?";
@@ -99,6 +109,37 @@ public class JdbcOgAgDao implements OgAgDao {
         }
     }
 
+    @Override
+    public List<OgAg> findByOrganizations(Collection<Integer> organizationKeys) {
+        if (organizationKeys == null || organizationKeys.isEmpty()) {
+            return List.of();
+        }
+        StringJoiner placeholders = new StringJoiner(", ");
+        organizationKeys.forEach(key -> placeholders.add("?"));
+        String sql = "SELECT ogaKey, ogaCode, ogaOg, ogaOidOld FROM " + getTableName()
+                + " WHERE ogaOg IN (" + placeholders + ") ORDER BY ogaOg, ogaKey";
+        log.fine(() -> "Executing findByOrganizations for keys=" + organizationKeys);
+        try (Connection connection = connectionFactory.createConnection();
+             PreparedStatement statement = connection.prepareStatement(sql)) {
+            int index = 1;
+            for (Integer key : organizationKeys) {
+                statement.setInt(index++, key);
+            }
+            try (ResultSet resultSet = statement.executeQuery()) {
+                List<OgAg> agents = new ArrayList<>();
+                while (resultSet.next()) {
+                    agents.add(mapOgAg(resultSet));
+                }
+                return List.copyOf(agents);
+            }
+        } catch (DatabaseConfigurationService.MissingConfigurationException exception) {
+            throw exception;
+        } catch (SQLException exception) {
+            log.log(Level.SEVERE, "Failed to execute findByOrganizations", exception);
+            throw new DaoException("Не удалось получить агентские организации для организаций", exception);
+        }
+    }
+
     @Override
     public List<OgAg> findAll() {
         String sql = "SELECT ogaKey, ogaCode, ogaOg, ogaOidOld FROM " + getTableName() + " ORDER BY ogaKey";
@@ -117,6 +158,34 @@ public class JdbcOgAgDao implements OgAgDao {
         }
     }
 
+    @Override
+    public List<OgAg> findPageAfter(Integer afterOgAgKey, int limit) {
+        KeysetSeek seek = KeysetSeek.byKey(null, "ogaKey", false);
+        String sql = "SELECT TOP (?) ogaKey, ogaCode, ogaOg, ogaOidOld FROM " + getTableName()
+                + (afterOgAgKey != null ? " WHERE " + seek.condition() : "")
+                + seek.orderBy();
+        log.log(Level.FINE, "Executing findPageAfter for ogAg after={0}", afterOgAgKey);
+        try (Connection connection = connectionFactory.createConnection();
+             PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setInt(1, limit);
+            if (afterOgAgKey != null) {
+                seek.bindCondition(statement, 2, afterOgAgKey);
+            }
+            try (ResultSet resultSet = statement.executeQuery()) {
+                List<OgAg> agents = new ArrayList<>();
+                while (resultSet.next()) {
+                    agents.add(mapOgAg(resultSet));
+                }
+                return List.copyOf(agents);
+            }
+        } catch (DatabaseConfigurationService.MissingConfigurationException exception) {
+            throw exception;
+        } catch (SQLException exception) {
+            log.log(Level.SEVERE, "Failed to execute findPageAfter for ogAg", exception);
+            throw new DaoException("Не удалось получить страницу агентских организаций", exception);
+        }
+    }
+
     @Override
     public OgAg create(OgAg agent) {
         Objects.requireNonNull(agent, "agent");
@@ -1,6 +1,8 @@
 package com.femsq.database.dao;
 
+import com.femsq.database.config.ConfigurationBoundValue;
 import com.femsq.database.config.DatabaseConfigurationService;
+import com.femsq.database.config.DatabaseConfigurationService.DatabaseConfigurationProperties;
 import com.femsq.database.connection.ConnectionFactory;
 import com.femsq.database.exception.DaoException;
 import com.femsq.database.model.Og;
@@ -28,10 +30,12 @@ public class JdbcOgDao implements OgDao {
 
     private final ConnectionFactory connectionFactory;
     private final DatabaseConfigurationService configurationService;
+    private final ConfigurationBoundValue<String> tableNameValue;
 
     public JdbcOgDao(ConnectionFactory connectionFactory, DatabaseConfigurationService configurationService) {
         this.connectionFactory = Objects.requireNonNull(connectionFactory, "connectionFactory");
         this.configurationService = Objects.requireNonNull(configurationService, "configurationService");
+        this.tableNameValue = new ConfigurationBoundValue<>(this.configurationService, this::tableNameOf);
     }
 
     /**
@@ -41,19 +45,23 @@ public class JdbcOgDao implements OgDao {
      */
     private String getTableName() {
         try {
-            String schema = configurationService.loadConfig().schema();
-            // Если схема не указана (null), используем дефолтную схему "ags"
-            if (schema == null || schema.trim().isEmpty()) {
-                log.log(Level.WARNING, "Schema not configured, using default schema 'ags'");
-                return "ags." + TABLE_BASE_NAME;
-            }
-            return schema + "." + TABLE_BASE_NAME;
+            return tableNameValue.get();
         } catch (DatabaseConfigurationService.MissingConfigurationException exception) {
             log.log(Level.WARNING, "Configuration not found, using default schema", exception);
             return "ags_test." + TABLE_BASE_NAME;
         }
     }
 
+    private String tableNameOf(DatabaseConfigurationProperties configuration) {
+        String schema = configuration.schema();
+        // Если схема не указана (null), используем дефолтную схему "ags"
+        if (schema == null || schema.trim().isEmpty()) {
+            log.log(Level.WARNING, "Schema not configured, using default schema 'ags'");
+            return "ags." + TABLE_BASE_NAME;
+        }
+        return schema + "." + TABLE_BASE_NAME;
+    }
+
     @Override
     public Optional<Og> findById(int ogKey) {
         String sql = "SELECT ogKey, ogNm, ogNmOf, ogNmFl, ogTxt, ogINN, ogKPP, ogOGRN, ogOKPO, ogOE, ogRgTaxType "
@@ -111,8 +119,11 @@ public class JdbcOgDao implements OgDao {
         if (normalizedFilter != null) {
             sql.append(" WHERE LOWER(ogNm) LIKE ?");
         }
-        sql.append(" ORDER BY ").append(safeSortField).append(' ').append(safeSortDirection)
-                .append(" OFFSET ").append(offset).append(" ROWS FETCH NEXT ").append(size).append(" ROWS ONLY");
+        sql.append(" ORDER BY ").append(safeSortField).append(' ').append(safeSortDirection);
+        if (!"ogKey".equalsIgnoreCase(safeSortField)) {
+            sql.append(", ogKey");
+        }
+        sql.append(" OFFSET ").append(offset).append(" ROWS FETCH NEXT ").append(size).append(" ROWS ONLY");
 
         String finalSql = sql.toString();
         log.fine(() -> String.format("Executing findAll with pagination: page=%d, size=%d, sort=%s %s, offset=%d, filter=%s",
@@ -138,6 +149,62 @@ public class JdbcOgDao implements OgDao {
         }
     }
 
+    @Override
+    public List<Og> findPageAfter(Integer afterOgKey, int limit, String sortField, String sortDirection, String nameFilter) {
+        String safeSortField = validateSortField(sortField);
+        KeysetSeek seek = new KeysetSeek(null, "ogKey", safeSortField, "desc".equalsIgnoreCase(sortDirection));
+        String tableName = getTableName();
+        StringBuilder sql = new StringBuilder("SELECT TOP (?) ogKey, ogNm, ogNmOf, ogNmFl, ogTxt, ogINN, ogKPP, ogOGRN, ogOKPO, ogOE, ogRgTaxType FROM ")
+                .append(tableName);
+        if (afterOgKey != null) {
+            sql.append(seek.anchorJoin(tableName));
+        }
+
+        String normalizedFilter = normalizeNameFilter(nameFilter);
+        List<String> conditions = new ArrayList<>();
+        if (normalizedFilter != null) {
+            conditions.add("LOWER(ogNm) LIKE ?");
+        }
+        if (afterOgKey != null) {
+            conditions.add(seek.condition());
+        }
+        if (!conditions.isEmpty()) {
+            sql.append(" WHERE ").append(String.join(" AND ", conditions));
+        }
+        sql.append(seek.orderBy());
+
+        String finalSql = sql.toString();
+        log.fine(() -> String.format("Executing keyset findPageAfter: after=%s, limit=%d, sort=%s %s, filter=%s",
+                afterOgKey, limit, safeSortField, sortDirection, normalizedFilter));
+        try (Connection connection = connectionFactory.createConnection();
+             PreparedStatement statement = connection.prepareStatement(finalSql)) {
+            int index = 1;
+            statement.setInt(index++, limit);
+            if (afterOgKey != null) {
+                index = seek.bindAnchor(statement, index, afterOgKey);
+            }
+            if (normalizedFilter != null) {
+                statement.setNString(index++, likePattern(normalizedFilter));
+            }
+            if (afterOgKey != null) {
+                seek.bindCondition(statement, index, afterOgKey);
+            }
+            try (ResultSet resultSet = statement.executeQuery()) {
+                List<Og> result = new ArrayList<>();
+                while (resultSet.next()) {
+                    result.add(mapOg(resultSet));
+                }
+                return List.copyOf(result);
+            }
+        } catch (DatabaseConfigurationService.MissingConfigurationException exception) {
+            throw exception;
+        } catch (SQLException exception) {
+            log.log(Level.SEVERE, "Failed to execute keyset findPageAfter", exception);
+            log.log(Level.SEVERE, "SQL: " + finalSql, exception);
+            throw new DaoException("Не удалось получить страницу организаций: " + exception.getMessage(), exception);
+        }
+    }
+
     @Override
     public long count(String nameFilter) {
         StringBuilder sql = new StringBuilder("SELECT COUNT(*) FROM ").append(getTableName());
@@ -1,6 +1,8 @@
 package com.femsq.database.dao;
 
+import com.femsq.database.config.ConfigurationBoundValue;
 import com.femsq.database.config.DatabaseConfigurationService;
+import com.femsq.database.config.DatabaseConfigurationService.DatabaseConfigurationProperties;
 import com.femsq.database.connection.ConnectionFactory;
 import com.femsq.database.exception.DaoException;
 import com.femsq.database.model.OgNmF;
@@ -28,6 +30,7 @@ public class JdbcOgNmFDao implements OgNmFDao {
 
     private final ConnectionFactory connectionFactory;
     private final DatabaseConfigurationService configurationService;
+    private final ConfigurationBoundValue<String> tableNameValue;
 
     /**
      * @param connectionFactory фабрика
@@ -36,21 +39,26 @@ public class JdbcOgNmFDao implements OgNmFDao {
     public JdbcOgNmFDao(ConnectionFactory connectionFactory, DatabaseConfigurationService configurationService) {
         this.connectionFactory = Objects.requireNonNull(connectionFactory, "connectionFactory");
         this.configurationService = Objects.requireNonNull(configurationService, "configurationService");
+        this.tableNameValue = new ConfigurationBoundValue<>(this.configurationService, this::tableNameOf);
     }
 
     private String tableName() {
         try {
-            String schema = configurationService.loadConfig().schema();
-            if (schema == null || schema.isBlank()) {
-                return "ags." + TABLE;
-            }
-            return schema.trim() + "." + TABLE;
+            return tableNameValue.get();
         } catch (DatabaseConfigurationService.MissingConfigurationException exception) {
             log.log(Level.WARNING, "Configuration missing for ogNmF, fallback ags_test", exception);
             return "ags_test." + TABLE;
         }
     }
 
+    private String tableNameOf(DatabaseConfigurationProperties configuration) {
+        String schema = configuration.schema();
+        if (schema == null || schema.isBlank()) {
+            return "ags." + TABLE;
+        }
+        return schema.trim() + "." + TABLE;
+    }
+
     @Override
     public List<OgNmF> findByOrg(int ogKey) {
         String sql = "SELECT onfKey, onfOg, onfName, onfNameExt, onfStart, onfEnd FROM " + tableName()
@@ -1,6 +1,8 @@
 package com.femsq.database.dao;
 
+import com.femsq.database.config.ConfigurationBoundValue;
 import com.femsq.database.config.DatabaseConfigurationService;
+import com.femsq.database.config.DatabaseConfigurationService.DatabaseConfigurationProperties;
 import com.femsq.database.connection.ConnectionFactory;
 import com.femsq.database.exception.DaoException;
 import com.femsq.database.model.OrgId;
@@ -27,6 +29,7 @@ public class JdbcOrgIdDao implements OrgIdDao {
 
     private final ConnectionFactory connectionFactory;
     private final DatabaseConfigurationService configurationService;
+    private final ConfigurationBoundValue<String> tableNameValue;
 
     /**
      * @param connectionFactory фабрика подключений
@@ -35,21 +38,26 @@ public class JdbcOrgIdDao implements OrgIdDao {
     public JdbcOrgIdDao(ConnectionFactory connectionFactory, DatabaseConfigurationService configurationService) {
         this.connectionFactory = Objects.requireNonNull(connectionFactory, "connectionFactory");
         this.configurationService = Objects.requireNonNull(configurationService, "configurationService");
+        this.tableNameValue = new ConfigurationBoundValue<>(this.configurationService, this::tableNameOf);
     }
 
     private String tableName() {
         try {
-            String schema = configurationService.loadConfig().schema();
-            if (schema == null || schema.isBlank()) {
-                return "ags." + TABLE_BASE;
-            }
-            return schema.trim() + "." + TABLE_BASE;
+            return tableNameValue.get();
         } catch (DatabaseConfigurationService.MissingConfigurationException exception) {
             log.log(Level.WARNING, "Configuration missing for org_id, fallback ags_test", exception);
             return "ags_test." + TABLE_BASE;
         }
     }
 
+    private String tableNameOf(DatabaseConfigurationProperties configuration) {
+        String schema = configuration.schema();
+        if (schema == null || schema.isBlank()) {
+            return "ags." + TABLE_BASE;
+        }
+        return schema.trim() + "." + TABLE_BASE;
+    }
+
     @Override
     public List<OrgId> findByOrg(int orgKey) {
         String sql = "SELECT org_id_key, org, org_id_type, org_id_value_l, org_id_value_t, org_id_value_t_ext "
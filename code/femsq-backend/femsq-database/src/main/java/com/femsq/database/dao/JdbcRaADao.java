@@ -25,6 +25,11 @@ public class JdbcRaADao implements RaADao {
 
     private static final Logger log = Logger.getLogger(JdbcRaADao.class.getName());
     private static final String TABLE_NAME = "ags.ra_a";
+    /**
+     * Колонки ревизии без {@code adt_results}: списки и статусы не тянут многомегабайтный HTML-лог.
+     */
+    private static final String SUMMARY_COLUMNS =
+            "adt_key, adt_name, adt_date, adt_dir, adt_type, adt_AddRA, adt_staging_log_level, adt_created, adt_updated";
 
     private final ConnectionFactory connectionFactory;
 
@@ -34,15 +39,49 @@ public class JdbcRaADao implements RaADao {
 
     @Override
     public Optional<RaA> findById(long adtKey) {
-        String sql = "SELECT adt_key, adt_name, adt_date, adt_results, adt_dir, adt_type, adt_AddRA, adt_staging_log_level, adt_created, adt_updated "
-                + "FROM " + TABLE_NAME + " WHERE adt_key = ?";
-        log.log(Level.FINE, "Executing findById for adtKey={0}", adtKey);
+        return findOne(adtKey, true);
+    }
+
+    @Override
+    public Optional<RaA> findSummaryById(long adtKey) {
+        return findOne(adtKey, false);
+    }
+
+    @Override
+    public List<RaA> findAll() {
+        return findList(true);
+    }
+
+    @Override
+    public List<RaA> findAllSummaries() {
+        return findList(false);
+    }
+
+    @Override
+    public Optional<String> findResultsById(long adtKey) {
+        String sql = "SELECT adt_results FROM " + TABLE_NAME + " WHERE adt_key = ?";
+        log.log(Level.FINE, "Executing findResultsById for adtKey={0}", adtKey);
+        try (Connection connection = connectionFactory.createConnection();
+             PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setLong(1, adtKey);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                return resultSet.next() ? Optional.ofNullable(resultSet.getNString(1)) : Optional.empty();
+            }
+        } catch (SQLException exception) {
+            log.log(Level.SEVERE, "Failed to execute findResultsById", exception);
+            throw new DaoException("Не удалось получить журнал ревизии " + adtKey, exception);
+        }
+    }
+
+    private Optional<RaA> findOne(long adtKey, boolean withResults) {
+        String sql = "SELECT " + columns(withResults) + " FROM " + TABLE_NAME + " WHERE adt_key = ?";
+        log.log(Level.FINE, "Executing findById for adtKey={0}, withResults={1}", new Object[]{adtKey, withResults});
         try (Connection connection = connectionFactory.createConnection();
              PreparedStatement statement = connection.prepareStatement(sql)) {
             statement.setLong(1, adtKey);
             try (ResultSet resultSet = statement.executeQuery()) {
                 if (resultSet.next()) {
-                    return Optional.of(mapRaA(resultSet));
+                    return Optional.of(mapRaA(resultSet, withResults));
                 }
                 return Optional.empty();
             }
@@ -52,17 +91,15 @@ public class JdbcRaADao implements RaADao {
         }
     }
 
-    @Override
-    public List<RaA> findAll() {
-        String sql = "SELECT adt_key, adt_name, adt_date, adt_results, adt_dir, adt_type, adt_AddRA, adt_staging_log_level, adt_created, adt_updated "
-                + "FROM " + TABLE_NAME + " ORDER BY adt_key";
-        log.fine("Executing findAll for ra_a");
+    private List<RaA> findList(boolean withResults) {
+        String sql = "SELECT " + columns(withResults) + " FROM " + TABLE_NAME + " ORDER BY adt_key";
+        log.log(Level.FINE, "Executing findAll for ra_a, withResults={0}", withResults);
         try (Connection connection = connectionFactory.createConnection();
              PreparedStatement statement = connection.prepareStatement(sql);
              ResultSet resultSet = statement.executeQuery()) {
             List<RaA> result = new ArrayList<>();
             while (resultSet.next()) {
-                result.add(mapRaA(resultSet));
+                result.add(mapRaA(resultSet, withResults));
             }
             return List.copyOf(result);
         } catch (SQLException exception) {
@@ -71,6 +108,10 @@ public class JdbcRaADao implements RaADao {
         }
     }
 
+    private static String columns(boolean withResults) {
+        return withResults ? SUMMARY_COLUMNS + ", adt_results" : SUMMARY_COLUMNS;
+    }
+
     @Override
     public long count() {
         String sql = "SELECT COUNT(*) FROM " + TABLE_NAME;
@@ -178,12 +219,12 @@ public class JdbcRaADao implements RaADao {
         }
     }
 
-    private RaA mapRaA(ResultSet resultSet) throws SQLException {
+    private RaA mapRaA(ResultSet resultSet, boolean withResults) throws SQLException {
         return new RaA(
                 resultSet.getLong("adt_key"),
                 resultSet.getNString("adt_name"),
                 toLocalDateTime(resultSet.getTimestamp("adt_date")),
-                resultSet.getNString("adt_results"),
+                withResults ? resultSet.getNString("adt_results") : null,
                 resultSet.getInt("adt_dir"),
                 resultSet.getInt("adt_type"),
                 resultSet.getBoolean("adt_AddRA"),
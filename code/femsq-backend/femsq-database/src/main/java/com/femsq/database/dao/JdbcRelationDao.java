@@ -1,6 +1,8 @@
 package com.femsq.database.dao;
 
+import com.femsq.database.config.ConfigurationBoundValue;
 import com.femsq.database.config.DatabaseConfigurationService;
+import com.femsq.database.config.DatabaseConfigurationService.DatabaseConfigurationProperties;
 import com.femsq.database.connection.ConnectionFactory;
 import com.femsq.database.exception.DaoException;
 import com.femsq.database.model.relation.RelationCard;
@@ -33,6 +35,7 @@ public class JdbcRelationDao implements RelationDao {
 
     private final ConnectionFactory connectionFactory;
     private final DatabaseConfigurationService configurationService;
+    private final ConfigurationBoundValue<String> agsSchemaValue;
 
     /**
      * @param connectionFactory подключение
@@ -44,6 +47,7 @@ public class JdbcRelationDao implements RelationDao {
     ) {
         this.connectionFactory = Objects.requireNonNull(connectionFactory, "connectionFactory");
         this.configurationService = Objects.requireNonNull(configurationService, "configurationService");
+        this.agsSchemaValue = new ConfigurationBoundValue<>(this.configurationService, this::agsSchemaOf);
     }
 
     @Override
@@ -134,17 +138,21 @@ public class JdbcRelationDao implements RelationDao {
 
     private String agsSchema() {
         try {
-            String schema = configurationService.loadConfig().schema();
-            if (schema == null || schema.trim().isEmpty()) {
-                return "ags";
-            }
-            return schema.trim();
+            return agsSchemaValue.get();
         } catch (DatabaseConfigurationService.MissingConfigurationException exception) {
             log.log(Level.WARNING, "Нет конфигурации БД, схема ags", exception);
             return "ags";
         }
     }
 
+    private String agsSchemaOf(DatabaseConfigurationProperties configuration) {
+        String schema = configuration.schema();
+        if (schema == null || schema.trim().isEmpty()) {
+            return "ags";
+        }
+        return schema.trim();
+    }
+
     private static String bracket(String identifier) {
         return "[" + identifier + "]";
     }
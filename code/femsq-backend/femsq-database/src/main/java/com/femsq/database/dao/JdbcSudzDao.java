@@ -24,8 +24,10 @@ import com.femsq.database.model.sudz.SudzDebtCollection;
 import com.femsq.database.model.sudz.SudzPmLink;
 import com.femsq.database.model.sudz.SudzPmUplLookup;
 import com.femsq.database.model.sudz.SudzRsltDebt;
+import com.femsq.database.model.sudz.SudzRsltOutline;
 import com.femsq.database.model.sudz.SudzRsltPeriod;
 import com.femsq.database.model.sudz.SudzRsltReturnRow;
+import com.femsq.database.model.sudz.SudzRsltSlice;
 import com.femsq.database.model.sudz.SudzSfDoubleDomainMatch;
 import com.femsq.database.model.sudz.SudzSfDoubleExcelCandidate;
 import com.femsq.database.model.sudz.SudzSfDoubleNewSumMatch;
@@ -59,6 +61,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Consumer;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -80,6 +83,9 @@ public class JdbcSudzDao implements SudzDao {
     /** Максимум строк в {@code yr_Progress} (новые сверху, старые отбрасываются). */
     private static final int MAX_YEAR_PROGRESS_LINES = 100;
 
+    /** Размер JDBC-пакета при заполнении #temp перед set-based apply воронки. */
+    private static final int APPLY_BATCH_SIZE = 500;
+
     private final ConnectionFactory connectionFactory;
     private final String schema;
 
@@ -709,7 +715,141 @@ public class JdbcSudzDao implements SudzDao {
 
     @Override
     public List<SudzRsltDebt> findYrDbtChanges(int yrKey, Integer asOfUpl) {
-        String sql = ""
+        List<SudzRsltDebt> debts = new ArrayList<>();
+        streamYrDbtChanges(yrKey, asOfUpl, null, null, debts::add);
+        return List.copyOf(debts);
+    }
+
+    @Override
+    public void streamYrDbtChanges(
+            int yrKey,
+            Integer asOfUpl,
+            Integer afterDbtKey,
+            Integer maxDebts,
+            Consumer<SudzRsltDebt> sink
+    ) {
+        Objects.requireNonNull(sink, "sink");
+        StringBuilder sql = new StringBuilder(yrDbtChangesSelect())
+                .append("WHERE f.yr_key = ? ")
+                .append(yrDbtAsOfFilter("f"));
+        if (afterDbtKey != null) {
+            sql.append("  AND f.dbtKey > ? ");
+        }
+        if (maxDebts != null) {
+            // Keyset-страница: первые maxDebts различных dbtKey после курсора (строк-срезов больше).
+            sql.append("  AND f.dbtKey IN ( ")
+                    .append("    SELECT TOP (?) d.dbtKey FROM ( ")
+                    .append("      SELECT DISTINCT p.dbtKey FROM ").append(q("vw_Yr_DbtFact")).append(" p ")
+                    .append("      WHERE p.yr_key = ? ")
+                    .append(yrDbtAsOfFilter("p"))
+                    .append(afterDbtKey != null ? "      AND p.dbtKey > ? " : "")
+                    .append("    ) d ORDER BY d.dbtKey ")
+                    .append("  ) ");
+        }
+        sql.append("ORDER BY f.dbtKey, f.upl_date, f.upl_key");
+
+        log.log(Level.INFO, "Streaming sudz Rslt portfolio for yr={0}, asOfUpl={1}, after={2}, max={3}",
+                new Object[]{yrKey, asOfUpl, afterDbtKey, maxDebts});
+        try (Connection connection = connectionFactory.createConnection();
+             PreparedStatement statement = connection.prepareStatement(sql.toString())) {
+            int index = 1;
+            for (int i = 0; i < 5; i++) {
+                statement.setInt(index++, yrKey);
+            }
+            index = bindYrDbtAsOf(statement, index, asOfUpl);
+            if (afterDbtKey != null) {
+                statement.setInt(index++, afterDbtKey);
+            }
+            if (maxDebts != null) {
+                statement.setInt(index++, maxDebts);
+                statement.setInt(index++, yrKey);
+                index = bindYrDbtAsOf(statement, index, asOfUpl);
+                if (afterDbtKey != null) {
+                    statement.setInt(index, afterDbtKey);
+                }
+            }
+            try (ResultSet rs = statement.executeQuery()) {
+                // Строки упорядочены по dbtKey: долг отдаётся, как только начинается следующий.
+                Builder builder = null;
+                while (rs.next()) {
+                    int dbtKey = rs.getInt("dbtKey");
+                    if (builder == null || builder.dbtKey != dbtKey) {
+                        if (builder != null) {
+                            sink.accept(builder.build());
+                        }
+                        builder = new Builder(
+                                dbtKey,
+                                rs.getString("account_num"),
+                                rs.getString("curator"),
+                                rs.getString("mery"),
+                                rs.getString("cst_code"),
+                                rs.getString("cst_name"),
+                                rs.getString("curator_new"),
+                                rs.getString("mery_new"),
+                                rs.getString("cst_code_new")
+                        );
+                    }
+                    builder.addPeriod(rs);
+                }
+                if (builder != null) {
+                    sink.accept(builder.build());
+                }
+            }
+        } catch (MissingConfigurationException exception) {
+            throw exception;
+        } catch (SQLException exception) {
+            throw wrap("Не удалось получить портфель СУДЗ yr=" + yrKey, exception);
+        }
+    }
+
+    @Override
+    public SudzRsltOutline findYrDbtOutline(int yrKey, Integer asOfUpl) {
+        String slicesSql = ""
+                + "SELECT f.upl_date, MAX(COALESCE(f.as_of, f.upl_date)) AS as_of "
+                + "FROM " + q("vw_Yr_DbtFact") + " f "
+                + "WHERE f.yr_key = ? "
+                + yrDbtAsOfFilter("f")
+                + "  AND f.upl_date IS NOT NULL "
+                + "GROUP BY f.upl_date "
+                + "ORDER BY f.upl_date";
+        String countSql = ""
+                + "SELECT COUNT(DISTINCT f.dbtKey) "
+                + "FROM " + q("vw_Yr_DbtFact") + " f "
+                + "WHERE f.yr_key = ? "
+                + yrDbtAsOfFilter("f");
+        try (Connection connection = connectionFactory.createConnection()) {
+            List<SudzRsltSlice> slices = new ArrayList<>();
+            try (PreparedStatement statement = connection.prepareStatement(slicesSql)) {
+                statement.setInt(1, yrKey);
+                bindYrDbtAsOf(statement, 2, asOfUpl);
+                try (ResultSet rs = statement.executeQuery()) {
+                    while (rs.next()) {
+                        slices.add(new SudzRsltSlice(getLocalDate(rs, "upl_date"), getLocalDate(rs, "as_of")));
+                    }
+                }
+            }
+            int debtCount;
+            try (PreparedStatement statement = connection.prepareStatement(countSql)) {
+                statement.setInt(1, yrKey);
+                bindYrDbtAsOf(statement, 2, asOfUpl);
+                try (ResultSet rs = statement.executeQuery()) {
+                    debtCount = rs.next() ? rs.getInt(1) : 0;
+                }
+            }
+            return new SudzRsltOutline(slices, debtCount);
+        } catch (MissingConfigurationException exception) {
+            throw exception;
+        } catch (SQLException exception) {
+            throw wrap("Не удалось получить контур портфеля СУДЗ yr=" + yrKey, exception);
+        }
+    }
+
+    /**
+     * SELECT портфеля Rslt с комментариями и стройками групп {@code yr_CmmGr}/{@code yr_CmmGr_New}
+     * (четыре параметра {@code yr_key}); условие WHERE добавляет вызывающий.
+     */
+    private String yrDbtChangesSelect() {
+        return ""
                 + "SELECT f.dbtKey, f.upl_key, f.upl_date, f.as_of, "
                 + "       f.invNumEnum, f.idNum, f.cnNumEnum, f.csoCnDate, "
                 + "       f.org_id_value_l, f.ITN, f.CtptOrg, "
@@ -758,91 +898,27 @@ public class JdbcSudzDao implements SudzDao {
                 + "  JOIN ags.cstAgPn pn ON pn.cstapKey = cs.ciccCstAgPn "
                 + "  WHERE y.yr_key = ? AND y.yr_CmmGr_New IS NOT NULL "
                 + "  GROUP BY cs.ciccInvAccnt "
-                + ") cyn ON cyn.dbtKey = f.dbtKey "
-                + "WHERE f.yr_key = ? "
-                + "  AND (? IS NULL OR f.upl_date <= ( "
+                + ") cyn ON cyn.dbtKey = f.dbtKey ";
+    }
+
+    /**
+     * Фильтр «срезы до выгрузки включительно» (два параметра {@code asOfUpl}; {@code NULL} — все срезы).
+     */
+    private String yrDbtAsOfFilter(String alias) {
+        return "  AND (? IS NULL OR " + alias + ".upl_date <= ( "
                 + "        SELECT u.upl_date FROM " + q("cn_inv_dbt_upl") + " u WHERE u.upl_key = ? "
-                + "      )) "
-                + "ORDER BY f.dbtKey, f.upl_date, f.upl_key";
+                + "      )) ";
+    }
 
-        log.log(Level.INFO, "Loading sudz Rslt portfolio for yr={0}, asOfUpl={1}",
-                new Object[]{yrKey, asOfUpl});
-        try (Connection connection = connectionFactory.createConnection();
-             PreparedStatement statement = connection.prepareStatement(sql)) {
-            statement.setInt(1, yrKey);
-            statement.setInt(2, yrKey);
-            statement.setInt(3, yrKey);
-            statement.setInt(4, yrKey);
-            statement.setInt(5, yrKey);
-            if (asOfUpl == null) {
-                statement.setNull(6, Types.INTEGER);
-                statement.setNull(7, Types.INTEGER);
-            } else {
-                statement.setInt(6, asOfUpl);
-                statement.setInt(7, asOfUpl);
-            }
-            try (ResultSet rs = statement.executeQuery()) {
-                Map<Integer, Builder> builders = new LinkedHashMap<>();
-                while (rs.next()) {
-                    int dbtKey = rs.getInt("dbtKey");
-                    Builder builder = builders.get(dbtKey);
-                    if (builder == null) {
-                        builder = new Builder(
-                                dbtKey,
-                                rs.getString("account_num"),
-                                rs.getString("curator"),
-                                rs.getString("mery"),
-                                rs.getString("cst_code"),
-                                rs.getString("cst_name"),
-                                rs.getString("curator_new"),
-                                rs.getString("mery_new"),
-                                rs.getString("cst_code_new")
-                        );
-                        builders.put(dbtKey, builder);
-                    }
-                    BigDecimal overd = getBigDecimal(rs, "dvOverd");
-                    if (builder.baseOverd == null) {
-                        builder.baseOverd = overd;
-                    }
-                    BigDecimal pogasheno = null;
-                    if (builder.baseOverd != null && overd != null
-                            && builder.baseOverd.compareTo(overd) != 0) {
-                        BigDecimal delta = builder.baseOverd.subtract(overd);
-                        if (delta.compareTo(BigDecimal.ZERO) != 0) {
-                            pogasheno = delta;
-                        }
-                    }
-                    builder.periods.add(new SudzRsltPeriod(
-                            rs.getInt("upl_key"),
-                            getLocalDate(rs, "upl_date"),
-                            getLocalDate(rs, "as_of"),
-                            rs.getString("invNumEnum"),
-                            getInteger(rs, "idNum"),
-                            rs.getString("cnNumEnum"),
-                            getLocalDate(rs, "csoCnDate"),
-                            getLong(rs, "org_id_value_l"),
-                            rs.getString("ITN"),
-                            rs.getString("CtptOrg"),
-                            getLocalDate(rs, "dvDateMaturity"),
-                            getBigDecimal(rs, "dvTtl"),
-                            overd,
-                            rs.getString("CstAgPnCode"),
-                            rs.getString("CstAgPnName"),
-                            rs.getString("AgOrg"),
-                            pogasheno
-                    ));
-                }
-                List<SudzRsltDebt> debts = new ArrayList<>(builders.size());
-                for (Builder builder : builders.values()) {
-                    debts.add(builder.build());
-                }
-                return List.copyOf(debts);
-            }
-        } catch (MissingConfigurationException exception) {
-            throw exception;
-        } catch (SQLException exception) {
-            throw wrap("Не удалось получить портфель СУДЗ yr=" + yrKey, exception);
+    private static int bindYrDbtAsOf(PreparedStatement statement, int index, Integer asOfUpl) throws SQLException {
+        if (asOfUpl == null) {
+            statement.setNull(index, Types.INTEGER);
+            statement.setNull(index + 1, Types.INTEGER);
+        } else {
+            statement.setInt(index, asOfUpl);
+            statement.setInt(index + 1, asOfUpl);
         }
+        return index + 2;
     }
 
     @Override
@@ -1445,32 +1521,39 @@ public class JdbcSudzDao implements SudzDao {
         if (cnMark <= 0) {
             throw new IllegalArgumentException("cnMark должен быть положительным: " + cnMark);
         }
-        Map<Integer, SudzDbtUplCnNotLoadInserted> inserted = new LinkedHashMap<>();
+        List<Integer> indexes = new ArrayList<>();
+        List<SudzDbtUplCnNotLoad> pending = new ArrayList<>();
+        int index = 1;
+        for (SudzDbtUplCnNotLoad row : rows) {
+            if (row.countCnName() == 1) {
+                if (row.orgIdKey() == null || row.orgIdKey() <= 0) {
+                    throw new IllegalArgumentException(
+                            "org_id_key обязателен для INSERT договора, строка " + index
+                    );
+                }
+                if (row.cnName() == null || row.cnName().isBlank()) {
+                    throw new IllegalArgumentException(
+                            "номер договора пуст, строка " + index
+                    );
+                }
+                indexes.add(index);
+                pending.add(row);
+            }
+            index++;
+        }
         Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        long t0 = System.nanoTime();
         try (Connection connection = connectionFactory.createConnection()) {
             connection.setAutoCommit(false);
             try {
-                int index = 1;
-                for (SudzDbtUplCnNotLoad row : rows) {
-                    if (row.countCnName() == 1) {
-                        if (row.orgIdKey() == null || row.orgIdKey() <= 0) {
-                            throw new IllegalArgumentException(
-                                    "org_id_key обязателен для INSERT договора, строка " + index
-                            );
-                        }
-                        if (row.cnName() == null || row.cnName().isBlank()) {
-                            throw new IllegalArgumentException(
-                                    "номер договора пуст, строка " + index
-                            );
-                        }
-                        inserted.put(index, insertCnNotLoadChain(connection, row, cnMark, note, now));
-                    }
-                    index++;
-                }
+                Map<Integer, SudzDbtUplCnNotLoadInserted> inserted = pending.isEmpty()
+                        ? Map.of()
+                        : insertCnNotLoadChains(connection, indexes, pending, cnMark, note, now);
                 connection.commit();
-                log.log(Level.INFO, "CnNotLoad apply cnMark={0} inserted={1}",
-                        new Object[]{cnMark, inserted.size()});
-                return new SudzDbtUplCnNotLoadApplyResult(cnMark, note, inserted, inserted.size());
+                long elapsedMs = (System.nanoTime() - t0) / 1_000_000L;
+                log.log(Level.INFO, "CnNotLoad apply cnMark={0} inserted={1} totalMs={2}",
+                        new Object[]{cnMark, inserted.size(), elapsedMs});
+                return new SudzDbtUplCnNotLoadApplyResult(cnMark, note, inserted, inserted.size(), elapsedMs);
             } catch (RuntimeException | SQLException exception) {
                 connection.rollback();
                 throw exception;
@@ -1781,52 +1864,61 @@ public class JdbcSudzDao implements SudzDao {
             throw new IllegalArgumentException("unloadKey должен быть положительным: " + unloadKey);
         }
         String buf = q("CnInvDbtUplTblCnInv");
-        String select = "SELECT cidutciCn_key, cidutciCnInv FROM " + buf
-                + " WHERE inNumCount IS NULL"
-                + " ORDER BY cidutciCn_key, cidutciRow";
+        // Ключ iKey сопоставляется строке буфера через MERGE ... OUTPUT: у ags.inv нет колонки для корреляции,
+        // а INSERT ... SELECT не даёт вывести в OUTPUT колонки источника. OUTPUT только в #temp (INTO):
+        // без INTO SQL Server запрещает OUTPUT для таблиц с триггерами.
+        String merge = ""
+                + "MERGE INTO ags.inv AS t "
+                + "USING (SELECT cidutciCn_key, cidutciCnInv FROM " + buf + " WHERE inNumCount IS NULL) AS s "
+                + "ON 1 = 0 "
+                + "WHEN NOT MATCHED THEN INSERT (iTimeOfEntry) VALUES (?) "
+                + "OUTPUT INSERTED.iKey, s.cidutciCn_key, s.cidutciCnInv "
+                + "INTO #cnCtptInvNew (iKey, cnKey, cnInv);";
+        String insertInvNum = ""
+                + "INSERT INTO ags.invNum (inNum, inInv, inTimeOfEntry) "
+                + "SELECT CASE WHEN cnInv IS NULL OR LTRIM(RTRIM(cnInv)) = N'' OR cnInv = N'NullИлиПусто' "
+                + "            THEN NULL ELSE cnInv END, iKey, ? "
+                + "FROM #cnCtptInvNew ORDER BY iKey";
+        String insertCnInv = ""
+                + "INSERT INTO ags.cnInv (ciInv, ciCn, ciTimeOfEntry) "
+                + "SELECT iKey, cnKey, ? FROM #cnCtptInvNew ORDER BY iKey";
         Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        long t0 = System.nanoTime();
         try (Connection connection = connectionFactory.createConnection()) {
             connection.setAutoCommit(false);
             try {
-                int inserted = 0;
-                try (PreparedStatement statement = connection.prepareStatement(select);
-                     ResultSet rs = statement.executeQuery()) {
-                    while (rs.next()) {
-                        int cnKey = rs.getInt("cidutciCn_key");
-                        String cnInv = rs.getNString("cidutciCnInv");
-                        int invKey;
-                        try (PreparedStatement inv = connection.prepareStatement(
-                                "INSERT INTO ags.inv (iTimeOfEntry) VALUES (?)",
-                                Statement.RETURN_GENERATED_KEYS)) {
-                            inv.setTimestamp(1, now);
-                            inv.executeUpdate();
-                            invKey = readGeneratedKey(inv, "Не удалось получить iKey");
-                        }
-                        try (PreparedStatement invNum = connection.prepareStatement(
-                                "INSERT INTO ags.invNum (inNum, inInv, inTimeOfEntry) VALUES (?, ?, ?)")) {
-                            if (cnInv == null || cnInv.isBlank() || "NullИлиПусто".equals(cnInv)) {
-                                invNum.setNull(1, Types.NVARCHAR);
-                            } else {
-                                invNum.setNString(1, cnInv);
-                            }
-                            invNum.setInt(2, invKey);
-                            invNum.setTimestamp(3, now);
-                            invNum.executeUpdate();
-                        }
-                        try (PreparedStatement cnInvPs = connection.prepareStatement(
-                                "INSERT INTO ags.cnInv (ciInv, ciCn, ciTimeOfEntry) VALUES (?, ?, ?)")) {
-                            cnInvPs.setInt(1, invKey);
-                            cnInvPs.setInt(2, cnKey);
-                            cnInvPs.setTimestamp(3, now);
-                            cnInvPs.executeUpdate();
-                        }
-                        inserted++;
+                try (Statement ddl = connection.createStatement()) {
+                    ddl.execute("IF OBJECT_ID('tempdb..#cnCtptInvNew') IS NOT NULL DROP TABLE #cnCtptInvNew");
+                    ddl.execute(
+                            "CREATE TABLE #cnCtptInvNew ("
+                                    + " iKey int NOT NULL PRIMARY KEY,"
+                                    + " cnKey int NOT NULL,"
+                                    + " cnInv nvarchar(255) COLLATE Cyrillic_General_CI_AS NULL)"
+                    );
+                }
+                int inserted;
+                try (PreparedStatement ps = connection.prepareStatement(merge)) {
+                    ps.setTimestamp(1, now);
+                    inserted = ps.executeUpdate();
+                }
+                if (inserted > 0) {
+                    try (PreparedStatement ps = connection.prepareStatement(insertInvNum)) {
+                        ps.setTimestamp(1, now);
+                        ps.executeUpdate();
+                    }
+                    try (PreparedStatement ps = connection.prepareStatement(insertCnInv)) {
+                        ps.setTimestamp(1, now);
+                        ps.executeUpdate();
                     }
                 }
+                try (Statement ddl = connection.createStatement()) {
+                    ddl.execute("DROP TABLE #cnCtptInvNew");
+                }
                 connection.commit();
-                log.log(Level.INFO, "applyDbtUplCnCtptExistInvNotLoad unloadKey={0} inserted={1}",
-                        new Object[]{unloadKey, inserted});
-                return new SudzDbtUplCnCtptExistInvApplyResult(inserted);
+                long elapsedMs = (System.nanoTime() - t0) / 1_000_000L;
+                log.log(Level.INFO, "applyDbtUplCnCtptExistInvNotLoad unloadKey={0} inserted={1} totalMs={2}",
+                        new Object[]{unloadKey, inserted, elapsedMs});
+                return new SudzDbtUplCnCtptExistInvApplyResult(inserted, elapsedMs);
             } catch (RuntimeException | SQLException exception) {
                 connection.rollback();
                 throw exception;
@@ -1873,70 +1965,170 @@ public class JdbcSudzDao implements SudzDao {
         return List.copyOf(contracts);
     }
 
-    private SudzDbtUplCnNotLoadInserted insertCnNotLoadChain(
+    /**
+     * Set-based INSERT цепочки {@code cn → cnNum → cn_s → cn_s_org_smpl → cn_s_org} для всех строк сразу.
+     *
+     * <p>Строки пакетно пишутся в {@code #cnNotLoadNew} (idx = индекс строки лога); каждый шаг цепочки —
+     * один {@code MERGE ... ON 1 = 0 ... OUTPUT s.idx, INSERTED.<key> INTO #cnNotLoadOut}, после чего ключ
+     * переносится в {@code #cnNotLoadNew} для следующего шага. OUTPUT только в #temp (INTO): без INTO
+     * SQL Server запрещает OUTPUT для таблиц с триггерами.</p>
+     *
+     * @return ключи по индексу строки лога
+     */
+    private static Map<Integer, SudzDbtUplCnNotLoadInserted> insertCnNotLoadChains(
             Connection connection,
-            SudzDbtUplCnNotLoad row,
+            List<Integer> indexes,
+            List<SudzDbtUplCnNotLoad> rows,
             int cnMark,
             String note,
             Timestamp now
     ) throws SQLException {
-        int cnKey;
-        try (PreparedStatement statement = connection.prepareStatement(
-                "INSERT INTO ags.cn (cnTimeOfEntry, cn_note, cnMark) VALUES (?, ?, ?)",
-                Statement.RETURN_GENERATED_KEYS)) {
-            statement.setTimestamp(1, now);
-            statement.setNString(2, note);
-            statement.setInt(3, cnMark);
-            statement.executeUpdate();
-            cnKey = readGeneratedKey(statement, "Не удалось получить cn_key");
+        try (Statement ddl = connection.createStatement()) {
+            ddl.execute("IF OBJECT_ID('tempdb..#cnNotLoadNew') IS NOT NULL DROP TABLE #cnNotLoadNew");
+            ddl.execute("IF OBJECT_ID('tempdb..#cnNotLoadOut') IS NOT NULL DROP TABLE #cnNotLoadOut");
+            ddl.execute(
+                    "CREATE TABLE #cnNotLoadNew ("
+                            + " idx int NOT NULL PRIMARY KEY,"
+                            + " cnName nvarchar(max) COLLATE Cyrillic_General_CI_AS NOT NULL,"
+                            + " orgIdKey int NOT NULL,"
+                            + " cnDate date NULL,"
+                            + " cnKey int NULL, cnnKey int NULL, cnSKey int NULL,"
+                            + " csosKey int NULL, cnSOrgKey int NULL)"
+            );
+            ddl.execute("CREATE TABLE #cnNotLoadOut (idx int NOT NULL PRIMARY KEY, newKey int NOT NULL)");
+        }
+        try (PreparedStatement ps = connection.prepareStatement(
+                "INSERT INTO #cnNotLoadNew (idx, cnName, orgIdKey, cnDate) VALUES (?, ?, ?, ?)")) {
+            int batch = 0;
+            for (int i = 0; i < rows.size(); i++) {
+                SudzDbtUplCnNotLoad row = rows.get(i);
+                ps.setInt(1, indexes.get(i));
+                ps.setNString(2, row.cnName());
+                ps.setInt(3, row.orgIdKey());
+                if (row.cnDate() == null) {
+                    ps.setNull(4, Types.DATE);
+                } else {
+                    ps.setDate(4, Date.valueOf(row.cnDate()));
+                }
+                ps.addBatch();
+                batch++;
+                if (batch >= APPLY_BATCH_SIZE) {
+                    ps.executeBatch();
+                    batch = 0;
+                }
+            }
+            if (batch > 0) {
+                ps.executeBatch();
+            }
+        }
+
+        mergeCnNotLoadStep(connection, "cnKey", rows.size(),
+                "MERGE INTO ags.cn AS t USING #cnNotLoadNew AS s ON 1 = 0 "
+                        + "WHEN NOT MATCHED THEN INSERT (cnTimeOfEntry, cn_note, cnMark) VALUES (?, ?, ?) "
+                        + "OUTPUT s.idx, INSERTED.cn_key INTO #cnNotLoadOut (idx, newKey);",
+                ps -> {
+                    ps.setTimestamp(1, now);
+                    ps.setNString(2, note);
+                    ps.setInt(3, cnMark);
+                });
+        mergeCnNotLoadStep(connection, "cnnKey", rows.size(),
+                "MERGE INTO ags.cnNum AS t USING #cnNotLoadNew AS s ON 1 = 0 "
+                        + "WHEN NOT MATCHED THEN INSERT (cnnNum, cnnCn, cnnType, cnnNote, cnnTimeOfEntry) "
+                        + "VALUES (s.cnName, s.cnKey, 1, ?, ?) "
+                        + "OUTPUT s.idx, INSERTED.cnnKey INTO #cnNotLoadOut (idx, newKey);",
+                ps -> {
+                    ps.setNString(1, note);
+                    ps.setTimestamp(2, now);
+                });
+        mergeCnNotLoadStep(connection, "cnSKey", rows.size(),
+                "MERGE INTO ags.cn_s AS t USING #cnNotLoadNew AS s ON 1 = 0 "
+                        + "WHEN NOT MATCHED THEN INSERT (cn_key, cn_s_type) VALUES (s.cnKey, 2) "
+                        + "OUTPUT s.idx, INSERTED.cn_s_key INTO #cnNotLoadOut (idx, newKey);",
+                ps -> {
+                });
+        mergeCnNotLoadStep(connection, "csosKey", rows.size(),
+                "MERGE INTO ags.cn_s_org_smpl AS t USING #cnNotLoadNew AS s ON 1 = 0 "
+                        + "WHEN NOT MATCHED THEN INSERT (csosCn_s, csosOrgId, csosTimeOfEntry) "
+                        + "VALUES (s.cnSKey, s.orgIdKey, ?) "
+                        + "OUTPUT s.idx, INSERTED.csosKey INTO #cnNotLoadOut (idx, newKey);",
+                ps -> ps.setTimestamp(1, now));
+        // Без даты csoCnDate не указывается (остаётся значение по умолчанию), как в построчной вставке.
+        mergeCnNotLoadStep(connection, "cnSOrgKey", rows.size(),
+                "MERGE INTO ags.cn_s_org AS t "
+                        + "USING (SELECT idx, csosKey, cnDate FROM #cnNotLoadNew WHERE cnDate IS NOT NULL) AS s "
+                        + "ON 1 = 0 "
+                        + "WHEN NOT MATCHED THEN INSERT (csoCn_s_org_smpl, csoTimeOfEntry, csoCnDate) "
+                        + "VALUES (s.csosKey, ?, s.cnDate) "
+                        + "OUTPUT s.idx, INSERTED.cn_s_org_key INTO #cnNotLoadOut (idx, newKey);"
+                        + "MERGE INTO ags.cn_s_org AS t "
+                        + "USING (SELECT idx, csosKey FROM #cnNotLoadNew WHERE cnDate IS NULL) AS s "
+                        + "ON 1 = 0 "
+                        + "WHEN NOT MATCHED THEN INSERT (csoCn_s_org_smpl, csoTimeOfEntry) "
+                        + "VALUES (s.csosKey, ?) "
+                        + "OUTPUT s.idx, INSERTED.cn_s_org_key INTO #cnNotLoadOut (idx, newKey);",
+                ps -> {
+                    ps.setTimestamp(1, now);
+                    ps.setTimestamp(2, now);
+                });
+
+        Map<Integer, SudzDbtUplCnNotLoadInserted> inserted = new LinkedHashMap<>();
+        try (PreparedStatement ps = connection.prepareStatement(
+                "SELECT idx, cnKey, cnnKey, cnSKey, csosKey, cnSOrgKey FROM #cnNotLoadNew ORDER BY idx");
+             ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) {
+                inserted.put(rs.getInt("idx"), new SudzDbtUplCnNotLoadInserted(
+                        rs.getInt("cnKey"),
+                        rs.getInt("cnnKey"),
+                        rs.getInt("cnSKey"),
+                        rs.getInt("csosKey"),
+                        rs.getInt("cnSOrgKey")
+                ));
+            }
         }
-        int cnnKey;
-        try (PreparedStatement statement = connection.prepareStatement(
-                "INSERT INTO ags.cnNum (cnnNum, cnnCn, cnnType, cnnNote, cnnTimeOfEntry) "
-                        + "VALUES (?, ?, 1, ?, ?)",
-                Statement.RETURN_GENERATED_KEYS)) {
-            statement.setNString(1, row.cnName());
-            statement.setInt(2, cnKey);
-            statement.setNString(3, note);
-            statement.setTimestamp(4, now);
-            statement.executeUpdate();
-            cnnKey = readGeneratedKey(statement, "Не удалось получить cnnKey");
+        try (Statement ddl = connection.createStatement()) {
+            ddl.execute("DROP TABLE #cnNotLoadOut");
+            ddl.execute("DROP TABLE #cnNotLoadNew");
         }
-        int cnSKey;
-        try (PreparedStatement statement = connection.prepareStatement(
-                "INSERT INTO ags.cn_s (cn_key, cn_s_type) VALUES (?, 2)",
-                Statement.RETURN_GENERATED_KEYS)) {
-            statement.setInt(1, cnKey);
-            statement.executeUpdate();
-            cnSKey = readGeneratedKey(statement, "Не удалось получить cn_s_key");
+        return inserted;
+    }
+
+    /**
+     * Один шаг цепочки {@code CnNotLoad}: MERGE с OUTPUT в {@code #cnNotLoadOut}, перенос ключей
+     * в колонку {@code keyColumn} таблицы {@code #cnNotLoadNew}.
+     *
+     * @param expected сколько ключей должен вернуть шаг (по строке на каждую строку #cnNotLoadNew)
+     */
+    private static void mergeCnNotLoadStep(
+            Connection connection,
+            String keyColumn,
+            int expected,
+            String mergeSql,
+            StatementBinder binder
+    ) throws SQLException {
+        try (PreparedStatement ps = connection.prepareStatement(mergeSql)) {
+            binder.bind(ps);
+            ps.executeUpdate();
         }
-        int csosKey;
-        try (PreparedStatement statement = connection.prepareStatement(
-                "INSERT INTO ags.cn_s_org_smpl (csosCn_s, csosOrgId, csosTimeOfEntry) VALUES (?, ?, ?)",
-                Statement.RETURN_GENERATED_KEYS)) {
-            statement.setInt(1, cnSKey);
-            statement.setInt(2, row.orgIdKey());
-            statement.setTimestamp(3, now);
-            statement.executeUpdate();
-            csosKey = readGeneratedKey(statement, "Не удалось получить csosKey");
-        }
-        int cnSOrgKey;
-        LocalDate cnDate = row.cnDate();
-        boolean writeDate = cnDate != null;
-        String insertOrg = writeDate
-                ? "INSERT INTO ags.cn_s_org (csoCn_s_org_smpl, csoTimeOfEntry, csoCnDate) VALUES (?, ?, ?)"
-                : "INSERT INTO ags.cn_s_org (csoCn_s_org_smpl, csoTimeOfEntry) VALUES (?, ?)";
-        try (PreparedStatement statement = connection.prepareStatement(
-                insertOrg, Statement.RETURN_GENERATED_KEYS)) {
-            statement.setInt(1, csosKey);
-            statement.setTimestamp(2, now);
-            if (writeDate) {
-                statement.setDate(3, Date.valueOf(cnDate));
-            }
-            statement.executeUpdate();
-            cnSOrgKey = readGeneratedKey(statement, "Не удалось получить cn_s_org_key");
+        int moved;
+        try (PreparedStatement ps = connection.prepareStatement(
+                "UPDATE n SET n." + keyColumn + " = o.newKey "
+                        + "FROM #cnNotLoadNew AS n INNER JOIN #cnNotLoadOut AS o ON o.idx = n.idx")) {
+            moved = ps.executeUpdate();
+        }
+        if (moved != expected) {
+            throw new DaoException("CnNotLoad: получено ключей " + keyColumn + " " + moved + " из " + expected);
+        }
+        try (Statement clear = connection.createStatement()) {
+            clear.execute("DELETE FROM #cnNotLoadOut");
         }
-        return new SudzDbtUplCnNotLoadInserted(cnKey, cnnKey, cnSKey, csosKey, cnSOrgKey);
+    }
+
+    /**
+     * Привязка параметров шага set-based apply.
+     */
+    @FunctionalInterface
+    private interface StatementBinder {
+        void bind(PreparedStatement statement) throws SQLException;
     }
 
     private static void bindTblRow(PreparedStatement statement, SudzDbtUplTblRow row) throws SQLException {
@@ -3075,6 +3267,43 @@ public class JdbcSudzDao implements SudzDao {
             this.cstCodeNew = cstCodeNew;
         }
 
+        /**
+         * Добавляет срез из текущей строки; «погашено» — разница с просрочкой базового (первого) среза.
+         */
+        private void addPeriod(ResultSet rs) throws SQLException {
+            BigDecimal overd = getBigDecimal(rs, "dvOverd");
+            if (baseOverd == null) {
+                baseOverd = overd;
+            }
+            BigDecimal pogasheno = null;
+            if (baseOverd != null && overd != null
+                    && baseOverd.compareTo(overd) != 0) {
+                BigDecimal delta = baseOverd.subtract(overd);
+                if (delta.compareTo(BigDecimal.ZERO) != 0) {
+                    pogasheno = delta;
+                }
+            }
+            periods.add(new SudzRsltPeriod(
+                    rs.getInt("upl_key"),
+                    getLocalDate(rs, "upl_date"),
+                    getLocalDate(rs, "as_of"),
+                    rs.getString("invNumEnum"),
+                    getInteger(rs, "idNum"),
+                    rs.getString("cnNumEnum"),
+                    getLocalDate(rs, "csoCnDate"),
+                    getLong(rs, "org_id_value_l"),
+                    rs.getString("ITN"),
+                    rs.getString("CtptOrg"),
+                    getLocalDate(rs, "dvDateMaturity"),
+                    getBigDecimal(rs, "dvTtl"),
+                    overd,
+                    rs.getString("CstAgPnCode"),
+                    rs.getString("CstAgPnName"),
+                    rs.getString("AgOrg"),
+                    pogasheno
+            ));
+        }
+
         private SudzRsltDebt build() {
             return new SudzRsltDebt(dbtKey, accountNum, curator, mery, cstCode, cstName,
                     curatorNew, meryNew, cstCodeNew, List.copyOf(periods));
@@ -0,0 +1,115 @@
+package com.femsq.database.dao;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+/**
+ * Keyset-продолжение выборки: строки строго после записи-якоря в порядке
+ * {@code ORDER BY <sort> <dir>, <key>}.
+ *
+ * <p>Курсор — только первичный ключ последней строки предыдущей страницы. Если сортировка идёт не по
+ * ключу, значение сортировки якоря читается подзапросом {@code CROSS APPLY} по ключу (поиск по PK),
+ * поэтому цена страницы не зависит от её номера, в отличие от {@code OFFSET}. Ключ служит вторым
+ * уровнем сортировки, так что порядок детерминирован и при повторах значений.
+ *
+ * <p>NULL в SQL Server упорядочивается раньше любых значений: первым при ASC и последним при DESC;
+ * условие учитывает оба случая. Если якорь удалён между запросами, продолжение пусто.
+ *
+ * <p>Параметры связываются в порядке текста: {@link #bindAnchor} сразу после {@link #anchorJoin},
+ * {@link #bindCondition} в месте {@link #condition()}.
+ */
+final class KeysetSeek {
+
+    private final String alias;
+    private final String keyColumn;
+    private final String sortColumn;
+    private final boolean descending;
+
+    /**
+     * @param alias      псевдоним таблицы во внешнем запросе или {@code null}
+     * @param keyColumn  первичный ключ (целочисленный)
+     * @param sortColumn колонка сортировки (проверенная вызывающим кодом)
+     * @param descending сортировка по убыванию
+     */
+    KeysetSeek(String alias, String keyColumn, String sortColumn, boolean descending) {
+        this.alias = alias == null || alias.isEmpty() ? "" : alias + ".";
+        this.keyColumn = keyColumn;
+        this.sortColumn = sortColumn;
+        this.descending = descending;
+    }
+
+    /**
+     * Сортировка только по ключу.
+     */
+    static KeysetSeek byKey(String alias, String keyColumn, boolean descending) {
+        return new KeysetSeek(alias, keyColumn, keyColumn, descending);
+    }
+
+    private boolean needsAnchor() {
+        return !sortColumn.equalsIgnoreCase(keyColumn);
+    }
+
+    /**
+     * @param tableName полное имя таблицы, которой принадлежат ключ и колонка сортировки
+     * @return фрагмент {@code CROSS APPLY} со значением сортировки якоря или пустая строка
+     */
+    String anchorJoin(String tableName) {
+        if (!needsAnchor()) {
+            return "";
+        }
+        return " CROSS APPLY (SELECT keyset_anchor." + sortColumn + " AS anchorValue FROM " + tableName
+                + " AS keyset_anchor WHERE keyset_anchor." + keyColumn + " = ?) AS anchor";
+    }
+
+    /**
+     * @return условие «строго после якоря» для {@code WHERE}
+     */
+    String condition() {
+        String key = alias + keyColumn;
+        if (!needsAnchor()) {
+            return key + (descending ? " < ?" : " > ?");
+        }
+        String sort = alias + sortColumn;
+        if (descending) {
+            return "((anchor.anchorValue IS NULL AND " + sort + " IS NULL AND " + key + " > ?)"
+                    + " OR (anchor.anchorValue IS NOT NULL AND (" + sort + " < anchor.anchorValue OR " + sort + " IS NULL"
+                    + " OR (" + sort + " = anchor.anchorValue AND " + key + " > ?))))";
+        }
+        return "((anchor.anchorValue IS NULL AND (" + sort + " IS NOT NULL OR " + key + " > ?))"
+                + " OR (anchor.anchorValue IS NOT NULL AND (" + sort + " > anchor.anchorValue"
+                + " OR (" + sort + " = anchor.anchorValue AND " + key + " > ?))))";
+    }
+
+    /**
+     * @return {@code ORDER BY} с ключом вторым уровнем
+     */
+    String orderBy() {
+        String direction = descending ? " DESC" : " ASC";
+        if (!needsAnchor()) {
+            return " ORDER BY " + alias + keyColumn + direction;
+        }
+        return " ORDER BY " + alias + sortColumn + direction + ", " + alias + keyColumn + " ASC";
+    }
+
+    /**
+     * @return следующий индекс параметра
+     */
+    int bindAnchor(PreparedStatement statement, int index, int afterKey) throws SQLException {
+        if (!needsAnchor()) {
+            return index;
+        }
+        statement.setInt(index, afterKey);
+        return index + 1;
+    }
+
+    /**
+     * @return следующий индекс параметра
+     */
+    int bindCondition(PreparedStatement statement, int index, int afterKey) throws SQLException {
+        statement.setInt(index++, afterKey);
+        if (needsAnchor()) {
+            statement.setInt(index++, afterKey);
+        }
+        return index;
+    }
+}
@@ -2,6 +2,7 @@ package com.femsq.database.dao;
 
 import com.femsq.database.exception.DaoException;
 import com.femsq.database.model.OgAg;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -26,6 +27,14 @@ public interface OgAgDao {
      */
     List<OgAg> findByOrganization(int organizationKey);
 
+    /**
+     * Находит агентские организации сразу для нескольких базовых организаций одним запросом {@code IN}.
+     *
+     * @param organizationKeys идентификаторы записей {@code ags_test.og} (не больше 2000 за вызов)
+     * @return агентские организации, упорядоченные по базовой организации и ключу
+     */
+    List<OgAg> findByOrganizations(Collection<Integer> organizationKeys);
+
     /**
      * Возвращает все агентские организации.
      *
@@ -33,6 +42,15 @@ public interface OgAgDao {
      */
     List<OgAg> findAll();
 
+    /**
+     * Keyset-страница агентских организаций по возрастанию {@code ogaKey}.
+     *
+     * @param afterOgAgKey ключ последней записи предыдущей страницы или {@code null} для первой страницы
+     * @param limit максимальное количество записей
+     * @return записи страницы
+     */
+    List<OgAg> findPageAfter(Integer afterOgAgKey, int limit);
+
     /**
      * Создает новую агентскую организацию.
      *
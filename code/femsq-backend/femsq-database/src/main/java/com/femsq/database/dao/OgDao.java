@@ -50,6 +50,20 @@ public interface OgDao {
      */
     List<Og> findAll(int page, int size, String sortField, String sortDirection, String nameFilter);
 
+    /**
+     * Keyset-страница организаций: записи строго после организации {@code afterOgKey} в порядке
+     * {@code sortField, ogKey}. В отличие от {@link #findAll(int, int, String, String, String)} цена запроса
+     * не зависит от глубины страницы.
+     *
+     * @param afterOgKey ключ последней записи предыдущей страницы или {@code null} для первой страницы
+     * @param limit максимальное количество записей
+     * @param sortField поле для сортировки (например, "ogNm")
+     * @param sortDirection направление сортировки ("asc" или "desc")
+     * @param nameFilter фильтр по части наименования (case-insensitive)
+     * @return записи страницы
+     */
+    List<Og> findPageAfter(Integer afterOgKey, int limit, String sortField, String sortDirection, String nameFilter);
+
     /**
      * Подсчитывает общее количество организаций.
      *
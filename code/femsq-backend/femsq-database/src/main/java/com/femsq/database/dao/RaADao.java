@@ -20,6 +20,23 @@ public interface RaADao {
      */
     List<RaA> findAll();
 
+    /**
+     * Возвращает ревизию без {@code adt_results} ({@link RaA#adtResults()} = {@code null}).
+     */
+    Optional<RaA> findSummaryById(long adtKey);
+
+    /**
+     * Возвращает все ревизии без {@code adt_results} — для списков и экранов статуса.
+     */
+    List<RaA> findAllSummaries();
+
+    /**
+     * Возвращает только HTML-лог ревизии ({@code adt_results}).
+     *
+     * @return лог; пусто, если ревизии нет или лог не заполнен
+     */
+    Optional<String> findResultsById(long adtKey);
+
     /**
      * Подсчитывает количество записей.
      */
@@ -16,6 +16,7 @@ import com.femsq.database.model.sudz.SudzDebtCollection;
 import com.femsq.database.model.sudz.SudzPmLink;
 import com.femsq.database.model.sudz.SudzPmUplLookup;
 import com.femsq.database.model.sudz.SudzRsltDebt;
+import com.femsq.database.model.sudz.SudzRsltOutline;
 import com.femsq.database.model.sudz.SudzRsltReturnRow;
 import com.femsq.database.model.sudz.SudzSfDoubleDomainMatch;
 import com.femsq.database.model.sudz.SudzSfDoubleExcelCandidate;
@@ -30,6 +31,7 @@ import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 /**
  * Доступ к витринам и CRUD портфеля года СУДЗ.
@@ -226,6 +228,33 @@ public interface SudzDao {
      */
     List<SudzRsltDebt> findYrDbtChanges(int yrKey, Integer asOfUpl);
 
+    /**
+     * Портфель года в структуре Rslt, отдаваемый по одному долгу: долг передаётся в {@code sink},
+     * как только в упорядоченной по {@code dbtKey} выборке начинается следующий. В памяти — один долг.
+     *
+     * @param yrKey ключ года
+     * @param asOfUpl опционально: только срезы с {@code upl_date} ≤ даты этой выгрузки
+     * @param afterDbtKey опционально: keyset-курсор, только долги с {@code dbtKey} больше указанного
+     * @param maxDebts опционально: не более стольких долгов (по возрастанию {@code dbtKey})
+     * @param sink получатель долгов; исключение из него прерывает чтение
+     */
+    void streamYrDbtChanges(
+            int yrKey,
+            Integer asOfUpl,
+            Integer afterDbtKey,
+            Integer maxDebts,
+            Consumer<SudzRsltDebt> sink
+    );
+
+    /**
+     * Контур портфеля Rslt (срезы и число долгов) без чтения самих долгов.
+     *
+     * @param yrKey ключ года
+     * @param asOfUpl опционально: только срезы с {@code upl_date} ≤ даты этой выгрузки
+     * @return срезы по возрастанию даты и число долгов
+     */
+    SudzRsltOutline findYrDbtOutline(int yrKey, Integer asOfUpl);
+
     /**
      * Итоговый документ D644.
      *
@@ -337,6 +366,7 @@ public interface SudzDao {
     /**
      * INSERT договоров шага {@code CnNotLoad} (только строки с {@code countCnName = 1}).
      * Одна транзакция; все новые {@code cn} получают один {@code cnMark}.
+     * Цепочка вставок выполняется set-based (по одному MERGE на таблицу), а не построчно.
      *
      * @param rows строки лога (порядок = индекс 1..n)
      * @param cnMark метка отката
@@ -380,6 +410,7 @@ public interface SudzDao {
     /**
      * INSERT {@code inv} → {@code invNum} → {@code cnInv} по буферу TblCnInv
      * только для строк без {@code inNumCount} (очередь SfDouble — вручную, S68).
+     * Set-based: по одному оператору на таблицу, ключи {@code iKey} — через OUTPUT в #temp.
      *
      * @param unloadKey ключ (для лога; буфер уже собран)
      * @return число внесённых СФ
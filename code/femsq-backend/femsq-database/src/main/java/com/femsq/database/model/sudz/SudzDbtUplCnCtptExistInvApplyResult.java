@@ -4,6 +4,7 @@ package com.femsq.database.model.sudz;
  * Итог apply шага {@code CnCtptExistInvNotLoad}.
  *
  * @param insertedCount число созданных троек inv / invNum / cnInv
+ * @param elapsedMs длительность apply (мс), для лога воронки
  */
-public record SudzDbtUplCnCtptExistInvApplyResult(int insertedCount) {
+public record SudzDbtUplCnCtptExistInvApplyResult(int insertedCount, long elapsedMs) {
 }
@@ -9,12 +9,14 @@ import java.util.Map;
  * @param note текст {@code cn_note} / {@code cnnNote}
  * @param insertedByRowIndex вставки по индексу строки в списке лога (1-based); нет ключа — не вставляли
  * @param insertedCount число успешно вставленных договоров
+ * @param elapsedMs длительность apply (мс), для лога воронки
  */
 public record SudzDbtUplCnNotLoadApplyResult(
         int cnMark,
         String note,
         Map<Integer, SudzDbtUplCnNotLoadInserted> insertedByRowIndex,
-        int insertedCount
+        int insertedCount,
+        long elapsedMs
 ) {
     /**
      * Компактный конструктор: неизменяемая карта.
@@ -31,6 +33,6 @@ public record SudzDbtUplCnNotLoadApplyResult(
      * @return результат
      */
     public static SudzDbtUplCnNotLoadApplyResult empty(int cnMark, String note) {
-        return new SudzDbtUplCnNotLoadApplyResult(cnMark, note, Map.of(), 0);
+        return new SudzDbtUplCnNotLoadApplyResult(cnMark, note, Map.of(), 0, 0L);
     }
 }
@@ -0,0 +1,17 @@
+package com.femsq.database.model.sudz;
+
+import java.util.List;
+
+/**
+ * Контур портфеля Rslt без самих долгов: срезы (колонки) и число долгов (строки).
+ * Нужен потоковой выгрузке, которая пишет шапку до чтения первого долга.
+ *
+ * @param slices    срезы по возрастанию даты выгрузки
+ * @param debtCount число различных {@code dbtKey}
+ */
+public record SudzRsltOutline(List<SudzRsltSlice> slices, int debtCount) {
+
+    public SudzRsltOutline {
+        slices = List.copyOf(slices);
+    }
+}
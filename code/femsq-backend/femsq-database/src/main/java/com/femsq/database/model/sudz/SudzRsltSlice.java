@@ -0,0 +1,12 @@
+package com.femsq.database.model.sudz;
+
+import java.time.LocalDate;
+
+/**
+ * Срез портфеля Rslt (колоночный блок выгрузки).
+ *
+ * @param uplDate дата выгрузки среза
+ * @param asOf    наибольшая дата состояния среза (или {@code uplDate}, если не задана)
+ */
+public record SudzRsltSlice(LocalDate uplDate, LocalDate asOf) {
+}
@@ -10,5 +10,10 @@ public interface CnNumService {
 
     List<CnNum> getAll();
 
+    /**
+     * Keyset-страница номеров в порядке {@code cnnNum, cnnKey} после номера {@code afterCnnKey}.
+     */
+    List<CnNum> getPageAfter(Integer afterCnnKey, int limit);
+
     List<CnNum> getByCnKey(int cnKey);
 }
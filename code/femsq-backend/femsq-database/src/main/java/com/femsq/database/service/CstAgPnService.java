@@ -3,6 +3,7 @@ package com.femsq.database.service;
 import com.femsq.database.model.CstAgPn;
 import com.femsq.database.model.CstAgPnCode;
 import com.femsq.database.model.CstAgPnSiteLookup;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -13,6 +14,11 @@ public interface CstAgPnService {
 
     List<CstAgPn> getForCstAg(int cstaKey);
 
+    /**
+     * САК нескольких агентов стройки одним запросом (без проверки существования агентов).
+     */
+    List<CstAgPn> getForCstAgs(Collection<Integer> cstaKeys);
+
     Optional<CstAgPn> getById(int cstapKey);
 
     /**
@@ -1,6 +1,7 @@
 package com.femsq.database.service;
 
 import com.femsq.database.model.CstAg;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -11,6 +12,11 @@ public interface CstAgService {
 
     List<CstAg> getForCst(int cstKey);
 
+    /**
+     * Агенты нескольких строек одним запросом (без проверки существования строек).
+     */
+    List<CstAg> getForCsts(Collection<Integer> cstKeys);
+
     Optional<CstAg> getById(int cstaKey);
 
     CstAg create(CstAg agent);
@@ -11,6 +11,11 @@ public interface CstService {
 
     List<Cst> getAll();
 
+    /**
+     * Keyset-страница строек в порядке {@code cstName, cstKey} после стройки {@code afterCstKey}.
+     */
+    List<Cst> getPageAfter(Integer afterCstKey, int limit);
+
     Optional<Cst> getById(int cstKey);
 
     Cst create(Cst site);
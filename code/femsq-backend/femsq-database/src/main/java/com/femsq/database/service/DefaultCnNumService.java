@@ -25,6 +25,15 @@ public class DefaultCnNumService implements CnNumService {
         return cnNumDao.findAll();
     }
 
+    @Override
+    public List<CnNum> getPageAfter(Integer afterCnnKey, int limit) {
+        log.fine(() -> "CnNumService.getPageAfter after=" + afterCnnKey + ", limit=" + limit);
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Размер страницы должен быть положительным");
+        }
+        return cnNumDao.findPageAfter(afterCnnKey, limit);
+    }
+
     @Override
     public List<CnNum> getByCnKey(int cnKey) {
         log.fine(() -> "CnNumService.getByCnKey cnKey=" + cnKey);
@@ -6,6 +6,7 @@ import com.femsq.database.exception.DaoException;
 import com.femsq.database.model.CstAgPn;
 import com.femsq.database.model.CstAgPnCode;
 import com.femsq.database.model.CstAgPnSiteLookup;
+import java.util.Collection;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
@@ -33,6 +34,11 @@ public class DefaultCstAgPnService implements CstAgPnService {
         return cstAgPnDao.findByCstAg(cstaKey);
     }
 
+    @Override
+    public List<CstAgPn> getForCstAgs(Collection<Integer> cstaKeys) {
+        return cstAgPnDao.findByCstAgs(cstaKeys);
+    }
+
     @Override
     public Optional<CstAgPn> getById(int cstapKey) {
         return cstAgPnDao.findById(cstapKey);
@@ -4,6 +4,7 @@ import com.femsq.database.dao.CstAgDao;
 import com.femsq.database.dao.CstDao;
 import com.femsq.database.exception.DaoException;
 import com.femsq.database.model.CstAg;
+import java.util.Collection;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
@@ -32,6 +33,11 @@ public class DefaultCstAgService implements CstAgService {
         return cstAgDao.findByCst(cstKey);
     }
 
+    @Override
+    public List<CstAg> getForCsts(Collection<Integer> cstKeys) {
+        return cstAgDao.findByCsts(cstKeys);
+    }
+
     @Override
     public Optional<CstAg> getById(int cstaKey) {
         return cstAgDao.findById(cstaKey);
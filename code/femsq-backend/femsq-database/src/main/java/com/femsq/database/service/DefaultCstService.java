@@ -27,6 +27,14 @@ public class DefaultCstService implements CstService {
         return cstDao.findAll();
     }
 
+    @Override
+    public List<Cst> getPageAfter(Integer afterCstKey, int limit) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Размер страницы должен быть положительным");
+        }
+        return cstDao.findPageAfter(afterCstKey, limit);
+    }
+
     @Override
     public Optional<Cst> getById(int cstKey) {
         return cstDao.findById(cstKey);
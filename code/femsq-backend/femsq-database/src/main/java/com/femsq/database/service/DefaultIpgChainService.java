@@ -30,6 +30,15 @@ public class DefaultIpgChainService implements IpgChainService {
         return ipgChainDao.findAll(page, size, sortField, sortDirection, nameFilter, yearFilter);
     }
 
+    @Override
+    public List<IpgChain> getPageAfter(Integer afterChainKey, int limit, String sortField, String sortDirection,
+                                       String nameFilter, Integer yearFilter) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Размер страницы должен быть положительным");
+        }
+        return ipgChainDao.findPageAfter(afterChainKey, limit, sortField, sortDirection, nameFilter, yearFilter);
+    }
+
     @Override
     public long count(String nameFilter, Integer yearFilter) {
         return ipgChainDao.count(nameFilter, yearFilter);
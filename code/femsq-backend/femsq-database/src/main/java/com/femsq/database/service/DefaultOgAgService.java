@@ -5,6 +5,7 @@ import com.femsq.database.dao.OgDao;
 import com.femsq.database.exception.DaoException;
 import com.femsq.database.model.Og;
 import com.femsq.database.model.OgAg;
+import java.util.Collection;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
@@ -31,12 +32,25 @@ public class DefaultOgAgService implements OgAgService {
         return ogAgDao.findAll();
     }
 
+    @Override
+    public List<OgAg> getPageAfter(Integer afterOgAgKey, int limit) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Размер страницы должен быть положительным");
+        }
+        return ogAgDao.findPageAfter(afterOgAgKey, limit);
+    }
+
     @Override
     public List<OgAg> getForOrganization(int ogKey) {
         requireOrganizationExists(ogKey);
         return ogAgDao.findByOrganization(ogKey);
     }
 
+    @Override
+    public List<OgAg> getForOrganizations(Collection<Integer> ogKeys) {
+        return ogAgDao.findByOrganizations(ogKeys);
+    }
+
     @Override
     public Optional<OgAg> getById(int ogAgKey) {
         return ogAgDao.findById(ogAgKey);
@@ -37,6 +37,14 @@ public class DefaultOgService implements OgService {
         return ogDao.findAll(page, size, sortField, sortDirection, normalizeNameFilter(nameFilter));
     }
 
+    @Override
+    public List<Og> getPageAfter(Integer afterOgKey, int limit, String sortField, String sortDirection, String nameFilter) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Размер страницы должен быть положительным");
+        }
+        return ogDao.findPageAfter(afterOgKey, limit, sortField, sortDirection, normalizeNameFilter(nameFilter));
+    }
+
     @Override
     public long count() {
         return ogDao.count();
@@ -32,6 +32,21 @@ public class DefaultRaAService implements RaAService {
         return raADao.findById(adtKey);
     }
 
+    @Override
+    public List<RaA> getAllSummaries() {
+        return raADao.findAllSummaries();
+    }
+
+    @Override
+    public Optional<RaA> getSummaryById(long adtKey) {
+        return raADao.findSummaryById(adtKey);
+    }
+
+    @Override
+    public Optional<String> getResults(long adtKey) {
+        return raADao.findResultsById(adtKey);
+    }
+
     @Override
     public RaA create(RaA raA) {
         validateNewAudit(raA);
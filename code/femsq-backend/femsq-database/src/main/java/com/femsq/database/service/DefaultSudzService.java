@@ -20,6 +20,7 @@ import com.femsq.database.model.sudz.SudzDebtCollection;
 import com.femsq.database.model.sudz.SudzPmLink;
 import com.femsq.database.model.sudz.SudzPmUplLookup;
 import com.femsq.database.model.sudz.SudzRsltDebt;
+import com.femsq.database.model.sudz.SudzRsltOutline;
 import com.femsq.database.model.sudz.SudzRsltReturnRow;
 import com.femsq.database.model.sudz.SudzSfDoubleDomainMatch;
 import com.femsq.database.model.sudz.SudzSfDoubleExcelCandidate;
@@ -37,6 +38,7 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Consumer;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -268,11 +270,44 @@ public class DefaultSudzService implements SudzService {
     @Override
     public List<SudzRsltDebt> getYrDbtChanges(int yrKey, Integer asOfUpl) {
         requireYear(yrKey);
+        requireAsOfUpl(asOfUpl);
+        log.log(Level.FINE, "getYrDbtChanges yr={0}, asOfUpl={1}", new Object[]{yrKey, asOfUpl});
+        return sudzDao.findYrDbtChanges(yrKey, asOfUpl);
+    }
+
+    @Override
+    public void streamYrDbtChanges(int yrKey, Integer asOfUpl, Consumer<SudzRsltDebt> sink) {
+        requireYear(yrKey);
+        requireAsOfUpl(asOfUpl);
+        log.log(Level.FINE, "streamYrDbtChanges yr={0}, asOfUpl={1}", new Object[]{yrKey, asOfUpl});
+        sudzDao.streamYrDbtChanges(yrKey, asOfUpl, null, null, sink);
+    }
+
+    @Override
+    public List<SudzRsltDebt> getYrDbtChangesPage(int yrKey, Integer asOfUpl, Integer afterDbtKey, int limit) {
+        requireYear(yrKey);
+        requireAsOfUpl(asOfUpl);
+        if (limit <= 0) {
+            throw new IllegalArgumentException("limit должен быть положительным: " + limit);
+        }
+        log.log(Level.FINE, "getYrDbtChangesPage yr={0}, asOfUpl={1}, after={2}, limit={3}",
+                new Object[]{yrKey, asOfUpl, afterDbtKey, limit});
+        List<SudzRsltDebt> debts = new ArrayList<>(limit);
+        sudzDao.streamYrDbtChanges(yrKey, asOfUpl, afterDbtKey, limit, debts::add);
+        return List.copyOf(debts);
+    }
+
+    @Override
+    public SudzRsltOutline getYrDbtOutline(int yrKey, Integer asOfUpl) {
+        requireYear(yrKey);
+        requireAsOfUpl(asOfUpl);
+        return sudzDao.findYrDbtOutline(yrKey, asOfUpl);
+    }
+
+    private static void requireAsOfUpl(Integer asOfUpl) {
         if (asOfUpl != null && asOfUpl <= 0) {
             throw new IllegalArgumentException("asOfUpl должен быть положительным: " + asOfUpl);
         }
-        log.log(Level.FINE, "getYrDbtChanges yr={0}, asOfUpl={1}", new Object[]{yrKey, asOfUpl});
-        return sudzDao.findYrDbtChanges(yrKey, asOfUpl);
     }
 
     @Override
@@ -13,5 +13,9 @@ public interface IpgChainService {
 
     List<IpgChain> getAll(int page, int size, String sortField, String sortDirection, String nameFilter, Integer yearFilter);
 
+    /** Keyset-страница цепочек после цепочки {@code afterChainKey}; см. {@link com.femsq.database.dao.IpgChainDao#findPageAfter}. */
+    List<IpgChain> getPageAfter(Integer afterChainKey, int limit, String sortField, String sortDirection,
+                                String nameFilter, Integer yearFilter);
+
     long count(String nameFilter, Integer yearFilter);
 }
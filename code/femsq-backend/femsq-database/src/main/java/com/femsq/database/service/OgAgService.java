@@ -1,6 +1,7 @@
 package com.femsq.database.service;
 
 import com.femsq.database.model.OgAg;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -14,11 +15,21 @@ public interface OgAgService {
      */
     List<OgAg> getAll();
 
+    /**
+     * Возвращает keyset-страницу агентских организаций после записи {@code afterOgAgKey}.
+     */
+    List<OgAg> getPageAfter(Integer afterOgAgKey, int limit);
+
     /**
      * Возвращает агентские организации по идентификатору базовой организации.
      */
     List<OgAg> getForOrganization(int ogKey);
 
+    /**
+     * Возвращает агентские организации сразу для нескольких базовых организаций (без проверки их существования).
+     */
+    List<OgAg> getForOrganizations(Collection<Integer> ogKeys);
+
     /**
      * Ищет агентскую организацию по идентификатору.
      */
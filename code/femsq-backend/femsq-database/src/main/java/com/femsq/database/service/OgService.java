@@ -42,6 +42,18 @@ public interface OgService {
      */
     List<Og> getAll(int page, int size, String sortField, String sortDirection, String nameFilter);
 
+    /**
+     * Возвращает keyset-страницу организаций после записи {@code afterOgKey}.
+     *
+     * @param afterOgKey ключ последней записи предыдущей страницы или {@code null}
+     * @param limit максимальное количество записей
+     * @param sortField поле сортировки
+     * @param sortDirection направление сортировки ("asc" или "desc")
+     * @param nameFilter фильтр по части наименования (case-insensitive)
+     * @return записи страницы
+     */
+    List<Og> getPageAfter(Integer afterOgKey, int limit, String sortField, String sortDirection, String nameFilter);
+
     /**
      * Подсчитывает общее количество организаций.
      *
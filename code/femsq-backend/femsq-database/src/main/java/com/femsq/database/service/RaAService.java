@@ -25,6 +25,29 @@ public interface RaAService {
      */
     Optional<RaA> getById(long adtKey);
 
+    /**
+     * Возвращает все ревизии без HTML-лога {@code adt_results}.
+     *
+     * @return неизменяемый список ревизий с {@code adtResults = null}
+     */
+    List<RaA> getAllSummaries();
+
+    /**
+     * Ищет ревизию по идентификатору без HTML-лога {@code adt_results}.
+     *
+     * @param adtKey первичный ключ ревизии
+     * @return ревизия с {@code adtResults = null}, если найдена
+     */
+    Optional<RaA> getSummaryById(long adtKey);
+
+    /**
+     * Возвращает HTML-лог ревизии ({@code adt_results}).
+     *
+     * @param adtKey первичный ключ ревизии
+     * @return лог, если ревизия найдена и лог заполнен
+     */
+    Optional<String> getResults(long adtKey);
+
     /**
      * Создает новую ревизию после валидации бизнес-правил.
      *
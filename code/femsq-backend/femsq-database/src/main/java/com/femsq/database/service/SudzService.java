@@ -17,6 +17,7 @@ import com.femsq.database.model.sudz.SudzDebtCollection;
 import com.femsq.database.model.sudz.SudzPmLink;
 import com.femsq.database.model.sudz.SudzPmUplLookup;
 import com.femsq.database.model.sudz.SudzRsltDebt;
+import com.femsq.database.model.sudz.SudzRsltOutline;
 import com.femsq.database.model.sudz.SudzRsltReturnRow;
 import com.femsq.database.model.sudz.SudzSfDoubleDomainMatch;
 import com.femsq.database.model.sudz.SudzSfDoubleExcelCandidate;
@@ -31,6 +32,7 @@ import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 /**
  * Сервис чтения/записи витрин СУДЗ и CRUD портфеля года.
@@ -220,6 +222,38 @@ public interface SudzService {
      */
     List<SudzRsltDebt> getYrDbtChanges(int yrKey, Integer asOfUpl);
 
+    /**
+     * Портфель года (структура Rslt) по одному долгу, без накопления всего списка.
+     *
+     * @param yrKey ключ года
+     * @param asOfUpl опционально: срезы до выбранной выгрузки включительно
+     * @param sink получатель долгов в порядке {@code dbtKey}
+     * @throws IllegalArgumentException если год не найден
+     */
+    void streamYrDbtChanges(int yrKey, Integer asOfUpl, Consumer<SudzRsltDebt> sink);
+
+    /**
+     * Страница портфеля года по keyset-курсору {@code dbtKey}.
+     *
+     * @param yrKey ключ года
+     * @param asOfUpl опционально: срезы до выбранной выгрузки включительно
+     * @param afterDbtKey опционально: вернуть долги после этого {@code dbtKey}
+     * @param limit максимум долгов на странице (положительный)
+     * @return долги по возрастанию {@code dbtKey}
+     * @throws IllegalArgumentException если год не найден или параметры некорректны
+     */
+    List<SudzRsltDebt> getYrDbtChangesPage(int yrKey, Integer asOfUpl, Integer afterDbtKey, int limit);
+
+    /**
+     * Контур портфеля года: срезы (колонки Rslt) и число долгов.
+     *
+     * @param yrKey ключ года
+     * @param asOfUpl опционально: срезы до выбранной выгрузки включительно
+     * @return контур портфеля
+     * @throws IllegalArgumentException если год не найден
+     */
+    SudzRsltOutline getYrDbtOutline(int yrKey, Integer asOfUpl);
+
     /**
      * Итоговый документ D644.
      *
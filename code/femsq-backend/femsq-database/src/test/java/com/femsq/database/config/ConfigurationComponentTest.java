@@ -7,6 +7,8 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Comparator;
 import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -407,6 +409,65 @@ class ConfigurationComponentTest {
             assertEquals("saved_user", loadedConfig.username());
         }
 
+        @Test
+        @DisplayName("При наблюдении за файлом изменение публикует новый snapshot с большей версией")
+        void watchingPublishesNewSnapshotOnFileChange() throws Exception {
+            fileManager.writeProperties(credentials("watched.server.local"));
+            assertTrue(configurationService.startWatching());
+            try {
+                DatabaseConfigurationService.DatabaseConfigurationProperties first = configurationService.loadConfig();
+                long firstVersion = configurationService.getConfigurationVersion();
+                assertSame(first, configurationService.loadConfig(), "Без изменений файла snapshot не пересоздаётся");
+
+                fileManager.writeProperties(credentials("rewatched.server.local"));
+
+                long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(15);
+                DatabaseConfigurationService.DatabaseConfigurationProperties current = first;
+                while (System.nanoTime() < deadline && "watched.server.local".equals(current.host())) {
+                    Thread.sleep(50);
+                    current = configurationService.loadConfig();
+                }
+                assertEquals("rewatched.server.local", current.host());
+                assertTrue(configurationService.getConfigurationVersion() > firstVersion);
+            } finally {
+                configurationService.stopWatching();
+            }
+        }
+
+        @Test
+        @DisplayName("Без директории конфигурации наблюдение запускается после сохранения файла")
+        void watchingStartsOnceConfigurationDirectoryIsCreated() {
+            assertFalse(Files.exists(fileManager.resolveConfigPath().getParent()));
+            assertFalse(configurationService.startWatching());
+            try {
+                configurationService.saveConfig(new DatabaseConfigurationService.DatabaseConfigurationProperties(
+                        "late.server.local", 1433, "late_db", "ags_test", "late_user", "late_pwd", "credentials", null));
+
+                assertTrue(configurationService.startWatching());
+            } finally {
+                configurationService.stopWatching();
+            }
+        }
+
+        @Test
+        @DisplayName("ConfigurationBoundValue пересчитывается только при смене snapshot")
+        void boundValueRecomputedOnlyForNewSnapshot() {
+            fileManager.writeProperties(credentials("bound.server.local"));
+            AtomicInteger computations = new AtomicInteger();
+            ConfigurationBoundValue<String> tableName = new ConfigurationBoundValue<>(configurationService, config -> {
+                computations.incrementAndGet();
+                return config.schema() + ".og";
+            });
+
+            String first = tableName.get();
+            assertSame(first, tableName.get());
+            assertEquals(1, computations.get());
+
+            configurationService.refresh();
+            assertEquals(first, tableName.get());
+            assertEquals(2, computations.get());
+        }
+
         @Test
         @DisplayName("Кэширование thread-safe при одновременных вызовах")
         void cachingIsThreadSafe() throws InterruptedException {
@@ -455,4 +516,15 @@ class ConfigurationComponentTest {
             }
         }
     }
+
+    private static Properties credentials(String host) {
+        Properties properties = new Properties();
+        properties.setProperty("host", host);
+        properties.setProperty("port", "1433");
+        properties.setProperty("database", "watch_db");
+        properties.setProperty("username", "watch_user");
+        properties.setProperty("password", "watch_pwd");
+        properties.setProperty("authMode", "credentials");
+        return properties;
+    }
 }
@@ -0,0 +1,190 @@
+package com.femsq.database.connection;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.Driver;
+import java.sql.DriverManager;
+import java.sql.DriverPropertyInfo;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.Properties;
+import java.util.logging.Logger;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Пул HikariCP поверх заглушечного JDBC-драйвера: повторное использование пула, пересборка при смене
+ * параметров и стекание вытесненного пула.
+ */
+class HikariJdbcConnectorTest {
+
+    private static final String URL = "jdbc:femsq-stub://pool";
+    private static final StubDriver DRIVER = new StubDriver();
+
+    private HikariJdbcConnector connector;
+
+    @BeforeAll
+    static void registerDriver() throws SQLException {
+        DriverManager.registerDriver(DRIVER);
+    }
+
+    @AfterAll
+    static void deregisterDriver() throws SQLException {
+        DriverManager.deregisterDriver(DRIVER);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (connector != null) {
+            connector.close();
+        }
+    }
+
+    @Test
+    void connectReusesPoolForSameParameters() throws Exception {
+        connector = new HikariJdbcConnector(new HikariPoolSettings(2, 0, Duration.ofSeconds(5), null));
+        Properties properties = properties("alex");
+
+        try (Connection ignored = connector.connect(URL, properties)) {
+            String poolName = connector.currentPoolName();
+            try (Connection second = connector.connect(URL, properties("alex"))) {
+                assertNotNull(second);
+            }
+            assertEquals(poolName, connector.currentPoolName(), "Равные параметры не должны пересобирать пул");
+        }
+        assertEquals(0, connector.drainingPoolCount());
+    }
+
+    @Test
+    void changedPropertiesRebuildPoolAndOldPoolDrainsAfterRelease() throws Exception {
+        connector = new HikariJdbcConnector(new HikariPoolSettings(2, 0, Duration.ofSeconds(10), null));
+
+        Connection borrowed = connector.connect(URL, properties("alex"));
+        String firstPool = connector.currentPoolName();
+
+        try (Connection fresh = connector.connect(URL, properties("bob"))) {
+            assertNotNull(fresh);
+        }
+        assertNotEquals(firstPool, connector.currentPoolName());
+        assertEquals(1, connector.drainingPoolCount(), "Старый пул ждёт возврата выданного соединения");
+        assertFalse(borrowed.isClosed(), "Выданное соединение не обрывается при пересборке пула");
+
+        borrowed.close();
+        awaitDrained();
+    }
+
+    @Test
+    void resetRetiresPoolAndNextConnectCreatesNewOne() throws Exception {
+        connector = new HikariJdbcConnector(new HikariPoolSettings(2, 0, Duration.ofSeconds(5), null));
+        Properties properties = properties("alex");
+
+        try (Connection ignored = connector.connect(URL, properties)) {
+            // пул создан
+        }
+        String firstPool = connector.currentPoolName();
+        connector.reset();
+        assertNull(connector.currentPoolName());
+
+        try (Connection ignored = connector.connect(URL, properties)) {
+            assertNotEquals(firstPool, connector.currentPoolName());
+        }
+        awaitDrained();
+    }
+
+    @Test
+    void settingsRejectMinimumIdleAboveMaximum() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new HikariPoolSettings(2, 3, Duration.ofSeconds(1), null));
+    }
+
+    private void awaitDrained() throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (connector.drainingPoolCount() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(50);
+        }
+        assertEquals(0, connector.drainingPoolCount(), "Вытесненный пул должен закрыться после возврата соединений");
+    }
+
+    private static Properties properties(String user) {
+        Properties properties = new Properties();
+        properties.setProperty("user", user);
+        properties.setProperty("password", "secret");
+        return properties;
+    }
+
+    /**
+     * Драйвер, выдающий соединения-заглушки: без сети, с корректным {@code isClosed()}.
+     */
+    private static final class StubDriver implements Driver {
+
+        @Override
+        public Connection connect(String url, Properties info) {
+            if (!acceptsURL(url)) {
+                return null;
+            }
+            boolean[] closed = {false};
+            return (Connection) Proxy.newProxyInstance(
+                    Connection.class.getClassLoader(),
+                    new Class<?>[]{Connection.class},
+                    (proxy, method, args) -> switch (method.getName()) {
+                        case "close", "abort" -> {
+                            closed[0] = true;
+                            yield null;
+                        }
+                        case "isClosed" -> closed[0];
+                        case "isValid", "getAutoCommit" -> true;
+                        case "hashCode" -> System.identityHashCode(proxy);
+                        case "equals" -> proxy == args[0];
+                        case "toString" -> "StubConnection";
+                        default -> defaultValue(method.getReturnType());
+                    });
+        }
+
+        private static Object defaultValue(Class<?> type) {
+            if (type == boolean.class) {
+                return false;
+            }
+            if (type == int.class) {
+                return 0;
+            }
+            if (type == long.class) {
+                return 0L;
+            }
+            return null;
+        }
+
+        @Override
+        public boolean acceptsURL(String url) {
+            return url != null && url.startsWith("jdbc:femsq-stub:");
+        }
+
+        @Override
+        public DriverPropertyInfo[] getPropertyInfo(String url, Properties info) {
+            return new DriverPropertyInfo[0];
+        }
+
+        @Override
+        public int getMajorVersion() {
+            return 1;
+        }
+
+        @Override
+        public int getMinorVersion() {
+            return 0;
+        }
+
+        @Override
+        public boolean jdbcCompliant() {
+            return false;
+        }
+
+        @Override
+        public Logger getParentLogger() {
+            return Logger.getGlobal();
+        }
+    }
+}
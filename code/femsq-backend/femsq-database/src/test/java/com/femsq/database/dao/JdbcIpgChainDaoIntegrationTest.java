@@ -62,6 +62,13 @@ class JdbcIpgChainDaoIntegrationTest {
         assertNotNull(chains);
     }
 
+    @Test
+    void findPageAfterStartsWithFirstOffsetPage() {
+        List<IpgChain> offsetPage = dao.findAll(0, 10, "ipgcName", "asc", null, null);
+        List<IpgChain> keysetPage = dao.findPageAfter(null, 10, "ipgcName", "asc", null, null);
+        assertEquals(offsetPage, keysetPage);
+    }
+
     @Test
     void countReturnsZeroOrMore() {
         long count = dao.count(null, null);
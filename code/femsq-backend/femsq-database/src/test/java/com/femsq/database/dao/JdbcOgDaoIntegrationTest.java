@@ -62,6 +62,22 @@ class JdbcOgDaoIntegrationTest {
         assertTrue(organizations.stream().anyMatch(og -> "Копыта и хвосты, ИП".equals(og.ogName())));
     }
 
+    @Test
+    void findPageAfterWalksSameOrderAsOffsetPaging() {
+        List<Og> offsetOrder = dao.findAll(0, 100, "ogNm", "desc", null);
+
+        List<Og> keysetOrder = new java.util.ArrayList<>();
+        Integer after = null;
+        List<Og> page;
+        do {
+            page = dao.findPageAfter(after, 2, "ogNm", "desc", null);
+            keysetOrder.addAll(page);
+            after = page.isEmpty() ? after : page.get(page.size() - 1).ogKey();
+        } while (page.size() == 2);
+
+        assertEquals(offsetOrder, keysetOrder);
+    }
+
     @Test
     void createInsertsNewOrganization() {
         Og newOrganization = new Og(
@@ -0,0 +1,67 @@
+package com.femsq.database.dao;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.lang.reflect.Proxy;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class KeysetSeekTest {
+
+    @Test
+    void byKeyComparesKeyWithoutAnchor() throws Exception {
+        KeysetSeek seek = KeysetSeek.byKey("n", "cnnKey", true);
+        List<String> bound = new ArrayList<>();
+        PreparedStatement statement = recordingStatement(bound);
+
+        assertEquals("", seek.anchorJoin("ags.cnNum"));
+        assertEquals("n.cnnKey < ?", seek.condition());
+        assertEquals(" ORDER BY n.cnnKey DESC", seek.orderBy());
+        assertEquals(3, seek.bindAnchor(statement, 3, 42));
+        assertEquals(4, seek.bindCondition(statement, 3, 42));
+        assertEquals(List.of("3=42"), bound);
+    }
+
+    @Test
+    void sortColumnReadsAnchorValueAndBreaksTiesByKey() throws Exception {
+        KeysetSeek seek = new KeysetSeek(null, "ogKey", "ogNm", false);
+        List<String> bound = new ArrayList<>();
+        PreparedStatement statement = recordingStatement(bound);
+
+        assertEquals(" CROSS APPLY (SELECT keyset_anchor.ogNm AS anchorValue FROM ags.og AS keyset_anchor"
+                + " WHERE keyset_anchor.ogKey = ?) AS anchor", seek.anchorJoin("ags.og"));
+        assertEquals(" ORDER BY ogNm ASC, ogKey ASC", seek.orderBy());
+        assertTrue(seek.condition().contains("ogNm > anchor.anchorValue"));
+        assertTrue(seek.condition().contains("ogNm IS NOT NULL OR ogKey > ?"));
+
+        int index = seek.bindAnchor(statement, 2, 7);
+        assertEquals(5, seek.bindCondition(statement, index, 7));
+        assertEquals(List.of("2=7", "3=7", "4=7"), bound);
+    }
+
+    @Test
+    void descendingSortPlacesNullsLast() {
+        KeysetSeek seek = new KeysetSeek(null, "ipgcKey", "ipgcName", true);
+
+        String condition = seek.condition();
+
+        assertTrue(condition.contains("ipgcName < anchor.anchorValue OR ipgcName IS NULL"));
+        assertTrue(condition.contains("anchor.anchorValue IS NULL AND ipgcName IS NULL AND ipgcKey > ?"));
+        assertEquals(" ORDER BY ipgcName DESC, ipgcKey ASC", seek.orderBy());
+    }
+
+    private static PreparedStatement recordingStatement(List<String> bound) {
+        return (PreparedStatement) Proxy.newProxyInstance(
+                KeysetSeekTest.class.getClassLoader(),
+                new Class<?>[]{PreparedStatement.class},
+                (proxy, method, args) -> {
+                    if ("setInt".equals(method.getName())) {
+                        bound.add(args[0] + "=" + args[1]);
+                        return null;
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+    }
+}
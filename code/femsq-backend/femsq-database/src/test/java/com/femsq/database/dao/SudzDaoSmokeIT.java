@@ -1,5 +1,6 @@
 package com.femsq.database.dao;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -12,6 +13,7 @@ import com.femsq.database.connection.ConnectionFactory;
 import com.femsq.database.model.sudz.SudzD644Row;
 import com.femsq.database.model.sudz.SudzDebtCollection;
 import com.femsq.database.model.sudz.SudzRsltDebt;
+import com.femsq.database.model.sudz.SudzRsltOutline;
 import com.femsq.database.model.sudz.SudzYear;
 import com.femsq.database.model.sudz.SudzYearDetail;
 import com.femsq.database.service.DefaultSudzService;
@@ -19,6 +21,7 @@ import com.femsq.database.service.SudzService;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -73,6 +76,42 @@ class SudzDaoSmokeIT {
         }
     }
 
+    @Test
+    @DisplayName("Потоковое чтение и keyset-страницы Rslt совпадают со списком")
+    void streamedAndPagedPortfolioMatchList() throws Exception {
+        Path config = Path.of(System.getProperty("user.home"), ".femsq", "database.properties");
+        Assumptions.assumeTrue(Files.isRegularFile(config), "нет ~/.femsq/database.properties");
+
+        DatabaseConfigurationService configurationService = new DatabaseConfigurationService(
+                new ConfigurationFileManager(),
+                new ConfigurationValidator()
+        );
+        try (ConnectionFactory connectionFactory = new ConnectionFactory(configurationService)) {
+            SudzService service = new DefaultSudzService(new JdbcSudzDao(connectionFactory, SUDZ_SCHEMA));
+
+            List<SudzRsltDebt> portfolio = service.getYrDbtChanges(901, null);
+            List<SudzRsltDebt> streamed = new ArrayList<>();
+            service.streamYrDbtChanges(901, null, streamed::add);
+            assertEquals(portfolio, streamed);
+
+            List<SudzRsltDebt> paged = new ArrayList<>();
+            Integer after = null;
+            while (true) {
+                List<SudzRsltDebt> page = service.getYrDbtChangesPage(901, null, after, 2);
+                paged.addAll(page);
+                if (page.size() < 2) {
+                    break;
+                }
+                after = page.get(page.size() - 1).dbtKey();
+            }
+            assertEquals(portfolio, paged);
+
+            SudzRsltOutline outline = service.getYrDbtOutline(901, null);
+            assertEquals(portfolio.size(), outline.debtCount());
+            assertFalse(outline.slices().isEmpty());
+        }
+    }
+
     @Test
     @DisplayName("Список лет обогащён lookup; disposable create+delete года")
     void yearsEnrichedAndDisposableCreateDelete() throws Exception {
@@ -57,6 +57,19 @@ class DefaultIpgChainServiceTest {
         assertEquals(2024, stubDao.lastYearFilter);
     }
 
+    @Test
+    void getPageAfterDelegatesToDao() {
+        stubDao.nextFindAllFiltered = List.of(sampleChain(8, "Test", 2024));
+
+        List<IpgChain> result = service.getPageAfter(7, 20, "ipgcName", "asc", "test", 2024);
+
+        assertEquals(1, result.size());
+        assertEquals(7, stubDao.lastAfterKey);
+        assertEquals(20, stubDao.lastSize);
+        assertEquals("test", stubDao.lastNameFilter);
+        assertEquals(2024, stubDao.lastYearFilter);
+    }
+
     @Test
     void countDelegatesToDao() {
         stubDao.nextCount = 5L;
@@ -81,6 +94,7 @@ class DefaultIpgChainServiceTest {
         private boolean findAllCalled;
         private int lastPage;
         private int lastSize;
+        private Integer lastAfterKey;
         private String lastNameFilter;
         private Integer lastYearFilter;
         private String lastCountNameFilter;
@@ -107,6 +121,16 @@ class DefaultIpgChainServiceTest {
             return nextFindAllFiltered;
         }
 
+        @Override
+        public List<IpgChain> findPageAfter(Integer afterChainKey, int limit, String sortField, String sortDirection,
+                                            String nameFilter, Integer yearFilter) {
+            lastAfterKey = afterChainKey;
+            lastSize = limit;
+            lastNameFilter = nameFilter;
+            lastYearFilter = yearFilter;
+            return nextFindAllFiltered;
+        }
+
         @Override
         public long count(String nameFilter, Integer yearFilter) {
             lastCountNameFilter = nameFilter;
@@ -73,6 +73,18 @@ class DefaultOgAgServiceTest {
         assertEquals(7, ogAgDao.lastDeletedId);
     }
 
+    @Test
+    void getForOrganizationsSkipsExistenceCheck() {
+        ogAgDao.byId.put(1, sampleAgent(1, 10, "100"));
+        ogAgDao.byId.put(2, sampleAgent(2, 20, "200"));
+        ogAgDao.byId.put(3, sampleAgent(3, 30, "300"));
+
+        List<OgAg> agents = service.getForOrganizations(List.of(10, 30));
+
+        assertEquals(List.of(1, 3), agents.stream().map(OgAg::ogAgKey).sorted().toList());
+        assertEquals(List.of(10, 30), ogAgDao.lastOrganizationKeys);
+    }
+
     private Og sampleOrganization(int id) {
         return new Og(
                 id,
@@ -121,6 +133,11 @@ class DefaultOgAgServiceTest {
             return findAll(page, size, sortField, sortDirection);
         }
 
+        @Override
+        public List<Og> findPageAfter(Integer afterOgKey, int limit, String sortField, String sortDirection, String nameFilter) {
+            throw new UnsupportedOperationException();
+        }
+
         @Override
         public long count() {
             return byId.size();
@@ -154,6 +171,7 @@ class DefaultOgAgServiceTest {
         private OgAg lastCreated;
         private OgAg lastUpdated;
         private Integer lastDeletedId;
+        private List<Integer> lastOrganizationKeys;
         private boolean deleteResult;
         private final Map<Integer, OgAg> byId = new java.util.HashMap<>();
 
@@ -169,11 +187,28 @@ class DefaultOgAgServiceTest {
                     .toList();
         }
 
+        @Override
+        public List<OgAg> findByOrganizations(java.util.Collection<Integer> organizationKeys) {
+            lastOrganizationKeys = List.copyOf(organizationKeys);
+            return byId.values().stream()
+                    .filter(agent -> organizationKeys.contains(agent.organizationKey()))
+                    .toList();
+        }
+
         @Override
         public List<OgAg> findAll() {
             return List.copyOf(byId.values());
         }
 
+        @Override
+        public List<OgAg> findPageAfter(Integer afterOgAgKey, int limit) {
+            return byId.values().stream()
+                    .filter(agent -> afterOgAgKey == null || agent.ogAgKey() > afterOgAgKey)
+                    .sorted(java.util.Comparator.comparing(OgAg::ogAgKey))
+                    .limit(limit)
+                    .toList();
+        }
+
         @Override
         public OgAg create(OgAg agent) {
             lastCreated = agent;
@@ -74,6 +74,23 @@ class DefaultOgServiceTest {
         assertEquals(7, stubDao.lastDeletedId);
     }
 
+    @Test
+    void getPageAfterTrimsFilterAndDelegatesToDao() {
+        stubDao.all.add(sampleOrganization(1, "Альфа", "Альфа", "og"));
+        stubDao.all.add(sampleOrganization(2, "Бета", "Бета", "og"));
+        stubDao.all.add(sampleOrganization(3, "Гамма", "Гамма", "og"));
+
+        List<Og> page = service.getPageAfter(1, 1, "ogKey", "asc", "  АЛЬФА ");
+
+        assertEquals(List.of(2), page.stream().map(Og::ogKey).toList());
+        assertEquals("АЛЬФА", stubDao.lastPageNameFilter);
+    }
+
+    @Test
+    void getPageAfterRejectsNonPositiveLimit() {
+        assertThrows(IllegalArgumentException.class, () -> service.getPageAfter(null, 0, null, null, null));
+    }
+
     private Og sampleOrganization(Integer id, String name, String official, String taxType) {
         return new Og(
                 id,
@@ -98,6 +115,7 @@ class DefaultOgServiceTest {
         private Og lastUpdated;
         private Integer lastDeletedId;
         private boolean deleteResult;
+        private String lastPageNameFilter;
         private final List<Og> all = new ArrayList<>();
         private final Map<Integer, Og> byId = new java.util.HashMap<>();
 
@@ -125,6 +143,15 @@ class DefaultOgServiceTest {
             return findAll(page, size, sortField, sortDirection);
         }
 
+        @Override
+        public List<Og> findPageAfter(Integer afterOgKey, int limit, String sortField, String sortDirection, String nameFilter) {
+            lastPageNameFilter = nameFilter;
+            return all.stream()
+                    .filter(og -> afterOgKey == null || og.ogKey() > afterOgKey)
+                    .limit(limit)
+                    .toList();
+        }
+
         @Override
         public long count() {
             return all.size();
@@ -140,6 +140,11 @@ class DefaultOrgIdServiceTest {
             return getAll();
         }
 
+        @Override
+        public List<Og> getPageAfter(Integer afterOgKey, int limit, String sortField, String sortDirection, String nameFilter) {
+            return getAll();
+        }
+
         @Override
         public long count(String nameFilter) {
             return store.size();
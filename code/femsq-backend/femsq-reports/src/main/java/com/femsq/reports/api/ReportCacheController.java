@@ -0,0 +1,70 @@
+package com.femsq.reports.api;
+
+import com.femsq.reports.core.ReportResultCache;
+import com.femsq.reports.core.ReportResultCache.CacheStatistics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+/**
+ * REST контроллер кэша готовых результатов отчётов.
+ *
+ * <p>Кэш не видит изменений данных в БД; после загрузки или исправления данных результаты
+ * сбрасываются явно:
+ * <ul>
+ *   <li>{@code GET /api/v1/reports/cache} — статистика</li>
+ *   <li>{@code DELETE /api/v1/reports/cache} — сбросить всё</li>
+ *   <li>{@code DELETE /api/v1/reports/cache/{reportId}} — сбросить результаты одного отчёта</li>
+ * </ul>
+ */
+@RestController
+@RequestMapping("/api/v1/reports/cache")
+public class ReportCacheController {
+
+    private static final Logger log = LoggerFactory.getLogger(ReportCacheController.class);
+
+    private final ReportResultCache resultCache;
+
+    public ReportCacheController(ReportResultCache resultCache) {
+        this.resultCache = resultCache;
+    }
+
+    /**
+     * GET /api/v1/reports/cache
+     * Получает статистику кэша результатов.
+     *
+     * @return статистика кэша
+     */
+    @GetMapping
+    public ResponseEntity<CacheStatistics> getStatistics() {
+        return ResponseEntity.ok(resultCache.getStatistics());
+    }
+
+    /**
+     * DELETE /api/v1/reports/cache
+     * Сбрасывает кэш результатов полностью.
+     *
+     * @return количество удалённых записей
+     */
+    @DeleteMapping
+    public ResponseEntity<Map<String, Integer>> invalidateAll() {
+        log.info("DELETE /api/v1/reports/cache");
+        return ResponseEntity.ok(Map.of("invalidated", resultCache.invalidateAll()));
+    }
+
+    /**
+     * DELETE /api/v1/reports/cache/{reportId}
+     * Сбрасывает результаты одного отчёта.
+     *
+     * @param reportId идентификатор отчёта
+     * @return количество удалённых записей
+     */
+    @DeleteMapping("/{reportId}")
+    public ResponseEntity<Map<String, Integer>> invalidate(@PathVariable String reportId) {
+        log.info("DELETE /api/v1/reports/cache/{}", reportId);
+        return ResponseEntity.ok(Map.of("invalidated", resultCache.invalidate(reportId)));
+    }
+}
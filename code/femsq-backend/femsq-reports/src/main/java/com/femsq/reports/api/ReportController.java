@@ -7,12 +7,20 @@ import com.femsq.reports.model.*;
 import net.sf.jasperreports.engine.JRException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -158,10 +166,10 @@ public class ReportController {
      * 
      * @param reportId идентификатор отчёта
      * @param request  запрос на генерацию (параметры и формат)
-     * @return сгенерированный отчёт в виде файла
+     * @return сгенерированный отчёт в виде файла (временный файл удаляется после отправки)
      */
     @PostMapping("/{reportId}/generate")
-    public ResponseEntity<byte[]> generateReport(
+    public ResponseEntity<Resource> generateReport(
             @PathVariable String reportId,
             @RequestBody ReportGenerationRequest request
     ) {
@@ -189,9 +197,12 @@ public class ReportController {
             headers.setContentDispositionFormData("attachment", fileName);
             headers.setContentLength(result.size());
             
+            Resource body = result.isSpooled()
+                    ? new TemporaryFileResource(result.file())
+                    : new ByteArrayResource(result.content());
             return ResponseEntity.ok()
                     .headers(headers)
-                    .body(result.content());
+                    .body(body);
                     
         } catch (IllegalArgumentException e) {
             log.error("Invalid request for report generation: {}", e.getMessage(), e);
@@ -210,7 +221,7 @@ public class ReportController {
 
     /**
      * POST /api/reports/{reportId}/preview
-     * Генерирует предпросмотр отчёта (первая страница в PDF).
+     * Генерирует предпросмотр отчёта (первая страница в PDF; заполнение дальше неё не идёт).
      * 
      * @param reportId   идентификатор отчёта
      * @param parameters параметры отчёта
@@ -244,6 +255,9 @@ public class ReportController {
         } catch (IllegalArgumentException e) {
             log.warn("Invalid request for report preview: {}", e.getMessage());
             return ResponseEntity.badRequest().build();
+        } catch (TimeoutException e) {
+            log.warn("Report preview timeout: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.REQUEST_TIMEOUT).build();
         } catch (JRException e) {
             log.error("Failed to generate report preview: {}", reportId, e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
@@ -253,6 +267,41 @@ public class ReportController {
         }
     }
 
+    /**
+     * POST /api/reports/{reportId}/page-count
+     * Считает полное количество страниц отчёта (предпросмотр заполняет только первые страницы).
+     * 
+     * @param reportId   идентификатор отчёта
+     * @param parameters параметры отчёта
+     * @return количество страниц
+     */
+    @PostMapping("/{reportId}/page-count")
+    public ResponseEntity<ReportPageCount> countPages(
+            @PathVariable String reportId,
+            @RequestBody(required = false) Map<String, Object> parameters
+    ) {
+        log.info("POST /api/reports/{}/page-count", reportId);
+        
+        try {
+            return ResponseEntity.ok(generationService.countPages(
+                    reportId,
+                    parameters != null ? parameters : Map.of()
+            ));
+        } catch (IllegalArgumentException e) {
+            log.warn("Invalid request for report page count: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        } catch (TimeoutException e) {
+            log.warn("Report page count timeout: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.REQUEST_TIMEOUT).build();
+        } catch (JRException e) {
+            log.error("Failed to count report pages: {}", reportId, e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        } catch (Exception e) {
+            log.error("Unexpected error during report page count: {}", reportId, e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
     /**
      * GET /api/reports/categories
      * Получает список всех категорий отчётов.
@@ -290,4 +339,29 @@ public class ReportController {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
+
+    /**
+     * Временный файл результата, удаляемый после того, как его содержимое отправлено клиенту.
+     */
+    private static final class TemporaryFileResource extends FileSystemResource {
+
+        private TemporaryFileResource(Path file) {
+            super(file);
+        }
+
+        @Override
+        public InputStream getInputStream() throws IOException {
+            Path file = getFile().toPath();
+            return new FilterInputStream(super.getInputStream()) {
+                @Override
+                public void close() throws IOException {
+                    try {
+                        super.close();
+                    } finally {
+                        Files.deleteIfExists(file);
+                    }
+                }
+            };
+        }
+    }
 }
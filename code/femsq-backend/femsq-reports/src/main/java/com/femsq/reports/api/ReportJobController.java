@@ -0,0 +1,140 @@
+package com.femsq.reports.api;
+
+import com.femsq.reports.core.ReportJobService;
+import com.femsq.reports.core.ReportJobService.SpooledReport;
+import com.femsq.reports.model.ReportGenerationRequest;
+import com.femsq.reports.model.ReportJobStatus;
+import jakarta.servlet.http.HttpServletRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.nio.charset.StandardCharsets;
+import java.security.Principal;
+import java.util.Optional;
+
+/**
+ * REST контроллер фоновых заданий генерации отчётов.
+ *
+ * <p>Вместо блокирующего {@code POST /api/v1/reports/{reportId}/generate}:
+ * <ul>
+ *   <li>{@code POST /api/v1/reports/jobs} — поставить задание, ответ 202 с идентификатором</li>
+ *   <li>{@code GET /api/v1/reports/jobs/{jobId}} — состояние, позиция в очереди, готовые страницы</li>
+ *   <li>{@code GET /api/v1/reports/jobs/{jobId}/result} — скачать готовый результат</li>
+ *   <li>{@code DELETE /api/v1/reports/jobs/{jobId}} — отменить задание</li>
+ * </ul>
+ *
+ * <p>Задания принадлежат пользователю запроса (аутентифицированному, иначе — адресу клиента);
+ * чужие задания не видны.
+ */
+@RestController
+@RequestMapping("/api/v1/reports/jobs")
+public class ReportJobController {
+
+    private static final Logger log = LoggerFactory.getLogger(ReportJobController.class);
+
+    private final ReportJobService jobService;
+
+    public ReportJobController(ReportJobService jobService) {
+        this.jobService = jobService;
+    }
+
+    /**
+     * POST /api/v1/reports/jobs
+     * Ставит задание генерации в очередь.
+     *
+     * @param request     запрос на генерацию (отчёт, параметры, формат)
+     * @param httpRequest HTTP-запрос для определения владельца
+     * @return состояние задания (202) или 400/429
+     */
+    @PostMapping
+    public ResponseEntity<ReportJobStatus> submit(
+            @RequestBody ReportGenerationRequest request,
+            HttpServletRequest httpRequest
+    ) {
+        log.info("POST /api/v1/reports/jobs, report={}, format={}", request.reportId(), request.format());
+        try {
+            ReportJobStatus status = jobService.submit(request, ownerOf(httpRequest));
+            return ResponseEntity.status(HttpStatus.ACCEPTED)
+                    .header(HttpHeaders.LOCATION, "/api/v1/reports/jobs/" + status.jobId())
+                    .body(status);
+        } catch (IllegalArgumentException e) {
+            log.warn("Invalid report job request: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        } catch (IllegalStateException e) {
+            log.warn("Report job rejected: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).build();
+        }
+    }
+
+    /**
+     * GET /api/v1/reports/jobs/{jobId}
+     * Получает состояние задания.
+     *
+     * @param jobId       идентификатор задания
+     * @param httpRequest HTTP-запрос для определения владельца
+     * @return состояние задания или 404
+     */
+    @GetMapping("/{jobId}")
+    public ResponseEntity<ReportJobStatus> getStatus(@PathVariable String jobId, HttpServletRequest httpRequest) {
+        return ResponseEntity.of(jobService.getStatus(jobId, ownerOf(httpRequest)));
+    }
+
+    /**
+     * GET /api/v1/reports/jobs/{jobId}/result
+     * Скачивает результат завершённого задания.
+     *
+     * @param jobId       идентификатор задания
+     * @param httpRequest HTTP-запрос для определения владельца
+     * @return файл отчёта, 409 если задание ещё не завершено успешно, 404 если задания нет
+     */
+    @GetMapping("/{jobId}/result")
+    public ResponseEntity<Resource> getResult(@PathVariable String jobId, HttpServletRequest httpRequest) {
+        String owner = ownerOf(httpRequest);
+        Optional<SpooledReport> result = jobService.getResult(jobId, owner);
+        if (result.isEmpty()) {
+            return jobService.getStatus(jobId, owner).isPresent()
+                    ? ResponseEntity.status(HttpStatus.CONFLICT).build()
+                    : ResponseEntity.notFound().build();
+        }
+        SpooledReport report = result.get();
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.parseMediaType(report.mimeType()));
+        headers.setContentDisposition(ContentDisposition.attachment()
+                .filename(report.fileName(), StandardCharsets.UTF_8)
+                .build());
+        headers.setContentLength(report.size());
+        return ResponseEntity.ok()
+                .headers(headers)
+                .body(new FileSystemResource(report.file()));
+    }
+
+    /**
+     * DELETE /api/v1/reports/jobs/{jobId}
+     * Отменяет задание.
+     *
+     * @param jobId       идентификатор задания
+     * @param httpRequest HTTP-запрос для определения владельца
+     * @return состояние после запроса отмены или 404
+     */
+    @DeleteMapping("/{jobId}")
+    public ResponseEntity<ReportJobStatus> cancel(@PathVariable String jobId, HttpServletRequest httpRequest) {
+        log.info("DELETE /api/v1/reports/jobs/{}", jobId);
+        return ResponseEntity.of(jobService.cancel(jobId, ownerOf(httpRequest)));
+    }
+
+    private static String ownerOf(HttpServletRequest httpRequest) {
+        Principal principal = httpRequest.getUserPrincipal();
+        if (principal != null && principal.getName() != null) {
+            return principal.getName();
+        }
+        return httpRequest.getRemoteAddr();
+    }
+}
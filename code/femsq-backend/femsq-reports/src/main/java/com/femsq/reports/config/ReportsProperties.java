@@ -28,6 +28,21 @@ import java.nio.file.Paths;
  *     timeout: 300000
  *     max-concurrent: 5
  *     temp-directory: ./temp/reports
+ *     preview-pages: 1
+ *     preview-timeout: 30000
+ *     preview-reserved: 1
+ *     virtualizer: file
+ *     virtualizer-max-pages: 100
+ *   jobs:
+ *     max-running-per-user: 2
+ *     max-queued-per-user: 20
+ *     result-ttl: 1800000
+ *     cleanup-interval: 60000
+ *   result-cache:
+ *     enabled: true
+ *     max-entries: 200
+ *     max-size-mb: 512
+ *     ttl: 600000
  * }</pre>
  * 
  * <p>Бин создаётся через {@link org.springframework.boot.context.properties.EnableConfigurationProperties}
@@ -60,6 +75,16 @@ public class ReportsProperties {
      */
     private Generation generation = new Generation();
 
+    /**
+     * Настройки фоновых заданий генерации.
+     */
+    private Jobs jobs = new Jobs();
+
+    /**
+     * Настройки кэша готовых результатов.
+     */
+    private ResultCache resultCache = new ResultCache();
+
     // Getters and Setters
 
     public External getExternal() {
@@ -94,6 +119,22 @@ public class ReportsProperties {
         this.generation = generation;
     }
 
+    public Jobs getJobs() {
+        return jobs;
+    }
+
+    public void setJobs(Jobs jobs) {
+        this.jobs = jobs;
+    }
+
+    public ResultCache getResultCache() {
+        return resultCache;
+    }
+
+    public void setResultCache(ResultCache resultCache) {
+        this.resultCache = resultCache;
+    }
+
     /**
      * Настройки внешних отчётов.
      */
@@ -261,6 +302,45 @@ public class ReportsProperties {
          */
         private String tempDirectory = "./temp/reports";
 
+        /**
+         * Количество страниц в предпросмотре: заполнение останавливается, как только они готовы.
+         * По умолчанию: 1
+         */
+        private int previewPages = 1;
+
+        /**
+         * Таймаут предпросмотра в миллисекундах: ожидание свободного места и заполнение вместе.
+         * По умолчанию: 30000 (30 секунд)
+         */
+        private long previewTimeout = 30000;
+
+        /**
+         * Сколько из {@link #maxConcurrent} мест недоступно полной генерации, чтобы длинные
+         * отчёты не блокировали предпросмотр. Полной генерации всегда остаётся хотя бы одно место.
+         * По умолчанию: 1
+         */
+        private int previewReserved = 1;
+
+        /**
+         * Виртуализация страниц при заполнении: {@code none}, {@code file} (swap-файл)
+         * или {@code gzip} (сжатие в памяти).
+         * По умолчанию: {@code file}
+         */
+        private VirtualizerMode virtualizer = VirtualizerMode.FILE;
+
+        /**
+         * Сколько страниц держать в памяти, прежде чем выгружать остальные через виртуализатор.
+         * Отчёты короче этого порога виртуализатор не затрагивает.
+         * По умолчанию: 100
+         */
+        private int virtualizerMaxPages = 100;
+
+        /**
+         * Директория swap-файлов виртуализатора.
+         * По умолчанию: {@code swap} внутри {@link #getTempDirectory()}
+         */
+        private String swapDirectory;
+
         public long getTimeout() {
             return timeout;
         }
@@ -285,6 +365,65 @@ public class ReportsProperties {
             this.tempDirectory = tempDirectory;
         }
 
+        public int getPreviewPages() {
+            return previewPages;
+        }
+
+        public void setPreviewPages(int previewPages) {
+            this.previewPages = previewPages;
+        }
+
+        public long getPreviewTimeout() {
+            return previewTimeout;
+        }
+
+        public void setPreviewTimeout(long previewTimeout) {
+            this.previewTimeout = previewTimeout;
+        }
+
+        public int getPreviewReserved() {
+            return previewReserved;
+        }
+
+        public void setPreviewReserved(int previewReserved) {
+            this.previewReserved = previewReserved;
+        }
+
+        public VirtualizerMode getVirtualizer() {
+            return virtualizer;
+        }
+
+        public void setVirtualizer(VirtualizerMode virtualizer) {
+            this.virtualizer = virtualizer;
+        }
+
+        public int getVirtualizerMaxPages() {
+            return virtualizerMaxPages;
+        }
+
+        public void setVirtualizerMaxPages(int virtualizerMaxPages) {
+            this.virtualizerMaxPages = virtualizerMaxPages;
+        }
+
+        public String getSwapDirectory() {
+            return swapDirectory;
+        }
+
+        public void setSwapDirectory(String swapDirectory) {
+            this.swapDirectory = swapDirectory;
+        }
+
+        /**
+         * Получить путь к директории swap-файлов как Path объект.
+         * 
+         * @return Path к директории swap-файлов
+         */
+        public Path getSwapDirectoryAsPath() {
+            return swapDirectory != null && !swapDirectory.isBlank()
+                    ? Paths.get(swapDirectory)
+                    : getTempDirectoryAsPath().resolve("swap");
+        }
+
         /**
          * Получить путь к директории временных файлов как Path объект.
          * 
@@ -294,4 +433,172 @@ public class ReportsProperties {
             return Paths.get(tempDirectory);
         }
     }
+
+    /**
+     * Режим виртуализации страниц JasperPrint при заполнении.
+     */
+    public enum VirtualizerMode {
+        /** Все страницы в памяти. */
+        NONE,
+        /** Страницы сверх порога выгружаются в swap-файл. */
+        FILE,
+        /** Страницы сверх порога сжимаются в памяти. */
+        GZIP
+    }
+
+    /**
+     * Настройки фоновых заданий генерации.
+     * 
+     * <p>Общее число одновременно выполняемых заданий ограничено
+     * {@link Generation#getMaxConcurrent()}.
+     */
+    public static class Jobs {
+        /**
+         * Максимум одновременно выполняемых заданий одного пользователя.
+         * По умолчанию: 2
+         */
+        private int maxRunningPerUser = 2;
+
+        /**
+         * Максимум заданий одного пользователя в очереди (без выполняемых).
+         * По умолчанию: 20
+         */
+        private int maxQueuedPerUser = 20;
+
+        /**
+         * Время хранения результата после завершения задания в миллисекундах.
+         * По умолчанию: 1800000 (30 минут)
+         */
+        private long resultTtl = 1800000;
+
+        /**
+         * Интервал удаления просроченных результатов в миллисекундах.
+         * По умолчанию: 60000 (1 минута)
+         */
+        private long cleanupInterval = 60000;
+
+        /**
+         * Директория для результатов заданий.
+         * По умолчанию: {@code jobs} внутри {@link Generation#getTempDirectory()}
+         */
+        private String spoolDirectory;
+
+        public int getMaxRunningPerUser() {
+            return maxRunningPerUser;
+        }
+
+        public void setMaxRunningPerUser(int maxRunningPerUser) {
+            this.maxRunningPerUser = maxRunningPerUser;
+        }
+
+        public int getMaxQueuedPerUser() {
+            return maxQueuedPerUser;
+        }
+
+        public void setMaxQueuedPerUser(int maxQueuedPerUser) {
+            this.maxQueuedPerUser = maxQueuedPerUser;
+        }
+
+        public long getResultTtl() {
+            return resultTtl;
+        }
+
+        public void setResultTtl(long resultTtl) {
+            this.resultTtl = resultTtl;
+        }
+
+        public long getCleanupInterval() {
+            return cleanupInterval;
+        }
+
+        public void setCleanupInterval(long cleanupInterval) {
+            this.cleanupInterval = cleanupInterval;
+        }
+
+        public String getSpoolDirectory() {
+            return spoolDirectory;
+        }
+
+        public void setSpoolDirectory(String spoolDirectory) {
+            this.spoolDirectory = spoolDirectory;
+        }
+    }
+
+    /**
+     * Настройки кэша готовых результатов генерации.
+     * 
+     * <p>Кэш не знает об изменении данных в БД, поэтому {@code ttl} задаёт допустимую
+     * давность отчёта; отдельные отчёты отключаются флагом {@code cacheable} в метаданных.
+     */
+    public static class ResultCache {
+        /**
+         * Включён ли кэш.
+         * По умолчанию: true
+         */
+        private boolean enabled = true;
+
+        /**
+         * Максимальное количество записей.
+         * По умолчанию: 200
+         */
+        private int maxEntries = 200;
+
+        /**
+         * Максимальный общий размер записей в мегабайтах.
+         * По умолчанию: 512
+         */
+        private long maxSizeMb = 512;
+
+        /**
+         * Время жизни записи в миллисекундах.
+         * По умолчанию: 600000 (10 минут)
+         */
+        private long ttl = 600000;
+
+        /**
+         * Интервал удаления просроченных записей в миллисекундах.
+         * По умолчанию: 60000 (1 минута)
+         */
+        private long cleanupInterval = 60000;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getMaxEntries() {
+            return maxEntries;
+        }
+
+        public void setMaxEntries(int maxEntries) {
+            this.maxEntries = maxEntries;
+        }
+
+        public long getMaxSizeMb() {
+            return maxSizeMb;
+        }
+
+        public void setMaxSizeMb(long maxSizeMb) {
+            this.maxSizeMb = maxSizeMb;
+        }
+
+        public long getTtl() {
+            return ttl;
+        }
+
+        public void setTtl(long ttl) {
+            this.ttl = ttl;
+        }
+
+        public long getCleanupInterval() {
+            return cleanupInterval;
+        }
+
+        public void setCleanupInterval(long cleanupInterval) {
+            this.cleanupInterval = cleanupInterval;
+        }
+    }
 }
@@ -0,0 +1,77 @@
+package com.femsq.reports.core;
+
+import net.sf.jasperreports.engine.JRException;
+import net.sf.jasperreports.engine.fill.FillHandle;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Ход асинхронного заполнения отчёта: число готовых страниц и отмена.
+ * 
+ * <p>Создаётся вызывающим до запуска заполнения; {@link ReportFiller} привязывает к нему
+ * {@link FillHandle}. Отмена до привязки запоминается и применяется сразу после запуска.
+ */
+public final class FillProgress {
+
+    private static final Logger log = LoggerFactory.getLogger(FillProgress.class);
+
+    private volatile int pages;
+    private volatile boolean cancelled;
+    private FillHandle handle;
+
+    /**
+     * @return количество страниц, сгенерированных к текущему моменту
+     */
+    public int pages() {
+        return pages;
+    }
+
+    /**
+     * @return true если запрошена отмена
+     */
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * Запрашивает отмену заполнения.
+     */
+    public void cancel() {
+        FillHandle current;
+        synchronized (this) {
+            cancelled = true;
+            current = handle;
+        }
+        if (current != null) {
+            cancelFill(current);
+        }
+    }
+
+    void attach(FillHandle fillHandle) {
+        boolean cancelNow;
+        synchronized (this) {
+            handle = fillHandle;
+            cancelNow = cancelled;
+        }
+        if (cancelNow) {
+            cancelFill(fillHandle);
+        }
+    }
+
+    void pageGenerated(int pageIndex) {
+        if (pageIndex + 1 > pages) {
+            pages = pageIndex + 1;
+        }
+    }
+
+    private static void cancelFill(FillHandle fillHandle) {
+        try {
+            fillHandle.cancellFill();
+        } catch (JRException e) {
+            log.warn("Failed to cancel report fill", e);
+        } catch (IllegalStateException e) {
+            // Поток заполнения ещё не запущен или уже завершился: флаг отмены проверит ReportFiller
+            log.debug("Report fill is not running, cancellation deferred: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,230 @@
+package com.femsq.reports.core;
+
+import java.util.ArrayDeque;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Допуск заполнений отчётов к БД: общий лимит одновременных заполнений и две полосы.
+ *
+ * <p>Полоса {@link Lane#PREVIEW} приоритетна: пока есть ожидающие предпросмотры, полная
+ * генерация места не получает. Кроме того, полные генерации занимают не больше
+ * {@code maxConcurrent - previewReserved} мест, поэтому поток длинных отчётов не блокирует
+ * предпросмотр целиком. Внутри полосы места выдаются в порядке очереди.
+ *
+ * <p>Ожидание ограничено сроком и прерывается вместе с потоком; в обоих случаях ожидающий
+ * покидает очередь. По каждой полосе ведётся статистика времени ожидания и удержания места.
+ */
+public final class GenerationAdmission {
+
+    /**
+     * Полоса допуска.
+     */
+    public enum Lane {
+        /** Предпросмотр: первые страницы, короткий срок, приоритет. */
+        PREVIEW,
+        /** Полная генерация, подсчёт страниц и фоновые задания. */
+        FULL
+    }
+
+    private final int maxConcurrent;
+    private final int maxFull;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition changed = lock.newCondition();
+    private final Map<Lane, ArrayDeque<Object>> queues = new EnumMap<>(Lane.class);
+    private final Map<Lane, Integer> activeByLane = new EnumMap<>(Lane.class);
+    private int active;
+
+    private final Map<Lane, LaneCounters> counters = new EnumMap<>(Lane.class);
+
+    /**
+     * @param maxConcurrent   общий лимит одновременных заполнений (не меньше 1)
+     * @param previewReserved сколько мест недоступно полной генерации
+     */
+    public GenerationAdmission(int maxConcurrent, int previewReserved) {
+        this.maxConcurrent = Math.max(1, maxConcurrent);
+        this.maxFull = Math.max(1, this.maxConcurrent - Math.max(0, previewReserved));
+        for (Lane lane : Lane.values()) {
+            queues.put(lane, new ArrayDeque<>());
+            activeByLane.put(lane, 0);
+            counters.put(lane, new LaneCounters());
+        }
+    }
+
+    /**
+     * Ждёт места в полосе.
+     *
+     * @param lane          полоса
+     * @param timeoutMillis сколько ждать
+     * @return разрешение; закрывается после заполнения
+     * @throws TimeoutException если место не освободилось за отведённое время
+     * @throws InterruptedException если поток прерван во время ожидания
+     */
+    public Permit admit(Lane lane, long timeoutMillis) throws TimeoutException, InterruptedException {
+        long startNanos = System.nanoTime();
+        long remaining = TimeUnit.MILLISECONDS.toNanos(Math.max(0, timeoutMillis));
+        Object ticket = new Object();
+        ArrayDeque<Object> queue = queues.get(lane);
+        LaneCounters laneCounters = counters.get(lane);
+        lock.lock();
+        try {
+            queue.addLast(ticket);
+            try {
+                while (queue.peekFirst() != ticket || !canEnter(lane)) {
+                    if (remaining <= 0) {
+                        laneCounters.timedOut.increment();
+                        throw new TimeoutException("No free report generation slot within " + timeoutMillis + "ms");
+                    }
+                    remaining = changed.awaitNanos(remaining);
+                }
+            } catch (TimeoutException | InterruptedException e) {
+                queue.remove(ticket);
+                changed.signalAll();
+                throw e;
+            }
+            queue.removeFirst();
+            active++;
+            activeByLane.merge(lane, 1, Integer::sum);
+            // Следующий в очереди мог стать первым и тоже пройти
+            changed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        long admittedNanos = System.nanoTime();
+        laneCounters.admitted.increment();
+        laneCounters.waitNanos.add(admittedNanos - startNanos);
+        return new Permit(lane, admittedNanos);
+    }
+
+    /**
+     * Вызывается под {@link #lock}.
+     */
+    private boolean canEnter(Lane lane) {
+        if (active >= maxConcurrent) {
+            return false;
+        }
+        if (lane == Lane.FULL) {
+            return activeByLane.get(Lane.FULL) < maxFull && queues.get(Lane.PREVIEW).isEmpty();
+        }
+        return true;
+    }
+
+    private void release(Permit permit) {
+        lock.lock();
+        try {
+            active--;
+            activeByLane.merge(permit.lane, -1, Integer::sum);
+            changed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        LaneCounters laneCounters = counters.get(permit.lane);
+        laneCounters.completed.increment();
+        laneCounters.heldNanos.add(System.nanoTime() - permit.admittedNanos);
+    }
+
+    /**
+     * @return количество занятых мест во всех полосах
+     */
+    public int getActive() {
+        lock.lock();
+        try {
+            return active;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return общий лимит одновременных заполнений
+     */
+    public int getMaxConcurrent() {
+        return maxConcurrent;
+    }
+
+    /**
+     * Снимок статистики полосы.
+     *
+     * @param lane полоса
+     * @return статистика
+     */
+    public LaneStatistics getStatistics(Lane lane) {
+        int laneActive;
+        int waiting;
+        lock.lock();
+        try {
+            laneActive = activeByLane.get(lane);
+            waiting = queues.get(lane).size();
+        } finally {
+            lock.unlock();
+        }
+        LaneCounters laneCounters = counters.get(lane);
+        return new LaneStatistics(
+                laneActive,
+                waiting,
+                laneCounters.admitted.sum(),
+                laneCounters.timedOut.sum(),
+                laneCounters.waitNanos.sum(),
+                laneCounters.completed.sum(),
+                laneCounters.heldNanos.sum()
+        );
+    }
+
+    /**
+     * Занятое место. Закрытие освобождает его; повторное закрытие ничего не делает.
+     */
+    public final class Permit implements AutoCloseable {
+        private final Lane lane;
+        private final long admittedNanos;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Permit(Lane lane, long admittedNanos) {
+            this.lane = lane;
+            this.admittedNanos = admittedNanos;
+        }
+
+        @Override
+        public void close() {
+            if (released.compareAndSet(false, true)) {
+                release(this);
+            }
+        }
+    }
+
+    /**
+     * Статистика полосы.
+     *
+     * @param active    занятые места
+     * @param waiting   ожидающие в очереди
+     * @param admitted  допущенные с запуска
+     * @param timedOut  не дождавшиеся места
+     * @param waitNanos суммарное ожидание допущенных
+     * @param completed освободившие место
+     * @param heldNanos суммарное время удержания места (заполнение и экспорт)
+     */
+    public record LaneStatistics(
+            int active,
+            int waiting,
+            long admitted,
+            long timedOut,
+            long waitNanos,
+            long completed,
+            long heldNanos
+    ) {
+    }
+
+    private static final class LaneCounters {
+        private final LongAdder admitted = new LongAdder();
+        private final LongAdder timedOut = new LongAdder();
+        private final LongAdder waitNanos = new LongAdder();
+        private final LongAdder completed = new LongAdder();
+        private final LongAdder heldNanos = new LongAdder();
+    }
+}
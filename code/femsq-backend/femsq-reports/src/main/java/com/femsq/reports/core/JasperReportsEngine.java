@@ -17,8 +17,11 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.nio.file.attribute.FileTime;
+import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * Движок компиляции и кэширования JasperReports шаблонов.
@@ -29,6 +32,7 @@ import java.util.concurrent.ConcurrentHashMap;
  *   <li>Кэширование скомпилированных отчётов в памяти и на диске</li>
  *   <li>Поддержку прекомпилированных .jasper файлов</li>
  *   <li>Автоматическую перекомпиляцию при изменении JRXML</li>
+ *   <li>Общий кэш для JRXML и прекомпилированных .jasper со статистикой попаданий</li>
  * </ul>
  * 
  * @author Александр
@@ -43,16 +47,15 @@ public class JasperReportsEngine {
     private final ReportsProperties properties;
 
     /**
-     * Кэш скомпилированных отчётов в памяти.
-     * Key: путь к JRXML файлу, Value: JasperReport
+     * Кэш загруженных отчётов в памяти (и из JRXML, и из прекомпилированных .jasper).
+     * Key: путь к файлу шаблона, Value: отчёт и отпечаток файла, с которого он загружен
      */
-    private final ConcurrentHashMap<String, JasperReport> memoryCache = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, CachedReport> memoryCache = new ConcurrentHashMap<>();
 
-    /**
-     * Кэш времени последней компиляции.
-     * Key: путь к JRXML файлу, Value: timestamp последней компиляции
-     */
-    private final ConcurrentHashMap<String, Long> compilationTimestamps = new ConcurrentHashMap<>();
+    private final LongAdder cacheHits = new LongAdder();
+    private final LongAdder cacheMisses = new LongAdder();
+    private final LongAdder loadCount = new LongAdder();
+    private final LongAdder loadTimeNanos = new LongAdder();
 
     public JasperReportsEngine(ReportsProperties properties) {
         this.properties = properties;
@@ -78,6 +81,42 @@ public class JasperReportsEngine {
         }
     }
 
+    /**
+     * Загружает шаблон отчёта любого вида через общий кэш.
+     *
+     * <p>Прекомпилированный {@code .jasper} десериализуется один раз и далее отдаётся из памяти,
+     * {@code .jrxml} проходит через {@link #compileReport(Path)}. Запись кэша действительна, пока
+     * совпадает отпечаток файла (время изменения и размер); при {@code recompile-on-change=false}
+     * файл на каждом запросе не проверяется, а устаревшие записи снимает {@link #evictStale()}.
+     *
+     * @param templatePath путь к файлу шаблона ({@code .jasper} или {@code .jrxml})
+     * @return скомпилированный JasperReport
+     * @throws JRException если шаблон не удалось загрузить или скомпилировать
+     */
+    public JasperReport loadReport(Path templatePath) throws JRException {
+        if (!templatePath.getFileName().toString().endsWith(".jasper")) {
+            return compileReport(templatePath);
+        }
+        String key = templatePath.toString();
+        FileStamp stamp = stampOf(templatePath);
+        CachedReport cached = memoryCache.get(key);
+        if (cached != null && isFresh(cached, stamp)) {
+            cacheHits.increment();
+            return cached.report();
+        }
+
+        cacheMisses.increment();
+        long startNanos = System.nanoTime();
+        try {
+            JasperReport report = readPrecompiledReport(templatePath);
+            memoryCache.put(key, new CachedReport(report, stamp));
+            log.debug("Loaded precompiled report into memory cache: {}", templatePath);
+            return report;
+        } finally {
+            recordLoad(startNanos);
+        }
+    }
+
     /**
      * Компилирует JRXML шаблон в JasperReport.
      * 
@@ -95,45 +134,48 @@ public class JasperReportsEngine {
      */
     public JasperReport compileReport(Path jrxmlPath) throws JRException {
         String jrxmlPathString = jrxmlPath.toString();
+        FileStamp stamp = stampOf(jrxmlPath);
 
         // 1. Проверка кэша в памяти
-        JasperReport cached = memoryCache.get(jrxmlPathString);
-        if (cached != null && !needsRecompilation(jrxmlPath)) {
+        CachedReport cached = memoryCache.get(jrxmlPathString);
+        if (cached != null && isFresh(cached, stamp)) {
+            cacheHits.increment();
             log.debug("Using cached report from memory: {}", jrxmlPath);
-            return cached;
+            return cached.report();
         }
 
-        // 2. Попытка загрузить прекомпилированный .jasper файл
-        Path jasperPath = getJasperPath(jrxmlPath);
-        if (Files.exists(jasperPath) && !needsRecompilation(jrxmlPath, jasperPath)) {
-            try {
+        cacheMisses.increment();
+        long startNanos = System.nanoTime();
+        try {
+            // 2. Попытка загрузить прекомпилированный .jasper файл
+            Path jasperPath = getJasperPath(jrxmlPath);
+            if (Files.exists(jasperPath) && !needsRecompilation(jrxmlPath, jasperPath)) {
                 JasperReport report = loadPrecompiledReport(jasperPath);
                 if (report != null) {
                     // Обновляем кэш в памяти
-                    memoryCache.put(jrxmlPathString, report);
-                    updateCompilationTimestamp(jrxmlPath);
+                    memoryCache.put(jrxmlPathString, new CachedReport(report, stamp));
                     log.debug("Loaded precompiled report: {}", jasperPath);
                     return report;
                 }
-            } catch (Exception e) {
-                log.warn("Failed to load precompiled report: {}, will recompile", jasperPath, e);
+                log.warn("Failed to load precompiled report: {}, will recompile", jasperPath);
             }
-        }
 
-        // 3. Компиляция JRXML
-        log.debug("Compiling JRXML report: {}", jrxmlPath);
-        JasperReport report = compileJrxml(jrxmlPath);
+            // 3. Компиляция JRXML
+            log.debug("Compiling JRXML report: {}", jrxmlPath);
+            JasperReport report = compileJrxml(jrxmlPath);
 
-        // 4. Сохранение в кэш
-        memoryCache.put(jrxmlPathString, report);
-        updateCompilationTimestamp(jrxmlPath);
+            // 4. Сохранение в кэш
+            memoryCache.put(jrxmlPathString, new CachedReport(report, stamp));
 
-        // Сохранение на диск, если кэширование включено
-        if (properties.getCompilation().isCacheEnabled()) {
-            saveCompiledReport(report, jasperPath);
-        }
+            // Сохранение на диск, если кэширование включено
+            if (properties.getCompilation().isCacheEnabled()) {
+                saveCompiledReport(report, jasperPath);
+            }
 
-        return report;
+            return report;
+        } finally {
+            recordLoad(startNanos);
+        }
     }
 
     /**
@@ -165,13 +207,28 @@ public class JasperReportsEngine {
      * @return загруженный JasperReport или null при ошибке
      */
     private JasperReport loadPrecompiledReport(Path jasperPath) {
+        try {
+            return readPrecompiledReport(jasperPath);
+        } catch (Exception e) {
+            log.error("Failed to load precompiled report: {}", jasperPath, e);
+            return null;
+        }
+    }
+
+    /**
+     * Десериализует прекомпилированный .jasper файл.
+     *
+     * @param jasperPath путь к .jasper файлу
+     * @return загруженный JasperReport
+     * @throws JRException если файл не удалось прочитать или он не содержит отчёт
+     */
+    private JasperReport readPrecompiledReport(Path jasperPath) throws JRException {
         try (InputStream inputStream = Files.newInputStream(jasperPath)) {
             JasperReport report = (JasperReport) JRLoader.loadObject(inputStream);
             log.debug("Loaded precompiled report from: {}", jasperPath);
             return report;
-        } catch (Exception e) {
-            log.error("Failed to load precompiled report: {}", jasperPath, e);
-            return null;
+        } catch (IOException | ClassCastException e) {
+            throw new JRException("Failed to load precompiled report: " + jasperPath, e);
         }
     }
 
@@ -201,34 +258,18 @@ public class JasperReportsEngine {
     }
 
     /**
-     * Проверяет, требуется ли перекомпиляция отчёта.
+     * Проверяет, соответствует ли запись кэша текущему файлу шаблона.
      * 
-     * @param jrxmlPath путь к JRXML файлу
-     * @return true если требуется перекомпиляция
+     * @param cached запись кэша
+     * @param stamp текущий отпечаток файла или null, если файл недоступен
+     * @return true если запись можно использовать без перезагрузки
      */
-    private boolean needsRecompilation(Path jrxmlPath) {
+    private boolean isFresh(CachedReport cached, FileStamp stamp) {
         if (!properties.getCompilation().isRecompileOnChange()) {
-            return false;
-        }
-
-        try {
-            if (!Files.exists(jrxmlPath)) {
-                return true; // Файл удалён, нужно перекомпилировать
-            }
-
-            FileTime jrxmlLastModified = Files.getLastModifiedTime(jrxmlPath);
-            Long lastCompilationTime = compilationTimestamps.get(jrxmlPath.toString());
-
-            if (lastCompilationTime == null) {
-                return true; // Ещё не компилировали
-            }
-
-            // Проверяем, изменился ли JRXML файл после последней компиляции
-            return jrxmlLastModified.toMillis() > lastCompilationTime;
-        } catch (IOException e) {
-            log.warn("Failed to check modification time for: {}", jrxmlPath, e);
-            return true; // В случае ошибки перекомпилируем
+            return true;
         }
+        // Файл удалён или недоступен — перезагружаем (и получаем внятную ошибку)
+        return stamp != null && stamp.equals(cached.stamp());
     }
 
     /**
@@ -284,31 +325,58 @@ public class JasperReportsEngine {
     }
 
     /**
-     * Обновляет timestamp последней компиляции для файла.
+     * Снимает отпечаток файла шаблона.
      * 
-     * @param jrxmlPath путь к JRXML файлу
+     * @param path путь к файлу
+     * @return время изменения и размер или null, если файл недоступен
      */
-    private void updateCompilationTimestamp(Path jrxmlPath) {
+    private FileStamp stampOf(Path path) {
         try {
-            if (Files.exists(jrxmlPath)) {
-                FileTime lastModified = Files.getLastModifiedTime(jrxmlPath);
-                compilationTimestamps.put(jrxmlPath.toString(), lastModified.toMillis());
-            }
+            BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+            return new FileStamp(attributes.lastModifiedTime().toMillis(), attributes.size());
         } catch (IOException e) {
-            log.warn("Failed to update compilation timestamp for: {}", jrxmlPath, e);
+            log.debug("Failed to read attributes of template: {}", path, e);
+            return null;
+        }
+    }
+
+    private void recordLoad(long startNanos) {
+        loadCount.increment();
+        loadTimeNanos.add(System.nanoTime() - startNanos);
+    }
+
+    /**
+     * Удаляет из кэша в памяти отчёты, чьи файлы шаблонов изменились или исчезли.
+     * 
+     * <p>Вызывается после пересканирования отчётов ({@link ReportDiscoveryService#scanReports()}),
+     * поэтому изменённые шаблоны подхватываются и при выключенном {@code recompile-on-change}.
+     * 
+     * @return количество удалённых записей
+     */
+    public int evictStale() {
+        int evicted = 0;
+        for (Map.Entry<String, CachedReport> entry : memoryCache.entrySet()) {
+            FileStamp stamp = stampOf(Path.of(entry.getKey()));
+            if (stamp == null || !stamp.equals(entry.getValue().stamp())) {
+                if (memoryCache.remove(entry.getKey(), entry.getValue())) {
+                    evicted++;
+                }
+            }
+        }
+        if (evicted > 0) {
+            log.info("Evicted {} stale report(s) from compilation cache", evicted);
         }
+        return evicted;
     }
 
     /**
      * Очищает кэш в памяти для конкретного отчёта.
      * 
-     * @param jrxmlPath путь к JRXML файлу
+     * @param templatePath путь к файлу шаблона
      */
-    public void clearCache(Path jrxmlPath) {
-        String jrxmlPathString = jrxmlPath.toString();
-        memoryCache.remove(jrxmlPathString);
-        compilationTimestamps.remove(jrxmlPathString);
-        log.debug("Cleared cache for: {}", jrxmlPath);
+    public void clearCache(Path templatePath) {
+        memoryCache.remove(templatePath.toString());
+        log.debug("Cleared cache for: {}", templatePath);
     }
 
     /**
@@ -316,7 +384,6 @@ public class JasperReportsEngine {
      */
     public void clearAllCache() {
         memoryCache.clear();
-        compilationTimestamps.clear();
         log.info("Cleared all report compilation cache");
     }
 
@@ -328,4 +395,43 @@ public class JasperReportsEngine {
     public int getCacheSize() {
         return memoryCache.size();
     }
+
+    /**
+     * Получает накопленную статистику кэша.
+     * 
+     * @return снимок счётчиков попаданий, промахов и загрузок
+     */
+    public CacheStatistics getCacheStatistics() {
+        return new CacheStatistics(
+                memoryCache.size(),
+                cacheHits.sum(),
+                cacheMisses.sum(),
+                loadCount.sum(),
+                loadTimeNanos.sum()
+        );
+    }
+
+    /**
+     * Статистика кэша скомпилированных отчётов.
+     * 
+     * @param size количество отчётов в кэше
+     * @param hits обращения, обслуженные из памяти
+     * @param misses обращения, потребовавшие загрузки или компиляции
+     * @param loads завершённые (в т.ч. неуспешно) загрузки
+     * @param loadTimeNanos суммарное время загрузок в наносекундах
+     */
+    public record CacheStatistics(int size, long hits, long misses, long loads, long loadTimeNanos) {
+    }
+
+    /**
+     * Отпечаток файла шаблона: время изменения и размер.
+     */
+    private record FileStamp(long lastModifiedMillis, long size) {
+    }
+
+    /**
+     * Запись кэша: отчёт и отпечаток файла, из которого он получен.
+     */
+    private record CachedReport(JasperReport report, FileStamp stamp) {
+    }
 }
@@ -18,6 +18,7 @@ import java.nio.file.Path;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.stream.Stream;
 
 /**
@@ -56,6 +57,11 @@ public class ReportDiscoveryService {
      */
     private volatile long lastUpdateTime = 0;
 
+    /**
+     * Подписчики, вызываемые после каждого сканирования (например, сброс устаревших шаблонов).
+     */
+    private final List<Runnable> scanListeners = new CopyOnWriteArrayList<>();
+
     public ReportDiscoveryService(
             ReportsProperties properties,
             ReportMetadataLoader metadataLoader,
@@ -105,6 +111,23 @@ public class ReportDiscoveryService {
         long duration = lastUpdateTime - startTime;
         log.info("Reports scan completed: found {} reports in {}ms", 
                 metadataCache.size(), duration);
+
+        for (Runnable listener : scanListeners) {
+            try {
+                listener.run();
+            } catch (RuntimeException e) {
+                log.warn("Reports scan listener failed", e);
+            }
+        }
+    }
+
+    /**
+     * Регистрирует подписчика, вызываемого после каждого сканирования отчётов.
+     * 
+     * @param listener действие после сканирования
+     */
+    public void addScanListener(Runnable listener) {
+        scanListeners.add(listener);
     }
 
     /**
@@ -0,0 +1,195 @@
+package com.femsq.reports.core;
+
+import net.sf.jasperreports.engine.JRException;
+import net.sf.jasperreports.engine.JasperPrint;
+import net.sf.jasperreports.engine.fill.AsynchronousFilllListener;
+import net.sf.jasperreports.engine.fill.FillHandle;
+import net.sf.jasperreports.engine.fill.FillListener;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Асинхронное заполнение отчёта с ограничением по страницам, таймаутом и отменой.
+ *
+ * <p>Отчёт заполняется через {@link FillHandle}. Для предпросмотра, как только последняя нужная
+ * страница становится окончательной ({@link FillHandle#isPageFinal(int)}), страницы копируются
+ * в отдельный {@link JasperPrint}, а заполнение отменяется — остаток данных не читается и не
+ * раскладывается. Если отчёт закончился раньше, возвращается полный результат.
+ */
+final class ReportFiller implements FillListener, AsynchronousFilllListener {
+
+    private final FillHandle handle;
+    private final int pages;
+    private final FillProgress progress;
+    private final CountDownLatch ready = new CountDownLatch(1);
+    private final CountDownLatch stopped = new CountDownLatch(1);
+
+    private volatile JasperPrint firstPages;
+    private volatile JasperPrint finished;
+    private volatile Throwable error;
+
+    private ReportFiller(FillHandle handle, int pages, FillProgress progress) {
+        this.handle = handle;
+        this.pages = pages;
+        this.progress = progress;
+    }
+
+    /**
+     * Заполняет отчёт до {@code pages} страниц.
+     *
+     * @param handle        ещё не запущенный handle заполнения
+     * @param pages         сколько страниц нужно (не меньше 1)
+     * @param timeoutMillis сколько ждать готовности страниц
+     * @return первые страницы или весь отчёт, если он короче
+     * @throws JRException если заполнение завершилось ошибкой
+     * @throws TimeoutException если страницы не готовы за отведённое время (заполнение отменяется)
+     * @throws InterruptedException если ожидание прервано
+     */
+    static JasperPrint fillFirstPages(FillHandle handle, int pages, long timeoutMillis)
+            throws JRException, TimeoutException, InterruptedException {
+        return start(handle, Math.max(1, pages), new FillProgress()).await(timeoutMillis);
+    }
+
+    /**
+     * Заполняет отчёт полностью, публикуя число готовых страниц в {@code progress}.
+     *
+     * @param handle        ещё не запущенный handle заполнения
+     * @param progress      ход заполнения и точка отмены
+     * @param timeoutMillis сколько ждать завершения
+     * @return заполненный отчёт
+     * @throws JRException если заполнение завершилось ошибкой
+     * @throws TimeoutException если отчёт не заполнен за отведённое время (заполнение отменяется)
+     * @throws CancellationException если заполнение отменено через {@link FillProgress#cancel()}
+     * @throws InterruptedException если ожидание прервано
+     */
+    static JasperPrint fill(FillHandle handle, FillProgress progress, long timeoutMillis)
+            throws JRException, TimeoutException, InterruptedException {
+        return start(handle, Integer.MAX_VALUE, progress).await(timeoutMillis);
+    }
+
+    private static ReportFiller start(FillHandle handle, int pages, FillProgress progress) {
+        if (progress.isCancelled()) {
+            throw new CancellationException("Report fill cancelled");
+        }
+        ReportFiller filler = new ReportFiller(handle, pages, progress);
+        handle.addListener(filler);
+        handle.addFillListener(filler);
+        handle.startFill();
+        progress.attach(handle);
+        return filler;
+    }
+
+    private JasperPrint await(long timeoutMillis) throws JRException, TimeoutException, InterruptedException {
+        boolean isReady;
+        try {
+            isReady = ready.await(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            stop(timeoutMillis);
+            throw e;
+        }
+        if (finished != null) {
+            return finished;
+        }
+        if (error != null) {
+            throw error instanceof JRException jrException
+                    ? jrException
+                    : new JRException("Failed to fill report", error);
+        }
+        // Страницы готовы, время вышло или заполнение отменено — остальное не нужно.
+        stop(timeoutMillis);
+        if (firstPages != null) {
+            return firstPages;
+        }
+        if (progress.isCancelled()) {
+            throw new CancellationException("Report fill cancelled");
+        }
+        throw new TimeoutException("Report fill exceeded timeout: " + timeoutMillis + "ms");
+    }
+
+    /**
+     * Отменяет заполнение и ждёт его остановки, чтобы вызывающий не закрыл соединение
+     * под работающим запросом.
+     */
+    private void stop(long timeoutMillis) throws InterruptedException {
+        if (stopped.getCount() > 0) {
+            progress.cancel();
+        }
+        stopped.await(timeoutMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void pageGenerated(JasperPrint jasperPrint, int pageIndex) {
+        progress.pageGenerated(pageIndex);
+        if (progress.isCancelled()) {
+            // Отмена пришла до запуска потока заполнения — повторяется из ожидающего потока
+            ready.countDown();
+            return;
+        }
+        captureIfReady(jasperPrint);
+    }
+
+    @Override
+    public void pageUpdated(JasperPrint jasperPrint, int pageIndex) {
+        captureIfReady(jasperPrint);
+    }
+
+    /**
+     * Вызывается в потоке заполнения, поэтому список страниц можно копировать без гонок.
+     */
+    private void captureIfReady(JasperPrint jasperPrint) {
+        if (firstPages != null || jasperPrint.getPages().size() < pages || !handle.isPageFinal(pages - 1)) {
+            return;
+        }
+        firstPages = copyFirstPages(jasperPrint, pages);
+        ready.countDown();
+    }
+
+    @Override
+    public void reportFinished(JasperPrint jasperPrint) {
+        progress.pageGenerated(jasperPrint.getPages().size() - 1);
+        finished = jasperPrint;
+        ready.countDown();
+        stopped.countDown();
+    }
+
+    @Override
+    public void reportCancelled() {
+        ready.countDown();
+        stopped.countDown();
+    }
+
+    @Override
+    public void reportFillError(Throwable t) {
+        error = t;
+        ready.countDown();
+        stopped.countDown();
+    }
+
+    /**
+     * Создаёт JasperPrint, содержащий только первые страницы исходного.
+     * JasperPrint не имеет метода setPages, поэтому страницы переносятся в новый объект.
+     */
+    static JasperPrint copyFirstPages(JasperPrint source, int pages) {
+        JasperPrint copy = new JasperPrint();
+        copy.setName(source.getName());
+        copy.setPageWidth(source.getPageWidth());
+        copy.setPageHeight(source.getPageHeight());
+        copy.setTopMargin(source.getTopMargin());
+        copy.setLeftMargin(source.getLeftMargin());
+        copy.setBottomMargin(source.getBottomMargin());
+        copy.setRightMargin(source.getRightMargin());
+        copy.setOrientation(source.getOrientation());
+        copy.setLocaleCode(source.getLocaleCode());
+        if (source.getTimeZoneId() != null) {
+            copy.setTimeZoneId(source.getTimeZoneId());
+        }
+        int count = Math.min(pages, source.getPages().size());
+        for (int i = 0; i < count; i++) {
+            copy.addPage(source.getPages().get(i));
+        }
+        return copy;
+    }
+}
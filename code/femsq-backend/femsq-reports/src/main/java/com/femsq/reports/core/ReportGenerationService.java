@@ -5,13 +5,17 @@ import com.femsq.database.connection.ConnectionFactory;
 import com.femsq.reports.config.ReportsProperties;
 import com.femsq.reports.model.ReportGenerationRequest;
 import com.femsq.reports.model.ReportMetadata;
+import com.femsq.reports.model.ReportPageCount;
 import com.femsq.reports.model.ReportParameter;
 import com.femsq.reports.model.ReportResult;
 import jakarta.annotation.PostConstruct;
 import net.sf.jasperreports.engine.*;
 import net.sf.jasperreports.engine.export.HtmlExporter;
+import net.sf.jasperreports.engine.fill.AsynchronousFillHandle;
+import net.sf.jasperreports.engine.fill.JRGzipVirtualizer;
+import net.sf.jasperreports.engine.fill.JRSwapFileVirtualizer;
+import net.sf.jasperreports.engine.util.JRSwapFile;
 import net.sf.jasperreports.engine.export.ooxml.JRXlsxExporter;
-import net.sf.jasperreports.engine.util.JRLoader;
 import net.sf.jasperreports.export.*;
 import net.sf.jasperreports.pdf.JRPdfExporter;
 import net.sf.jasperreports.pdf.SimplePdfExporterConfiguration;
@@ -25,10 +29,13 @@ import org.springframework.core.io.support.ResourcePatternResolver;
 import org.springframework.stereotype.Service;
 
 import javax.sql.DataSource;
+import java.io.BufferedOutputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.DirectoryStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
@@ -56,6 +63,12 @@ public class ReportGenerationService {
 
     private static final String BUILD_MARKER = "reports-build-2025-11-24-03";
 
+    /**
+     * Размер блока и шаг роста swap-файла виртуализатора (значения из документации JasperReports).
+     */
+    private static final int SWAP_BLOCK_SIZE = 4096;
+    private static final int SWAP_MIN_GROW_COUNT = 100;
+
     private final ReportsProperties properties;
     private final ReportDiscoveryService discoveryService;
     private final JasperReportsEngine jasperEngine;
@@ -63,6 +76,7 @@ public class ReportGenerationService {
     private final ConnectionFactory connectionFactory; // Для получения Connection при динамическом подключении
     private final DatabaseConfigurationService databaseConfigService; // Для получения schema из конфигурации
     private final ResourceLoader resourceLoader;
+    private final ReportResultCache resultCache; // null — кэш результатов не используется
 
     /**
      * Директория для временных копий встроенных шаблонов.
@@ -70,12 +84,19 @@ public class ReportGenerationService {
     private Path embeddedTemplatesCacheDir;
 
     /**
-     * Семафор для ограничения количества одновременных генераций.
+     * Директория временных файлов с результатами синхронной генерации.
+     */
+    private Path resultsDirectory;
+
+    /**
+     * Допуск заполнений — единственный ограничитель параллелизма для предпросмотра, синхронных
+     * запросов и фоновых заданий {@link ReportJobService}; предпросмотр идёт приоритетной полосой.
      */
-    private Semaphore generationSemaphore;
+    private GenerationAdmission admission;
 
     /**
-     * ExecutorService для выполнения генераций с таймаутами.
+     * ExecutorService для выполнения генераций с таймаутами (виртуальные потоки: ожидание
+     * допуска и JDBC не занимают платформенные потоки).
      */
     private ExecutorService executorService;
 
@@ -86,7 +107,8 @@ public class ReportGenerationService {
             @Autowired(required = false) DataSource dataSource,
             @Autowired(required = false) ConnectionFactory connectionFactory,
             @Autowired(required = false) DatabaseConfigurationService databaseConfigService,
-            ResourceLoader resourceLoader
+            ResourceLoader resourceLoader,
+            @Autowired(required = false) ReportResultCache resultCache
     ) {
         this.properties = properties;
         this.discoveryService = discoveryService;
@@ -95,6 +117,7 @@ public class ReportGenerationService {
         this.connectionFactory = connectionFactory;
         this.databaseConfigService = databaseConfigService;
         this.resourceLoader = resourceLoader;
+        this.resultCache = resultCache;
     }
 
     /**
@@ -103,11 +126,15 @@ public class ReportGenerationService {
     @PostConstruct
     public void initialize() {
         int maxConcurrent = properties.getGeneration().getMaxConcurrent();
-        this.generationSemaphore = new Semaphore(maxConcurrent);
-        this.executorService = Executors.newFixedThreadPool(maxConcurrent);
+        this.admission = new GenerationAdmission(maxConcurrent, properties.getGeneration().getPreviewReserved());
+        this.executorService = Executors.newVirtualThreadPerTaskExecutor();
         this.embeddedTemplatesCacheDir = properties.getGeneration()
                 .getTempDirectoryAsPath()
                 .resolve("embedded-templates");
+        this.resultsDirectory = properties.getGeneration()
+                .getTempDirectoryAsPath()
+                .resolve("results");
+        discoveryService.addScanListener(jasperEngine::evictStale);
         try {
             if (!Files.exists(this.embeddedTemplatesCacheDir)) {
                 Files.createDirectories(this.embeddedTemplatesCacheDir);
@@ -116,12 +143,21 @@ public class ReportGenerationService {
         } catch (IOException e) {
             log.warn("Failed to prepare embedded templates cache directory: {}", embeddedTemplatesCacheDir, e);
         }
-        log.info("ReportGenerationService initialized (marker={}) maxConcurrent={}", BUILD_MARKER, maxConcurrent);
+        prepareDirectory(resultsDirectory);
+        if (virtualizerMode() == ReportsProperties.VirtualizerMode.FILE) {
+            prepareDirectory(properties.getGeneration().getSwapDirectoryAsPath());
+        }
+        log.info("ReportGenerationService initialized (marker={}) maxConcurrent={}, previewReserved={}, virtualizer={}, virtualizerMaxPages={}",
+                BUILD_MARKER, maxConcurrent, properties.getGeneration().getPreviewReserved(),
+                virtualizerMode(), properties.getGeneration().getVirtualizerMaxPages());
     }
 
     /**
      * Генерирует отчёт на основе запроса.
      * 
+     * <p>Повторный запрос с теми же параметрами, форматом и версией шаблона отдаётся
+     * из {@link ReportResultCache}, если отчёт не отключил кэширование в метаданных.
+     * 
      * @param request запрос на генерацию отчёта
      * @return результат генерации отчёта
      * @throws JRException если генерация не удалась
@@ -145,20 +181,58 @@ public class ReportGenerationService {
         // 3. Получаем путь к шаблону
         Path templatePath = getTemplatePath(metadata);
 
-        // 4. Генерируем отчёт с таймаутом и ограничением параллелизма
-        return generateWithTimeout(templatePath, request, metadata);
+        // 4. Нормализуем параметры: значения по умолчанию и схема БД входят в ключ кэша
+        Map<String, Object> params = prepareParameters(metadata, request.parameters());
+        ReportResultCache.CacheKey cacheKey = null;
+        if (resultCache != null && resultCache.isEnabled() && metadata.cacheable()) {
+            cacheKey = ReportResultCache.CacheKey.of(
+                    request.reportId(), request.format(), templateVersion(metadata, templatePath), params);
+            Optional<ReportResult> cached = resultCache.get(cacheKey, resultsDirectory);
+            if (cached.isPresent()) {
+                log.info("Report served from result cache: id={}, format={}", request.reportId(), request.format());
+                return cached.get();
+            }
+        }
+
+        // 5. Генерируем отчёт с таймаутом и ограничением параллелизма
+        ReportResult result = generateWithTimeout(templatePath, request, params);
+        if (cacheKey != null) {
+            resultCache.put(cacheKey, result);
+        }
+        return result;
+    }
+
+    /**
+     * Версия шаблона для ключа кэша: версия из метаданных и отметка файла, чтобы правка
+     * шаблона без смены версии не отдавала старый результат.
+     */
+    private static String templateVersion(ReportMetadata metadata, Path templatePath) {
+        try {
+            return metadata.version() + ":" + Files.getLastModifiedTime(templatePath).toMillis()
+                    + ":" + Files.size(templatePath);
+        } catch (IOException e) {
+            return metadata.version() + ":" + templatePath;
+        }
     }
 
     /**
-     * Генерирует preview отчёта (первая страница).
+     * Генерирует preview отчёта (первые страницы, по умолчанию одна).
+     * 
+     * <p>Заполнение останавливается, как только нужные страницы готовы: остальные данные
+     * не читаются и не раскладываются. Полное количество страниц возвращает {@link #countPages}.
+     * 
+     * <p>Предпросмотр проходит общий лимит одновременных заполнений приоритетной полосой
+     * {@link GenerationAdmission.Lane#PREVIEW}; ожидание места и заполнение вместе ограничены
+     * {@code reports.generation.preview-timeout}.
      * 
      * @param reportId идентификатор отчёта
      * @param parameters параметры отчёта
      * @return результат генерации preview (PDF формат)
      * @throws JRException если генерация не удалась
+     * @throws TimeoutException если место или страницы не получены за отведённое время
      */
     public ReportResult generatePreview(String reportId, Map<String, Object> parameters) 
-            throws JRException {
+            throws JRException, TimeoutException {
         
         log.info("Generating preview for report: {}", reportId);
 
@@ -168,48 +242,151 @@ public class ReportGenerationService {
         }
 
         Path templatePath = getTemplatePath(metadata);
-        // Если это предкомпилированный .jasper файл, загружаем его напрямую
-        JasperReport report;
-        if (templatePath.toString().endsWith(".jasper")) {
-            log.debug("[{}] Loading precompiled .jasper file: {}", BUILD_MARKER, templatePath);
-            try (java.io.InputStream is = Files.newInputStream(templatePath)) {
-                report = (JasperReport) net.sf.jasperreports.engine.util.JRLoader.loadObject(is);
-            } catch (java.io.IOException e) {
-                throw new RuntimeException("Failed to load precompiled report: " + templatePath, e);
+        Map<String, Object> params = prepareParameters(metadata, parameters);
+
+        long timeout = properties.getGeneration().getPreviewTimeout();
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeout);
+        JasperPrint jasperPrint;
+        try (GenerationAdmission.Permit permit = admission.admit(GenerationAdmission.Lane.PREVIEW, timeout)) {
+            // .jasper и .jrxml загружаются через общий кэш движка
+            JasperReport report = jasperEngine.loadReport(templatePath);
+            long remaining = Math.max(1, TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime()));
+            // Заполняем только первые страницы
+            try (Connection connection = getConnection()) {
+                jasperPrint = ReportFiller.fillFirstPages(
+                        AsynchronousFillHandle.createHandle(report, params, connection),
+                        properties.getGeneration().getPreviewPages(),
+                        remaining);
+            } catch (SQLException e) {
+                throw new JRException("Failed to fill report with data", e);
             }
-        } else {
-            // Компилируем из .jrxml
-            report = jasperEngine.compileReport(templatePath);
+            // Экспорт тоже нагружает сервер, поэтому выполняется под тем же разрешением
+            byte[] content = exportToPdf(jasperPrint);
+            return ReportResult.now(reportId, "pdf", content);
+        } catch (TimeoutException e) {
+            throw new TimeoutException("Report preview exceeded timeout: " + timeout + "ms");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new JRException("Report preview interrupted", e);
         }
+    }
 
-        // Генерируем только первую страницу
-        Map<String, Object> params = prepareParameters(metadata, parameters);
-        JasperPrint jasperPrint;
-        try (Connection connection = getConnection()) {
-            jasperPrint = JasperFillManager.fillReport(report, params, connection);
-        } catch (JRException | SQLException e) {
-            throw new RuntimeException("Failed to fill report: " + reportId, e);
+    /**
+     * Считает полное количество страниц отчёта без экспорта.
+     * 
+     * <p>Требует полного заполнения, поэтому выполняется с таймаутом и в пределах
+     * лимита одновременных генераций, как и {@link #generateReport}.
+     * 
+     * @param reportId идентификатор отчёта
+     * @param parameters параметры отчёта
+     * @return количество страниц
+     * @throws JRException если заполнение не удалось
+     * @throws TimeoutException если заполнение превысило таймаут
+     */
+    public ReportPageCount countPages(String reportId, Map<String, Object> parameters)
+            throws JRException, TimeoutException {
+
+        log.info("Counting pages for report: {}", reportId);
+
+        ReportMetadata metadata = discoveryService.getMetadata(reportId);
+        if (metadata == null) {
+            throw new IllegalArgumentException("Report not found: " + reportId);
         }
+        Map<String, Object> provided = parameters != null ? new HashMap<>(parameters) : new HashMap<>();
+        validateParameters(metadata, provided);
+        Path templatePath = getTemplatePath(metadata);
 
-        // Ограничиваем до первой страницы для preview
-        // JasperPrint не имеет метода setPages, поэтому создаём новый объект с одной страницей
-        if (jasperPrint.getPages().size() > 1) {
-            // Создаём новый JasperPrint с только первой страницей
-            JasperPrint previewPrint = new JasperPrint();
-            previewPrint.setName(jasperPrint.getName());
-            previewPrint.setPageWidth(jasperPrint.getPageWidth());
-            previewPrint.setPageHeight(jasperPrint.getPageHeight());
-            if (jasperPrint.getTimeZoneId() != null) {
-                previewPrint.setTimeZoneId(jasperPrint.getTimeZoneId());
+        return runWithTimeout(() -> {
+            JasperReport report = jasperEngine.loadReport(templatePath);
+            Map<String, Object> params = prepareParameters(metadata, provided);
+            JRVirtualizer virtualizer = attachVirtualizer(params);
+            try (Connection connection = getConnection()) {
+                JasperPrint jasperPrint = JasperFillManager.fillReport(report, params, connection);
+                return new ReportPageCount(reportId, jasperPrint.getPages().size());
+            } catch (SQLException e) {
+                throw new JRException("Failed to fill report with data", e);
+            } finally {
+                cleanup(virtualizer);
             }
-            previewPrint.addPage(jasperPrint.getPages().get(0));
-            jasperPrint = previewPrint;
+        });
+    }
+
+    /**
+     * Проверяет запрос и находит шаблон, не заполняя отчёт.
+     * 
+     * <p>Используется фоновыми заданиями: ошибки запроса возвращаются сразу при постановке
+     * в очередь, а не при выполнении.
+     * 
+     * @param request запрос на генерацию отчёта
+     * @return проверенный запрос с метаданными и путём к шаблону
+     * @throws IllegalArgumentException если отчёт не найден, формат не поддерживается
+     *         или параметры невалидны
+     */
+    public PreparedReport prepareReport(ReportGenerationRequest request) {
+        if (!request.isValidFormat()) {
+            throw new IllegalArgumentException("Unsupported format: " + request.format());
         }
+        ReportMetadata metadata = discoveryService.getMetadata(request.reportId());
+        if (metadata == null) {
+            throw new IllegalArgumentException("Report not found: " + request.reportId());
+        }
+        Map<String, Object> provided = request.parameters() != null
+                ? new HashMap<>(request.parameters())
+                : new HashMap<>();
+        validateParameters(metadata, provided);
+        ReportGenerationRequest validated = new ReportGenerationRequest(request.reportId(), provided, request.format());
+        return new PreparedReport(validated, metadata, getTemplatePath(metadata));
+    }
 
-        // Экспортируем в PDF
-        byte[] content = exportToPdf(jasperPrint);
-        
-        return ReportResult.now(reportId, "pdf", content);
+    /**
+     * Заполняет отчёт и пишет результат в поток.
+     * 
+     * <p>Выполняется в потоке вызывающего в пределах общего лимита одновременных генераций.
+     * Число готовых страниц публикуется в {@code progress}; {@link FillProgress#cancel()}
+     * останавливает заполнение.
+     * 
+     * @param prepared подготовленный запрос
+     * @param outputStream поток для результата (не закрывается)
+     * @param progress ход заполнения и точка отмены
+     * @return количество страниц отчёта
+     * @throws JRException если заполнение или экспорт не удались
+     * @throws TimeoutException если заполнение превысило таймаут
+     * @throws java.util.concurrent.CancellationException если заполнение отменено
+     * @throws InterruptedException если поток прерван
+     */
+    public int generateTo(PreparedReport prepared, OutputStream outputStream, FillProgress progress)
+            throws JRException, TimeoutException, InterruptedException {
+        long timeout = properties.getGeneration().getTimeout();
+        try (GenerationAdmission.Permit permit = admission.admit(GenerationAdmission.Lane.FULL, timeout)) {
+            JasperReport report = jasperEngine.loadReport(prepared.templatePath());
+            Map<String, Object> params = prepareParameters(prepared.metadata(), prepared.request().parameters());
+            JRVirtualizer virtualizer = attachVirtualizer(params);
+            try {
+                JasperPrint jasperPrint;
+                try (Connection connection = getConnection()) {
+                    jasperPrint = ReportFiller.fill(
+                            AsynchronousFillHandle.createHandle(report, params, connection),
+                            progress,
+                            properties.getGeneration().getTimeout());
+                } catch (SQLException e) {
+                    throw new JRException("Failed to fill report with data", e);
+                }
+                export(jasperPrint, prepared.request().format(), outputStream);
+                return jasperPrint.getPages().size();
+            } finally {
+                cleanup(virtualizer);
+            }
+        }
+    }
+
+    /**
+     * Проверенный запрос на генерацию: параметры прошли валидацию, шаблон найден.
+     * 
+     * @param request запрос с приведёнными к типам параметрами
+     * @param metadata метаданные отчёта
+     * @param templatePath путь к шаблону
+     */
+    public record PreparedReport(ReportGenerationRequest request, ReportMetadata metadata, Path templatePath) {
     }
 
     /**
@@ -218,20 +395,22 @@ public class ReportGenerationService {
     private ReportResult generateWithTimeout(
             Path templatePath,
             ReportGenerationRequest request,
-            ReportMetadata metadata
+            Map<String, Object> params
     ) throws JRException, TimeoutException {
+        return runWithTimeout(() -> generateReportInternal(templatePath, request, params));
+    }
+
+    /**
+     * Выполняет заполнение с таймаутом в пределах лимита одновременных генераций.
+     */
+    private <T> T runWithTimeout(Callable<T> task) throws JRException, TimeoutException {
         
         long timeout = properties.getGeneration().getTimeout();
         
-        Future<ReportResult> future = executorService.submit(() -> {
-            try {
-                // Получаем разрешение на генерацию
-                generationSemaphore.acquire();
-                try {
-                    return generateReportInternal(templatePath, request, metadata);
-                } finally {
-                    generationSemaphore.release();
-                }
+        Future<T> future = executorService.submit(() -> {
+            // Получаем разрешение на генерацию; ожидание входит в общий таймаут
+            try (GenerationAdmission.Permit permit = admission.admit(GenerationAdmission.Lane.FULL, timeout)) {
+                return task.call();
             } catch (InterruptedException e) {
                 Thread.currentThread().interrupt();
                 throw new JRException("Report generation interrupted", e);
@@ -249,6 +428,9 @@ public class ReportGenerationService {
             if (cause instanceof JRException) {
                 throw (JRException) cause;
             }
+            if (cause instanceof TimeoutException) {
+                throw new TimeoutException("Report generation exceeded timeout: " + timeout + "ms");
+            }
             throw new JRException("Report generation failed", cause);
         } catch (java.util.concurrent.TimeoutException e) {
             future.cancel(true);
@@ -262,44 +444,105 @@ public class ReportGenerationService {
     private ReportResult generateReportInternal(
             Path templatePath,
             ReportGenerationRequest request,
-            ReportMetadata metadata
+            Map<String, Object> preparedParams
     ) throws JRException {
         
-        // 1. Загружаем или компилируем шаблон
-        JasperReport report;
-        if (templatePath.toString().endsWith(".jasper")) {
-            log.debug("[{}] Loading precompiled .jasper file: {}", BUILD_MARKER, templatePath);
-            try (java.io.InputStream is = Files.newInputStream(templatePath)) {
-                report = (JasperReport) JRLoader.loadObject(is);
-            } catch (java.io.IOException e) {
-                throw new JRException("Failed to load precompiled report: " + templatePath, e);
+        // 1. Загружаем или компилируем шаблон (из кэша движка, если файл не менялся)
+        JasperReport report = jasperEngine.loadReport(templatePath);
+
+        // 2. Страницы сверх порога уходят в виртуализатор
+        Map<String, Object> params = new HashMap<>(preparedParams);
+        JRVirtualizer virtualizer = attachVirtualizer(params);
+        Path resultFile = null;
+        try {
+            // 3. Заполняем отчёт данными
+            JasperPrint jasperPrint;
+            try (Connection connection = getConnection()) {
+                jasperPrint = JasperFillManager.fillReport(report, params, connection);
+            } catch (Exception e) {
+                throw new JRException("Failed to fill report with data", e);
             }
-        } else {
-            // Компилируем из .jrxml
-            report = jasperEngine.compileReport(templatePath);
-        }
 
-        // 2. Подготавливаем параметры
-        Map<String, Object> params = prepareParameters(metadata, request.parameters());
+            // 4. Экспортируем в нужный формат сразу во временный файл, без копии в памяти
+            resultFile = Files.createTempFile(resultsDirectory, request.reportId() + "-", ".tmp");
+            try (OutputStream outputStream = new BufferedOutputStream(Files.newOutputStream(resultFile))) {
+                export(jasperPrint, request.format(), outputStream);
+            }
 
-        // 3. Заполняем отчёт данными
-        JasperPrint jasperPrint;
-        try (Connection connection = getConnection()) {
-            jasperPrint = JasperFillManager.fillReport(report, params, connection);
-        } catch (Exception e) {
-            throw new JRException("Failed to fill report with data", e);
+            // 5. Создаём результат; файл переходит к получателю
+            ReportResult result = ReportResult.spooled(
+                    request.reportId(), request.format(), resultFile, java.time.LocalDateTime.now());
+            resultFile = null;
+            return result;
+        } catch (IOException e) {
+            throw new JRException("Failed to export report", e);
+        } finally {
+            cleanup(virtualizer);
+            if (resultFile != null) {
+                deleteQuietly(resultFile);
+            }
         }
+    }
 
-        // 4. Экспортируем в нужный формат
-        byte[] content = switch (request.format().toLowerCase()) {
-            case "pdf" -> exportToPdf(jasperPrint);
-            case "excel", "xls", "xlsx" -> exportToExcel(jasperPrint);
-            case "html" -> exportToHtml(jasperPrint);
-            default -> throw new IllegalArgumentException("Unsupported format: " + request.format());
+    /**
+     * Создаёт виртуализатор по настройкам и передаёт его в параметры заполнения.
+     * 
+     * <p>Виртуализатор держит в памяти {@code virtualizer-max-pages} страниц; страницы сверх
+     * порога выгружаются в swap-файл или сжимаются, поэтому короткие отчёты он не затрагивает.
+     * 
+     * @param params параметры заполнения
+     * @return виртуализатор или {@code null}, если виртуализация отключена
+     */
+    private JRVirtualizer attachVirtualizer(Map<String, Object> params) {
+        int maxPages = Math.max(1, properties.getGeneration().getVirtualizerMaxPages());
+        JRVirtualizer virtualizer = switch (virtualizerMode()) {
+            case NONE -> null;
+            case GZIP -> new JRGzipVirtualizer(maxPages);
+            case FILE -> new JRSwapFileVirtualizer(maxPages, new JRSwapFile(
+                    properties.getGeneration().getSwapDirectoryAsPath().toString(),
+                    SWAP_BLOCK_SIZE,
+                    SWAP_MIN_GROW_COUNT), true);
         };
+        if (virtualizer != null) {
+            params.put(JRParameter.REPORT_VIRTUALIZER, virtualizer);
+        }
+        return virtualizer;
+    }
 
-        // 5. Создаём результат
-        return ReportResult.now(request.reportId(), request.format(), content);
+    private ReportsProperties.VirtualizerMode virtualizerMode() {
+        ReportsProperties.VirtualizerMode mode = properties.getGeneration().getVirtualizer();
+        return mode != null ? mode : ReportsProperties.VirtualizerMode.NONE;
+    }
+
+    /**
+     * Освобождает виртуализатор после экспорта (удаляет swap-файл).
+     */
+    private static void cleanup(JRVirtualizer virtualizer) {
+        if (virtualizer != null) {
+            virtualizer.cleanup();
+        }
+    }
+
+    private static void prepareDirectory(Path directory) {
+        try {
+            Files.createDirectories(directory);
+            // Файлы прошлого запуска не нужны: результаты и swap живут только в рамках запроса
+            try (DirectoryStream<Path> leftovers = Files.newDirectoryStream(directory)) {
+                for (Path leftover : leftovers) {
+                    deleteQuietly(leftover);
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Failed to prepare report generation directory: {}", directory, e);
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Failed to delete temporary report file: {}", file, e);
+        }
     }
 
     /**
@@ -327,66 +570,69 @@ public class ReportGenerationService {
         throw new SQLException("No DataSource or ConnectionFactory available. Database connection must be configured.");
     }
 
+    /**
+     * Экспортирует отчёт в нужный формат в поток.
+     */
+    private void export(JasperPrint jasperPrint, String format, OutputStream outputStream) throws JRException {
+        switch (format.toLowerCase()) {
+            case "pdf" -> exportToPdf(jasperPrint, outputStream);
+            case "excel", "xls", "xlsx" -> exportToExcel(jasperPrint, outputStream);
+            case "html" -> exportToHtml(jasperPrint, outputStream);
+            default -> throw new IllegalArgumentException("Unsupported format: " + format);
+        }
+    }
+
     /**
      * Экспортирует отчёт в PDF.
      */
     private byte[] exportToPdf(JasperPrint jasperPrint) throws JRException {
         try (ByteArrayOutputStream outputStream = new ByteArrayOutputStream()) {
-            JRPdfExporter exporter = new JRPdfExporter();
-            exporter.setExporterInput(new SimpleExporterInput(jasperPrint));
-            exporter.setExporterOutput(new SimpleOutputStreamExporterOutput(outputStream));
-            
-            SimplePdfExporterConfiguration configuration = new SimplePdfExporterConfiguration();
-            exporter.setConfiguration(configuration);
-            
-            exporter.exportReport();
-            
+            exportToPdf(jasperPrint, outputStream);
             return outputStream.toByteArray();
         } catch (IOException e) {
             throw new JRException("Failed to export report to PDF", e);
         }
     }
 
+    private void exportToPdf(JasperPrint jasperPrint, OutputStream outputStream) throws JRException {
+        JRPdfExporter exporter = new JRPdfExporter();
+        exporter.setExporterInput(new SimpleExporterInput(jasperPrint));
+        exporter.setExporterOutput(new SimpleOutputStreamExporterOutput(outputStream));
+        
+        SimplePdfExporterConfiguration configuration = new SimplePdfExporterConfiguration();
+        exporter.setConfiguration(configuration);
+        
+        exporter.exportReport();
+    }
+
     /**
      * Экспортирует отчёт в Excel.
      */
-    private byte[] exportToExcel(JasperPrint jasperPrint) throws JRException {
-        try (ByteArrayOutputStream outputStream = new ByteArrayOutputStream()) {
-            JRXlsxExporter exporter = new JRXlsxExporter();
-            exporter.setExporterInput(new SimpleExporterInput(jasperPrint));
-            exporter.setExporterOutput(new SimpleOutputStreamExporterOutput(outputStream));
-            
-            SimpleXlsxReportConfiguration configuration = new SimpleXlsxReportConfiguration();
-            configuration.setOnePagePerSheet(false);
-            configuration.setRemoveEmptySpaceBetweenRows(true);
-            exporter.setConfiguration(configuration);
-            
-            exporter.exportReport();
-            
-            return outputStream.toByteArray();
-        } catch (IOException e) {
-            throw new JRException("Failed to export report to Excel", e);
-        }
+    private void exportToExcel(JasperPrint jasperPrint, OutputStream outputStream) throws JRException {
+        JRXlsxExporter exporter = new JRXlsxExporter();
+        exporter.setExporterInput(new SimpleExporterInput(jasperPrint));
+        exporter.setExporterOutput(new SimpleOutputStreamExporterOutput(outputStream));
+        
+        SimpleXlsxReportConfiguration configuration = new SimpleXlsxReportConfiguration();
+        configuration.setOnePagePerSheet(false);
+        configuration.setRemoveEmptySpaceBetweenRows(true);
+        exporter.setConfiguration(configuration);
+        
+        exporter.exportReport();
     }
 
     /**
      * Экспортирует отчёт в HTML.
      */
-    private byte[] exportToHtml(JasperPrint jasperPrint) throws JRException {
-        try (ByteArrayOutputStream outputStream = new ByteArrayOutputStream()) {
-            HtmlExporter exporter = new HtmlExporter();
-            exporter.setExporterInput(new SimpleExporterInput(jasperPrint));
-            exporter.setExporterOutput(new SimpleHtmlExporterOutput(outputStream));
-            
-            SimpleHtmlExporterConfiguration configuration = new SimpleHtmlExporterConfiguration();
-            exporter.setConfiguration(configuration);
-            
-            exporter.exportReport();
-            
-            return outputStream.toByteArray();
-        } catch (IOException e) {
-            throw new JRException("Failed to export report to HTML", e);
-        }
+    private void exportToHtml(JasperPrint jasperPrint, OutputStream outputStream) throws JRException {
+        HtmlExporter exporter = new HtmlExporter();
+        exporter.setExporterInput(new SimpleExporterInput(jasperPrint));
+        exporter.setExporterOutput(new SimpleHtmlExporterOutput(outputStream));
+        
+        SimpleHtmlExporterConfiguration configuration = new SimpleHtmlExporterConfiguration();
+        exporter.setConfiguration(configuration);
+        
+        exporter.exportReport();
     }
 
     /**
@@ -819,6 +1065,9 @@ public class ReportGenerationService {
             Files.createDirectories(embeddedTemplatesCacheDir);
             Path cachedPath = embeddedTemplatesCacheDir.resolve(templateFile);
             Files.createDirectories(cachedPath.getParent());
+            if (isCachedCopyCurrent(resource, cachedPath)) {
+                return cachedPath;
+            }
             try (InputStream inputStream = resource.getInputStream()) {
                 Files.copy(inputStream, cachedPath, java.nio.file.StandardCopyOption.REPLACE_EXISTING);
             }
@@ -830,6 +1079,26 @@ public class ReportGenerationService {
         }
     }
 
+    /**
+     * Проверяет, что копия встроенного шаблона не старше ресурса и совпадает с ним по размеру.
+     * Без этой проверки копия перезаписывалась бы на каждом запросе и меняла время изменения,
+     * из-за чего кэш скомпилированных отчётов никогда бы не срабатывал.
+     */
+    private boolean isCachedCopyCurrent(Resource resource, Path cachedPath) {
+        try {
+            if (!Files.exists(cachedPath)) {
+                return false;
+            }
+            long resourceLength = resource.contentLength();
+            long resourceModified = resource.lastModified();
+            return resourceLength == Files.size(cachedPath)
+                    && resourceModified > 0
+                    && resourceModified <= Files.getLastModifiedTime(cachedPath).toMillis();
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
     private void ensureLocalJasperUpToDate(Path jrxmlPath) {
         try {
             if (jrxmlPath == null || !Files.exists(jrxmlPath)) {
@@ -887,7 +1156,17 @@ public class ReportGenerationService {
      * Получает количество активных генераций.
      */
     public int getActiveGenerations() {
-        return properties.getGeneration().getMaxConcurrent() - generationSemaphore.availablePermits();
+        return admission != null ? admission.getActive() : 0;
+    }
+
+    /**
+     * Получает статистику допуска по полосе (ожидание места, время заполнения, отказы).
+     * 
+     * @param lane полоса допуска
+     * @return статистика полосы
+     */
+    public GenerationAdmission.LaneStatistics getAdmissionStatistics(GenerationAdmission.Lane lane) {
+        return admission.getStatistics(lane);
     }
 
     /**
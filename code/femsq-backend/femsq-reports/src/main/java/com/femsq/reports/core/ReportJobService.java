@@ -0,0 +1,447 @@
+package com.femsq.reports.core;
+
+import com.femsq.reports.config.ReportsProperties;
+import com.femsq.reports.core.ReportGenerationService.PreparedReport;
+import com.femsq.reports.model.ReportGenerationRequest;
+import com.femsq.reports.model.ReportJobState;
+import com.femsq.reports.model.ReportJobStatus;
+import com.femsq.reports.model.ReportResult;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Фоновые задания генерации отчётов.
+ *
+ * <p>Постановка в очередь возвращает идентификатор сразу: HTTP-поток не ждёт заполнения.
+ * Результат пишется в spool-файл и скачивается отдельным запросом, пока не истечёт
+ * {@code reports.jobs.result-ttl}.
+ *
+ * <p>Очередь справедливая: следующим запускается задание пользователя, которого обслуживали
+ * раньше остальных, у каждого пользователя — FIFO. Одновременно выполняется не больше {@code reports.generation.max-concurrent}
+ * заданий и не больше {@code reports.jobs.max-running-per-user} заданий одного пользователя;
+ * заполнение дополнительно проходит {@link GenerationAdmission} по полосе
+ * {@link GenerationAdmission.Lane#FULL}, общей с синхронной генерацией и подсчётом страниц.
+ *
+ * <p>Отправленное из очереди задание может не получить место в {@link GenerationAdmission}:
+ * если предпросмотры и синхронные генерации заняли полосу дольше {@code reports.generation.timeout},
+ * задание завершается {@link ReportJobState#FAILED} с ошибкой таймаута, не начав заполнение.
+ *
+ * <p>Состояние заданий хранится в памяти и не переживает перезапуск; оставшиеся spool-файлы
+ * удаляются при старте.
+ */
+@Service
+public class ReportJobService {
+
+    private static final Logger log = LoggerFactory.getLogger(ReportJobService.class);
+
+    private static final String PART_SUFFIX = ".part";
+
+    private final ReportsProperties properties;
+    private final ReportGenerationService generationService;
+
+    private final Map<String, Job> jobs = new ConcurrentHashMap<>();
+
+    /**
+     * Очереди пользователей в порядке появления. Изменяются только под {@link #lock}.
+     */
+    private final LinkedHashMap<String, ArrayDeque<Job>> queues = new LinkedHashMap<>();
+    private final Map<String, Integer> runningByOwner = new HashMap<>();
+    /** Номер последнего обслуживания пользователя; удаляется, когда у него нет заданий. */
+    private final Map<String, Long> lastServed = new HashMap<>();
+    private long serveSequence;
+    private int running;
+    private final Object lock = new Object();
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private Path spoolDirectory;
+
+    public ReportJobService(ReportsProperties properties, ReportGenerationService generationService) {
+        this.properties = properties;
+        this.generationService = generationService;
+    }
+
+    /**
+     * Создаёт директорию результатов и удаляет файлы, оставшиеся от прошлого запуска.
+     */
+    @PostConstruct
+    public void initialize() {
+        String configured = properties.getJobs().getSpoolDirectory();
+        spoolDirectory = configured != null && !configured.isBlank()
+                ? Paths.get(configured)
+                : properties.getGeneration().getTempDirectoryAsPath().resolve("jobs");
+        try {
+            Files.createDirectories(spoolDirectory);
+            try (DirectoryStream<Path> leftovers = Files.newDirectoryStream(spoolDirectory)) {
+                for (Path leftover : leftovers) {
+                    Files.deleteIfExists(leftover);
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Failed to prepare report jobs spool directory: {}", spoolDirectory, e);
+        }
+        log.info("ReportJobService initialized: spool={}, maxConcurrent={}, maxRunningPerUser={}",
+                spoolDirectory, properties.getGeneration().getMaxConcurrent(),
+                properties.getJobs().getMaxRunningPerUser());
+    }
+
+    /**
+     * Ставит задание генерации в очередь.
+     *
+     * @param request запрос на генерацию
+     * @param owner   пользователь, которому принадлежит задание
+     * @return состояние созданного задания
+     * @throws IllegalArgumentException если запрос невалиден (отчёт не найден, параметры, формат)
+     * @throws IllegalStateException если у пользователя слишком много заданий в очереди
+     */
+    public ReportJobStatus submit(ReportGenerationRequest request, String owner) {
+        PreparedReport prepared = generationService.prepareReport(request);
+        synchronized (lock) {
+            ArrayDeque<Job> queue = queues.get(owner);
+            int limit = properties.getJobs().getMaxQueuedPerUser();
+            if (queue != null && queue.size() >= limit) {
+                throw new IllegalStateException("Too many queued report jobs for user: limit " + limit);
+            }
+            Job job = new Job(UUID.randomUUID().toString(), owner, prepared);
+            jobs.put(job.id, job);
+            queues.computeIfAbsent(owner, key -> new ArrayDeque<>()).addLast(job);
+            log.info("Report job {} queued: report={}, format={}, owner={}",
+                    job.id, request.reportId(), request.format(), owner);
+            dispatch();
+            return job.status(queuePosition(job));
+        }
+    }
+
+    /**
+     * Получает состояние задания.
+     *
+     * @param jobId идентификатор задания
+     * @param owner пользователь; чужие задания не видны
+     * @return состояние или пусто, если задания нет (или оно удалено по TTL)
+     */
+    public Optional<ReportJobStatus> getStatus(String jobId, String owner) {
+        Job job = find(jobId, owner);
+        if (job == null) {
+            return Optional.empty();
+        }
+        synchronized (lock) {
+            return Optional.of(job.status(queuePosition(job)));
+        }
+    }
+
+    /**
+     * Отменяет задание: из очереди удаляется сразу, выполняемое — останавливается.
+     *
+     * @param jobId идентификатор задания
+     * @param owner пользователь; чужие задания не видны
+     * @return состояние после запроса отмены или пусто, если задания нет
+     */
+    public Optional<ReportJobStatus> cancel(String jobId, String owner) {
+        Job job = find(jobId, owner);
+        if (job == null) {
+            return Optional.empty();
+        }
+        synchronized (lock) {
+            if (job.state == ReportJobState.QUEUED) {
+                ArrayDeque<Job> queue = queues.get(job.owner);
+                if (queue != null) {
+                    queue.remove(job);
+                    if (queue.isEmpty()) {
+                        queues.remove(job.owner);
+                        if (!runningByOwner.containsKey(job.owner)) {
+                            lastServed.remove(job.owner);
+                        }
+                    }
+                }
+                job.finish(ReportJobState.CANCELLED, null);
+                log.info("Report job {} cancelled while queued", job.id);
+            } else if (job.state == ReportJobState.RUNNING) {
+                job.progress.cancel();
+                log.info("Report job {} cancellation requested", job.id);
+            }
+            return Optional.of(job.status(queuePosition(job)));
+        }
+    }
+
+    /**
+     * Получает готовый результат задания.
+     *
+     * @param jobId идентификатор задания
+     * @param owner пользователь; чужие задания не видны
+     * @return spool-файл результата или пусто, если задания нет или оно не завершено успешно
+     */
+    public Optional<SpooledReport> getResult(String jobId, String owner) {
+        Job job = find(jobId, owner);
+        if (job == null || job.state != ReportJobState.COMPLETED || !Files.exists(job.resultFile)) {
+            return Optional.empty();
+        }
+        return Optional.of(new SpooledReport(job.resultFile, job.fileName,
+                ReportResult.mimeTypeOf(job.prepared.request().format()), job.size));
+    }
+
+    /**
+     * Удаляет завершённые задания, чей результат хранится дольше {@code reports.jobs.result-ttl}.
+     */
+    @Scheduled(fixedDelayString = "${reports.jobs.cleanup-interval:60000}")
+    public void evictExpired() {
+        LocalDateTime threshold = LocalDateTime.now().minus(Duration.ofMillis(properties.getJobs().getResultTtl()));
+        Iterator<Job> iterator = jobs.values().iterator();
+        while (iterator.hasNext()) {
+            Job job = iterator.next();
+            if (job.state.isFinished() && job.finishedAt.isBefore(threshold)) {
+                iterator.remove();
+                deleteQuietly(job.resultFile);
+                log.debug("Report job {} evicted after TTL", job.id);
+            }
+        }
+    }
+
+    /**
+     * Останавливает выполняемые задания при остановке приложения.
+     */
+    @PreDestroy
+    public void shutdown() {
+        synchronized (lock) {
+            for (Job job : jobs.values()) {
+                if (job.state == ReportJobState.RUNNING) {
+                    job.progress.cancel();
+                }
+            }
+        }
+        executor.shutdownNow();
+    }
+
+    /**
+     * @return количество выполняемых заданий
+     */
+    public int getRunningJobs() {
+        synchronized (lock) {
+            return running;
+        }
+    }
+
+    /**
+     * @return количество заданий в очереди
+     */
+    public int getQueuedJobs() {
+        synchronized (lock) {
+            return queues.values().stream().mapToInt(ArrayDeque::size).sum();
+        }
+    }
+
+    private Job find(String jobId, String owner) {
+        Job job = jobs.get(jobId);
+        return job != null && job.owner.equals(owner) ? job : null;
+    }
+
+    /**
+     * Запускает задания, пока есть свободные места. Вызывается под {@link #lock}.
+     */
+    private void dispatch() {
+        int maxConcurrent = properties.getGeneration().getMaxConcurrent();
+        while (running < maxConcurrent) {
+            Job next = pollNextFair();
+            if (next == null) {
+                return;
+            }
+            start(next);
+        }
+    }
+
+    /**
+     * Выбирает первое задание пользователя со свободным слотом, которого обслуживали
+     * раньше всех (новые пользователи — первыми, при равенстве — в порядке очередей).
+     */
+    private Job pollNextFair() {
+        int maxPerUser = properties.getJobs().getMaxRunningPerUser();
+        String chosen = null;
+        long chosenServed = Long.MAX_VALUE;
+        for (String owner : queues.keySet()) {
+            if (runningByOwner.getOrDefault(owner, 0) >= maxPerUser) {
+                continue;
+            }
+            long served = lastServed.getOrDefault(owner, -1L);
+            if (served < chosenServed) {
+                chosen = owner;
+                chosenServed = served;
+            }
+        }
+        if (chosen == null) {
+            return null;
+        }
+        ArrayDeque<Job> queue = queues.get(chosen);
+        Job job = queue.pollFirst();
+        if (queue.isEmpty()) {
+            queues.remove(chosen);
+        }
+        lastServed.put(chosen, serveSequence++);
+        return job;
+    }
+
+    private void start(Job job) {
+        job.state = ReportJobState.RUNNING;
+        job.startedAt = LocalDateTime.now();
+        running++;
+        runningByOwner.merge(job.owner, 1, Integer::sum);
+        executor.execute(() -> run(job));
+    }
+
+    private void run(Job job) {
+        Path partFile = job.resultFile.resolveSibling(job.resultFile.getFileName() + PART_SUFFIX);
+        ReportJobState outcome;
+        String error = null;
+        try {
+            int pages;
+            try (OutputStream outputStream = new BufferedOutputStream(Files.newOutputStream(partFile))) {
+                pages = generationService.generateTo(job.prepared, outputStream, job.progress);
+            }
+            Files.move(partFile, job.resultFile, StandardCopyOption.REPLACE_EXISTING);
+            job.pages = pages;
+            job.size = Files.size(job.resultFile);
+            outcome = ReportJobState.COMPLETED;
+            log.info("Report job {} completed: {} page(s), {} bytes", job.id, pages, job.size);
+        } catch (CancellationException e) {
+            outcome = ReportJobState.CANCELLED;
+            log.info("Report job {} cancelled", job.id);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            outcome = ReportJobState.CANCELLED;
+        } catch (Exception e) {
+            outcome = ReportJobState.FAILED;
+            error = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+            log.error("Report job {} failed", job.id, e);
+        }
+        if (outcome != ReportJobState.COMPLETED) {
+            deleteQuietly(partFile);
+        }
+        synchronized (lock) {
+            job.finish(outcome, error);
+            running--;
+            runningByOwner.computeIfPresent(job.owner, (owner, count) -> count > 1 ? count - 1 : null);
+            if (!runningByOwner.containsKey(job.owner) && !queues.containsKey(job.owner)) {
+                lastServed.remove(job.owner);
+            }
+            dispatch();
+        }
+    }
+
+    /**
+     * Позиция задания в очереди пользователя (с 1). Вызывается под {@link #lock}.
+     */
+    private int queuePosition(Job job) {
+        if (job.state != ReportJobState.QUEUED) {
+            return 0;
+        }
+        ArrayDeque<Job> queue = queues.get(job.owner);
+        if (queue == null) {
+            return 0;
+        }
+        int position = 1;
+        for (Job queued : queue) {
+            if (queued == job) {
+                return position;
+            }
+            position++;
+        }
+        return 0;
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Failed to delete report job file: {}", file, e);
+        }
+    }
+
+    /**
+     * Готовый результат задания.
+     *
+     * @param file     spool-файл
+     * @param fileName рекомендуемое имя файла для скачивания
+     * @param mimeType MIME тип
+     * @param size     размер в байтах
+     */
+    public record SpooledReport(Path file, String fileName, String mimeType, long size) {
+    }
+
+    /**
+     * Задание. Поля состояния меняются под {@link #lock}, кроме результата, который
+     * выполняющий поток записывает до публикации состояния COMPLETED.
+     */
+    private final class Job {
+        private final String id;
+        private final String owner;
+        private final PreparedReport prepared;
+        private final FillProgress progress = new FillProgress();
+        private final LocalDateTime submittedAt = LocalDateTime.now();
+        private final String fileName;
+        private final Path resultFile;
+
+        private volatile ReportJobState state = ReportJobState.QUEUED;
+        private volatile LocalDateTime startedAt;
+        private volatile LocalDateTime finishedAt;
+        private volatile int pages;
+        private volatile long size;
+        private volatile String error;
+
+        private Job(String id, String owner, PreparedReport prepared) {
+            this.id = id;
+            this.owner = owner;
+            this.prepared = prepared;
+            this.fileName = ReportResult.fileNameFor(
+                    prepared.request().reportId(), prepared.request().format(), submittedAt);
+            this.resultFile = spoolDirectory.resolve(id);
+        }
+
+        private void finish(ReportJobState outcome, String message) {
+            // Состояние публикуется последним: evictExpired читает finishedAt без блокировки
+            finishedAt = LocalDateTime.now();
+            error = message;
+            state = outcome;
+        }
+
+        private ReportJobStatus status(int queuePosition) {
+            boolean completed = state == ReportJobState.COMPLETED;
+            return new ReportJobStatus(
+                    id,
+                    prepared.request().reportId(),
+                    prepared.request().format(),
+                    state,
+                    queuePosition,
+                    completed ? pages : progress.pages(),
+                    completed ? fileName : null,
+                    completed ? size : null,
+                    error,
+                    submittedAt,
+                    startedAt,
+                    finishedAt
+            );
+        }
+    }
+}
@@ -469,6 +469,7 @@ public class ReportMetadataLoader {
         String lastModified = reportNode.path("lastModified").asText(null);
         String version = reportNode.path("version").asText("1.0.0");
         String accessLevel = reportNode.path("accessLevel").asText("user");
+        boolean cacheable = reportNode.path("cacheable").asBoolean(true);
 
         // Парсим файлы
         JsonNode filesNode = reportNode.get("files");
@@ -517,7 +518,8 @@ public class ReportMetadataLoader {
                 parameters,
                 uiIntegration,
                 tags,
-                accessLevel
+                accessLevel,
+                cacheable
         );
     }
 
@@ -0,0 +1,311 @@
+package com.femsq.reports.core;
+
+import com.femsq.reports.config.ReportsProperties;
+import com.femsq.reports.model.ReportResult;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Кэш готовых результатов генерации отчётов.
+ *
+ * <p>Ключ — идентификатор отчёта, формат, версия шаблона и нормализованные параметры
+ * заполнения (после подстановки значений по умолчанию и схемы БД). Повторный запрос того же
+ * отчёта с теми же параметрами отдаётся из кэша без обращения к БД.
+ *
+ * <p>Результаты хранятся файлами в {@code result-cache} внутри директории временных файлов.
+ * Выдача создаёт жёсткую ссылку (или копию, если ссылки не поддерживаются), поэтому получатель
+ * может удалить свой файл после отправки, не затрагивая запись кэша.
+ *
+ * <p>Записи вытесняются по давности использования при превышении {@code max-entries} или
+ * {@code max-size}, а также по истечении {@code ttl}. Отчёты с {@code "cacheable": false}
+ * в метаданных не кэшируются.
+ */
+@Service
+public class ReportResultCache {
+
+    private static final Logger log = LoggerFactory.getLogger(ReportResultCache.class);
+
+    private final ReportsProperties properties;
+
+    /**
+     * Записи в порядке использования (LRU). Изменяются только под {@code this}.
+     */
+    private final LinkedHashMap<CacheKey, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long totalSize;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    private Path cacheDirectory;
+
+    public ReportResultCache(ReportsProperties properties) {
+        this.properties = properties;
+    }
+
+    /**
+     * Создаёт директорию кэша и удаляет записи прошлого запуска (индекс хранится в памяти).
+     */
+    @PostConstruct
+    public void initialize() {
+        cacheDirectory = properties.getGeneration().getTempDirectoryAsPath().resolve("result-cache");
+        try {
+            Files.createDirectories(cacheDirectory);
+            try (DirectoryStream<Path> leftovers = Files.newDirectoryStream(cacheDirectory)) {
+                for (Path leftover : leftovers) {
+                    deleteQuietly(leftover);
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Failed to prepare report result cache directory: {}", cacheDirectory, e);
+        }
+        ReportsProperties.ResultCache settings = properties.getResultCache();
+        log.info("ReportResultCache initialized: enabled={}, maxEntries={}, maxSize={}MB, ttl={}ms",
+                settings.isEnabled(), settings.getMaxEntries(), settings.getMaxSizeMb(), settings.getTtl());
+    }
+
+    /**
+     * @return true если кэш включён в настройках
+     */
+    public boolean isEnabled() {
+        return properties.getResultCache().isEnabled();
+    }
+
+    /**
+     * Ищет готовый результат и выдаёт его копию во временный файл.
+     *
+     * @param key             ключ результата
+     * @param targetDirectory директория, в которой создаётся файл для получателя
+     * @return результат (файл принадлежит получателю) или пусто при промахе
+     */
+    public Optional<ReportResult> get(CacheKey key, Path targetDirectory) {
+        Entry entry;
+        synchronized (this) {
+            entry = entries.get(key);
+            if (entry != null && isExpired(entry)) {
+                remove(key);
+                entry = null;
+            }
+        }
+        if (entry == null) {
+            misses.increment();
+            return Optional.empty();
+        }
+        Path target = targetDirectory.resolve(key.reportId() + "-" + UUID.randomUUID() + ".tmp");
+        try {
+            linkOrCopy(entry.file(), target);
+            hits.increment();
+            log.debug("Report result cache hit: {}", key.reportId());
+            return Optional.of(ReportResult.spooled(key.reportId(), key.format(), target, entry.generatedAt()));
+        } catch (IOException e) {
+            // Запись вытеснили между поиском и выдачей — обычный промах
+            log.debug("Cached report result is no longer available: {}", entry.file(), e);
+            deleteQuietly(target);
+            misses.increment();
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Сохраняет результат в кэше. Файл результата остаётся у вызывающего.
+     *
+     * @param key    ключ результата
+     * @param result результат, записанный во временный файл
+     */
+    public void put(CacheKey key, ReportResult result) {
+        if (!result.isSpooled()) {
+            return;
+        }
+        long maxSize = properties.getResultCache().getMaxSizeMb() * 1024L * 1024L;
+        if (result.size() > maxSize) {
+            log.debug("Report result {} ({} bytes) exceeds cache size limit", key.reportId(), result.size());
+            return;
+        }
+        Path file = cacheDirectory.resolve(UUID.randomUUID().toString());
+        try {
+            linkOrCopy(result.file(), file);
+        } catch (IOException e) {
+            log.warn("Failed to store report result in cache: {}", key.reportId(), e);
+            deleteQuietly(file);
+            return;
+        }
+        synchronized (this) {
+            remove(key);
+            entries.put(key, new Entry(file, result.size(), result.generatedAt(), System.currentTimeMillis()));
+            totalSize += result.size();
+            evictOverflow(maxSize);
+        }
+    }
+
+    /**
+     * Удаляет все результаты отчёта (например, после изменения исходных данных).
+     *
+     * @param reportId идентификатор отчёта
+     * @return количество удалённых записей
+     */
+    public synchronized int invalidate(String reportId) {
+        List<CacheKey> keys = new ArrayList<>();
+        for (CacheKey key : entries.keySet()) {
+            if (key.reportId().equals(reportId)) {
+                keys.add(key);
+            }
+        }
+        keys.forEach(this::remove);
+        if (!keys.isEmpty()) {
+            log.info("Report result cache invalidated for {}: {} entries", reportId, keys.size());
+        }
+        return keys.size();
+    }
+
+    /**
+     * Очищает кэш полностью.
+     *
+     * @return количество удалённых записей
+     */
+    public synchronized int invalidateAll() {
+        int count = entries.size();
+        new ArrayList<>(entries.keySet()).forEach(this::remove);
+        log.info("Report result cache cleared: {} entries", count);
+        return count;
+    }
+
+    /**
+     * Удаляет записи старше {@code reports.result-cache.ttl}.
+     */
+    @Scheduled(fixedDelayString = "${reports.result-cache.cleanup-interval:60000}")
+    public synchronized void evictExpired() {
+        Iterator<Map.Entry<CacheKey, Entry>> iterator = entries.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Entry entry = iterator.next().getValue();
+            if (isExpired(entry)) {
+                iterator.remove();
+                totalSize -= entry.size();
+                evictions.increment();
+                deleteQuietly(entry.file());
+            }
+        }
+    }
+
+    /**
+     * @return снимок статистики кэша
+     */
+    public synchronized CacheStatistics getStatistics() {
+        return new CacheStatistics(entries.size(), totalSize, hits.sum(), misses.sum(), evictions.sum());
+    }
+
+    private boolean isExpired(Entry entry) {
+        return System.currentTimeMillis() - entry.storedAtMillis() > properties.getResultCache().getTtl();
+    }
+
+    /**
+     * Вытесняет давно использованные записи сверх лимитов. Вызывается под {@code this}.
+     */
+    private void evictOverflow(long maxSize) {
+        int maxEntries = properties.getResultCache().getMaxEntries();
+        Iterator<Map.Entry<CacheKey, Entry>> iterator = entries.entrySet().iterator();
+        while ((entries.size() > maxEntries || totalSize > maxSize) && iterator.hasNext()) {
+            Entry entry = iterator.next().getValue();
+            iterator.remove();
+            totalSize -= entry.size();
+            evictions.increment();
+            deleteQuietly(entry.file());
+        }
+    }
+
+    /**
+     * Удаляет запись и её файл. Вызывается под {@code this}.
+     */
+    private void remove(CacheKey key) {
+        Entry removed = entries.remove(key);
+        if (removed != null) {
+            totalSize -= removed.size();
+            deleteQuietly(removed.file());
+        }
+    }
+
+    private static void linkOrCopy(Path source, Path target) throws IOException {
+        try {
+            Files.createLink(target, source);
+        } catch (UnsupportedOperationException | IOException e) {
+            Files.copy(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Failed to delete cached report result: {}", file, e);
+        }
+    }
+
+    /**
+     * Ключ результата.
+     *
+     * @param reportId        идентификатор отчёта
+     * @param format          формат
+     * @param templateVersion версия метаданных и отметка файла шаблона
+     * @param parameters      канонический вид параметров заполнения
+     */
+    public record CacheKey(String reportId, String format, String templateVersion, String parameters) {
+
+        /**
+         * Создаёт ключ из параметров заполнения.
+         *
+         * <p>Параметры сортируются по имени, значения записываются вместе с типом, чтобы
+         * {@code 1} и {@code "1"} не совпадали.
+         *
+         * @param reportId        идентификатор отчёта
+         * @param format          формат
+         * @param templateVersion версия шаблона
+         * @param parameters      параметры после {@code prepareParameters}
+         * @return ключ
+         */
+        public static CacheKey of(String reportId, String format, String templateVersion, Map<String, Object> parameters) {
+            StringBuilder canonical = new StringBuilder();
+            for (Map.Entry<String, Object> parameter : new TreeMap<>(parameters).entrySet()) {
+                Object value = parameter.getValue();
+                canonical.append(parameter.getKey()).append('=');
+                if (value != null) {
+                    canonical.append(value.getClass().getSimpleName()).append(':').append(value);
+                }
+                canonical.append(';');
+            }
+            return new CacheKey(reportId, format.toLowerCase(), templateVersion, canonical.toString());
+        }
+    }
+
+    /**
+     * Статистика кэша результатов.
+     *
+     * @param entries   количество записей
+     * @param size      общий размер записей в байтах
+     * @param hits      выдачи из кэша
+     * @param misses    промахи
+     * @param evictions вытесненные записи (по TTL и лимитам)
+     */
+    public record CacheStatistics(int entries, long size, long hits, long misses, long evictions) {
+    }
+
+    private record Entry(Path file, long size, LocalDateTime generatedAt, long storedAtMillis) {
+    }
+}
@@ -0,0 +1,24 @@
+package com.femsq.reports.model;
+
+/**
+ * Состояние фонового задания генерации отчёта.
+ */
+public enum ReportJobState {
+    /** Ожидает в очереди. */
+    QUEUED,
+    /** Отчёт заполняется или экспортируется. */
+    RUNNING,
+    /** Результат готов к скачиванию. */
+    COMPLETED,
+    /** Генерация завершилась ошибкой. */
+    FAILED,
+    /** Задание отменено. */
+    CANCELLED;
+
+    /**
+     * @return true если задание больше не изменится
+     */
+    public boolean isFinished() {
+        return this == COMPLETED || this == FAILED || this == CANCELLED;
+    }
+}
@@ -0,0 +1,35 @@
+package com.femsq.reports.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * Состояние фонового задания генерации отчёта.
+ * 
+ * @param jobId         идентификатор задания
+ * @param reportId      идентификатор отчёта
+ * @param format        формат результата
+ * @param state         состояние задания
+ * @param queuePosition позиция в очереди пользователя (с 1) или 0, если задание не в очереди
+ * @param pages         количество готовых страниц (для завершённого — всего страниц)
+ * @param fileName      имя файла результата (для завершённого)
+ * @param size          размер результата в байтах (для завершённого)
+ * @param error         сообщение об ошибке (для неуспешного)
+ * @param submittedAt   время постановки в очередь
+ * @param startedAt     время начала выполнения
+ * @param finishedAt    время завершения
+ */
+public record ReportJobStatus(
+        String jobId,
+        String reportId,
+        String format,
+        ReportJobState state,
+        int queuePosition,
+        int pages,
+        String fileName,
+        Long size,
+        String error,
+        LocalDateTime submittedAt,
+        LocalDateTime startedAt,
+        LocalDateTime finishedAt
+) {
+}
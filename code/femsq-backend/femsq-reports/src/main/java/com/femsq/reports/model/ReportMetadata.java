@@ -25,6 +25,8 @@ import java.util.Map;
  * @param uiIntegration   настройки интеграции с UI
  * @param tags            теги для фильтрации
  * @param accessLevel     уровень доступа (user, manager, admin)
+ * @param cacheable       можно ли отдавать повторные запросы из кэша результатов
+ *                        (false для отчётов, которые всегда должны читать свежие данные)
  * 
  * @author Александр
  * @version 1.0.0
@@ -43,8 +45,31 @@ public record ReportMetadata(
         List<ReportParameter> parameters,
         UiIntegration uiIntegration,
         List<String> tags,
-        String accessLevel
+        String accessLevel,
+        boolean cacheable
 ) {
+    /**
+     * Создаёт метаданные кэшируемого отчёта.
+     */
+    public ReportMetadata(
+            String id,
+            String version,
+            String name,
+            String description,
+            String category,
+            String author,
+            String created,
+            String lastModified,
+            Files files,
+            List<ReportParameter> parameters,
+            UiIntegration uiIntegration,
+            List<String> tags,
+            String accessLevel
+    ) {
+        this(id, version, name, description, category, author, created, lastModified,
+                files, parameters, uiIntegration, tags, accessLevel, true);
+    }
+
     /**
      * Информация о файлах отчёта.
      * 
@@ -0,0 +1,16 @@
+package com.femsq.reports.model;
+
+/**
+ * Полное количество страниц отчёта при заданных параметрах.
+ * 
+ * <p>Предпросмотр заполняет только первые страницы, поэтому реальный объём отчёта
+ * считается отдельным запросом.
+ * 
+ * @param reportId  идентификатор отчёта
+ * @param pageCount количество страниц после полного заполнения
+ */
+public record ReportPageCount(
+        String reportId,
+        int pageCount
+) {
+}
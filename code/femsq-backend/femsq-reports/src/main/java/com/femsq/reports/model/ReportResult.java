@@ -1,19 +1,27 @@
 package com.femsq.reports.model;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.LocalDateTime;
 
 /**
  * Результат генерации отчёта.
  * 
- * <p>Содержит сгенерированный контент отчёта в виде байтов,
- * метаданные о генерации и информацию об отчёте.
+ * <p>Содержит сгенерированный контент отчёта — в виде байтов (небольшие результаты, например
+ * предпросмотр) или во временном файле (полная генерация) — метаданные о генерации
+ * и информацию об отчёте.
  * 
  * @param reportId    идентификатор отчёта
  * @param format      формат сгенерированного отчёта (pdf, excel, html)
- * @param content     содержимое отчёта в виде массива байтов
+ * @param content     содержимое отчёта в виде массива байтов; {@code null}, если результат в файле
  * @param generatedAt дата и время генерации
  * @param fileName    рекомендуемое имя файла для сохранения
  * @param size        размер файла в байтах
+ * @param file        временный файл с содержимым; {@code null}, если результат в {@code content}.
+ *                    Файл принадлежит получателю результата, который удаляет его после отправки
  * 
  * @author Александр
  * @version 1.0.0
@@ -25,8 +33,62 @@ public record ReportResult(
         byte[] content,
         LocalDateTime generatedAt,
         String fileName,
-        long size
+        long size,
+        Path file
 ) {
+    /**
+     * Создаёт результат с содержимым в памяти.
+     */
+    public ReportResult(
+            String reportId,
+            String format,
+            byte[] content,
+            LocalDateTime generatedAt,
+            String fileName,
+            long size
+    ) {
+        this(reportId, format, content, generatedAt, fileName, size, null);
+    }
+
+    /**
+     * Создаёт результат, содержимое которого записано во временный файл.
+     * 
+     * @param reportId    идентификатор отчёта
+     * @param format      формат отчёта
+     * @param file        файл с содержимым
+     * @param generatedAt дата генерации
+     * @return ReportResult с автоматически сгенерированным именем файла
+     * @throws IOException если не удалось определить размер файла
+     */
+    public static ReportResult spooled(String reportId, String format, Path file, LocalDateTime generatedAt)
+            throws IOException {
+        return new ReportResult(
+                reportId,
+                format,
+                null,
+                generatedAt,
+                fileNameFor(reportId, format, generatedAt),
+                Files.size(file),
+                file
+        );
+    }
+
+    /**
+     * @return true если содержимое записано во временный файл
+     */
+    public boolean isSpooled() {
+        return file != null;
+    }
+
+    /**
+     * Открывает содержимое отчёта для чтения независимо от того, где оно хранится.
+     * 
+     * @return поток содержимого
+     * @throws IOException если файл недоступен
+     */
+    public InputStream openStream() throws IOException {
+        return file != null ? Files.newInputStream(file) : new ByteArrayInputStream(content);
+    }
     /**
      * Создаёт результат генерации с автоматическим определением имени файла.
      * 
@@ -42,6 +104,27 @@ public record ReportResult(
             byte[] content,
             LocalDateTime generatedAt
     ) {
+        String fileName = fileNameFor(reportId, format, generatedAt);
+        
+        return new ReportResult(
+                reportId,
+                format,
+                content,
+                generatedAt,
+                fileName,
+                content.length
+        );
+    }
+
+    /**
+     * Формирует рекомендуемое имя файла отчёта.
+     * 
+     * @param reportId    идентификатор отчёта
+     * @param format      формат отчёта
+     * @param generatedAt дата генерации
+     * @return имя файла вида {@code reportId-дата.расширение}
+     */
+    public static String fileNameFor(String reportId, String format, LocalDateTime generatedAt) {
         String extension = switch (format.toLowerCase()) {
             case "pdf" -> "pdf";
             case "excel", "xls", "xlsx" -> "xlsx";
@@ -49,19 +132,10 @@ public record ReportResult(
             default -> "bin";
         };
         
-        String fileName = String.format("%s-%s.%s", 
+        return String.format("%s-%s.%s", 
                 reportId, 
                 generatedAt.toString().replace(":", "-"), 
                 extension);
-        
-        return new ReportResult(
-                reportId,
-                format,
-                content,
-                generatedAt,
-                fileName,
-                content.length
-        );
     }
 
     /**
@@ -82,6 +156,16 @@ public record ReportResult(
      * @return MIME тип (application/pdf, application/vnd.ms-excel, text/html)
      */
     public String getMimeType() {
+        return mimeTypeOf(format);
+    }
+
+    /**
+     * Получает MIME тип для формата отчёта.
+     * 
+     * @param format формат отчёта
+     * @return MIME тип (application/pdf, application/vnd.ms-excel, text/html)
+     */
+    public static String mimeTypeOf(String format) {
         return switch (format.toLowerCase()) {
             case "pdf" -> "application/pdf";
             case "excel", "xls", "xlsx" -> "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet";
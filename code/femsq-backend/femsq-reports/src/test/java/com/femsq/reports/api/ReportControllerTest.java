@@ -3,17 +3,28 @@ package com.femsq.reports.api;
 import com.femsq.reports.core.ReportDiscoveryService;
 import com.femsq.reports.core.ReportGenerationService;
 import com.femsq.reports.core.ReportMetadataLoader;
+import com.femsq.reports.model.ReportGenerationRequest;
 import com.femsq.reports.model.ReportInfo;
 import com.femsq.reports.model.ReportMetadata;
+import com.femsq.reports.model.ReportPageCount;
+import com.femsq.reports.model.ReportResult;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.core.io.Resource;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.TimeoutException;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -88,6 +99,46 @@ class ReportControllerTest {
         assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
     }
 
+    @Test
+    void countPages_returnsPageCount() throws Exception {
+        when(generationService.countPages(eq("test-report"), anyMap()))
+                .thenReturn(new ReportPageCount("test-report", 1250));
+
+        ResponseEntity<ReportPageCount> response = controller.countPages("test-report", null);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(1250, Objects.requireNonNull(response.getBody()).pageCount());
+    }
+
+    @Test
+    void countPages_whenTimeout_returnsRequestTimeout() throws Exception {
+        when(generationService.countPages(eq("test-report"), anyMap()))
+                .thenThrow(new TimeoutException("timeout"));
+
+        ResponseEntity<ReportPageCount> response = controller.countPages("test-report", Map.of());
+
+        assertEquals(HttpStatus.REQUEST_TIMEOUT, response.getStatusCode());
+    }
+
+    @Test
+    void generateReport_spooledResult_streamsFileAndDeletesIt() throws Exception {
+        Path file = Files.createTempFile("report-", ".tmp");
+        Files.writeString(file, "%PDF-test");
+        ReportGenerationRequest request = ReportGenerationRequest.pdf("test-report", Map.of());
+        when(generationService.generateReport(request))
+                .thenReturn(ReportResult.spooled("test-report", "pdf", file, LocalDateTime.now()));
+
+        ResponseEntity<Resource> response = controller.generateReport("test-report", request);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(9, response.getHeaders().getContentLength());
+        Resource body = Objects.requireNonNull(response.getBody());
+        try (InputStream content = body.getInputStream()) {
+            assertEquals("%PDF-test", new String(content.readAllBytes(), StandardCharsets.US_ASCII));
+        }
+        assertFalse(Files.exists(file), "Временный файл должен удаляться после отправки");
+    }
+
     @Test
     void getCategories_returnsList() {
         when(discoveryService.getAllCategories()).thenReturn(List.of("category1", "category2"));
@@ -0,0 +1,127 @@
+package com.femsq.reports.core;
+
+import com.femsq.reports.core.GenerationAdmission.Lane;
+import com.femsq.reports.core.GenerationAdmission.LaneStatistics;
+import com.femsq.reports.core.GenerationAdmission.Permit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit-тесты для {@link GenerationAdmission}.
+ */
+class GenerationAdmissionTest {
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void admit_fullLaneCapped_leavesSlotForPreview() throws Exception {
+        GenerationAdmission admission = new GenerationAdmission(2, 1);
+        Permit full = admission.admit(Lane.FULL, 1000);
+
+        assertThrows(TimeoutException.class, () -> admission.admit(Lane.FULL, 50));
+        try (Permit preview = admission.admit(Lane.PREVIEW, 50)) {
+            assertEquals(2, admission.getActive());
+        }
+        full.close();
+        assertEquals(0, admission.getActive());
+    }
+
+    @Test
+    void admit_waitingPreview_goesBeforeWaitingFull() throws Exception {
+        GenerationAdmission admission = new GenerationAdmission(1, 0);
+        Permit holder = admission.admit(Lane.FULL, 1000);
+        List<Lane> order = new CopyOnWriteArrayList<>();
+
+        Future<?> full = executor.submit(() -> enter(admission, Lane.FULL, order));
+        awaitCondition(() -> admission.getStatistics(Lane.FULL).waiting() == 1);
+        Future<?> preview = executor.submit(() -> enter(admission, Lane.PREVIEW, order));
+        awaitCondition(() -> admission.getStatistics(Lane.PREVIEW).waiting() == 1);
+
+        holder.close();
+        preview.get(5, TimeUnit.SECONDS);
+        full.get(5, TimeUnit.SECONDS);
+
+        assertEquals(List.of(Lane.PREVIEW, Lane.FULL), order);
+    }
+
+    @Test
+    void admit_timeout_removesWaiterAndCounts() throws Exception {
+        GenerationAdmission admission = new GenerationAdmission(1, 0);
+        Permit holder = admission.admit(Lane.PREVIEW, 1000);
+
+        assertThrows(TimeoutException.class, () -> admission.admit(Lane.PREVIEW, 20));
+
+        LaneStatistics statistics = admission.getStatistics(Lane.PREVIEW);
+        assertEquals(0, statistics.waiting());
+        assertEquals(1, statistics.timedOut());
+        holder.close();
+        admission.admit(Lane.PREVIEW, 0).close();
+    }
+
+    @Test
+    void admit_interrupted_leavesQueue() throws Exception {
+        GenerationAdmission admission = new GenerationAdmission(1, 0);
+        Permit holder = admission.admit(Lane.FULL, 1000);
+
+        Future<?> waiter = executor.submit(() -> {
+            admission.admit(Lane.FULL, 60_000).close();
+            return null;
+        });
+        awaitCondition(() -> admission.getStatistics(Lane.FULL).waiting() == 1);
+        waiter.cancel(true);
+        awaitCondition(() -> admission.getStatistics(Lane.FULL).waiting() == 0);
+
+        holder.close();
+        assertEquals(0, admission.getActive());
+        assertEquals(1, admission.getStatistics(Lane.FULL).admitted());
+    }
+
+    @Test
+    void permit_closeTwice_releasesOnce() throws Exception {
+        GenerationAdmission admission = new GenerationAdmission(2, 0);
+        Permit first = admission.admit(Lane.FULL, 0);
+        admission.admit(Lane.FULL, 0);
+
+        first.close();
+        first.close();
+
+        assertEquals(1, admission.getActive());
+        LaneStatistics statistics = admission.getStatistics(Lane.FULL);
+        assertEquals(2, statistics.admitted());
+        assertEquals(1, statistics.completed());
+        assertEquals(1, statistics.active());
+    }
+
+    private static Void enter(GenerationAdmission admission, Lane lane, List<Lane> order) throws Exception {
+        try (Permit permit = admission.admit(lane, 5000)) {
+            order.add(lane);
+        }
+        return null;
+    }
+
+    private static void awaitCondition(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) {
+                fail("Condition not reached");
+            }
+            Thread.sleep(5);
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.femsq.reports.core;
+
+import com.femsq.reports.config.ReportsProperties;
+import net.sf.jasperreports.engine.JasperCompileManager;
+import net.sf.jasperreports.engine.JasperReport;
+import net.sf.jasperreports.engine.design.JasperDesign;
+import net.sf.jasperreports.engine.util.JRSaver;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Тесты общего кэша {@link JasperReportsEngine#loadReport(Path)} для прекомпилированных .jasper.
+ * 
+ * <p>Проверяет:
+ * - Повторная загрузка обслуживается из памяти без десериализации
+ * - Изменение файла инвалидирует запись
+ * - Сброс устаревших записей при выключенном recompile-on-change
+ * - Счётчики попаданий, промахов и загрузок
+ */
+class JasperReportsEngineCompiledCacheTest {
+
+    @Mock
+    private ReportsProperties properties;
+
+    @Mock
+    private ReportsProperties.Compilation compilation;
+
+    @TempDir
+    Path tempDir;
+
+    private JasperReportsEngine engine;
+    private Path jasperPath;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        MockitoAnnotations.openMocks(this);
+
+        when(properties.getCompilation()).thenReturn(compilation);
+        when(compilation.isCacheEnabled()).thenReturn(false);
+        when(compilation.isRecompileOnChange()).thenReturn(true);
+
+        engine = new JasperReportsEngine(properties);
+        jasperPath = tempDir.resolve("precompiled.jasper");
+        JRSaver.saveObject(compileEmptyReport(), jasperPath.toFile());
+    }
+
+    @Test
+    void loadReport_jasper_servesRepeatedLoadsFromMemory() throws Exception {
+        JasperReport first = engine.loadReport(jasperPath);
+        JasperReport second = engine.loadReport(jasperPath);
+
+        assertSame(first, second);
+        JasperReportsEngine.CacheStatistics stats = engine.getCacheStatistics();
+        assertEquals(1, stats.size());
+        assertEquals(1, stats.hits());
+        assertEquals(1, stats.misses());
+        assertEquals(1, stats.loads());
+        assertTrue(stats.loadTimeNanos() > 0);
+    }
+
+    @Test
+    void loadReport_jasper_reloadsWhenFileChanges() throws Exception {
+        JasperReport first = engine.loadReport(jasperPath);
+
+        Files.setLastModifiedTime(jasperPath, FileTime.from(Instant.now().plusSeconds(10)));
+        JasperReport second = engine.loadReport(jasperPath);
+
+        assertNotSame(first, second);
+        assertEquals(2, engine.getCacheStatistics().misses());
+        assertEquals(1, engine.getCacheSize());
+    }
+
+    @Test
+    void evictStale_withRecompileOnChangeDisabled_dropsChangedTemplates() throws Exception {
+        when(compilation.isRecompileOnChange()).thenReturn(false);
+        JasperReport first = engine.loadReport(jasperPath);
+
+        Files.setLastModifiedTime(jasperPath, FileTime.from(Instant.now().plusSeconds(10)));
+        assertSame(first, engine.loadReport(jasperPath), "Без recompile-on-change файл на запросе не проверяется");
+
+        assertEquals(1, engine.evictStale());
+        assertEquals(0, engine.getCacheSize());
+        assertNotSame(first, engine.loadReport(jasperPath));
+    }
+
+    @Test
+    void evictStale_keepsUnchangedTemplates() throws Exception {
+        engine.loadReport(jasperPath);
+
+        assertEquals(0, engine.evictStale());
+        assertEquals(1, engine.getCacheSize());
+    }
+
+    private static JasperReport compileEmptyReport() throws Exception {
+        JasperDesign design = new JasperDesign();
+        design.setName("precompiled");
+        design.setPageWidth(595);
+        design.setPageHeight(842);
+        design.setColumnWidth(555);
+        design.setLeftMargin(20);
+        design.setRightMargin(20);
+        design.setTopMargin(20);
+        design.setBottomMargin(20);
+        return JasperCompileManager.compileReport(design);
+    }
+}
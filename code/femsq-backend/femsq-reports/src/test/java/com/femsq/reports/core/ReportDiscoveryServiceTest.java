@@ -109,4 +109,15 @@ class ReportDiscoveryServiceTest {
         
         assertTrue(tags.isEmpty());
     }
+
+    @Test
+    void scanReports_notifiesScanListeners() {
+        Runnable listener = mock(Runnable.class);
+        service.addScanListener(listener);
+
+        service.scanReports();
+        service.scanReports();
+
+        verify(listener, times(2)).run();
+    }
 }
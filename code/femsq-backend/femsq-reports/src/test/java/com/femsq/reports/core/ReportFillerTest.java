@@ -0,0 +1,152 @@
+package com.femsq.reports.core;
+
+import net.sf.jasperreports.engine.JRDataSource;
+import net.sf.jasperreports.engine.JRField;
+import net.sf.jasperreports.engine.JasperCompileManager;
+import net.sf.jasperreports.engine.JasperPrint;
+import net.sf.jasperreports.engine.JasperReport;
+import net.sf.jasperreports.engine.design.JRDesignBand;
+import net.sf.jasperreports.engine.design.JRDesignExpression;
+import net.sf.jasperreports.engine.design.JRDesignField;
+import net.sf.jasperreports.engine.design.JRDesignSection;
+import net.sf.jasperreports.engine.design.JRDesignTextField;
+import net.sf.jasperreports.engine.design.JasperDesign;
+import net.sf.jasperreports.engine.fill.AsynchronousFillHandle;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Тесты {@link ReportFiller}: заполнение первых страниц, полное заполнение с ходом и отмена.
+ */
+class ReportFillerTest {
+
+    private static final int ROWS_PER_PAGE = 40;
+
+    private static JasperReport report;
+
+    @BeforeAll
+    static void compileReport() throws Exception {
+        report = JasperCompileManager.compileReport(rowsDesign());
+    }
+
+    @Test
+    void fill_longReport_returnsFirstPageWithoutReadingAllRows() throws Exception {
+        CountingDataSource dataSource = new CountingDataSource(100_000);
+
+        JasperPrint preview = ReportFiller.fillFirstPages(
+                AsynchronousFillHandle.createHandle(report, new HashMap<>(), dataSource), 1, 30_000);
+
+        assertEquals(1, preview.getPages().size());
+        assertFalse(preview.getPages().get(0).getElements().isEmpty());
+        assertTrue(dataSource.reads() < 10 * ROWS_PER_PAGE,
+                "Прочитано строк: " + dataSource.reads());
+    }
+
+    @Test
+    void fill_requestedPagesAreReturned() throws Exception {
+        JasperPrint preview = ReportFiller.fillFirstPages(
+                AsynchronousFillHandle.createHandle(report, new HashMap<>(), new CountingDataSource(100_000)), 2, 30_000);
+
+        assertEquals(2, preview.getPages().size());
+    }
+
+    @Test
+    void fill_shortReport_returnsCompleteReport() throws Exception {
+        CountingDataSource dataSource = new CountingDataSource(5);
+
+        JasperPrint preview = ReportFiller.fillFirstPages(
+                AsynchronousFillHandle.createHandle(report, new HashMap<>(), dataSource), 1, 30_000);
+
+        assertEquals(1, preview.getPages().size());
+        assertEquals(5, dataSource.reads());
+    }
+
+    @Test
+    void fill_fullReport_publishesProgress() throws Exception {
+        FillProgress progress = new FillProgress();
+
+        JasperPrint print = ReportFiller.fill(
+                AsynchronousFillHandle.createHandle(report, new HashMap<>(), new CountingDataSource(5 * ROWS_PER_PAGE)),
+                progress, 30_000);
+
+        assertEquals(5, print.getPages().size());
+        assertEquals(5, progress.pages());
+    }
+
+    @Test
+    void fill_cancelledBeforeStart_throwsCancellation() {
+        FillProgress progress = new FillProgress();
+        progress.cancel();
+
+        assertThrows(CancellationException.class, () -> ReportFiller.fill(
+                AsynchronousFillHandle.createHandle(report, new HashMap<>(), new CountingDataSource(100_000)),
+                progress, 30_000));
+        assertTrue(progress.isCancelled());
+    }
+
+    private static JasperDesign rowsDesign() throws Exception {
+        JasperDesign design = new JasperDesign();
+        design.setName("preview-rows");
+        design.setPageWidth(595);
+        design.setPageHeight(20 * ROWS_PER_PAGE + 40);
+        design.setColumnWidth(555);
+        design.setLeftMargin(20);
+        design.setRightMargin(20);
+        design.setTopMargin(20);
+        design.setBottomMargin(20);
+
+        JRDesignField field = new JRDesignField();
+        field.setName("n");
+        field.setValueClass(Integer.class);
+        design.addField(field);
+
+        JRDesignTextField text = new JRDesignTextField();
+        text.setX(0);
+        text.setY(0);
+        text.setWidth(200);
+        text.setHeight(20);
+        text.setExpression(new JRDesignExpression("String.valueOf($F{n})"));
+        JRDesignBand detail = new JRDesignBand();
+        detail.setHeight(20);
+        detail.addElement(text);
+        ((JRDesignSection) design.getDetailSection()).addBand(detail);
+        return design;
+    }
+
+    /**
+     * Источник из {@code size} строк, считающий прочитанные строки.
+     */
+    private static final class CountingDataSource implements JRDataSource {
+
+        private final int size;
+        private final AtomicInteger reads = new AtomicInteger();
+
+        private CountingDataSource(int size) {
+            this.size = size;
+        }
+
+        @Override
+        public boolean next() {
+            if (reads.get() >= size) {
+                return false;
+            }
+            reads.incrementAndGet();
+            return true;
+        }
+
+        @Override
+        public Object getFieldValue(JRField jrField) {
+            return reads.get();
+        }
+
+        int reads() {
+            return reads.get();
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.femsq.reports.core;
+
+import com.femsq.reports.config.ReportsProperties;
+import com.femsq.reports.model.ReportGenerationRequest;
+import com.femsq.reports.model.ReportMetadata;
+import com.femsq.reports.model.ReportResult;
+import net.sf.jasperreports.engine.JasperCompileManager;
+import net.sf.jasperreports.engine.JasperReport;
+import net.sf.jasperreports.engine.design.JasperDesign;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.DefaultResourceLoader;
+
+import javax.sql.DataSource;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Тесты {@link ReportGenerationService} с кэшем результатов {@link ReportResultCache}.
+ */
+class ReportGenerationServiceResultCacheTest {
+
+    private static JasperReport report;
+
+    @TempDir
+    Path tempDirectory;
+
+    private ReportsProperties properties;
+    private ReportDiscoveryService discoveryService;
+    private DataSource dataSource;
+    private ReportResultCache cache;
+    private ReportGenerationService service;
+
+    @BeforeAll
+    static void compileReport() throws Exception {
+        JasperDesign design = new JasperDesign();
+        design.setName("empty");
+        design.setPageWidth(595);
+        design.setPageHeight(842);
+        design.setColumnWidth(555);
+        report = JasperCompileManager.compileReport(design);
+    }
+
+    @BeforeEach
+    void setUp() throws Exception {
+        properties = new ReportsProperties();
+        properties.getGeneration().setTempDirectory(tempDirectory.toString());
+        properties.getGeneration().setVirtualizer(ReportsProperties.VirtualizerMode.NONE);
+        Path templates = Files.createDirectories(tempDirectory.resolve("external/templates"));
+        Files.writeString(templates.resolve("empty.jrxml"), "<jasperReport/>");
+        properties.getExternal().setPath(tempDirectory.resolve("external").toString());
+
+        discoveryService = mock(ReportDiscoveryService.class);
+        JasperReportsEngine jasperEngine = mock(JasperReportsEngine.class);
+        when(jasperEngine.loadReport(any(Path.class))).thenReturn(report);
+        dataSource = mock(DataSource.class);
+        when(dataSource.getConnection()).thenAnswer(invocation -> mock(Connection.class));
+
+        cache = new ReportResultCache(properties);
+        cache.initialize();
+        service = new ReportGenerationService(
+                properties,
+                discoveryService,
+                jasperEngine,
+                dataSource,
+                null,
+                null,
+                new DefaultResourceLoader(),
+                cache
+        );
+        service.initialize();
+    }
+
+    @Test
+    void generateReport_repeatedRequest_servedFromCache() throws Exception {
+        registerMetadata(true);
+
+        ReportResult first = generate(Map.of("year", "2025"));
+        ReportResult second = generate(Map.of("year", "2025"));
+
+        verify(dataSource, times(1)).getConnection();
+        assertArrayEquals(Files.readAllBytes(first.file()), Files.readAllBytes(second.file()));
+        assertNotEquals(first.file(), second.file());
+        assertEquals(1, cache.getStatistics().hits());
+    }
+
+    @Test
+    void generateReport_differentParameters_fillsAgain() throws Exception {
+        registerMetadata(true);
+
+        generate(Map.of("year", "2025"));
+        generate(Map.of("year", "2024"));
+
+        verify(dataSource, times(2)).getConnection();
+    }
+
+    @Test
+    void generateReport_notCacheable_alwaysFills() throws Exception {
+        registerMetadata(false);
+
+        generate(Map.of());
+        generate(Map.of());
+
+        verify(dataSource, times(2)).getConnection();
+        assertEquals(0, cache.getStatistics().entries());
+    }
+
+    @Test
+    void generateReport_afterInvalidate_fillsAgain() throws Exception {
+        registerMetadata(true);
+
+        generate(Map.of());
+        cache.invalidate("empty");
+        generate(Map.of());
+
+        verify(dataSource, times(2)).getConnection();
+    }
+
+    private ReportResult generate(Map<String, Object> parameters) throws Exception {
+        return service.generateReport(new ReportGenerationRequest("empty", parameters, "pdf"));
+    }
+
+    private void registerMetadata(boolean cacheable) {
+        when(discoveryService.getMetadata("empty")).thenReturn(new ReportMetadata(
+                "empty", "1.0.0", "Empty", null, null, null, null, null,
+                new ReportMetadata.Files("empty.jrxml", null, null),
+                List.of(), null, List.of(), null, cacheable));
+    }
+}
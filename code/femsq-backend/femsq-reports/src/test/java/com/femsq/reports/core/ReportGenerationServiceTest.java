@@ -63,7 +63,8 @@ class ReportGenerationServiceTest {
                 dataSource,
                 null, // ConnectionFactory не нужен в тестах, используется DataSource
                 null, // DatabaseConfigurationService
-                resourceLoader
+                resourceLoader,
+                null // ReportResultCache
         );
     }
 
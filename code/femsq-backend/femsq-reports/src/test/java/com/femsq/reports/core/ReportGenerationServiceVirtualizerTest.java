@@ -0,0 +1,204 @@
+package com.femsq.reports.core;
+
+import com.femsq.reports.config.ReportsProperties;
+import com.femsq.reports.model.ReportGenerationRequest;
+import com.femsq.reports.model.ReportMetadata;
+import com.femsq.reports.model.ReportResult;
+import net.sf.jasperreports.engine.JasperCompileManager;
+import net.sf.jasperreports.engine.JasperReport;
+import net.sf.jasperreports.engine.design.JRDesignBand;
+import net.sf.jasperreports.engine.design.JRDesignExpression;
+import net.sf.jasperreports.engine.design.JRDesignField;
+import net.sf.jasperreports.engine.design.JRDesignQuery;
+import net.sf.jasperreports.engine.design.JRDesignSection;
+import net.sf.jasperreports.engine.design.JRDesignTextField;
+import net.sf.jasperreports.engine.design.JasperDesign;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.DefaultResourceLoader;
+
+import javax.sql.DataSource;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Тесты {@link ReportGenerationService}: виртуализация страниц и экспорт во временный файл.
+ */
+class ReportGenerationServiceVirtualizerTest {
+
+    private static final int ROWS_PER_PAGE = 40;
+    private static final int ROWS = 10 * ROWS_PER_PAGE;
+
+    private static JasperReport report;
+
+    @TempDir
+    Path tempDirectory;
+
+    private ReportsProperties properties;
+    private ReportGenerationService service;
+
+    @BeforeAll
+    static void compileReport() throws Exception {
+        report = JasperCompileManager.compileReport(rowsDesign());
+    }
+
+    @BeforeEach
+    void setUp() throws Exception {
+        properties = new ReportsProperties();
+        properties.getGeneration().setTempDirectory(tempDirectory.toString());
+        properties.getGeneration().setVirtualizerMaxPages(2);
+        // Шаблон ищется во внешних отчётах; загрузку подменяет мок движка
+        Path templates = Files.createDirectories(tempDirectory.resolve("external/templates"));
+        Files.writeString(templates.resolve("rows.jrxml"), "<jasperReport/>");
+        properties.getExternal().setPath(tempDirectory.resolve("external").toString());
+
+        ReportDiscoveryService discoveryService = mock(ReportDiscoveryService.class);
+        when(discoveryService.getMetadata("rows")).thenReturn(new ReportMetadata(
+                "rows", "1.0", "Rows", null, null, null, null, null,
+                new ReportMetadata.Files("rows.jrxml", null, null),
+                List.of(), null, List.of(), null));
+        JasperReportsEngine jasperEngine = mock(JasperReportsEngine.class);
+        when(jasperEngine.loadReport(any(Path.class))).thenReturn(report);
+
+        service = new ReportGenerationService(
+                properties,
+                discoveryService,
+                jasperEngine,
+                rowsDataSource(),
+                null,
+                null,
+                new DefaultResourceLoader(),
+                null
+        );
+    }
+
+    @Test
+    void generateReport_fileVirtualizer_spoolsResultAndRemovesSwap() throws Exception {
+        properties.getGeneration().setVirtualizer(ReportsProperties.VirtualizerMode.FILE);
+        service.initialize();
+
+        ReportResult result = generate();
+
+        assertPdf(result);
+        Path swapDirectory = properties.getGeneration().getSwapDirectoryAsPath();
+        try (var swapFiles = Files.list(swapDirectory)) {
+            assertEquals(0, swapFiles.count(), "Swap-файл должен удаляться после экспорта");
+        }
+    }
+
+    @Test
+    void generateReport_gzipVirtualizer_spoolsResult() throws Exception {
+        properties.getGeneration().setVirtualizer(ReportsProperties.VirtualizerMode.GZIP);
+        service.initialize();
+
+        assertPdf(generate());
+    }
+
+    @Test
+    void generateReport_withoutVirtualizer_spoolsResult() throws Exception {
+        properties.getGeneration().setVirtualizer(ReportsProperties.VirtualizerMode.NONE);
+        service.initialize();
+
+        assertPdf(generate());
+    }
+
+    @Test
+    void initialize_removesLeftoverResults() throws Exception {
+        Path results = Files.createDirectories(tempDirectory.resolve("results"));
+        Path leftover = Files.writeString(results.resolve("old.tmp"), "old");
+
+        service.initialize();
+
+        assertFalse(Files.exists(leftover));
+    }
+
+    private ReportResult generate() throws Exception {
+        return service.generateReport(new ReportGenerationRequest("rows", Map.of(), "pdf"));
+    }
+
+    private static void assertPdf(ReportResult result) throws Exception {
+        assertTrue(result.isSpooled());
+        assertNull(result.content());
+        assertEquals(Files.size(result.file()), result.size());
+        try (InputStream content = result.openStream()) {
+            byte[] header = content.readNBytes(4);
+            assertEquals("%PDF", new String(header, StandardCharsets.US_ASCII));
+        }
+        Files.delete(result.file());
+    }
+
+    /**
+     * DataSource, выдающий {@link #ROWS} строк с одним целочисленным столбцом {@code n}.
+     */
+    private static DataSource rowsDataSource() throws Exception {
+        DataSource dataSource = mock(DataSource.class);
+        when(dataSource.getConnection()).thenAnswer(invocation -> {
+            AtomicInteger row = new AtomicInteger();
+            ResultSetMetaData metaData = mock(ResultSetMetaData.class);
+            when(metaData.getColumnCount()).thenReturn(1);
+            when(metaData.getColumnName(1)).thenReturn("n");
+            when(metaData.getColumnLabel(1)).thenReturn("n");
+            ResultSet resultSet = mock(ResultSet.class);
+            when(resultSet.getMetaData()).thenReturn(metaData);
+            when(resultSet.findColumn("n")).thenReturn(1);
+            when(resultSet.next()).thenAnswer(next -> row.incrementAndGet() <= ROWS);
+            when(resultSet.getInt(1)).thenAnswer(get -> row.get());
+            PreparedStatement statement = mock(PreparedStatement.class);
+            when(statement.executeQuery()).thenReturn(resultSet);
+            Connection connection = mock(Connection.class);
+            when(connection.prepareStatement(anyString())).thenReturn(statement);
+            when(connection.prepareStatement(anyString(), anyInt(), anyInt())).thenReturn(statement);
+            when(connection.prepareStatement(anyString(), anyInt(), anyInt(), anyInt())).thenReturn(statement);
+            return connection;
+        });
+        return dataSource;
+    }
+
+    private static JasperDesign rowsDesign() throws Exception {
+        JasperDesign design = new JasperDesign();
+        design.setName("virtualized-rows");
+        design.setPageWidth(595);
+        design.setPageHeight(20 * ROWS_PER_PAGE + 40);
+        design.setColumnWidth(555);
+        design.setLeftMargin(20);
+        design.setRightMargin(20);
+        design.setTopMargin(20);
+        design.setBottomMargin(20);
+
+        JRDesignQuery query = new JRDesignQuery();
+        query.setText("select n from rows");
+        design.setQuery(query);
+
+        JRDesignField field = new JRDesignField();
+        field.setName("n");
+        field.setValueClass(Integer.class);
+        design.addField(field);
+
+        JRDesignTextField text = new JRDesignTextField();
+        text.setX(0);
+        text.setY(0);
+        text.setWidth(200);
+        text.setHeight(20);
+        text.setExpression(new JRDesignExpression("String.valueOf($F{n})"));
+        JRDesignBand detail = new JRDesignBand();
+        detail.setHeight(20);
+        detail.addElement(text);
+        ((JRDesignSection) design.getDetailSection()).addBand(detail);
+        return design;
+    }
+}
@@ -91,7 +91,8 @@ class ReportGenerationServiceWithRealTemplatesTest {
                 dataSource,
                 null, // ConnectionFactory не нужен в тестах, используется DataSource
                 null, // DatabaseConfigurationService
-                resourceLoader
+                resourceLoader,
+                null // ReportResultCache
         );
     }
 
@@ -107,7 +108,7 @@ class ReportGenerationServiceWithRealTemplatesTest {
         
         // Компилируем шаблон заранее
         net.sf.jasperreports.engine.JasperReport compiledReport = realEngine.compileReport(jrxmlPath);
-        when(jasperEngine.compileReport(any(Path.class))).thenReturn(compiledReport);
+        when(jasperEngine.loadReport(any(Path.class))).thenReturn(compiledReport);
         
         // Создаём запрос на генерацию
         ReportGenerationRequest request = new ReportGenerationRequest(
@@ -122,8 +123,12 @@ class ReportGenerationServiceWithRealTemplatesTest {
         assertNotNull(result);
         assertEquals("simple-report", result.reportId());
         assertEquals("pdf", result.format());
-        assertNotNull(result.content());
-        assertTrue(result.content().length > 0, "Generated PDF should not be empty");
+        assertTrue(result.isSpooled(), "Full report should be written to a temporary file");
+        assertTrue(result.size() > 0, "Generated PDF should not be empty");
+        try (java.io.InputStream content = result.openStream()) {
+            assertTrue(content.readAllBytes().length > 0, "Generated PDF should not be empty");
+        }
+        java.nio.file.Files.deleteIfExists(result.file());
     }
 
     @Test
@@ -138,7 +143,7 @@ class ReportGenerationServiceWithRealTemplatesTest {
         
         // Компилируем шаблон заранее
         net.sf.jasperreports.engine.JasperReport compiledReport = realEngine.compileReport(jrxmlPath);
-        when(jasperEngine.compileReport(any(Path.class))).thenReturn(compiledReport);
+        when(jasperEngine.loadReport(any(Path.class))).thenReturn(compiledReport);
         
         // Генерируем preview
         ReportResult result = service.generatePreview(
@@ -0,0 +1,199 @@
+package com.femsq.reports.core;
+
+import com.femsq.reports.config.ReportsProperties;
+import com.femsq.reports.core.ReportGenerationService.PreparedReport;
+import com.femsq.reports.model.ReportGenerationRequest;
+import com.femsq.reports.model.ReportJobState;
+import com.femsq.reports.model.ReportJobStatus;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit-тесты для {@link ReportJobService}: справедливая очередь, лимиты, отмена, результат и TTL.
+ */
+class ReportJobServiceTest {
+
+    private static final String ALICE = "alice";
+    private static final String BOB = "bob";
+
+    @TempDir
+    Path spool;
+
+    private ReportsProperties properties;
+    private ReportGenerationService generationService;
+    private ReportJobService service;
+
+    /** Задания, дошедшие до генерации, в порядке запуска (по reportId). */
+    private final List<String> started = new CopyOnWriteArrayList<>();
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @BeforeEach
+    void setUp() throws Exception {
+        properties = new ReportsProperties();
+        properties.getGeneration().setMaxConcurrent(1);
+        properties.getJobs().setMaxRunningPerUser(1);
+        properties.getJobs().setMaxQueuedPerUser(3);
+        properties.getJobs().setSpoolDirectory(spool.toString());
+
+        generationService = mock(ReportGenerationService.class);
+        when(generationService.prepareReport(any())).thenAnswer(invocation -> {
+            ReportGenerationRequest request = invocation.getArgument(0);
+            if (request.reportId().equals("missing")) {
+                throw new IllegalArgumentException("Report not found: missing");
+            }
+            return new PreparedReport(request, null, spool.resolve(request.reportId() + ".jrxml"));
+        });
+        when(generationService.generateTo(any(), any(), any())).thenAnswer(invocation -> {
+            PreparedReport prepared = invocation.getArgument(0);
+            OutputStream outputStream = invocation.getArgument(1);
+            FillProgress progress = invocation.getArgument(2);
+            started.add(prepared.request().reportId());
+            release.await(10, TimeUnit.SECONDS);
+            if (progress.isCancelled()) {
+                throw new java.util.concurrent.CancellationException();
+            }
+            outputStream.write(prepared.request().reportId().getBytes(StandardCharsets.UTF_8));
+            return 3;
+        });
+
+        service = new ReportJobService(properties, generationService);
+        service.initialize();
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        service.shutdown();
+    }
+
+    @Test
+    void submit_runsJobAndSpoolsResult() throws Exception {
+        ReportJobStatus submitted = service.submit(request("r1"), ALICE);
+        release.countDown();
+
+        ReportJobStatus status = awaitState(submitted.jobId(), ALICE, ReportJobState.COMPLETED);
+
+        assertEquals(3, status.pages());
+        assertEquals(2L, status.size());
+        ReportJobService.SpooledReport result = service.getResult(submitted.jobId(), ALICE).orElseThrow();
+        assertEquals("r1", Files.readString(result.file()));
+        assertEquals("application/pdf", result.mimeType());
+    }
+
+    @Test
+    void submit_alternatesBetweenUsers() throws Exception {
+        service.submit(request("a1"), ALICE);
+        service.submit(request("a2"), ALICE);
+        service.submit(request("a3"), ALICE);
+        ReportJobStatus bobJob = service.submit(request("b1"), BOB);
+
+        assertEquals(1, bobJob.queuePosition());
+        release.countDown();
+        awaitCondition(() -> started.size() == 4);
+
+        assertEquals(List.of("a1", "b1", "a2", "a3"), started);
+    }
+
+    @Test
+    void submit_rejectsWhenUserQueueIsFull() {
+        service.submit(request("running"), ALICE);
+        service.submit(request("q1"), ALICE);
+        service.submit(request("q2"), ALICE);
+        service.submit(request("q3"), ALICE);
+
+        assertThrows(IllegalStateException.class, () -> service.submit(request("q4"), ALICE));
+        assertDoesNotThrow(() -> service.submit(request("other"), BOB));
+    }
+
+    @Test
+    void submit_invalidRequest_throwsIllegalArgument() {
+        assertThrows(IllegalArgumentException.class, () -> service.submit(request("missing"), ALICE));
+        assertEquals(0, service.getQueuedJobs());
+    }
+
+    @Test
+    void cancel_queuedJob_neverRuns() throws Exception {
+        service.submit(request("first"), ALICE);
+        ReportJobStatus queued = service.submit(request("second"), ALICE);
+
+        ReportJobStatus cancelled = service.cancel(queued.jobId(), ALICE).orElseThrow();
+        release.countDown();
+        awaitCondition(() -> service.getRunningJobs() == 0);
+
+        assertEquals(ReportJobState.CANCELLED, cancelled.state());
+        assertEquals(List.of("first"), started);
+        assertTrue(service.getResult(queued.jobId(), ALICE).isEmpty());
+    }
+
+    @Test
+    void cancel_runningJob_finishesCancelled() throws Exception {
+        ReportJobStatus submitted = service.submit(request("r1"), ALICE);
+        awaitCondition(() -> started.size() == 1);
+
+        service.cancel(submitted.jobId(), ALICE);
+        release.countDown();
+
+        awaitState(submitted.jobId(), ALICE, ReportJobState.CANCELLED);
+        try (var files = Files.list(spool)) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    @Test
+    void jobsOfOtherUsers_areNotVisible() {
+        ReportJobStatus submitted = service.submit(request("r1"), ALICE);
+
+        assertTrue(service.getStatus(submitted.jobId(), BOB).isEmpty());
+        assertTrue(service.cancel(submitted.jobId(), BOB).isEmpty());
+        assertTrue(service.getResult(submitted.jobId(), BOB).isEmpty());
+    }
+
+    @Test
+    void evictExpired_removesFinishedJobAndFile() throws Exception {
+        ReportJobStatus submitted = service.submit(request("r1"), ALICE);
+        release.countDown();
+        awaitState(submitted.jobId(), ALICE, ReportJobState.COMPLETED);
+        Path file = service.getResult(submitted.jobId(), ALICE).orElseThrow().file();
+
+        properties.getJobs().setResultTtl(-1);
+        service.evictExpired();
+
+        assertTrue(service.getStatus(submitted.jobId(), ALICE).isEmpty());
+        assertFalse(Files.exists(file));
+    }
+
+    private static ReportGenerationRequest request(String reportId) {
+        return new ReportGenerationRequest(reportId, Map.of(), "pdf");
+    }
+
+    private ReportJobStatus awaitState(String jobId, String owner, ReportJobState state) throws InterruptedException {
+        awaitCondition(() -> service.getStatus(jobId, owner).map(s -> s.state() == state).orElse(false));
+        return service.getStatus(jobId, owner).orElseThrow();
+    }
+
+    private static void awaitCondition(java.util.function.BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline) {
+                fail("Condition not met within 10s");
+            }
+            Thread.sleep(10);
+        }
+    }
+}
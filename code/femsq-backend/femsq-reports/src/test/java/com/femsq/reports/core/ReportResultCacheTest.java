@@ -0,0 +1,149 @@
+package com.femsq.reports.core;
+
+import com.femsq.reports.config.ReportsProperties;
+import com.femsq.reports.core.ReportResultCache.CacheKey;
+import com.femsq.reports.model.ReportResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit-тесты для {@link ReportResultCache}.
+ */
+class ReportResultCacheTest {
+
+    @TempDir
+    Path tempDirectory;
+
+    private ReportsProperties properties;
+    private ReportResultCache cache;
+    private Path results;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        properties = new ReportsProperties();
+        properties.getGeneration().setTempDirectory(tempDirectory.toString());
+        cache = new ReportResultCache(properties);
+        cache.initialize();
+        results = Files.createDirectories(tempDirectory.resolve("results"));
+    }
+
+    @Test
+    void get_afterPut_returnsIndependentCopy() throws Exception {
+        CacheKey key = key("r1", Map.of("year", 2025));
+        ReportResult generated = spooled("r1", "content");
+        cache.put(key, generated);
+        Files.delete(generated.file());
+
+        ReportResult first = cache.get(key, results).orElseThrow();
+        assertEquals("content", Files.readString(first.file()));
+        assertEquals(generated.fileName(), first.fileName());
+        Files.delete(first.file());
+
+        ReportResult second = cache.get(key, results).orElseThrow();
+        assertEquals("content", Files.readString(second.file()));
+        assertEquals(1, cache.getStatistics().entries());
+        assertEquals(2, cache.getStatistics().hits());
+    }
+
+    @Test
+    void get_differentParameters_misses() throws Exception {
+        cache.put(key("r1", Map.of("year", 2025)), spooled("r1", "2025"));
+
+        assertTrue(cache.get(key("r1", Map.of("year", 2024)), results).isEmpty());
+        assertTrue(cache.get(key("r1", Map.of("year", "2025")), results).isEmpty());
+        assertEquals(2, cache.getStatistics().misses());
+    }
+
+    @Test
+    void cacheKey_ignoresParameterOrder() {
+        Map<String, Object> ordered = new LinkedHashMap<>();
+        ordered.put("a", 1);
+        ordered.put("b", "x");
+        Map<String, Object> reversed = new LinkedHashMap<>();
+        reversed.put("b", "x");
+        reversed.put("a", 1);
+
+        assertEquals(CacheKey.of("r", "PDF", "v1", ordered), CacheKey.of("r", "pdf", "v1", reversed));
+    }
+
+    @Test
+    void get_afterTtl_misses() throws Exception {
+        CacheKey key = key("r1", Map.of());
+        cache.put(key, spooled("r1", "content"));
+
+        properties.getResultCache().setTtl(-1);
+
+        assertTrue(cache.get(key, results).isEmpty());
+        assertEquals(0, cache.getStatistics().entries());
+    }
+
+    @Test
+    void evictExpired_removesEntriesAndFiles() throws Exception {
+        cache.put(key("r1", Map.of()), spooled("r1", "content"));
+        properties.getResultCache().setTtl(-1);
+
+        cache.evictExpired();
+
+        assertEquals(0, cache.getStatistics().entries());
+        assertEquals(1, cache.getStatistics().evictions());
+        try (var files = Files.list(tempDirectory.resolve("result-cache"))) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    @Test
+    void put_overMaxEntries_evictsLeastRecentlyUsed() throws Exception {
+        properties.getResultCache().setMaxEntries(2);
+        CacheKey first = key("r1", Map.of());
+        CacheKey second = key("r2", Map.of());
+        CacheKey third = key("r3", Map.of());
+        cache.put(first, spooled("r1", "1"));
+        cache.put(second, spooled("r2", "2"));
+        cache.get(first, results);
+
+        cache.put(third, spooled("r3", "3"));
+
+        assertTrue(cache.get(first, results).isPresent());
+        assertTrue(cache.get(second, results).isEmpty());
+        assertTrue(cache.get(third, results).isPresent());
+    }
+
+    @Test
+    void invalidate_removesOnlyThatReport() throws Exception {
+        cache.put(key("r1", Map.of("a", 1)), spooled("r1", "1"));
+        cache.put(key("r1", Map.of("a", 2)), spooled("r1", "2"));
+        cache.put(key("r2", Map.of()), spooled("r2", "3"));
+
+        assertEquals(2, cache.invalidate("r1"));
+
+        assertEquals(1, cache.getStatistics().entries());
+        assertTrue(cache.get(key("r2", Map.of()), results).isPresent());
+        assertEquals(1, cache.invalidateAll());
+    }
+
+    @Test
+    void put_inMemoryResult_isIgnored() {
+        cache.put(key("r1", Map.of()), ReportResult.now("r1", "pdf", new byte[]{1}));
+
+        assertEquals(0, cache.getStatistics().entries());
+    }
+
+    private static CacheKey key(String reportId, Map<String, Object> parameters) {
+        return CacheKey.of(reportId, "pdf", "1.0.0", parameters);
+    }
+
+    private ReportResult spooled(String reportId, String content) throws Exception {
+        Path file = Files.createTempFile(results, reportId, ".tmp");
+        Files.writeString(file, content);
+        return ReportResult.spooled(reportId, "pdf", file, LocalDateTime.of(2025, 1, 1, 0, 0));
+    }
+}
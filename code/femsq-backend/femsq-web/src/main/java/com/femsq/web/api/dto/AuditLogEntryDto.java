@@ -0,0 +1,28 @@
+package com.femsq.web.api.dto;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+
+/**
+ * Запись лога выполнения ревизии для live-журнала.
+ *
+ * @param timestamp    время записи
+ * @param level        уровень (INFO/SUCCESS/WARNING/ERROR/SUMMARY)
+ * @param scope        область (AUDIT/DIRECTORY/FILE/SHEET/SUMMARY)
+ * @param spanId       span, якорем которого является запись
+ * @param parentSpanId родительский span
+ * @param code         код события
+ * @param messageHtml  HTML-фрагмент сообщения
+ * @param meta         метаданные записи (в том числе подсказки отображения)
+ */
+public record AuditLogEntryDto(
+        OffsetDateTime timestamp,
+        String level,
+        String scope,
+        String spanId,
+        String parentSpanId,
+        String code,
+        String messageHtml,
+        List<AuditLogMetaDto> meta
+) {
+}
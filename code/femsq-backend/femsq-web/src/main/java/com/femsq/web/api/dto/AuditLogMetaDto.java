@@ -0,0 +1,13 @@
+package com.femsq.web.api.dto;
+
+/**
+ * Пара ключ–значение метаданных записи лога.
+ *
+ * @param key   ключ
+ * @param value значение
+ */
+public record AuditLogMetaDto(
+        String key,
+        String value
+) {
+}
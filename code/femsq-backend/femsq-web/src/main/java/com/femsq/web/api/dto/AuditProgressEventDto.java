@@ -0,0 +1,19 @@
+package com.femsq.web.api.dto;
+
+/**
+ * Событие live-журнала выполнения ревизии (GraphQL subscription {@code auditProgress}).
+ *
+ * @param runId  идентификатор запуска; курсор {@code runId} для переподключения ({@code null} — канала нет)
+ * @param seq    номер события в запуске; курсор {@code afterSeq} для переподключения
+ * @param kind   STATUS или ENTRY
+ * @param status статус запуска для STATUS: IDLE/RUNNING/COMPLETED/FAILED
+ * @param entry  новая запись лога для ENTRY
+ */
+public record AuditProgressEventDto(
+        String runId,
+        long seq,
+        String kind,
+        String status,
+        AuditLogEntryDto entry
+) {
+}
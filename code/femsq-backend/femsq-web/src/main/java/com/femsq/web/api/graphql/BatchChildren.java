@@ -0,0 +1,71 @@
+package com.femsq.web.api.graphql;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Раскладка дочерних записей по родителям для {@code @BatchMapping}: DataLoader передаёт всех
+ * родителей уровня разом, дети читаются одним запросом {@code IN} по их ключам.
+ *
+ * <p>Каждый родитель получает список (пустой, если детей нет или ключ ещё не назначен), порядок
+ * детей внутри родителя сохраняется таким, каким его вернула БД.
+ */
+final class BatchChildren {
+
+    /**
+     * SQL Server принимает не больше 2100 параметров, поэтому пакет DataLoader ограничен.
+     */
+    static final int MAX_BATCH_SIZE = 1000;
+
+    private BatchChildren() {
+    }
+
+    /**
+     * @param parents   родители пакета
+     * @param parentKey ключ родителя
+     * @return различные ненулевые ключи в порядке родителей
+     */
+    static <P> Set<Integer> keys(List<P> parents, Function<P, Integer> parentKey) {
+        Set<Integer> keys = new LinkedHashSet<>();
+        for (P parent : parents) {
+            Integer key = parentKey.apply(parent);
+            if (key != null) {
+                keys.add(key);
+            }
+        }
+        return keys;
+    }
+
+    /**
+     * @param parents        родители пакета
+     * @param parentKey      ключ родителя
+     * @param children       дети всех родителей
+     * @param childParentKey ссылка ребёнка на родителя
+     * @return дети каждого родителя
+     */
+    static <P, C> Map<P, List<C>> group(
+            List<P> parents,
+            Function<P, Integer> parentKey,
+            List<C> children,
+            Function<C, Integer> childParentKey
+    ) {
+        Map<Integer, List<C>> byKey = new LinkedHashMap<>();
+        for (C child : children) {
+            Integer key = childParentKey.apply(child);
+            if (key != null) {
+                byKey.computeIfAbsent(key, ignored -> new ArrayList<>()).add(child);
+            }
+        }
+        Map<P, List<C>> result = new LinkedHashMap<>();
+        for (P parent : parents) {
+            Integer key = parentKey.apply(parent);
+            result.put(parent, key == null ? List.of() : List.copyOf(byKey.getOrDefault(key, List.of())));
+        }
+        return result;
+    }
+}
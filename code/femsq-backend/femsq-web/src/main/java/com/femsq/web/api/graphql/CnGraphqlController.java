@@ -33,6 +33,8 @@ import com.femsq.web.api.dto.CnSOrgUpdateRequest;
 import com.femsq.web.api.dto.CnSideCreateRequest;
 import com.femsq.web.api.dto.CnSideDto;
 import com.femsq.web.api.dto.CnSideUpdateRequest;
+import com.femsq.web.api.graphql.relay.KeysetCursor;
+import com.femsq.web.api.graphql.relay.RelayConnection;
 import com.femsq.web.api.mapper.CnMapper;
 import com.femsq.web.api.mapper.CnPartyMapper;
 import java.util.List;
@@ -52,6 +54,9 @@ public class CnGraphqlController {
 
     private static final Logger log = Logger.getLogger(CnGraphqlController.class.getName());
 
+    /** Вид курсора {@link KeysetCursor} для номеров договоров. */
+    private static final String CNN_KEY_CURSOR = "cnnKey";
+
     private final CnNumService cnNumService;
     private final CnService cnService;
     private final CnContractService cnContractService;
@@ -94,6 +99,25 @@ public class CnGraphqlController {
         }
     }
 
+    /**
+     * Номера договоров постранично в порядке {@code cnnNum}: курсор хранит {@code cnnKey} последнего номера.
+     *
+     * @param first размер страницы
+     * @param after курсор предыдущей страницы
+     * @return Relay-соединение
+     */
+    @QueryMapping
+    public RelayConnection<CnNumDto> cnNumsConnection(@Argument Integer first, @Argument String after) {
+        log.info(() -> "GraphQL query cnNumsConnection first=" + first);
+        return mutate(() -> {
+            int pageSize = RelayConnection.pageSize(first);
+            Integer afterCnnKey = KeysetCursor.decodeInt(CNN_KEY_CURSOR, after);
+            List<CnNumDto> fetched = cnMapper.toCnNumDto(cnNumService.getPageAfter(afterCnnKey, pageSize + 1));
+            return RelayConnection.of(fetched, pageSize, afterCnnKey != null,
+                    number -> KeysetCursor.encode(CNN_KEY_CURSOR, number.cnnKey()));
+        });
+    }
+
     @QueryMapping
     public List<CnNumDto> cnNumsByCn(@Argument("cnKey") int cnKey) {
         log.info(() -> "GraphQL query cnNumsByCn cnKey=" + cnKey);
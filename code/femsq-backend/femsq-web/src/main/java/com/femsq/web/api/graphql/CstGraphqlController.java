@@ -21,14 +21,18 @@ import com.femsq.web.api.dto.CstCreateRequest;
 import com.femsq.web.api.dto.CstDto;
 import com.femsq.web.api.dto.CstUpdateRequest;
 import com.femsq.web.api.dto.OgAgCsLookupDto;
+import com.femsq.web.api.graphql.relay.KeysetCursor;
+import com.femsq.web.api.graphql.relay.RelayConnection;
 import com.femsq.web.api.mapper.CstAgMapper;
 import com.femsq.web.api.mapper.CstAgPnBranchMapper;
 import com.femsq.web.api.mapper.CstAgPnMapper;
 import com.femsq.web.api.mapper.CstMapper;
 import com.femsq.web.api.mapper.OgAgCsMapper;
 import java.util.List;
+import java.util.Map;
 import java.util.logging.Logger;
 import org.springframework.graphql.data.method.annotation.Argument;
+import org.springframework.graphql.data.method.annotation.BatchMapping;
 import org.springframework.graphql.data.method.annotation.MutationMapping;
 import org.springframework.graphql.data.method.annotation.QueryMapping;
 import org.springframework.http.HttpStatus;
@@ -37,12 +41,17 @@ import org.springframework.web.server.ResponseStatusException;
 
 /**
  * GraphQL-контроллер иерархии строек: {@code cst} → {@code cstAg} → {@code cstAgPn} → {@code cstAgPnBranch}.
+ * Вложенные поля {@code ConstructionSite.agents} и {@code CstAgent.points} загружаются пакетно,
+ * по одному запросу {@code IN} на уровень.
  */
 @Controller
 public class CstGraphqlController {
 
     private static final Logger log = Logger.getLogger(CstGraphqlController.class.getName());
 
+    /** Вид курсора {@link KeysetCursor} для строек. */
+    private static final String CST_KEY_CURSOR = "cstKey";
+
     private final CstService cstService;
     private final CstAgService cstAgService;
     private final CstAgPnService cstAgPnService;
@@ -88,6 +97,25 @@ public class CstGraphqlController {
         }
     }
 
+    /**
+     * Стройки постранично в порядке {@code cstName}: курсор хранит {@code cstKey} последней стройки.
+     *
+     * @param first размер страницы
+     * @param after курсор предыдущей страницы
+     * @return Relay-соединение
+     */
+    @QueryMapping
+    public RelayConnection<CstDto> constructionSitesConnection(@Argument Integer first, @Argument String after) {
+        log.info(() -> "GraphQL query constructionSitesConnection first=" + first);
+        return mutate(() -> {
+            int pageSize = RelayConnection.pageSize(first);
+            Integer afterCstKey = KeysetCursor.decodeInt(CST_KEY_CURSOR, after);
+            List<CstDto> fetched = cstMapper.toDto(cstService.getPageAfter(afterCstKey, pageSize + 1));
+            return RelayConnection.of(fetched, pageSize, afterCstKey != null,
+                    site -> KeysetCursor.encode(CST_KEY_CURSOR, site.cstKey()));
+        });
+    }
+
     @QueryMapping
     public CstDto constructionSite(@Argument("id") int id) {
         log.info(() -> "GraphQL query constructionSite id=" + id);
@@ -104,6 +132,16 @@ public class CstGraphqlController {
         }
     }
 
+    @BatchMapping(typeName = "ConstructionSite", field = "agents", maxBatchSize = BatchChildren.MAX_BATCH_SIZE)
+    public Map<CstDto, List<CstAgDto>> constructionSiteAgents(List<CstDto> sites) {
+        log.fine(() -> "GraphQL batch ConstructionSite.agents size=" + sites.size());
+        return mutate(() -> {
+            List<CstAgDto> agents = cstAgMapper.toDto(
+                    cstAgService.getForCsts(BatchChildren.keys(sites, CstDto::cstKey)));
+            return BatchChildren.group(sites, CstDto::cstKey, agents, CstAgDto::cstaCst);
+        });
+    }
+
     @QueryMapping
     public CstAgDto cstAgent(@Argument("id") int id) {
         log.info(() -> "GraphQL query cstAgent id=" + id);
@@ -120,6 +158,16 @@ public class CstGraphqlController {
         }
     }
 
+    @BatchMapping(typeName = "CstAgent", field = "points", maxBatchSize = BatchChildren.MAX_BATCH_SIZE)
+    public Map<CstAgDto, List<CstAgPnDto>> cstAgentPoints(List<CstAgDto> agents) {
+        log.fine(() -> "GraphQL batch CstAgent.points size=" + agents.size());
+        return mutate(() -> {
+            List<CstAgPnDto> points = cstAgPnMapper.toDto(
+                    cstAgPnService.getForCstAgs(BatchChildren.keys(agents, CstAgDto::cstaKey)));
+            return BatchChildren.group(agents, CstAgDto::cstaKey, points, CstAgPnDto::cstapCsta);
+        });
+    }
+
     @QueryMapping
     public CstAgPnDto cstAgPoint(@Argument("id") int id) {
         log.info(() -> "GraphQL query cstAgPoint id=" + id);
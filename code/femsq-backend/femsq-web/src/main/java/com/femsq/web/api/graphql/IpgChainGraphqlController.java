@@ -10,19 +10,27 @@ import com.femsq.web.api.dto.InvestmentProgramLookupDto;
 import com.femsq.web.api.dto.IpgChainDto;
 import com.femsq.web.api.dto.IpgChainRelationDto;
 import com.femsq.web.api.dto.StNetworkDto;
+import com.femsq.web.api.graphql.relay.KeysetCursor;
+import com.femsq.web.api.graphql.relay.RelayConnection;
 import com.femsq.web.api.mapper.IpgChainMapper;
 import com.femsq.web.api.mapper.IpgChainRelationMapper;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
 import org.springframework.graphql.data.method.annotation.Argument;
+import org.springframework.graphql.data.method.annotation.BatchMapping;
 import org.springframework.graphql.data.method.annotation.QueryMapping;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Controller;
+import org.springframework.web.server.ResponseStatusException;
 
 /** GraphQL-контроллер для цепочек инвестиционных программ. */
 @Controller
 public class IpgChainGraphqlController {
 
+    /** Вид курсора {@link KeysetCursor} для цепочек. */
+    private static final String CHAIN_KEY_CURSOR = "chainKey";
+
     private final IpgChainService ipgChainService;
     private final IpgChainRelationService relationService;
     private final StNetworkService stNetworkService;
@@ -57,6 +65,33 @@ public class IpgChainGraphqlController {
         return ipgChainMapper.toDto(chains, stNetMap);
     }
 
+    /**
+     * Цепочки постранично: keyset-курсор по {@code chainKey}, фильтры как у {@link #investmentChains}.
+     *
+     * @param name  фильтр по наименованию
+     * @param year  фильтр по году
+     * @param first размер страницы
+     * @param after курсор предыдущей страницы
+     * @return Relay-соединение
+     */
+    @QueryMapping
+    public RelayConnection<IpgChainDto> investmentChainsConnection(
+            @Argument("name") String name,
+            @Argument("year") Integer year,
+            @Argument Integer first,
+            @Argument String after) {
+        try {
+            int pageSize = RelayConnection.pageSize(first);
+            Integer afterChainKey = KeysetCursor.decodeInt(CHAIN_KEY_CURSOR, after);
+            var chains = ipgChainService.getPageAfter(afterChainKey, pageSize + 1, "ipgcKey", "asc", normalize(name), year);
+            List<IpgChainDto> fetched = ipgChainMapper.toDto(chains, buildStNetworkMap());
+            return RelayConnection.of(fetched, pageSize, afterChainKey != null,
+                    chain -> KeysetCursor.encode(CHAIN_KEY_CURSOR, chain.chainKey()));
+        } catch (IllegalArgumentException exception) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, exception.getMessage(), exception);
+        }
+    }
+
     @QueryMapping
     public IpgChainDto investmentChain(@Argument("id") int id) {
         return ipgChainService.getById(id)
@@ -70,6 +105,18 @@ public class IpgChainGraphqlController {
         return relationMapper.toDto(relations, buildIpgMap(), buildPlanGroupMap());
     }
 
+    /**
+     * Связи всех цепочек уровня одним запросом {@code IN}; справочники подписей читаются один раз на пакет.
+     */
+    @BatchMapping(typeName = "InvestmentChain", field = "relations", maxBatchSize = BatchChildren.MAX_BATCH_SIZE)
+    public Map<IpgChainDto, List<IpgChainRelationDto>> investmentChainRelationsBatch(List<IpgChainDto> chains) {
+        var keys = BatchChildren.keys(chains, IpgChainDto::chainKey);
+        List<IpgChainRelationDto> relations = keys.isEmpty()
+                ? List.of()
+                : relationMapper.toDto(relationService.getByChains(keys), buildIpgMap(), buildPlanGroupMap());
+        return BatchChildren.group(chains, IpgChainDto::chainKey, relations, IpgChainRelationDto::chainKey);
+    }
+
     @QueryMapping
     public List<StNetworkDto> stNetworks() {
         return stNetworkService.getAll().stream()
@@ -22,14 +22,18 @@ import com.femsq.web.api.dto.OgUpdateRequest;
 import com.femsq.web.api.dto.OrgIdDto;
 import com.femsq.web.api.dto.UpdateOgNmFInput;
 import com.femsq.web.api.dto.UpdateOrganizationIdInput;
+import com.femsq.web.api.graphql.relay.KeysetCursor;
+import com.femsq.web.api.graphql.relay.RelayConnection;
 import com.femsq.web.api.mapper.OgAgMapper;
 import com.femsq.web.api.mapper.OgMapper;
 import com.femsq.web.api.mapper.OgNmFMapper;
 import com.femsq.web.api.mapper.OrgIdMapper;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.logging.Logger;
 import org.springframework.graphql.data.method.annotation.Argument;
+import org.springframework.graphql.data.method.annotation.BatchMapping;
 import org.springframework.graphql.data.method.annotation.MutationMapping;
 import org.springframework.graphql.data.method.annotation.QueryMapping;
 import org.springframework.http.HttpStatus;
@@ -38,12 +42,18 @@ import org.springframework.web.server.ResponseStatusException;
 
 /**
  * GraphQL-контроллер организаций: {@code og}, {@code org_id}, {@code ogNmF}, {@code ogAg}.
+ * Вложенное поле {@code Organization.agents} загружается пакетно через DataLoader.
  */
 @Controller
 public class OgGraphqlController {
 
     private static final Logger log = Logger.getLogger(OgGraphqlController.class.getName());
 
+    /** Вид курсора {@link KeysetCursor} для организаций. */
+    private static final String OG_KEY_CURSOR = "ogKey";
+    /** Вид курсора {@link KeysetCursor} для агентов. */
+    private static final String OG_AG_KEY_CURSOR = "ogAgKey";
+
     private final OgService ogService;
     private final OgAgService ogAgService;
     private final OrgIdService orgIdService;
@@ -93,6 +103,30 @@ public class OgGraphqlController {
         }
     }
 
+    /**
+     * Организации постранично: keyset-курсор по {@code ogKey}, из БД читается не больше страницы.
+     *
+     * @param first размер страницы
+     * @param after курсор предыдущей страницы
+     * @return Relay-соединение
+     */
+    @QueryMapping
+    public RelayConnection<OgDto> organizationsConnection(@Argument Integer first, @Argument String after) {
+        try {
+            int pageSize = RelayConnection.pageSize(first);
+            Integer afterOgKey = KeysetCursor.decodeInt(OG_KEY_CURSOR, after);
+            List<OgDto> fetched = ogMapper.toDto(ogService.getPageAfter(afterOgKey, pageSize + 1, "ogKey", "asc", null));
+            return RelayConnection.of(fetched, pageSize, afterOgKey != null,
+                    organization -> KeysetCursor.encode(OG_KEY_CURSOR, organization.ogKey()));
+        } catch (IllegalArgumentException exception) {
+            throw badRequest(exception);
+        } catch (MissingConfigurationException exception) {
+            throw unavailable(exception);
+        } catch (DaoException exception) {
+            throw internal(exception);
+        }
+    }
+
     @QueryMapping
     public OgDto organization(@Argument("id") int id) {
         Optional<OgDto> organization = ogService.getById(id).map(ogMapper::toDto);
@@ -104,6 +138,30 @@ public class OgGraphqlController {
         return ogAgMapper.toDto(ogAgService.getAll());
     }
 
+    /**
+     * Агенты постранично: keyset-курсор по {@code ogAgKey}.
+     *
+     * @param first размер страницы
+     * @param after курсор предыдущей страницы
+     * @return Relay-соединение
+     */
+    @QueryMapping
+    public RelayConnection<OgAgDto> agentsConnection(@Argument Integer first, @Argument String after) {
+        try {
+            int pageSize = RelayConnection.pageSize(first);
+            Integer afterOgAgKey = KeysetCursor.decodeInt(OG_AG_KEY_CURSOR, after);
+            List<OgAgDto> fetched = ogAgMapper.toDto(ogAgService.getPageAfter(afterOgAgKey, pageSize + 1));
+            return RelayConnection.of(fetched, pageSize, afterOgAgKey != null,
+                    agent -> KeysetCursor.encode(OG_AG_KEY_CURSOR, agent.ogAgKey()));
+        } catch (IllegalArgumentException exception) {
+            throw badRequest(exception);
+        } catch (MissingConfigurationException exception) {
+            throw unavailable(exception);
+        } catch (DaoException exception) {
+            throw internal(exception);
+        }
+    }
+
     @QueryMapping
     public OgAgDto agent(@Argument("id") int id) {
         return ogAgService.getById(id).map(ogAgMapper::toDto).orElse(null);
@@ -114,6 +172,25 @@ public class OgGraphqlController {
         return ogAgMapper.toDto(ogAgService.getForOrganization(organizationId));
     }
 
+    /**
+     * Агенты всех организаций уровня одним запросом {@code IN} вместо {@code organizationAgents} на каждую.
+     *
+     * @param organizations организации из ответа
+     * @return агенты каждой организации
+     */
+    @BatchMapping(typeName = "Organization", field = "agents", maxBatchSize = BatchChildren.MAX_BATCH_SIZE)
+    public Map<OgDto, List<OgAgDto>> organizationAgentsBatch(List<OgDto> organizations) {
+        try {
+            List<OgAgDto> agents = ogAgMapper.toDto(
+                    ogAgService.getForOrganizations(BatchChildren.keys(organizations, OgDto::ogKey)));
+            return BatchChildren.group(organizations, OgDto::ogKey, agents, OgAgDto::organizationKey);
+        } catch (MissingConfigurationException exception) {
+            throw unavailable(exception);
+        } catch (DaoException exception) {
+            throw internal(exception);
+        }
+    }
+
     @QueryMapping
     public List<OrgIdDto> organizationIds(@Argument("organizationId") int organizationId) {
         try {
@@ -6,16 +6,21 @@ import com.femsq.database.service.RaAService;
 import com.femsq.database.service.RaAtService;
 import com.femsq.database.service.RaDirService;
 import com.femsq.web.api.dto.AuditExecutionResult;
+import com.femsq.web.api.dto.AuditProgressEventDto;
 import com.femsq.web.api.dto.RaACreateRequest;
 import com.femsq.web.api.dto.RaADto;
 import com.femsq.web.api.dto.RaAUpdateRequest;
 import com.femsq.web.api.dto.RaAtDto;
 import com.femsq.web.api.dto.RaDirDto;
+import com.femsq.web.api.mapper.AuditProgressMapper;
 import com.femsq.web.api.mapper.RaAMapper;
 import com.femsq.web.api.mapper.RaAtMapper;
 import com.femsq.web.api.mapper.RaDirMapper;
 import com.femsq.web.audit.AuditExecutionService;
+import com.femsq.web.audit.log.AuditLogHtmlReader;
 import com.femsq.web.audit.runtime.AuditExecutionRegistry;
+import com.femsq.web.audit.runtime.AuditProgressHub;
+import graphql.schema.DataFetchingFieldSelectionSet;
 import java.util.List;
 import java.util.Optional;
 import java.util.logging.Logger;
@@ -23,9 +28,11 @@ import org.springframework.graphql.data.method.annotation.Argument;
 import org.springframework.graphql.data.method.annotation.MutationMapping;
 import org.springframework.graphql.data.method.annotation.QueryMapping;
 import org.springframework.graphql.data.method.annotation.SchemaMapping;
+import org.springframework.graphql.data.method.annotation.SubscriptionMapping;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
 
 /**
  * GraphQL-контроллер домена ревизий (ra_a/ra_at/ra_dir).
@@ -34,8 +41,12 @@ import org.springframework.web.server.ResponseStatusException;
  * <ul>
  *   <li>Query: {@code audits}, {@code audit}, {@code auditTypes}, {@code directories}</li>
  *   <li>Mutation: {@code createAudit}, {@code updateAudit}, {@code deleteAudit}, {@code executeAudit}</li>
+ *   <li>Subscription: {@code auditProgress} (live-журнал запуска, GraphQL over SSE/WebSocket)</li>
  *   <li>SchemaMapping (lazy): {@code Audit.directory}, {@code Audit.auditType}</li>
  * </ul>
+ *
+ * <p>{@code adt_results} (многомегабайтный HTML-лог) читается из БД, только если клиент выбрал поле
+ * {@code adtResults}; списки и экраны статуса обходятся без него.</p>
  */
 @Controller
 public class RaAGraphqlController {
@@ -50,6 +61,9 @@ public class RaAGraphqlController {
     private final RaDirMapper raDirMapper;
     private final AuditExecutionService auditExecutionService;
     private final AuditExecutionRegistry auditExecutionRegistry;
+    private final AuditLogHtmlReader auditLogHtmlReader;
+    private final AuditProgressHub auditProgressHub;
+    private final AuditProgressMapper auditProgressMapper;
 
     public RaAGraphqlController(
             RaAService raAService,
@@ -59,7 +73,10 @@ public class RaAGraphqlController {
             RaAtMapper raAtMapper,
             RaDirMapper raDirMapper,
             AuditExecutionService auditExecutionService,
-            AuditExecutionRegistry auditExecutionRegistry) {
+            AuditExecutionRegistry auditExecutionRegistry,
+            AuditLogHtmlReader auditLogHtmlReader,
+            AuditProgressHub auditProgressHub,
+            AuditProgressMapper auditProgressMapper) {
         this.raAService = raAService;
         this.raAtService = raAtService;
         this.raDirService = raDirService;
@@ -68,13 +85,19 @@ public class RaAGraphqlController {
         this.raDirMapper = raDirMapper;
         this.auditExecutionService = auditExecutionService;
         this.auditExecutionRegistry = auditExecutionRegistry;
+        this.auditLogHtmlReader = auditLogHtmlReader;
+        this.auditProgressHub = auditProgressHub;
+        this.auditProgressMapper = auditProgressMapper;
     }
 
     @QueryMapping
-    public List<RaADto> audits() {
+    public List<RaADto> audits(DataFetchingFieldSelectionSet selection) {
         log.info("GraphQL query audits");
         try {
-            return raAMapper.toDto(raAService.getAll());
+            if (!selectsResults(selection)) {
+                return raAMapper.toDto(raAService.getAllSummaries());
+            }
+            return raAMapper.toDto(raAService.getAll()).stream().map(this::withRunningLog).toList();
         } catch (MissingConfigurationException exception) {
             log.warning("Database configuration is missing: " + exception.getMessage());
             throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, exception.getMessage(), exception);
@@ -82,12 +105,43 @@ public class RaAGraphqlController {
     }
 
     @QueryMapping
-    public RaADto audit(@Argument("id") int id) {
+    public RaADto audit(@Argument("id") int id, DataFetchingFieldSelectionSet selection) {
         log.info(() -> "GraphQL query audit id=" + id);
-        Optional<RaADto> audit = raAService.getById(id).map(raAMapper::toDto);
+        if (!selectsResults(selection)) {
+            return raAService.getSummaryById(id).map(raAMapper::toDto).orElse(null);
+        }
+        Optional<RaADto> audit = raAService.getById(id).map(raAMapper::toDto).map(this::withRunningLog);
         return audit.orElse(null);
     }
 
+    private static boolean selectsResults(DataFetchingFieldSelectionSet selection) {
+        return selection == null || selection.contains("adtResults");
+    }
+
+    /**
+     * Для выполняющейся ревизии подставляет HTML, собранный из инкрементального журнала {@code ags.ra_a_log}
+     * ({@code adt_results} перезаписывается только при завершении).
+     */
+    private RaADto withRunningLog(RaADto dto) {
+        if (dto.adtKey() == null || !"RUNNING".equals(dto.adtStatus())) {
+            return dto;
+        }
+        return auditLogHtmlReader.renderRunning(dto.adtKey())
+                .map(html -> new RaADto(
+                        dto.adtKey(),
+                        dto.adtName(),
+                        dto.adtDate(),
+                        html,
+                        dto.adtDir(),
+                        dto.adtType(),
+                        dto.adtAddRA(),
+                        dto.adtStagingLogLevel(),
+                        dto.adtCreated(),
+                        dto.adtUpdated(),
+                        dto.adtStatus()))
+                .orElse(dto);
+    }
+
     @QueryMapping
     public List<RaAtDto> auditTypes() {
         log.info("GraphQL query auditTypes");
@@ -143,7 +197,7 @@ public class RaAGraphqlController {
         log.info(() -> "GraphQL mutation executeAudit id=" + id);
 
         // Проверяем, что ревизия существует.
-        var audit = raAService.getById(id)
+        var audit = raAService.getSummaryById(id)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Ревизия не найдена"));
 
         // Защита от повторного запуска: статус хранится в памяти приложения.
@@ -157,6 +211,30 @@ public class RaAGraphqlController {
         return new AuditExecutionResult(true, false, "Ревизия запущена");
     }
 
+    /**
+     * Live-журнал запуска: клиент получает только события после {@code afterSeq}, без перечитывания
+     * {@code adt_results}.
+     */
+    @SubscriptionMapping
+    public Flux<AuditProgressEventDto> auditProgress(
+            @Argument("id") int id,
+            @Argument("runId") String runId,
+            @Argument("afterSeq") Integer afterSeq) {
+        log.info(() -> "GraphQL subscription auditProgress id=" + id + " runId=" + runId + " afterSeq=" + afterSeq);
+        long cursor = afterSeq != null ? afterSeq : 0L;
+        if (cursor < 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "afterSeq must be >= 0");
+        }
+        Long run;
+        try {
+            run = runId != null ? Long.valueOf(runId) : null;
+        } catch (NumberFormatException exception) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "runId must be a number", exception);
+        }
+        return auditProgressHub.subscribe(id, run, cursor, auditExecutionRegistry.getStatusOrIdle(id))
+                .map(auditProgressMapper::toDto);
+    }
+
     @SchemaMapping(typeName = "Audit", field = "directory")
     public RaDirDto directory(RaADto audit) {
         if (audit == null || audit.adtDir() == null) {
@@ -31,6 +31,8 @@ import com.femsq.web.api.dto.sudz.RunSudzDbtUplFunnelInput;
 import com.femsq.web.api.dto.sudz.SudzDebtCollectionInput;
 import com.femsq.web.api.dto.sudz.UpdateSudzDbtUplFileInput;
 import com.femsq.web.api.dto.sudz.UpdateSudzYearInput;
+import com.femsq.web.api.graphql.relay.KeysetCursor;
+import com.femsq.web.api.graphql.relay.RelayConnection;
 import com.femsq.web.api.sudz.SudzDbtUplFunnelRunner;
 import java.math.BigDecimal;
 import java.util.List;
@@ -51,6 +53,9 @@ public class SudzGraphqlController {
 
     private static final Logger log = Logger.getLogger(SudzGraphqlController.class.getName());
 
+    /** Вид курсора {@link KeysetCursor} для портфеля года. */
+    private static final String DBT_KEY_CURSOR = "dbtKey";
+
     private final SudzService sudzService;
     private final SudzDbtUplFunnelRunner dbtUplFunnelRunner;
 
@@ -185,6 +190,37 @@ public class SudzGraphqlController {
         }
     }
 
+    /**
+     * Портфель года постранично: keyset-курсор по {@code dbtKey}, из БД читается не больше страницы.
+     *
+     * @param yr ключ год-варианта
+     * @param asOfUpl опционально: срезы до выгрузки включительно
+     * @param first размер страницы
+     * @param after курсор предыдущей страницы
+     * @return Relay-соединение
+     */
+    @QueryMapping
+    public RelayConnection<SudzRsltDebt> sudzYrDbtChangesConnection(
+            @Argument int yr,
+            @Argument Integer asOfUpl,
+            @Argument Integer first,
+            @Argument String after
+    ) {
+        try {
+            int pageSize = RelayConnection.pageSize(first);
+            Integer afterDbtKey = KeysetCursor.decodeInt(DBT_KEY_CURSOR, after);
+            List<SudzRsltDebt> fetched = sudzService.getYrDbtChangesPage(yr, asOfUpl, afterDbtKey, pageSize + 1);
+            return RelayConnection.of(fetched, pageSize, afterDbtKey != null,
+                    debt -> KeysetCursor.encode(DBT_KEY_CURSOR, debt.dbtKey()));
+        } catch (IllegalArgumentException exception) {
+            throw badRequest(exception);
+        } catch (MissingConfigurationException exception) {
+            throw unavailable(exception);
+        } catch (DaoException exception) {
+            throw internal(exception);
+        }
+    }
+
     /**
      * Документ D644.
      *
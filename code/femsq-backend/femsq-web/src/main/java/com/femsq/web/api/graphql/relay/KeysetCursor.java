@@ -0,0 +1,69 @@
+package com.femsq.web.api.graphql.relay;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Непрозрачный курсор keyset-пагинации: {@code base64url("<вид>:<ключ>")}.
+ * Вид (например, {@code dbtKey}) не даёт подставить курсор одного соединения в другое.
+ */
+public final class KeysetCursor {
+
+    private KeysetCursor() {
+    }
+
+    /**
+     * @param kind вид ключа
+     * @param key  значение ключа последнего элемента
+     * @return курсор
+     */
+    public static String encode(String kind, long key) {
+        String raw = kind + ":" + key;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @param kind   ожидаемый вид ключа
+     * @param cursor курсор {@code after} или {@code null}
+     * @return ключ или {@code null}, если курсор не передан
+     * @throws IllegalArgumentException если курсор повреждён или другого вида
+     */
+    public static Long decode(String kind, String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        String raw;
+        try {
+            raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException exception) {
+            throw new IllegalArgumentException("Некорректный курсор: " + cursor, exception);
+        }
+        String prefix = kind + ":";
+        if (!raw.startsWith(prefix)) {
+            throw new IllegalArgumentException("Курсор другого соединения: " + cursor);
+        }
+        try {
+            return Long.parseLong(raw.substring(prefix.length()));
+        } catch (NumberFormatException exception) {
+            throw new IllegalArgumentException("Некорректный курсор: " + cursor, exception);
+        }
+    }
+
+    /**
+     * То же, что {@link #decode(String, String)}, для целочисленных ключей.
+     *
+     * @param kind   ожидаемый вид ключа
+     * @param cursor курсор {@code after} или {@code null}
+     * @return ключ или {@code null}
+     */
+    public static Integer decodeInt(String kind, String cursor) {
+        Long key = decode(kind, cursor);
+        if (key == null) {
+            return null;
+        }
+        if (key < Integer.MIN_VALUE || key > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Некорректный курсор: " + cursor);
+        }
+        return key.intValue();
+    }
+}
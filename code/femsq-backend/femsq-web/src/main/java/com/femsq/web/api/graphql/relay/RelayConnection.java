@@ -0,0 +1,68 @@
+package com.femsq.web.api.graphql.relay;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Relay-соединение для keyset-пагинации.
+ *
+ * @param edges    рёбра страницы
+ * @param pageInfo признаки соседних страниц
+ * @param <T>      тип элемента
+ */
+public record RelayConnection<T>(List<RelayEdge<T>> edges, RelayPageInfo pageInfo) {
+
+    /** Размер страницы, если {@code first} не передан. */
+    public static final int DEFAULT_PAGE_SIZE = 100;
+    /** Верхняя граница {@code first}. */
+    public static final int MAX_PAGE_SIZE = 1000;
+
+    public RelayConnection {
+        edges = List.copyOf(edges);
+    }
+
+    /**
+     * Проверяет и нормализует {@code first}.
+     *
+     * @param first запрошенный размер страницы или {@code null}
+     * @return размер страницы
+     * @throws IllegalArgumentException если {@code first} вне диапазона 1..{@link #MAX_PAGE_SIZE}
+     */
+    public static int pageSize(Integer first) {
+        if (first == null) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        if (first <= 0 || first > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("first должен быть в диапазоне 1.." + MAX_PAGE_SIZE + ": " + first);
+        }
+        return first;
+    }
+
+    /**
+     * Собирает страницу из выборки размером до {@code pageSize + 1}: лишний элемент означает следующую страницу.
+     *
+     * @param fetched   элементы по возрастанию ключа (не более {@code pageSize + 1})
+     * @param pageSize  размер страницы
+     * @param afterGiven передан ли курсор {@code after}
+     * @param cursorOf  курсор элемента
+     * @param <T>       тип элемента
+     * @return соединение
+     */
+    public static <T> RelayConnection<T> of(
+            List<T> fetched,
+            int pageSize,
+            boolean afterGiven,
+            Function<T, String> cursorOf
+    ) {
+        boolean hasNext = fetched.size() > pageSize;
+        List<T> page = hasNext ? fetched.subList(0, pageSize) : fetched;
+        List<RelayEdge<T>> edges = new ArrayList<>(page.size());
+        for (T node : page) {
+            edges.add(new RelayEdge<>(cursorOf.apply(node), node));
+        }
+        String start = edges.isEmpty() ? null : edges.get(0).cursor();
+        String end = edges.isEmpty() ? null : edges.get(edges.size() - 1).cursor();
+        return new RelayConnection<>(edges, new RelayPageInfo(hasNext, afterGiven, start, end));
+    }
+}
@@ -0,0 +1,11 @@
+package com.femsq.web.api.graphql.relay;
+
+/**
+ * Ребро Relay-соединения: элемент и его курсор.
+ *
+ * @param cursor непрозрачный курсор (см. {@link KeysetCursor})
+ * @param node   элемент
+ * @param <T>    тип элемента
+ */
+public record RelayEdge<T>(String cursor, T node) {
+}
@@ -0,0 +1,12 @@
+package com.femsq.web.api.graphql.relay;
+
+/**
+ * {@code PageInfo} по спецификации GraphQL Cursor Connections (Relay).
+ *
+ * @param hasNextPage     есть ли элементы после {@code endCursor}
+ * @param hasPreviousPage запрошена ли страница после курсора {@code after}
+ * @param startCursor     курсор первого элемента страницы
+ * @param endCursor       курсор последнего элемента страницы
+ */
+public record RelayPageInfo(boolean hasNextPage, boolean hasPreviousPage, String startCursor, String endCursor) {
+}
@@ -0,0 +1,54 @@
+package com.femsq.web.api.mapper;
+
+import com.femsq.web.api.dto.AuditLogEntryDto;
+import com.femsq.web.api.dto.AuditLogMetaDto;
+import com.femsq.web.api.dto.AuditProgressEventDto;
+import com.femsq.web.audit.AuditLogEntry;
+import com.femsq.web.audit.runtime.AuditProgressEvent;
+import java.time.ZoneId;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import org.springframework.stereotype.Component;
+
+/**
+ * Маппер событий live-журнала ревизии в DTO GraphQL.
+ */
+@Component
+public class AuditProgressMapper {
+
+    /**
+     * Преобразует событие канала в DTO.
+     *
+     * @param event событие {@link com.femsq.web.audit.runtime.AuditProgressHub}
+     * @return DTO-представление
+     */
+    public AuditProgressEventDto toDto(AuditProgressEvent event) {
+        Objects.requireNonNull(event, "event");
+        return new AuditProgressEventDto(
+                event.runId() != AuditProgressEvent.NO_RUN ? Long.toString(event.runId()) : null,
+                event.seq(),
+                event.kind().name(),
+                event.status() != null ? event.status().name() : null,
+                event.entry() != null ? toDto(event.entry()) : null
+        );
+    }
+
+    private AuditLogEntryDto toDto(AuditLogEntry entry) {
+        List<AuditLogMetaDto> meta = entry.getMeta().entrySet().stream()
+                .sorted(Map.Entry.comparingByKey(Comparator.nullsFirst(Comparator.naturalOrder())))
+                .map(item -> new AuditLogMetaDto(item.getKey(), item.getValue()))
+                .toList();
+        return new AuditLogEntryDto(
+                entry.getTimestamp() != null ? entry.getTimestamp().atZone(ZoneId.systemDefault()).toOffsetDateTime() : null,
+                entry.getLevel() != null ? entry.getLevel().name() : null,
+                entry.getScope() != null ? entry.getScope().name() : null,
+                entry.getSpanId(),
+                entry.getParentSpanId(),
+                entry.getCode(),
+                entry.getMessageHtml(),
+                meta
+        );
+    }
+}
@@ -54,21 +54,29 @@ public class IpgChainRestController {
         this.relationMapper = relationMapper;
     }
 
+    /**
+     * Цепочки с пагинацией, сортировкой и фильтрами. Если передан {@code afterKey} ({@code chainKey}
+     * последней записи предыдущей страницы), страница читается keyset-продолжением без {@code OFFSET}.
+     */
     @GetMapping
     public PageResponse<IpgChainDto> getChains(
             @RequestParam(required = false, defaultValue = "0") Integer page,
             @RequestParam(required = false, defaultValue = "10") Integer size,
             @RequestParam(required = false) String sort,
             @RequestParam(required = false) String name,
-            @RequestParam(required = false) Integer year) {
-        log.info(() -> String.format("Handling GET /api/v1/ipg-chains?page=%s&size=%s&sort=%s&name=%s&year=%s",
-                page, size, sort, name, year));
+            @RequestParam(required = false) Integer year,
+            @RequestParam(required = false) Integer afterKey) {
+        log.info(() -> String.format("Handling GET /api/v1/ipg-chains?page=%s&size=%s&sort=%s&name=%s&year=%s&afterKey=%s",
+                page, size, sort, name, year, afterKey));
         int pageNum = page != null && page >= 0 ? page : 0;
         int pageSize = size != null && size > 0 ? size : 10;
         SortParams sortParams = parseSort(sort);
 
-        var chains = ipgChainService.getAll(pageNum, pageSize, sortParams.field(), sortParams.direction(),
-                normalize(name), year);
+        var chains = afterKey != null
+                ? ipgChainService.getPageAfter(afterKey, pageSize, sortParams.field(), sortParams.direction(),
+                        normalize(name), year)
+                : ipgChainService.getAll(pageNum, pageSize, sortParams.field(), sortParams.direction(),
+                        normalize(name), year);
         long total = ipgChainService.count(normalize(name), year);
         Map<Integer, String> stNetNames = buildStNetworkMap();
         List<IpgChainDto> content = ipgChainMapper.toDto(chains, stNetNames);
@@ -54,6 +54,9 @@ public class OgRestController {
      * @param page номер страницы (начиная с 0), опционально, по умолчанию 0
      * @param size размер страницы, опционально, по умолчанию 10
      * @param sort строка сортировки в формате "field,direction" (например, "ogNm,asc"), опционально
+     * @param afterKey {@code ogKey} последней записи предыдущей страницы, опционально. Если передан,
+     *                 страница читается keyset-продолжением (без {@code OFFSET}) при той же сортировке и фильтре;
+     *                 {@code page} тогда только повторяется в ответе
      * @return объект с пагинацией
      */
     @GetMapping
@@ -61,8 +64,10 @@ public class OgRestController {
             @RequestParam(required = false, defaultValue = "0") Integer page,
             @RequestParam(required = false, defaultValue = "10") Integer size,
             @RequestParam(required = false) String sort,
-            @RequestParam(required = false) String ogName) {
-        log.info(() -> String.format("Handling GET /api/v1/organizations?page=%s&size=%s&sort=%s&ogName=%s", page, size, sort, ogName));
+            @RequestParam(required = false) String ogName,
+            @RequestParam(required = false) Integer afterKey) {
+        log.info(() -> String.format("Handling GET /api/v1/organizations?page=%s&size=%s&sort=%s&ogName=%s&afterKey=%s",
+                page, size, sort, ogName, afterKey));
         
         int pageNum = Math.max(0, page != null ? page : 0);
         int pageSize = size != null && size > 0 ? size : 10;
@@ -84,7 +89,9 @@ public class OgRestController {
             nameFilter = null;
         }
         
-        List<OgDto> content = ogMapper.toDto(ogService.getAll(pageNum, pageSize, sortField, sortDirection, nameFilter));
+        List<OgDto> content = ogMapper.toDto(afterKey != null
+                ? ogService.getPageAfter(afterKey, pageSize, sortField, sortDirection, nameFilter)
+                : ogService.getAll(pageNum, pageSize, sortField, sortDirection, nameFilter));
         long totalElements = ogService.count(nameFilter);
         
         return PageResponse.of(content, pageNum, pageSize, (int) totalElements);
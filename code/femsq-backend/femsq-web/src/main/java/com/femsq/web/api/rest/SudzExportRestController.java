@@ -3,7 +3,7 @@ package com.femsq.web.api.rest;
 import com.femsq.database.config.DatabaseConfigurationService.MissingConfigurationException;
 import com.femsq.database.exception.DaoException;
 import com.femsq.database.model.sudz.SudzD644Row;
-import com.femsq.database.model.sudz.SudzRsltDebt;
+import com.femsq.database.model.sudz.SudzRsltOutline;
 import com.femsq.database.model.sudz.SudzRsltReturnRow;
 import com.femsq.database.model.sudz.SudzSvodResult;
 import com.femsq.database.service.SudzService;
@@ -28,6 +28,7 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 /**
  * REST-выгрузка бинарных документов СУДЗ (Excel). Осознанное исключение из GraphQL-only.
@@ -45,6 +46,9 @@ public class SudzExportRestController {
     private static final DateTimeFormatter FILE_STAMP =
             DateTimeFormatter.ofPattern("yyyy-MM-dd_HHmmss");
 
+    private static final String XLSX_CONTENT_TYPE =
+            "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet";
+
     /**
      * Текущая метка для строки лога Progress.
      *
@@ -68,39 +72,37 @@ public class SudzExportRestController {
      *
      * @param yr ключ год-варианта
      * @param asOfUpl выгрузка «срезы до …» (обязательна)
-     * @return файл xlsx
+     * @return файл xlsx, записываемый в ответ потоково
      */
-    @GetMapping(value = "/rslt-sborn.xlsx", produces = "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet")
-    public ResponseEntity<byte[]> exportRsltSborn(
+    @GetMapping(value = "/rslt-sborn.xlsx", produces = XLSX_CONTENT_TYPE)
+    public ResponseEntity<StreamingResponseBody> exportRsltSborn(
             @RequestParam int yr,
             @RequestParam int asOfUpl
     ) {
         try {
-            List<SudzRsltDebt> debts = sudzService.getYrDbtChanges(yr, asOfUpl);
-            byte[] body = SudzRsltExcelExporter.exportRsltSborn(debts);
+            // Контур (срезы, число долгов) — до ответа: ошибки года/конфигурации остаются HTTP-статусами.
+            SudzRsltOutline outline = sudzService.getYrDbtOutline(yr, asOfUpl);
             // Дата-время в имени: повторное «Сформировать» не перезаписывает тот же файл (FSA).
             String stamp = LocalDateTime.now().format(FILE_STAMP);
             String fileName = "ags_Yr_DbtChangesRslt_" + yr + "_" + asOfUpl + "_" + stamp + ".xlsx";
-            String line = String.format(
-                    "[%s] Rslt сбор · Excel | yr=%d | asOfUpl=%d | долгов=%d | файл=%s | ok",
-                    progressTimestamp(),
-                    yr,
-                    asOfUpl,
-                    debts.size(),
-                    fileName
-            );
-            try {
-                sudzService.appendYearProgress(yr, line);
-            } catch (RuntimeException progressError) {
-                log.log(Level.WARNING, "Не удалось дописать yr_Progress: {0}", progressError.getMessage());
-            }
-            log.log(Level.INFO, "Rslt сбор Excel yr={0}, asOfUpl={1}, rows={2}, bytes={3}",
-                    new Object[]{yr, asOfUpl, debts.size(), body.length});
-            return ResponseEntity.ok()
-                    .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"")
-                    .contentType(MediaType.parseMediaType(
-                            "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"))
-                    .body(body);
+            return xlsxAttachment(fileName, out -> {
+                int debts;
+                try (SudzRsltExcelExporter.RsltWorkbookWriter writer = SudzRsltExcelExporter.openRsltSborn(outline)) {
+                    sudzService.streamYrDbtChanges(yr, asOfUpl, writer::append);
+                    writer.finish(out);
+                    debts = writer.written();
+                }
+                appendProgress(yr, String.format(
+                        "[%s] Rslt сбор · Excel | yr=%d | asOfUpl=%d | долгов=%d | файл=%s | ok",
+                        progressTimestamp(),
+                        yr,
+                        asOfUpl,
+                        debts,
+                        fileName
+                ));
+                log.log(Level.INFO, "Rslt сбор Excel yr={0}, asOfUpl={1}, rows={2}",
+                        new Object[]{yr, asOfUpl, debts});
+            });
         } catch (IllegalArgumentException exception) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, exception.getMessage(), exception);
         } catch (MissingConfigurationException exception) {
@@ -108,8 +110,6 @@ public class SudzExportRestController {
         } catch (DaoException exception) {
             log.log(Level.WARNING, "Rslt Excel DAO error: {0}", exception.getMessage());
             throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, exception.getMessage(), exception);
-        } catch (IOException exception) {
-            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Ошибка генерации Excel", exception);
         }
     }
 
@@ -118,38 +118,35 @@ public class SudzExportRestController {
      *
      * @param yr ключ год-варианта
      * @param asOfUpl выгрузка «срезы до …»
-     * @return файл xlsx
+     * @return файл xlsx, записываемый в ответ потоково
      */
-    @GetMapping(value = "/rslt-povtor.xlsx", produces = "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet")
-    public ResponseEntity<byte[]> exportRsltPovtor(
+    @GetMapping(value = "/rslt-povtor.xlsx", produces = XLSX_CONTENT_TYPE)
+    public ResponseEntity<StreamingResponseBody> exportRsltPovtor(
             @RequestParam int yr,
             @RequestParam int asOfUpl
     ) {
         try {
-            List<SudzRsltDebt> debts = sudzService.getYrDbtChanges(yr, asOfUpl);
-            byte[] body = SudzRsltExcelExporter.exportRsltPovtor(debts);
+            SudzRsltOutline outline = sudzService.getYrDbtOutline(yr, asOfUpl);
             String stamp = LocalDateTime.now().format(FILE_STAMP);
             String fileName = "ags_Yr_DbtChangesRslt_" + yr + "_" + asOfUpl + "_povtor_" + stamp + ".xlsx";
-            String line = String.format(
-                    "[%s] Rslt повтор · Excel | yr=%d | asOfUpl=%d | долгов=%d | файл=%s | ok",
-                    progressTimestamp(),
-                    yr,
-                    asOfUpl,
-                    debts.size(),
-                    fileName
-            );
-            try {
-                sudzService.appendYearProgress(yr, line);
-            } catch (RuntimeException progressError) {
-                log.log(Level.WARNING, "Не удалось дописать yr_Progress: {0}", progressError.getMessage());
-            }
-            log.log(Level.INFO, "Rslt повтор Excel yr={0}, asOfUpl={1}, rows={2}, bytes={3}",
-                    new Object[]{yr, asOfUpl, debts.size(), body.length});
-            return ResponseEntity.ok()
-                    .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"")
-                    .contentType(MediaType.parseMediaType(
-                            "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"))
-                    .body(body);
+            return xlsxAttachment(fileName, out -> {
+                int debts;
+                try (SudzRsltExcelExporter.RsltWorkbookWriter writer = SudzRsltExcelExporter.openRsltPovtor(outline)) {
+                    sudzService.streamYrDbtChanges(yr, asOfUpl, writer::append);
+                    writer.finish(out);
+                    debts = writer.written();
+                }
+                appendProgress(yr, String.format(
+                        "[%s] Rslt повтор · Excel | yr=%d | asOfUpl=%d | долгов=%d | файл=%s | ok",
+                        progressTimestamp(),
+                        yr,
+                        asOfUpl,
+                        debts,
+                        fileName
+                ));
+                log.log(Level.INFO, "Rslt повтор Excel yr={0}, asOfUpl={1}, rows={2}",
+                        new Object[]{yr, asOfUpl, debts});
+            });
         } catch (IllegalArgumentException exception) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, exception.getMessage(), exception);
         } catch (MissingConfigurationException exception) {
@@ -157,8 +154,6 @@ public class SudzExportRestController {
         } catch (DaoException exception) {
             log.log(Level.WARNING, "Rslt повтор Excel DAO error: {0}", exception.getMessage());
             throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, exception.getMessage(), exception);
-        } catch (IOException exception) {
-            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Ошибка генерации Excel", exception);
         }
     }
 
@@ -167,38 +162,30 @@ public class SudzExportRestController {
      *
      * @param yr ключ год-варианта
      * @param currUpl текущий срез
-     * @return файл xlsx
+     * @return файл xlsx, записываемый в ответ потоково
      */
-    @GetMapping(value = "/d644.xlsx", produces = "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet")
-    public ResponseEntity<byte[]> exportD644(
+    @GetMapping(value = "/d644.xlsx", produces = XLSX_CONTENT_TYPE)
+    public ResponseEntity<StreamingResponseBody> exportD644(
             @RequestParam int yr,
             @RequestParam int currUpl
     ) {
         try {
             List<SudzD644Row> rows = sudzService.getD644(yr, currUpl);
-            byte[] body = SudzD644ExcelExporter.exportD644(rows);
             String stamp = LocalDateTime.now().format(FILE_STAMP);
             String fileName = "ags_Yr_DbtChangesRsltD644_" + yr + "_" + currUpl + "_" + stamp + ".xlsx";
-            String line = String.format(
-                    "[%s] D644 · Excel | yr=%d | currUpl=%d | строк=%d | файл=%s | ok",
-                    progressTimestamp(),
-                    yr,
-                    currUpl,
-                    rows.size(),
-                    fileName
-            );
-            try {
-                sudzService.appendYearProgress(yr, line);
-            } catch (RuntimeException progressError) {
-                log.log(Level.WARNING, "Не удалось дописать yr_Progress: {0}", progressError.getMessage());
-            }
-            log.log(Level.INFO, "D644 Excel yr={0}, currUpl={1}, rows={2}, bytes={3}",
-                    new Object[]{yr, currUpl, rows.size(), body.length});
-            return ResponseEntity.ok()
-                    .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"")
-                    .contentType(MediaType.parseMediaType(
-                            "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"))
-                    .body(body);
+            return xlsxAttachment(fileName, out -> {
+                SudzD644ExcelExporter.writeD644(rows, out);
+                appendProgress(yr, String.format(
+                        "[%s] D644 · Excel | yr=%d | currUpl=%d | строк=%d | файл=%s | ok",
+                        progressTimestamp(),
+                        yr,
+                        currUpl,
+                        rows.size(),
+                        fileName
+                ));
+                log.log(Level.INFO, "D644 Excel yr={0}, currUpl={1}, rows={2}",
+                        new Object[]{yr, currUpl, rows.size()});
+            });
         } catch (IllegalArgumentException exception) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, exception.getMessage(), exception);
         } catch (MissingConfigurationException exception) {
@@ -206,8 +193,6 @@ public class SudzExportRestController {
         } catch (DaoException exception) {
             log.log(Level.WARNING, "D644 Excel DAO error: {0}", exception.getMessage());
             throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, exception.getMessage(), exception);
-        } catch (IOException exception) {
-            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Ошибка генерации Excel", exception);
         }
     }
 
@@ -218,7 +203,7 @@ public class SudzExportRestController {
      * @param currUpl текущий срез
      * @return файл xlsx
      */
-    @GetMapping(value = "/d644-svod.xlsx", produces = "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet")
+    @GetMapping(value = "/d644-svod.xlsx", produces = XLSX_CONTENT_TYPE)
     public ResponseEntity<byte[]> exportD644Svod(
             @RequestParam int yr,
             @RequestParam int currUpl
@@ -237,17 +222,12 @@ public class SudzExportRestController {
                     accounts,
                     fileName
             );
-            try {
-                sudzService.appendYearProgress(yr, line);
-            } catch (RuntimeException progressError) {
-                log.log(Level.WARNING, "Не удалось дописать yr_Progress: {0}", progressError.getMessage());
-            }
+            appendProgress(yr, line);
             log.log(Level.INFO, "D644Svod Excel yr={0}, currUpl={1}, accounts={2}, bytes={3}",
                     new Object[]{yr, currUpl, accounts, body.length});
             return ResponseEntity.ok()
                     .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"")
-                    .contentType(MediaType.parseMediaType(
-                            "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"))
+                    .contentType(MediaType.parseMediaType(XLSX_CONTENT_TYPE))
                     .body(body);
         } catch (IllegalArgumentException exception) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, exception.getMessage(), exception);
@@ -293,11 +273,7 @@ public class SudzExportRestController {
                     imported,
                     fileName
             );
-            try {
-                sudzService.appendYearProgress(yr, line);
-            } catch (RuntimeException progressError) {
-                log.log(Level.WARNING, "Не удалось дописать yr_Progress: {0}", progressError.getMessage());
-            }
+            appendProgress(yr, line);
             log.log(Level.INFO, "Rslt return import yr={0}, imported={1}, file={2}",
                     new Object[]{yr, imported, fileName});
             return Map.of(
@@ -318,4 +294,32 @@ public class SudzExportRestController {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Не удалось прочитать Excel", exception);
         }
     }
+
+    /**
+     * Ответ-вложение xlsx, тело которого пишется после возврата из контроллера (без буфера {@code byte[]}).
+     *
+     * @param fileName имя файла для {@code Content-Disposition}
+     * @param body     запись книги в поток ответа
+     * @return ответ 200
+     */
+    private static ResponseEntity<StreamingResponseBody> xlsxAttachment(String fileName, StreamingResponseBody body) {
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"")
+                .contentType(MediaType.parseMediaType(XLSX_CONTENT_TYPE))
+                .body(body);
+    }
+
+    /**
+     * Дописывает строку в {@code yr_Progress}; ошибка журнала не срывает выгрузку.
+     *
+     * @param yr   ключ года
+     * @param line строка лога
+     */
+    private void appendProgress(int yr, String line) {
+        try {
+            sudzService.appendYearProgress(yr, line);
+        } catch (RuntimeException progressError) {
+            log.log(Level.WARNING, "Не удалось дописать yr_Progress: {0}", progressError.getMessage());
+        }
+    }
 }
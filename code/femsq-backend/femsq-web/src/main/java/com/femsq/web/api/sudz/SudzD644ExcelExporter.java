@@ -6,6 +6,7 @@ import com.femsq.database.model.sudz.SudzSvodResult;
 import com.femsq.database.model.sudz.SudzSvodTotal;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
@@ -27,6 +28,7 @@ import org.apache.poi.ss.usermodel.Sheet;
 import org.apache.poi.ss.usermodel.VerticalAlignment;
 import org.apache.poi.ss.util.CellRangeAddress;
 import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
 import org.apache.poi.xssf.usermodel.DefaultIndexedColorMap;
 import org.apache.poi.xssf.usermodel.XSSFCellStyle;
 import org.apache.poi.xssf.usermodel.XSSFColor;
@@ -38,6 +40,10 @@ import org.apache.poi.xssf.usermodel.XSSFWorkbook;
  * <p>D644 — по эталону {@code excel/2026_03/debit/Приложение 1. Сведения о ходе…xlsx}
  * (лист {@code ags_Yr_DbtChangesRsltD644_*}): 18 колонок, шапка письма, жёлтый {@code SUM}
  * под каждым счётом ГК.
+ *
+ * <p>Построчный D644 пишется через {@link SXSSFWorkbook} с окном {@link SudzRsltExcelExporter#ROW_WINDOW}
+ * строк (итоговые {@code SUM} ссылаются на диапазон формулой и не требуют уже сброшенных строк);
+ * свод невелик и собирается в {@link XSSFWorkbook}.
  */
 public final class SudzD644ExcelExporter {
 
@@ -80,6 +86,19 @@ public final class SudzD644ExcelExporter {
      * @throws IOException ошибка записи
      */
     public static byte[] exportD644(List<SudzD644Row> rows) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        writeD644(rows, out);
+        return out.toByteArray();
+    }
+
+    /**
+     * Пишет построчный D644 в поток (поток не закрывается).
+     *
+     * @param rows строки {@code Yr_DbtChangesD644}
+     * @param out  поток назначения
+     * @throws IOException ошибка записи
+     */
+    public static void writeD644(List<SudzD644Row> rows, OutputStream out) throws IOException {
         LocalDate baseDate = rows.isEmpty() ? null : rows.get(0).baseUplDate();
         LocalDate currDate = rows.isEmpty() ? null : rows.get(0).currUplDate();
         String baseAsOf = statusAsOfLabel(baseDate, true);
@@ -127,10 +146,11 @@ public final class SudzD644ExcelExporter {
             }
         }
 
-        try (XSSFWorkbook workbook = new XSSFWorkbook();
-             ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+        XSSFWorkbook base = new XSSFWorkbook();
+        SXSSFWorkbook workbook = new SXSSFWorkbook(base, SudzRsltExcelExporter.ROW_WINDOW, true, false);
+        try {
             Sheet sheet = workbook.createSheet(sheetName);
-            Styles styles = new Styles(workbook);
+            Styles styles = new Styles(base);
 
             Row row1 = sheet.createRow(0);
             for (int c = 0; c < COL_COUNT; c++) {
@@ -192,7 +212,9 @@ public final class SudzD644ExcelExporter {
             }
 
             workbook.write(out);
-            return out.toByteArray();
+        } finally {
+            workbook.dispose();
+            workbook.close();
         }
     }
 
@@ -49,7 +49,8 @@ public final class SudzDbtUplCnCtptExistInvNotLoadLog {
         }
         if (applyResult != null) {
             progress.line("Внесено счетов-фактур (строк) в БД: <b><font color=\"DarkGreen\">"
-                    + applyResult.insertedCount() + "</font></b>");
+                    + applyResult.insertedCount() + "</font></b>"
+                    + " за <font color=\"DarkCyan\">" + applyResult.elapsedMs() + "</font> мс");
         }
     }
 
@@ -37,7 +37,8 @@ public final class SudzDbtUplCnNotLoadLog {
             progress.line("cnMark=<font color=\"DarkViolet\"><b>" + applyResult.cnMark() + "</b></font>"
                     + " — откат: mutation <code>rollbackSudzCnNotLoad(cnMark: "
                     + applyResult.cnMark() + ")</code>. "
-                    + "Вставлено договоров: <b>" + applyResult.insertedCount() + "</b>.");
+                    + "Вставлено договоров: <b>" + applyResult.insertedCount() + "</b>"
+                    + " за <font color=\"DarkCyan\">" + applyResult.elapsedMs() + "</font> мс.");
         }
         if (rows.isEmpty()) {
             progress.line("В источнике <font color=\"Goldenrod\">новые договора отсутствуют</font>"
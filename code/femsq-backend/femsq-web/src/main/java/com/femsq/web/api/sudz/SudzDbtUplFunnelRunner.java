@@ -226,8 +226,9 @@ public class SudzDbtUplFunnelRunner {
         SudzDbtUplCnNotLoadApplyResult applyResult = null;
         if (flLoad) {
             applyResult = sudzService.applyDbtUplCnNotLoad(rows);
-            log.log(Level.INFO, "CnNotLoad apply uplKey={0} cnMark={1} inserted={2}",
-                    new Object[]{uplKey, applyResult.cnMark(), applyResult.insertedCount()});
+            log.log(Level.INFO, "CnNotLoad apply uplKey={0} cnMark={1} inserted={2} ms={3}",
+                    new Object[]{uplKey, applyResult.cnMark(), applyResult.insertedCount(),
+                            applyResult.elapsedMs()});
         }
         SudzDbtUplCnNotLoadLog.append(progress, rows, applyResult);
         log.log(Level.INFO, "CnNotLoad uplKey={0} tbl={1} missingCnRows={2} flLoad={3}",
@@ -289,7 +290,8 @@ public class SudzDbtUplFunnelRunner {
         if (flLoad && prepared.invoiceRowCount() > 0) {
             applyResult = sudzService.applyDbtUplCnCtptExistInvNotLoad(uplKey);
             progress.line("Внесено счетов-фактур (строк) в БД: <b><font color=\"DarkGreen\">"
-                    + applyResult.insertedCount() + "</font></b>");
+                    + applyResult.insertedCount() + "</font></b>"
+                    + " за <font color=\"DarkCyan\">" + applyResult.elapsedMs() + "</font> мс");
             // Access: повторный показ после apply (хвост должен опустеть)
             prepared = sudzService.rebuildDbtUplCnCtptExistInvNot(uplKey, null);
             SudzDbtUplCnCtptExistInvNotLoadLog.append(progress, prepared, null);
@@ -1,9 +1,13 @@
 package com.femsq.web.api.sudz;
 
 import com.femsq.database.model.sudz.SudzRsltDebt;
+import com.femsq.database.model.sudz.SudzRsltOutline;
 import com.femsq.database.model.sudz.SudzRsltPeriod;
+import com.femsq.database.model.sudz.SudzRsltSlice;
 import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
@@ -11,6 +15,7 @@ import java.util.ArrayList;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import org.apache.poi.ss.SpreadsheetVersion;
 import org.apache.poi.ss.usermodel.BorderStyle;
 import org.apache.poi.ss.usermodel.Cell;
 import org.apache.poi.ss.usermodel.CellStyle;
@@ -22,6 +27,7 @@ import org.apache.poi.ss.usermodel.Sheet;
 import org.apache.poi.ss.usermodel.VerticalAlignment;
 import org.apache.poi.ss.util.CellRangeAddress;
 import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
 import org.apache.poi.xssf.usermodel.DefaultIndexedColorMap;
 import org.apache.poi.xssf.usermodel.XSSFCellStyle;
 import org.apache.poi.xssf.usermodel.XSSFColor;
@@ -36,6 +42,11 @@ import org.apache.poi.xssf.usermodel.XSSFWorkbook;
  * {@code excel/2025-12/debit/ags_Yr_DbtChangesRslt_26-0212_26-0217.xlsx}.
  *
  * <p>Боковик FEMSQ (08 §3.6.0): {@code dbtKey} + {@code account_num}; СФ/{@code idNum} — в блоках срезов.
+ *
+ * <p>Книга пишется через {@link SXSSFWorkbook}: в памяти держится только окно из {@link #ROW_WINDOW}
+ * строк, остальные сбрасываются во временный сжатый файл; стили создаются один раз в базовой
+ * {@link XSSFWorkbook}. Методы {@code write*} пишут прямо в поток ответа; {@code open*} принимают
+ * долги по одному из {@code SudzService#streamYrDbtChanges}, не держа портфель целиком.
  */
 public final class SudzRsltExcelExporter {
 
@@ -71,6 +82,9 @@ public final class SudzRsltExcelExporter {
     private static final String MONEY_FORMAT =
             "_-* #,##0.00\\ [$₽-419]_-;\\-* #,##0.00\\ [$₽-419]_-;_-* \"-\"??\\ [$₽-419]_-;_-@_-";
 
+    /** Сколько строк держать в памяти до сброса во временный файл. */
+    static final int ROW_WINDOW = 200;
+
     private SudzRsltExcelExporter() {
     }
 
@@ -82,7 +96,9 @@ public final class SudzRsltExcelExporter {
      * @throws IOException ошибка записи книги
      */
     public static byte[] exportRsltSborn(List<SudzRsltDebt> debts) throws IOException {
-        return exportRslt(debts, false);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        writeRsltSborn(debts, out);
+        return out.toByteArray();
     }
 
     /**
@@ -93,28 +109,109 @@ public final class SudzRsltExcelExporter {
      * @throws IOException ошибка записи книги
      */
     public static byte[] exportRsltPovtor(List<SudzRsltDebt> debts) throws IOException {
-        return exportRslt(debts, true);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        writeRsltPovtor(debts, out);
+        return out.toByteArray();
     }
 
-    private static byte[] exportRslt(List<SudzRsltDebt> debts, boolean fillNew) throws IOException {
-        List<SliceMeta> slices = collectSlices(debts);
-        LocalDate newAsOf = slices.isEmpty()
-                ? LocalDate.now()
-                : slices.get(slices.size() - 1).labelDate();
-        String newSuffix = "новый, по состоянию на " + monthYearRu(newAsOf);
-        List<ColumnDef> columns = buildColumns(slices, newSuffix);
+    /**
+     * Пишет xlsx Rslt сбор в поток (поток не закрывается).
+     *
+     * @param debts долги со срезами (уже отфильтрованными по asOfUpl)
+     * @param out   поток назначения
+     * @throws IOException ошибка записи книги
+     */
+    public static void writeRsltSborn(List<SudzRsltDebt> debts, OutputStream out) throws IOException {
+        writeRslt(debts, false, out);
+    }
 
-        try (XSSFWorkbook workbook = new XSSFWorkbook();
-             ByteArrayOutputStream out = new ByteArrayOutputStream()) {
-            Sheet sheet = workbook.createSheet("Rslt");
-            Styles styles = new Styles(workbook);
+    /**
+     * Пишет xlsx Rslt повтор в поток (поток не закрывается).
+     *
+     * @param debts долги со срезами и полями {@code *New}
+     * @param out   поток назначения
+     * @throws IOException ошибка записи книги
+     */
+    public static void writeRsltPovtor(List<SudzRsltDebt> debts, OutputStream out) throws IOException {
+        writeRslt(debts, true, out);
+    }
+
+    /**
+     * Открывает потоковую запись Rslt сбор по контуру портфеля: долги добавляются по одному.
+     *
+     * @param outline срезы портфеля (шапка пишется до первого долга)
+     * @return писатель книги; закрывается вызывающим
+     */
+    public static RsltWorkbookWriter openRsltSborn(SudzRsltOutline outline) {
+        return new RsltWorkbookWriter(slicesOf(outline), false);
+    }
 
+    /**
+     * Открывает потоковую запись Rslt повтор по контуру портфеля.
+     *
+     * @param outline срезы портфеля
+     * @return писатель книги; закрывается вызывающим
+     */
+    public static RsltWorkbookWriter openRsltPovtor(SudzRsltOutline outline) {
+        return new RsltWorkbookWriter(slicesOf(outline), true);
+    }
+
+    private static void writeRslt(List<SudzRsltDebt> debts, boolean fillNew, OutputStream out) throws IOException {
+        try (RsltWorkbookWriter writer = new RsltWorkbookWriter(collectSlices(debts), fillNew)) {
+            for (SudzRsltDebt debt : debts) {
+                writer.append(debt);
+            }
+            writer.finish(out);
+        }
+    }
+
+    private static List<SliceMeta> slicesOf(SudzRsltOutline outline) {
+        List<SliceMeta> slices = new ArrayList<>(outline.slices().size());
+        for (SudzRsltSlice slice : outline.slices()) {
+            slices.add(new SliceMeta(slice.uplDate(), slice.asOf() != null ? slice.asOf() : slice.uplDate()));
+        }
+        return slices;
+    }
+
+    /**
+     * Построчная запись листа Rslt: шапка пишется при открытии, каждый долг — сразу в окно SXSSF.
+     * Диапазон {@code SUBTOTAL} в шапке открыт до последней строки листа: число долгов из контура читается
+     * отдельным запросом и может не совпасть с потоком, а row1 сбрасывается SXSSF раньше, чем оно известно.
+     * Пустые ячейки {@code SUBTOTAL} пропускает.
+     */
+    public static final class RsltWorkbookWriter implements Closeable {
+
+        private final List<SliceMeta> slices;
+        private final List<ColumnDef> columns;
+        private final boolean fillNew;
+        private final SXSSFWorkbook workbook;
+        private final Sheet sheet;
+        private final Styles styles;
+        private int written;
+
+        private RsltWorkbookWriter(List<SliceMeta> slices, boolean fillNew) {
+            this.slices = slices;
+            this.fillNew = fillNew;
+            LocalDate newAsOf = slices.isEmpty()
+                    ? LocalDate.now()
+                    : slices.get(slices.size() - 1).labelDate();
+            String newSuffix = "новый, по состоянию на " + monthYearRu(newAsOf);
+            this.columns = buildColumns(slices, newSuffix);
+
+            XSSFWorkbook base = new XSSFWorkbook();
+            this.workbook = new SXSSFWorkbook(base, ROW_WINDOW, true, false);
+            this.sheet = workbook.createSheet("Rslt");
+            this.styles = new Styles(base);
+            writeHeader();
+        }
+
+        private void writeHeader() {
             Row rowSums = sheet.createRow(0);
             Row rowHuman = sheet.createRow(1);
             Row rowTech = sheet.createRow(2);
             rowHuman.setHeightInPoints(96f);
 
-            int lastDataRow = debts.isEmpty() ? 3 : 2 + debts.size();
+            int lastRow = SpreadsheetVersion.EXCEL2007.getMaxRows();
 
             for (int i = 0; i < columns.size(); i++) {
                 ColumnDef col = columns.get(i);
@@ -123,7 +220,7 @@ public final class SudzRsltExcelExporter {
                 if (col.kind == ColKind.SUM) {
                     Cell sumCell = rowSums.createCell(i);
                     String letter = CellReference.convertNumToColString(i);
-                    sumCell.setCellFormula("SUBTOTAL(9," + letter + "4:" + letter + (lastDataRow + 1) + ")");
+                    sumCell.setCellFormula("SUBTOTAL(9," + letter + "4:" + letter + lastRow + ")");
                     sumCell.setCellStyle(col.band == StyleBand.OVERD
                             ? styles.sumOverd()
                             : (col.tech != null && col.tech.endsWith("_погашено")
@@ -134,12 +231,32 @@ public final class SudzRsltExcelExporter {
                     empty.setCellStyle(styles.sumEmpty());
                 }
             }
+        }
 
-            for (int r = 0; r < debts.size(); r++) {
-                Row row = sheet.createRow(3 + r);
-                writeDebtRow(row, debts.get(r), slices, columns, styles, fillNew);
-            }
+        /**
+         * Дописывает строку долга.
+         *
+         * @param debt долг со срезами
+         */
+        public void append(SudzRsltDebt debt) {
+            Row row = sheet.createRow(3 + written++);
+            writeDebtRow(row, debt, slices, columns, styles, fillNew);
+        }
+
+        /**
+         * @return число записанных долгов
+         */
+        public int written() {
+            return written;
+        }
 
+        /**
+         * Завершает лист (фильтр, закрепление, ширины) и пишет книгу в поток (поток не закрывается).
+         *
+         * @param out поток назначения
+         * @throws IOException ошибка записи книги
+         */
+        public void finish(OutputStream out) throws IOException {
             if (!columns.isEmpty()) {
                 int filterFrom = columns.size() > 1 ? 1 : 0;
                 sheet.setAutoFilter(new CellRangeAddress(1, 1, filterFrom, columns.size() - 1));
@@ -149,7 +266,15 @@ public final class SudzRsltExcelExporter {
             applyColumnWidths(sheet, columns);
 
             workbook.write(out);
-            return out.toByteArray();
+        }
+
+        /**
+         * Удаляет временные файлы SXSSF.
+         */
+        @Override
+        public void close() throws IOException {
+            workbook.dispose();
+            workbook.close();
         }
     }
 
@@ -6,7 +6,11 @@ import com.femsq.database.service.RaAService;
 import com.femsq.database.service.RaDirService;
 import com.femsq.database.service.RaExecutionService;
 import com.femsq.database.service.RaFService;
+import com.femsq.web.audit.log.AuditLogStore;
 import com.femsq.web.audit.runtime.AuditExecutionRegistry;
+import com.femsq.web.audit.runtime.AuditLogBufferProperties;
+import com.femsq.web.audit.runtime.AuditParallelFilesProperties;
+import com.femsq.web.audit.runtime.AuditProgressHub;
 import com.femsq.web.audit.staging.AuditStagingProperties;
 import com.femsq.web.audit.staging.StagingLogLevel;
 import java.nio.file.Files;
@@ -17,10 +21,15 @@ import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import org.springframework.scheduling.annotation.Async;
@@ -48,6 +57,10 @@ public class AuditExecutionServiceImpl implements AuditExecutionService {
     private final List<AuditFileProcessor> fileProcessors;
     private final AuditExecutionRegistry auditExecutionRegistry;
     private final AuditStagingProperties auditStagingProperties;
+    private final AuditLogStore auditLogStore;
+    private final AuditParallelFilesProperties parallelFilesProperties;
+    private final AuditProgressHub auditProgressHub;
+    private final AuditLogBufferProperties logBufferProperties;
 
     public AuditExecutionServiceImpl(RaAService raAService,
                                      RaDirService raDirService,
@@ -55,7 +68,11 @@ public class AuditExecutionServiceImpl implements AuditExecutionService {
                                      RaFService raFService,
                                      List<AuditFileProcessor> fileProcessors,
                                      AuditExecutionRegistry auditExecutionRegistry,
-                                     AuditStagingProperties auditStagingProperties) {
+                                     AuditStagingProperties auditStagingProperties,
+                                     AuditLogStore auditLogStore,
+                                     AuditParallelFilesProperties parallelFilesProperties,
+                                     AuditProgressHub auditProgressHub,
+                                     AuditLogBufferProperties logBufferProperties) {
         this.raAService = raAService;
         this.raDirService = raDirService;
         this.raExecutionService = raExecutionService;
@@ -63,15 +80,20 @@ public class AuditExecutionServiceImpl implements AuditExecutionService {
         this.fileProcessors = fileProcessors;
         this.auditExecutionRegistry = auditExecutionRegistry;
         this.auditStagingProperties = Objects.requireNonNull(auditStagingProperties, "auditStagingProperties");
+        this.auditLogStore = Objects.requireNonNull(auditLogStore, "auditLogStore");
+        this.parallelFilesProperties = Objects.requireNonNull(parallelFilesProperties, "parallelFilesProperties");
+        this.auditProgressHub = Objects.requireNonNull(auditProgressHub, "auditProgressHub");
+        this.logBufferProperties = Objects.requireNonNull(logBufferProperties, "logBufferProperties");
     }
 
     @Async
     @Override
     public void executeAudit(long auditId) {
-        // Шаг 1: загрузка ревизии (вне основного try — при сбое ревизия уже RUNNING в реестре)
+        // Шаг 1: загрузка ревизии (вне основного try — при сбое ревизия уже RUNNING в реестре);
+        // прежний adt_results не нужен — лог запуска пишется заново
         final RaA audit;
         try {
-            audit = raAService.getById(auditId)
+            audit = raAService.getSummaryById(auditId)
                     .orElseThrow(() -> new IllegalArgumentException("Ревизия с id=" + auditId + " не найдена"));
         } catch (Throwable ex) {
             auditExecutionRegistry.markFailed(auditId, throwableMessage(ex));
@@ -84,8 +106,10 @@ public class AuditExecutionServiceImpl implements AuditExecutionService {
         // Шаг 2–4: контекст, файлы, финал (все ошибки и Error → markFailed, иначе RUNNING «зависает»)
         AuditExecutionContext errContext = null;
         String auditSpanId = null;
+        AuditProgressHub.Channel progressChannel = auditProgressHub.attach(auditId);
         try {
-            final AuditExecutionContext context = new AuditExecutionContext(auditId);
+            final AuditExecutionContext context = new AuditExecutionContext(
+                    auditId, logBufferProperties.getMemoryWindow(), logSpillDirectory());
             errContext = context;
             raExecutionService.getLatestByAuditId((int) auditId)
                     .ifPresent(exec -> context.setExecutionKey(exec.execKey() != null ? exec.execKey().longValue() : null));
@@ -119,7 +143,11 @@ public class AuditExecutionServiceImpl implements AuditExecutionService {
                     context.getLogPersistStats(),
                     () -> saveProgress(audit, context, false)
             );
-            context.setOnEntryAppended(ctx -> progressFlusher.tryFlush());
+            // Live-канал получает каждую новую запись сразу, flush в БД — с троттлингом
+            context.setOnEntryAppended(ctx -> {
+                progressChannel.sync(ctx.getEntries());
+                progressFlusher.tryFlush();
+            });
 
             String resolvedDir = context.getDirectoryPath() == null || context.getDirectoryPath().isBlank()
                     ? "(не задана)"
@@ -167,7 +195,7 @@ public class AuditExecutionServiceImpl implements AuditExecutionService {
                         "<P>Директория ревизии не задана — обработка файлов пропущена</P>",
                         withPresentationMeta(Map.of("auditId", String.valueOf(auditId)), "WARNING", "RED", "NORMAL"));
                 appendAuditEnd(context, auditSpanId, "COMPLETED");
-                saveProgress(audit, context, true);
+                compactLog(audit, context);
                 auditExecutionRegistry.markCompleted(auditId);
                 return;
             }
@@ -187,178 +215,24 @@ public class AuditExecutionServiceImpl implements AuditExecutionService {
             boolean dirMissing = verifyDirectoryExistsInFileSystem(context);
             if (dirMissing) {
                 appendAuditEnd(context, auditSpanId, "COMPLETED");
-                saveProgress(audit, context, true);
+                compactLog(audit, context);
                 auditExecutionRegistry.markCompleted(auditId);
                 return;
             }
 
-            boolean anyFileProcessingError = false;
-
-            for (RaF raF : files) {
-                // Учитываем только файлы, помеченные к выполнению
-                if (!Boolean.TRUE.equals(raF.afExecute())) {
-                    Instant skippedStartedAt = Instant.now();
-                    String skippedFileSpan = context.beginSpan(
-                            AuditLogLevel.INFO,
-                            AuditLogScope.FILE,
-                            "FILE_START",
-                            "<P>Файл: " + escape(raF.afName()) + " — начало обработки</P>",
-                            withPresentationMeta(Map.of(
-                                    "auditId", String.valueOf(auditId),
-                                    "filePath", String.valueOf(raF.afName()),
-                                    "fileType", String.valueOf(raF.afType())
-                            ), "START", "GREEN", "BOLD")
-                    );
-                    context.append(AuditLogLevel.INFO, AuditLogScope.FILE, "FILE_SKIPPED_BY_USER",
-                            "<P>Файл пропущен (по настройке): " + escape(raF.afName()) + "</P>",
-                            withPresentationMeta(Map.of(
-                                    "auditId", String.valueOf(auditId),
-                                    "filePath", String.valueOf(raF.afName())
-                            ), "INFO", "GREEN", "NORMAL"));
-                    context.endSpan(
-                            skippedFileSpan,
-                            AuditLogLevel.INFO,
-                            AuditLogScope.FILE,
-                            "FILE_END",
-                            "<P>Файл: " + escape(raF.afName()) + " — завершено (пропущен), duration="
-                                    + formatDuration(skippedStartedAt, Instant.now()) + "</P>",
-                            withPresentationMeta(Map.of(
-                                    "auditId", String.valueOf(auditId),
-                                    "filePath", String.valueOf(raF.afName()),
-                                    "durationHuman", formatDuration(skippedStartedAt, Instant.now())
-                            ), "END", "GREEN", "NORMAL")
-                    );
-                    continue;
-                }
-
-                Integer fileType = raF.afType();
-                if (Objects.equals(fileType, 1) || Objects.equals(fileType, 4)) {
-                    String message = "<P>af_type=" + fileType
-                            + " устарел — файл " + escape(raF.afName()) + " пропущен</P>";
-                    log.warning("[AuditExecution] Skipped obsolete file type af_type=" + fileType + ", file=" + raF.afName());
-                    context.append(AuditLogLevel.WARNING, AuditLogScope.FILE, "FILE_TYPE_OBSOLETE_SKIPPED", message, null);
-                    continue;
-                }
-
-                String resolvedPath = resolveFilePath(context, raF);
-                if (resolvedPath == null || resolvedPath.isBlank()) {
-                    String message = "<P>Путь к файлу не определён — файл пропущен: "
-                            + escape(raF.afName()) + "</P>";
-                    log.warning("[AuditExecution] File path is empty, skipping file=" + raF.afName());
-                    context.append(AuditLogLevel.WARNING, AuditLogScope.FILE, "FILE_PATH_EMPTY", message, null);
-                    continue;
-                }
-
-                Instant fileStartedAt = Instant.now();
-                String fileSpanId = context.beginSpan(
-                        AuditLogLevel.INFO,
-                        AuditLogScope.FILE,
-                        "FILE_START",
-                        "<P>Файл: " + escape(raF.afName()) + " (type=" + fileType + ") — начало обработки</P>",
-                        withPresentationMeta(Map.of(
-                                "auditId", String.valueOf(auditId),
-                                "filePath", resolvedPath,
-                                "fileType", String.valueOf(fileType)
-                        ), "START", "GREEN", "BOLD")
-                );
-
-                Path filePath = Path.of(resolvedPath);
-                if (!Files.exists(filePath)) {
-                    context.append(AuditLogLevel.WARNING, AuditLogScope.FILE, "FILE_FS_MISSING",
-                            "<P>" + formatInstantHuman(Instant.now()) + " - Файл с именем <b><font color=\"red\">"
-                                    + escape(resolvedPath) + "</font></b> в файловой системе не обнаружен</P>",
-                            withPresentationMeta(Map.of("auditId", String.valueOf(auditId), "filePath", resolvedPath),
-                                    "ERROR", "RED", "BOLD"));
-                    context.endSpan(fileSpanId, AuditLogLevel.INFO, AuditLogScope.FILE, "FILE_END",
-                            "<P>Файл: " + escape(raF.afName()) + " — завершено (не найден), duration="
-                                    + formatDuration(fileStartedAt, Instant.now()) + "</P>",
-                            withPresentationMeta(Map.of(
-                                    "auditId", String.valueOf(auditId),
-                                    "filePath", resolvedPath,
-                                    "durationHuman", formatDuration(fileStartedAt, Instant.now())
-                            ), "END", "GREEN", "NORMAL"));
-                    saveProgress(audit, context, true);
-                    continue;
-                } else {
-                    context.append(AuditLogLevel.INFO, AuditLogScope.FILE, "FILE_FS_FOUND",
-                            "<P>" + formatInstantHuman(Instant.now()) + " - Файл с именем <b>"
-                                    + escape(resolvedPath) + "</b> в файловой системе обнаружен</P>",
-                            withPresentationMeta(Map.of("auditId", String.valueOf(auditId), "filePath", resolvedPath),
-                                    "INFO", "GREEN", "NORMAL"));
-                }
-
-                AuditFile auditFile = new AuditFile(
-                        raF.afKey() != null ? raF.afKey() : -1L,
-                        resolvedPath,
-                        fileType,
-                        raF.afSource() != null && raF.afSource() ? 1 : 0
-                );
-
-                AuditFileProcessor processor = fileProcessors.stream()
-                        .filter(p -> p.supports(raF.afType()))
-                        .findFirst()
-                        .orElse(null);
-
-                if (processor == null) {
-                    context.append(
-                            AuditLogLevel.WARNING,
-                            AuditLogScope.FILE,
-                            "FILE_PROCESSOR_NOT_FOUND",
-                            "<P>Нет обработчика для файла типа " + raF.afType() + ": " + raF.afName() + "</P>",
-                            withPresentationMeta(Map.of(
-                                    "auditId", String.valueOf(auditId),
-                                    "filePath", resolvedPath,
-                                    "fileType", String.valueOf(raF.afType())
-                            ), "WARNING", "RED", "NORMAL")
-                    );
-                    context.endSpan(fileSpanId, AuditLogLevel.INFO, AuditLogScope.FILE, "FILE_END",
-                            "<P>Файл: " + escape(raF.afName()) + " — завершено (нет обработчика), duration="
-                                    + formatDuration(fileStartedAt, Instant.now()) + "</P>",
-                            withPresentationMeta(Map.of(
-                                    "auditId", String.valueOf(auditId),
-                                    "filePath", resolvedPath,
-                                    "durationHuman", formatDuration(fileStartedAt, Instant.now())
-                            ), "END", "GREEN", "NORMAL"));
-                    continue;
-                }
-
-                try {
-                    context.inSpan(fileSpanId, () -> processor.process(context, auditFile));
-                } catch (Exception ex) {
-                    anyFileProcessingError = true;
-                    log.log(Level.SEVERE,
-                            "[AuditExecution] Error processing file auditId=" + auditId + " file=" + raF.afName(),
-                            ex);
-                    context.append(
-                            AuditLogLevel.ERROR,
-                            AuditLogScope.FILE,
-                            "FILE_PROCESSING_ERROR",
-                            "<P><b>Ошибка обработки файла</b> " + escape(raF.afName()) + ": "
-                                    + escape(throwableMessage(ex)) + "</P>",
-                            withPresentationMeta(
-                                    Map.of(
-                                            "auditId", String.valueOf(auditId),
-                                            "filePath", resolvedPath,
-                                            "fileType", String.valueOf(raF.afType())
-                                    ),
-                                    "ERROR",
-                                    "RED",
-                                    "BOLD"
-                            )
-                    );
+            boolean anyFileProcessingError;
+            if (parallelFilesProperties.isEnabled() && files.size() > 1) {
+                anyFileProcessingError = processFilesInParallel(audit, context, files);
+            } else {
+                anyFileProcessingError = false;
+                for (RaF raF : files) {
+                    FileOutcome outcome = processFile(context, auditId, raF);
+                    anyFileProcessingError |= outcome.processingError;
+                    if (outcome.persistProgress) {
+                        // Инкрементальное обновление лога и временной метки после каждого файла
+                        saveProgress(audit, context, true);
+                    }
                 }
-
-                // Завершение обработки файла
-                context.endSpan(fileSpanId, AuditLogLevel.INFO, AuditLogScope.FILE, "FILE_END",
-                        "<P>Файл: " + escape(raF.afName()) + " — завершено за " + formatDuration(fileStartedAt, Instant.now()) + "</P>",
-                        withPresentationMeta(Map.of(
-                                "auditId", String.valueOf(auditId),
-                                "filePath", resolvedPath,
-                                "durationHuman", formatDuration(fileStartedAt, Instant.now())
-                        ), "END", "GREEN", "NORMAL"));
-
-                // Инкрементальное обновление лога и временной метки после каждого файла
-                saveProgress(audit, context, true);
             }
 
             // Шаг 4: финальное сохранение обновлённого adt_results (контрольная фиксация)
@@ -374,7 +248,7 @@ public class AuditExecutionServiceImpl implements AuditExecutionService {
             }
             appendAuditEnd(context, auditSpanId, "COMPLETED");
             appendLogPersistStats(context);
-            saveProgress(audit, context, true);
+            compactLog(audit, context);
 
             auditExecutionRegistry.markCompleted(auditId);
             log.info(() -> "[AuditExecution] Audit execution log saved for auditId=" + auditId);
@@ -393,13 +267,293 @@ public class AuditExecutionServiceImpl implements AuditExecutionService {
                     if (auditSpanId != null) {
                         appendAuditEnd(errContext, auditSpanId, "FAILED");
                     }
-                    saveProgress(audit, errContext, true);
+                    compactLog(audit, errContext);
                 } catch (Exception persistEx) {
                     log.log(Level.WARNING,
                             "[AuditExecution] Failed to persist audit error log for auditId=" + auditId,
                             persistEx);
                 }
             }
+        } finally {
+            if (errContext != null) {
+                progressChannel.sync(errContext.getEntries());
+                int spilled = errContext.getSpilledEntryCount();
+                if (spilled > 0) {
+                    log.info(() -> "[AuditExecution] log entries spilled to disk: " + spilled + " auditId=" + auditId);
+                }
+                // Канал читает записи из контекста: до закрытия оставляем ему только хвост, бывший в памяти
+                progressChannel.detach(errContext.getEntries().size() - spilled);
+                errContext.close();
+            }
+            progressChannel.close();
+        }
+    }
+
+    private Path logSpillDirectory() {
+        String configured = logBufferProperties.getSpillDirectory();
+        return configured == null || configured.isBlank()
+                ? Path.of(System.getProperty("java.io.tmpdir"))
+                : Path.of(configured.trim());
+    }
+
+    /**
+     * Параллельная обработка файлов на виртуальных потоках (не более {@code maxConcurrent} одновременно).
+     *
+     * <p>Каждый файл пишет в свой {@link AuditExecutionContext#fork(String)}; файл ждёт завершения
+     * всех предыдущих файлов, с которыми он должен быть упорядочен
+     * ({@link AuditParallelFilesProperties#mustSerialize(Integer, Integer)}). Логи сливаются в родительский
+     * контекст строго в порядке списка файлов, поэтому журнал не зависит от порядка завершения.
+     * Fork не наследует {@code onEntryAppended}: live-канал и throttled flush получают записи файла при
+     * слиянии, после чего лог обработанного файла принудительно дописывается в БД.</p>
+     *
+     * @return {@code true}, если хотя бы один обработчик завершился ошибкой
+     */
+    private boolean processFilesInParallel(RaA audit, AuditExecutionContext context, List<RaF> files) {
+        long auditId = context.getAuditId();
+        int maxConcurrent = parallelFilesProperties.getMaxConcurrent();
+        context.append(AuditLogLevel.INFO, AuditLogScope.AUDIT, "AUDIT_PARALLEL_FILES",
+                "<P>Параллельная обработка файлов: одновременно не более " + maxConcurrent + "</P>",
+                withPresentationMeta(Map.of(
+                        "auditId", String.valueOf(auditId),
+                        "maxConcurrent", String.valueOf(maxConcurrent),
+                        "files", String.valueOf(files.size())
+                ), "INFO", "BLUE", "NORMAL"));
+        ExecutorService executor = Executors.newFixedThreadPool(
+                maxConcurrent, Thread.ofVirtual().name("audit-" + auditId + "-file-", 1).factory());
+        try {
+            List<CompletableFuture<ForkedFile>> futures = new ArrayList<>(files.size());
+            for (int i = 0; i < files.size(); i++) {
+                RaF raF = files.get(i);
+                AuditExecutionContext fork = context.fork("f" + (i + 1));
+                List<CompletableFuture<ForkedFile>> predecessors = new ArrayList<>();
+                for (int j = 0; j < i; j++) {
+                    if (parallelFilesProperties.mustSerialize(files.get(j).afType(), raF.afType())) {
+                        predecessors.add(futures.get(j));
+                    }
+                }
+                CompletableFuture<ForkedFile> future = CompletableFuture
+                        .allOf(predecessors.toArray(CompletableFuture[]::new))
+                        .handle((ignored, predecessorFailure) -> null)
+                        .thenApplyAsync(ignored -> new ForkedFile(fork, processFile(fork, auditId, raF)), executor);
+                futures.add(future);
+            }
+            boolean anyFileProcessingError = false;
+            for (CompletableFuture<ForkedFile> future : futures) {
+                ForkedFile done;
+                try {
+                    done = future.join();
+                } catch (CompletionException exception) {
+                    Throwable cause = exception.getCause();
+                    if (cause instanceof RuntimeException runtimeException) {
+                        throw runtimeException;
+                    }
+                    if (cause instanceof Error error) {
+                        throw error;
+                    }
+                    throw exception;
+                }
+                context.mergeFork(done.context());
+                anyFileProcessingError |= done.outcome().processingError;
+                if (done.outcome().persistProgress) {
+                    saveProgress(audit, context, true);
+                }
+            }
+            return anyFileProcessingError;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private record ForkedFile(AuditExecutionContext context, FileOutcome outcome) {
+    }
+
+    /**
+     * Обрабатывает один файл ревизии: проверки, span {@code FILE_START}/{@code FILE_END} и вызов обработчика.
+     * Сохранение прогресса выполняет вызывающий (после слияния лога при параллельном режиме).
+     */
+    private FileOutcome processFile(AuditExecutionContext context, long auditId, RaF raF) {
+        // Учитываем только файлы, помеченные к выполнению
+        if (!Boolean.TRUE.equals(raF.afExecute())) {
+            Instant skippedStartedAt = Instant.now();
+            String skippedFileSpan = context.beginSpan(
+                    AuditLogLevel.INFO,
+                    AuditLogScope.FILE,
+                    "FILE_START",
+                    "<P>Файл: " + escape(raF.afName()) + " — начало обработки</P>",
+                    withPresentationMeta(Map.of(
+                            "auditId", String.valueOf(auditId),
+                            "filePath", String.valueOf(raF.afName()),
+                            "fileType", String.valueOf(raF.afType())
+                    ), "START", "GREEN", "BOLD")
+            );
+            context.append(AuditLogLevel.INFO, AuditLogScope.FILE, "FILE_SKIPPED_BY_USER",
+                    "<P>Файл пропущен (по настройке): " + escape(raF.afName()) + "</P>",
+                    withPresentationMeta(Map.of(
+                            "auditId", String.valueOf(auditId),
+                            "filePath", String.valueOf(raF.afName())
+                    ), "INFO", "GREEN", "NORMAL"));
+            context.endSpan(
+                    skippedFileSpan,
+                    AuditLogLevel.INFO,
+                    AuditLogScope.FILE,
+                    "FILE_END",
+                    "<P>Файл: " + escape(raF.afName()) + " — завершено (пропущен), duration="
+                            + formatDuration(skippedStartedAt, Instant.now()) + "</P>",
+                    withPresentationMeta(Map.of(
+                            "auditId", String.valueOf(auditId),
+                            "filePath", String.valueOf(raF.afName()),
+                            "durationHuman", formatDuration(skippedStartedAt, Instant.now())
+                    ), "END", "GREEN", "NORMAL")
+            );
+            return FileOutcome.NONE;
+        }
+
+        Integer fileType = raF.afType();
+        if (Objects.equals(fileType, 1) || Objects.equals(fileType, 4)) {
+            String message = "<P>af_type=" + fileType
+                    + " устарел — файл " + escape(raF.afName()) + " пропущен</P>";
+            log.warning("[AuditExecution] Skipped obsolete file type af_type=" + fileType + ", file=" + raF.afName());
+            context.append(AuditLogLevel.WARNING, AuditLogScope.FILE, "FILE_TYPE_OBSOLETE_SKIPPED", message, null);
+            return FileOutcome.NONE;
+        }
+
+        String resolvedPath = resolveFilePath(context, raF);
+        if (resolvedPath == null || resolvedPath.isBlank()) {
+            String message = "<P>Путь к файлу не определён — файл пропущен: "
+                    + escape(raF.afName()) + "</P>";
+            log.warning("[AuditExecution] File path is empty, skipping file=" + raF.afName());
+            context.append(AuditLogLevel.WARNING, AuditLogScope.FILE, "FILE_PATH_EMPTY", message, null);
+            return FileOutcome.NONE;
+        }
+
+        Instant fileStartedAt = Instant.now();
+        String fileSpanId = context.beginSpan(
+                AuditLogLevel.INFO,
+                AuditLogScope.FILE,
+                "FILE_START",
+                "<P>Файл: " + escape(raF.afName()) + " (type=" + fileType + ") — начало обработки</P>",
+                withPresentationMeta(Map.of(
+                        "auditId", String.valueOf(auditId),
+                        "filePath", resolvedPath,
+                        "fileType", String.valueOf(fileType)
+                ), "START", "GREEN", "BOLD")
+        );
+
+        Path filePath = Path.of(resolvedPath);
+        if (!Files.exists(filePath)) {
+            context.append(AuditLogLevel.WARNING, AuditLogScope.FILE, "FILE_FS_MISSING",
+                    "<P>" + formatInstantHuman(Instant.now()) + " - Файл с именем <b><font color=\"red\">"
+                            + escape(resolvedPath) + "</font></b> в файловой системе не обнаружен</P>",
+                    withPresentationMeta(Map.of("auditId", String.valueOf(auditId), "filePath", resolvedPath),
+                            "ERROR", "RED", "BOLD"));
+            context.endSpan(fileSpanId, AuditLogLevel.INFO, AuditLogScope.FILE, "FILE_END",
+                    "<P>Файл: " + escape(raF.afName()) + " — завершено (не найден), duration="
+                            + formatDuration(fileStartedAt, Instant.now()) + "</P>",
+                    withPresentationMeta(Map.of(
+                            "auditId", String.valueOf(auditId),
+                            "filePath", resolvedPath,
+                            "durationHuman", formatDuration(fileStartedAt, Instant.now())
+                    ), "END", "GREEN", "NORMAL"));
+            return FileOutcome.PERSIST;
+        } else {
+            context.append(AuditLogLevel.INFO, AuditLogScope.FILE, "FILE_FS_FOUND",
+                    "<P>" + formatInstantHuman(Instant.now()) + " - Файл с именем <b>"
+                            + escape(resolvedPath) + "</b> в файловой системе обнаружен</P>",
+                    withPresentationMeta(Map.of("auditId", String.valueOf(auditId), "filePath", resolvedPath),
+                            "INFO", "GREEN", "NORMAL"));
+        }
+
+        AuditFile auditFile = new AuditFile(
+                raF.afKey() != null ? raF.afKey() : -1L,
+                resolvedPath,
+                fileType,
+                raF.afSource() != null && raF.afSource() ? 1 : 0
+        );
+
+        AuditFileProcessor processor = fileProcessors.stream()
+                .filter(p -> p.supports(raF.afType()))
+                .findFirst()
+                .orElse(null);
+
+        if (processor == null) {
+            context.append(
+                    AuditLogLevel.WARNING,
+                    AuditLogScope.FILE,
+                    "FILE_PROCESSOR_NOT_FOUND",
+                    "<P>Нет обработчика для файла типа " + raF.afType() + ": " + raF.afName() + "</P>",
+                    withPresentationMeta(Map.of(
+                            "auditId", String.valueOf(auditId),
+                            "filePath", resolvedPath,
+                            "fileType", String.valueOf(raF.afType())
+                    ), "WARNING", "RED", "NORMAL")
+            );
+            context.endSpan(fileSpanId, AuditLogLevel.INFO, AuditLogScope.FILE, "FILE_END",
+                    "<P>Файл: " + escape(raF.afName()) + " — завершено (нет обработчика), duration="
+                            + formatDuration(fileStartedAt, Instant.now()) + "</P>",
+                    withPresentationMeta(Map.of(
+                            "auditId", String.valueOf(auditId),
+                            "filePath", resolvedPath,
+                            "durationHuman", formatDuration(fileStartedAt, Instant.now())
+                    ), "END", "GREEN", "NORMAL"));
+            return FileOutcome.NONE;
+        }
+
+        boolean processingError = false;
+        try {
+            context.inSpan(fileSpanId, () -> processor.process(context, auditFile));
+        } catch (Exception ex) {
+            processingError = true;
+            log.log(Level.SEVERE,
+                    "[AuditExecution] Error processing file auditId=" + auditId + " file=" + raF.afName(),
+                    ex);
+            context.append(
+                    AuditLogLevel.ERROR,
+                    AuditLogScope.FILE,
+                    "FILE_PROCESSING_ERROR",
+                    "<P><b>Ошибка обработки файла</b> " + escape(raF.afName()) + ": "
+                            + escape(throwableMessage(ex)) + "</P>",
+                    withPresentationMeta(
+                            Map.of(
+                                    "auditId", String.valueOf(auditId),
+                                    "filePath", resolvedPath,
+                                    "fileType", String.valueOf(raF.afType())
+                            ),
+                            "ERROR",
+                            "RED",
+                            "BOLD"
+                    )
+            );
+        }
+
+        // Завершение обработки файла
+        context.endSpan(fileSpanId, AuditLogLevel.INFO, AuditLogScope.FILE, "FILE_END",
+                "<P>Файл: " + escape(raF.afName()) + " — завершено за " + formatDuration(fileStartedAt, Instant.now()) + "</P>",
+                withPresentationMeta(Map.of(
+                        "auditId", String.valueOf(auditId),
+                        "filePath", resolvedPath,
+                        "durationHuman", formatDuration(fileStartedAt, Instant.now())
+                ), "END", "GREEN", "NORMAL"));
+
+        return processingError ? FileOutcome.PERSIST_WITH_ERROR : FileOutcome.PERSIST;
+    }
+
+    /**
+     * Итог обработки файла для оркестратора.
+     */
+    private enum FileOutcome {
+        /** Файл пропущен без записи прогресса. */
+        NONE(false, false),
+        /** Прогресс сохраняется после файла. */
+        PERSIST(true, false),
+        /** Обработчик завершился ошибкой ({@code FILE_PROCESSING_ERROR}). */
+        PERSIST_WITH_ERROR(true, true);
+
+        private final boolean persistProgress;
+        private final boolean processingError;
+
+        FileOutcome(boolean persistProgress, boolean processingError) {
+            this.persistProgress = persistProgress;
+            this.processingError = processingError;
         }
     }
 
@@ -438,36 +592,44 @@ public class AuditExecutionServiceImpl implements AuditExecutionService {
     private void appendLogPersistStats(AuditExecutionContext context) {
         AuditLogPersistStats stats = context.getLogPersistStats();
         String summary = "записей в БД = " + stats.getFlushCount()
+                + ", полных перезаписей HTML = " + stats.getFullRewriteCount()
+                + ", дописано событий = " + stats.getAppendedEntries()
                 + ", пропущено без изменений = " + stats.getSkippedUnchanged()
                 + ", пропущено по интервалу = " + stats.getSkippedThrottled()
                 + ", сборка HTML = " + stats.getBuildHtmlTotalMs() + " мс"
                 + ", запись в БД = " + stats.getDbUpdateTotalMs() + " мс"
-                + ", размер HTML = " + stats.getLastHtmlChars() + " символов";
+                + ", записано байт = " + stats.getBytesWrittenTotal()
+                + ", последний flush = " + stats.getLastFlushBytes() + " байт"
+                + ", максимальный flush = " + stats.getMaxFlushBytes() + " байт";
         log.info(() -> "[AuditProgress] auditId=" + context.getAuditId()
                 + " flushes=" + stats.getFlushCount()
+                + " fullRewrites=" + stats.getFullRewriteCount()
+                + " appendedEntries=" + stats.getAppendedEntries()
                 + " skippedUnchanged=" + stats.getSkippedUnchanged()
                 + " skippedThrottled=" + stats.getSkippedThrottled()
                 + " buildHtmlMs=" + stats.getBuildHtmlTotalMs()
                 + " dbUpdateMs=" + stats.getDbUpdateTotalMs()
-                + " lastHtmlChars=" + stats.getLastHtmlChars());
+                + " bytesWritten=" + stats.getBytesWrittenTotal()
+                + " lastFlushBytes=" + stats.getLastFlushBytes()
+                + " maxFlushBytes=" + stats.getMaxFlushBytes());
+        Map<String, String> meta = new HashMap<>();
+        meta.put("flushCount", String.valueOf(stats.getFlushCount()));
+        meta.put("fullRewriteCount", String.valueOf(stats.getFullRewriteCount()));
+        meta.put("appendedEntries", String.valueOf(stats.getAppendedEntries()));
+        meta.put("skippedUnchanged", String.valueOf(stats.getSkippedUnchanged()));
+        meta.put("skippedThrottled", String.valueOf(stats.getSkippedThrottled()));
+        meta.put("buildHtmlTotalMs", String.valueOf(stats.getBuildHtmlTotalMs()));
+        meta.put("dbUpdateTotalMs", String.valueOf(stats.getDbUpdateTotalMs()));
+        meta.put("bytesWrittenTotal", String.valueOf(stats.getBytesWrittenTotal()));
+        meta.put("lastFlushBytes", String.valueOf(stats.getLastFlushBytes()));
+        meta.put("maxFlushBytes", String.valueOf(stats.getMaxFlushBytes()));
+        meta.put("lastHtmlChars", String.valueOf(stats.getLastHtmlChars()));
         context.append(
                 AuditLogLevel.INFO,
                 AuditLogScope.AUDIT,
                 "AUDIT_LOG_PERSIST_STATS",
                 "<P><b>Статистика сохранения лога:</b> " + escape(summary) + "</P>",
-                withPresentationMeta(
-                        Map.of(
-                                "flushCount", String.valueOf(stats.getFlushCount()),
-                                "skippedUnchanged", String.valueOf(stats.getSkippedUnchanged()),
-                                "skippedThrottled", String.valueOf(stats.getSkippedThrottled()),
-                                "buildHtmlTotalMs", String.valueOf(stats.getBuildHtmlTotalMs()),
-                                "dbUpdateTotalMs", String.valueOf(stats.getDbUpdateTotalMs()),
-                                "lastHtmlChars", String.valueOf(stats.getLastHtmlChars())
-                        ),
-                        "INFO",
-                        "BLUE",
-                        "NORMAL"
-                )
+                withPresentationMeta(meta, "INFO", "BLUE", "NORMAL")
         );
     }
 
@@ -574,17 +736,65 @@ public class AuditExecutionServiceImpl implements AuditExecutionService {
     }
 
     /**
-     * Сохраняет текущее состояние лога и временные метки в записи ревизии.
-     * Используется как для инкрементальных обновлений, так и для финального сохранения.
+     * Инкрементально сохраняет лог: дописывает в {@code ags.ra_a_log} только записи,
+     * появившиеся после {@link AuditExecutionContext#getLastPersistedEntryCount()}.
+     * HTML {@code adt_results} здесь не пересобирается — см. {@link #compactLog(RaA, AuditExecutionContext)}.
      *
-     * @param force при {@code true} — запись в БД даже если число событий не изменилось
+     * @param force при {@code true} — без учёта throttle (вызывается после каждого файла)
      */
     private void saveProgress(RaA audit, AuditExecutionContext context, boolean force) {
-        int entryCount = context.getEntries().size();
-        if (!force && entryCount == context.getLastPersistedEntryCount()) {
+        List<AuditLogEntry> entries = context.getEntries();
+        int entryCount = entries.size();
+        int persistedCount = context.getLastPersistedEntryCount();
+        if (entryCount == persistedCount) {
             context.getLogPersistStats().recordSkippedUnchanged();
             return;
         }
+        if (!context.isIncrementalLogPersistence()) {
+            writeHtmlLog(audit, context);
+            return;
+        }
+        List<AuditLogEntry> delta = List.copyOf(entries.subList(persistedCount, entryCount));
+        long updateStart = System.nanoTime();
+        try {
+            long bytes = auditLogStore.appendEntries(
+                    context.getAuditId(), context.getExecutionKey(), persistedCount, delta);
+            long updateMs = (System.nanoTime() - updateStart) / 1_000_000L;
+            context.setLastPersistedEntryCount(entryCount);
+            context.getLogPersistStats().recordAppend(delta.size(), updateMs, bytes);
+        } catch (RuntimeException ex) {
+            log.log(Level.WARNING, "[AuditProgress] append to ags.ra_a_log failed, fallback to adt_results rewrite. auditId="
+                    + context.getAuditId(), ex);
+            context.setIncrementalLogPersistence(false);
+            writeHtmlLog(audit, context);
+        }
+    }
+
+    /**
+     * Финальная компактизация: один раз собирает HTML, записывает его в {@code adt_results}
+     * и очищает инкрементальный журнал запуска в {@code ags.ra_a_log}.
+     */
+    private void compactLog(RaA audit, AuditExecutionContext context) {
+        boolean hadIncrementalEntries = context.isIncrementalLogPersistence()
+                && context.getLastPersistedEntryCount() > 0;
+        writeHtmlLog(audit, context);
+        if (!hadIncrementalEntries) {
+            return;
+        }
+        try {
+            int deleted = auditLogStore.deleteEntries(context.getAuditId(), context.getExecutionKey());
+            log.fine(() -> "[AuditProgress] compacted ags.ra_a_log auditId=" + context.getAuditId() + " rows=" + deleted);
+        } catch (RuntimeException ex) {
+            log.log(Level.WARNING, "[AuditProgress] failed to clear ags.ra_a_log after compaction. auditId="
+                    + context.getAuditId(), ex);
+        }
+    }
+
+    /**
+     * Полная запись HTML-лога и временных меток в запись ревизии.
+     */
+    private void writeHtmlLog(RaA audit, AuditExecutionContext context) {
+        int entryCount = context.getEntries().size();
         long buildStart = System.nanoTime();
         String newResults = context.buildHtmlLog();
         long buildMs = (System.nanoTime() - buildStart) / 1_000_000L;
@@ -0,0 +1,95 @@
+package com.femsq.web.audit;
+
+import java.nio.file.Path;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+/**
+ * Записи лога запуска с ограниченным окном в памяти.
+ *
+ * <p>Список только растёт. Пока записей не больше {@code memoryWindow}, все они в памяти; при
+ * переполнении старшая половина окна выгружается в {@link AuditLogSpillFile} (в памяти остаётся
+ * смещение на запись). Выгруженные записи читаются с диска по {@link #get(int)} — при полной сборке HTML,
+ * дозаписи в {@code ags.ra_a_log}, переносе fork-а и отдаче live-каналу. Записи уходят на диск
+ * в хронологическом порядке: HTML-рендерер не держит ссылок на записи, поэтому выгружать можно и записи ещё открытых span-ов.</p>
+ *
+ * <p>{@code memoryWindow <= 0} — все записи в памяти (как раньше). Пишет один поток; методы синхронизированы,
+ * потому что live-канал ({@link com.femsq.web.audit.runtime.AuditProgressHub}) читает записи по индексу
+ * со своего потока.</p>
+ */
+final class AuditLogBuffer extends AbstractList<AuditLogEntry> implements RandomAccess, AutoCloseable {
+
+    private final int memoryWindow;
+    private final AuditLogSpillFile spillFile;
+    private final List<AuditLogEntry> window = new ArrayList<>();
+    private long[] spilledOffsets = new long[0];
+    private int spilledCount;
+
+    AuditLogBuffer(int memoryWindow, Path spillDirectory) {
+        this.memoryWindow = Math.max(0, memoryWindow);
+        this.spillFile = this.memoryWindow > 0 ? new AuditLogSpillFile(Objects.requireNonNull(spillDirectory)) : null;
+    }
+
+    /**
+     * Буфер без выгрузки на диск.
+     */
+    static AuditLogBuffer inMemory() {
+        return new AuditLogBuffer(0, null);
+    }
+
+    @Override
+    public synchronized boolean add(AuditLogEntry entry) {
+        window.add(Objects.requireNonNull(entry, "entry"));
+        modCount++;
+        if (spillFile != null && window.size() > memoryWindow) {
+            spillOldest(window.size() - memoryWindow / 2);
+        }
+        return true;
+    }
+
+    @Override
+    public synchronized AuditLogEntry get(int index) {
+        Objects.checkIndex(index, size());
+        if (index < spilledCount) {
+            return spillFile.read(spilledOffsets[index]);
+        }
+        return window.get(index - spilledCount);
+    }
+
+    @Override
+    public synchronized int size() {
+        return spilledCount + window.size();
+    }
+
+    /**
+     * @return число записей, выгруженных на диск
+     */
+    synchronized int spilledCount() {
+        return spilledCount;
+    }
+
+    /**
+     * Освобождает файл выгрузки; выгруженные записи после этого недоступны.
+     */
+    @Override
+    public synchronized void close() {
+        if (spillFile != null) {
+            spillFile.close();
+        }
+    }
+
+    private void spillOldest(int count) {
+        List<AuditLogEntry> head = window.subList(0, count);
+        long[] offsets = spillFile.writeAll(head);
+        if (spilledOffsets.length < spilledCount + count) {
+            spilledOffsets = Arrays.copyOf(spilledOffsets, Math.max(spilledCount + count, spilledOffsets.length * 2));
+        }
+        System.arraycopy(offsets, 0, spilledOffsets, spilledCount, count);
+        spilledCount += count;
+        head.clear();
+    }
+}
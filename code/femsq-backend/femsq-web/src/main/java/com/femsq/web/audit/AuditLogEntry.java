@@ -54,7 +54,20 @@ public class AuditLogEntry {
         this.parentSpanId = parentSpanId;
         this.code = code;
         this.messageHtml = messageHtml == null ? "" : messageHtml;
-        this.meta = meta == null ? Collections.emptyMap() : Collections.unmodifiableMap(new HashMap<>(meta));
+        this.meta = meta == null || meta.isEmpty() ? Collections.emptyMap() : internKeys(meta);
+    }
+
+    /**
+     * Ключи meta повторяются в каждой записи ({@code rowIndex}, {@code execKey}, …): интернирование оставляет
+     * в памяти по одной строке на ключ, в том числе для записей, прочитанных из БД или с диска.
+     */
+    private static Map<String, String> internKeys(Map<String, String> meta) {
+        Map<String, String> copy = new HashMap<>(Math.max(4, meta.size() * 2));
+        for (Map.Entry<String, String> item : meta.entrySet()) {
+            String key = item.getKey();
+            copy.put(key != null ? key.intern() : null, item.getValue());
+        }
+        return Collections.unmodifiableMap(copy);
     }
 
     public Instant getTimestamp() {
@@ -0,0 +1,614 @@
+package com.femsq.web.audit;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Инкрементальная сборка HTML лога ревизии ({@code adt_results}) из записей {@link AuditLogEntry}.
+ *
+ * <p>Дерево span-ов ({@code <details>/<summary>}) не перестраивается на каждый вызов: новые записи
+ * подвешиваются к уже построенному дереву. Локализация подписей ({@link AuditLogLocalizer}) выполняется
+ * один раз на запись — при её подвешивании.</p>
+ *
+ * <p>С окном {@code memoryWindow > 0} в памяти остаётся не больше окна узлов: при переполнении старшие
+ * готовые узлы — записи и закрытые span-ы (получившие строку {@code *_END}/{@code *_CLOSE}) — рисуются
+ * и уходят в {@link AuditLogSpillFile} одним фрагментом на серию соседей. Открытые span-ы и их подписи
+ * остаются в памяти; от выгруженного span-а в памяти остаётся только его id (метка в индексе span-ов).
+ * Сборка читает файл фрагментов одним последовательным чтением, а не по фрагменту на узел.</p>
+ *
+ * <p>Закрытый span в памяти запоминает свой готовый HTML и не перерисовывается на следующих сборках,
+ * пока в его поддерево не подвешена новая запись.</p>
+ *
+ * <p>Если новая запись ссылается на span, который появился позже своих детей, повторяет уже
+ * известный span-id или попадает в выгруженный span, дерево перестраивается целиком по всем записям.</p>
+ *
+ * <p>Не потокобезопасен: принадлежит одному {@link AuditExecutionContext}.</p>
+ */
+final class AuditLogHtmlRenderer implements AutoCloseable {
+
+    /**
+     * Визуальный контракт отступов (px на уровень вложенности).
+     */
+    private static final int INDENT_STEP_PX = 16;
+    /**
+     * Минимальная разметка без цветов: палитры и плотность строк — во frontend ({@code audit-log.scss}).
+     */
+    private static final String STYLE_BLOCK = """
+            <style>
+              .femsq-auditlog details {
+                margin: 0;
+                border-left: 1px solid rgba(120, 139, 166, 0.35);
+                margin-left: 1px;
+              }
+              .femsq-auditlog summary { list-style: none; }
+              .femsq-auditlog summary::-webkit-details-marker { display: none; }
+              .femsq-auditlog summary::marker { content: ""; }
+              .femsq-auditlog .row { margin: 0; padding: 0 4px; line-height: 1.15; }
+              .femsq-auditlog .summary { padding: 0 4px; border-radius: 4px; cursor: pointer; user-select: none; line-height: 1.15; }
+              .femsq-auditlog p, .femsq-auditlog P { margin: 0; padding: 0; line-height: 1.15; }
+              .femsq-auditlog .badge { display: inline-block; font-size: 10px; line-height: 12px; padding: 0 4px; border-radius: 999px; margin-right: 4px; vertical-align: baseline; }
+              /* Toggle +/- для свёрнутых блоков (<details>): работает и для старых «+» в HTML */
+              .femsq-auditlog details > summary .badge-start {
+                font-size: 0;
+                min-width: 1.1em;
+                text-align: center;
+              }
+              .femsq-auditlog details > summary .badge-start::before {
+                content: "+";
+                font-size: 10px;
+                line-height: 12px;
+              }
+              .femsq-auditlog details[open] > summary .badge-start::before {
+                content: "\u2212";
+              }
+              .femsq-auditlog .phase-start { font-weight: 650; }
+              .femsq-auditlog .phase-end { font-weight: 650; opacity: 0.95; }
+            </style>
+            """;
+    private static final String PREFIX = "<div class=\"femsq-auditlog\">" + STYLE_BLOCK;
+    private static final String SUFFIX = "</div>";
+
+    /** Метка span-а, выгруженного на диск вместе с фрагментом. */
+    private static final SpanNode SPILLED = new SpanNode();
+
+    private final int memoryWindow;
+    private final Path spillDirectory;
+    private AuditLogSpillFile spillFile;
+
+    private List<Node> roots = new ArrayList<>();
+    private Map<String, SpanNode> spans = new HashMap<>();
+    /** span-id, на которые ссылались записи до появления самого span (такие записи висят на корне). */
+    private Set<String> unresolvedParents = new HashSet<>();
+    /** Повторный span-id: один узел подвешен в дереве дважды, инкрементальная сборка невозможна. */
+    private boolean sharedSpanNodes;
+    private int consumed;
+    /** Узлов записей (span-ов и строк) в памяти. */
+    private int heapNodes;
+
+    /**
+     * Рендерер без выгрузки на диск.
+     */
+    AuditLogHtmlRenderer() {
+        this(0, null);
+    }
+
+    /**
+     * @param memoryWindow   максимум узлов в памяти; {@code 0} — без выгрузки
+     * @param spillDirectory каталог временного файла фрагментов (обязателен при {@code memoryWindow > 0})
+     */
+    AuditLogHtmlRenderer(int memoryWindow, Path spillDirectory) {
+        this.memoryWindow = Math.max(0, memoryWindow);
+        this.spillDirectory = this.memoryWindow > 0 ? Objects.requireNonNull(spillDirectory) : null;
+    }
+
+    /**
+     * @param entries все записи контекста в хронологическом порядке (предыдущие вызовы — префикс списка)
+     * @return HTML-документ лога
+     */
+    String render(List<AuditLogEntry> entries) {
+        if (entries.size() < consumed || !appendIncrementally(entries)) {
+            rebuild(entries);
+        }
+        consumed = entries.size();
+        if (memoryWindow > 0 && heapNodes > memoryWindow && !sharedSpanNodes) {
+            spill(memoryWindow / 2);
+        }
+
+        byte[] spilled = readSpilled();
+        StringBuilder sb = new StringBuilder(PREFIX.length() + SUFFIX.length() + estimateLength());
+        sb.append(PREFIX);
+        renderChildren(roots, sb, 0, spilled);
+        return sb.append(SUFFIX).toString();
+    }
+
+    /**
+     * Освобождает файл фрагментов.
+     */
+    @Override
+    public void close() {
+        if (spillFile != null) {
+            spillFile.close();
+            spillFile = null;
+        }
+    }
+
+    /**
+     * @return число узлов записей в памяти (без выгруженных)
+     */
+    int heapNodeCount() {
+        return heapNodes;
+    }
+
+    /**
+     * @return символов HTML, которые дерево держит в памяти
+     */
+    long heapHtmlLength() {
+        long length = 0;
+        for (Node child : roots) {
+            length += child.heapHtmlLength();
+        }
+        return length;
+    }
+
+    private boolean appendIncrementally(List<AuditLogEntry> entries) {
+        if (consumed == 0 || sharedSpanNodes) {
+            return false;
+        }
+        for (int i = consumed; i < entries.size(); i++) {
+            AuditLogEntry entry = entries.get(i);
+            if (isSpan(entry)) {
+                if (spans.containsKey(entry.getSpanId()) || unresolvedParents.contains(entry.getSpanId())) {
+                    return false;
+                }
+                SpanNode node = new SpanNode(entry);
+                spans.put(entry.getSpanId(), node);
+                if (!attach(node, entry.getParentSpanId())) {
+                    return false;
+                }
+            } else if (!attach(new LeafNode(entry), entry.getParentSpanId())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Полная сборка дерева: сначала все span-ы, затем привязка записей в хронологическом порядке.
+     */
+    private void rebuild(List<AuditLogEntry> entries) {
+        close();
+        roots = new ArrayList<>();
+        spans = new HashMap<>();
+        unresolvedParents = new HashSet<>();
+        sharedSpanNodes = false;
+        heapNodes = 0;
+        for (AuditLogEntry entry : entries) {
+            if (isSpan(entry) && spans.put(entry.getSpanId(), new SpanNode(entry)) != null) {
+                sharedSpanNodes = true;
+            }
+        }
+        for (AuditLogEntry entry : entries) {
+            if (isSpan(entry)) {
+                attach(spans.get(entry.getSpanId()), entry.getParentSpanId());
+            } else {
+                attach(new LeafNode(entry), entry.getParentSpanId());
+            }
+        }
+    }
+
+    /**
+     * @return {@code false}, если родитель уже выгружен и запись подвесить нельзя
+     */
+    private boolean attach(Node node, String parentSpanId) {
+        SpanNode parent = null;
+        if (parentSpanId != null && !parentSpanId.isBlank()) {
+            parent = spans.get(parentSpanId);
+            if (parent == SPILLED) {
+                return false;
+            }
+            if (parent == null) {
+                unresolvedParents.add(parentSpanId);
+            }
+        }
+        heapNodes++;
+        if (parent == null) {
+            roots.add(node);
+            return true;
+        }
+        parent.children.add(node);
+        if (node instanceof SpanNode span) {
+            span.parent = parent;
+        } else if (node instanceof LeafNode leaf && leaf.closingLine) {
+            parent.closed = true;
+        }
+        boolean warning = node.containsWarningOrError();
+        for (SpanNode ancestor = parent; ancestor != null; ancestor = ancestor.parent) {
+            ancestor.cachedHtml = null;
+            ancestor.containsWarningOrError |= warning;
+        }
+        return true;
+    }
+
+    /**
+     * Выгружает старшие готовые узлы (в порядке документа), пока в памяти не останется {@code target} узлов.
+     */
+    private void spill(int target) {
+        spillChildren(roots, 0, target, readSpilled());
+    }
+
+    /**
+     * @return содержимое файла фрагментов целиком (одно чтение на сборку); {@code null}, если выгрузок не было
+     */
+    private byte[] readSpilled() {
+        return spillFile == null ? null : spillFile.read(0, Math.toIntExact(spillFile.size()));
+    }
+
+    /**
+     * @return {@code true}, если цель достигнута
+     */
+    private boolean spillChildren(List<Node> children, int depth, int target, byte[] spilled) {
+        List<Node> kept = new ArrayList<>(children.size());
+        StringBuilder run = new StringBuilder();
+        boolean reached = false;
+        for (Node child : children) {
+            boolean ready = child instanceof LeafNode || child instanceof SpanNode span && span.closed;
+            if (!reached && ready) {
+                child.renderTo(run, childDepth(child, depth), spilled);
+                heapNodes -= child.release(spans);
+                reached = heapNodes <= target;
+                continue;
+            }
+            flushRun(run, kept);
+            if (!reached && child instanceof SpanNode open) {
+                reached = spillChildren(open.children, depth + 1, target, spilled);
+            }
+            kept.add(child);
+        }
+        flushRun(run, kept);
+        children.clear();
+        children.addAll(kept);
+        return reached;
+    }
+
+    private void flushRun(StringBuilder run, List<Node> kept) {
+        if (run.isEmpty()) {
+            return;
+        }
+        byte[] html = run.toString().getBytes(StandardCharsets.UTF_8);
+        run.setLength(0);
+        if (spillFile == null) {
+            spillFile = new AuditLogSpillFile(spillDirectory);
+        }
+        long offset = spillFile.append(html);
+        Node last = kept.isEmpty() ? null : kept.get(kept.size() - 1);
+        if (last instanceof FragmentNode fragment && fragment.offset + fragment.length == offset) {
+            fragment.length += html.length;
+        } else {
+            kept.add(new FragmentNode(offset, html.length));
+        }
+    }
+
+    private static void renderChildren(List<Node> children, StringBuilder out, int depth, byte[] spilled) {
+        for (Node child : children) {
+            child.renderTo(out, childDepth(child, depth), spilled);
+        }
+    }
+
+    /**
+     * Строка закрытия span-а рисуется на уровне самого span-а, остальные дети — на уровень глубже.
+     */
+    private static int childDepth(Node child, int parentChildrenDepth) {
+        return child instanceof LeafNode leaf && leaf.closingLine ? Math.max(0, parentChildrenDepth - 1)
+                : parentChildrenDepth;
+    }
+
+    private int estimateLength() {
+        int length = 0;
+        for (Node child : roots) {
+            length += child.estimatedLength();
+        }
+        return length;
+    }
+
+    private static boolean isSpan(AuditLogEntry entry) {
+        return entry.getSpanId() != null && !entry.getSpanId().isBlank();
+    }
+
+    private sealed interface Node permits SpanNode, LeafNode, FragmentNode {
+
+        /**
+         * @param spilled содержимое файла фрагментов ({@code null}, если выгрузок не было)
+         */
+        void renderTo(StringBuilder out, int depth, byte[] spilled);
+
+        boolean containsWarningOrError();
+
+        int estimatedLength();
+
+        long heapHtmlLength();
+
+        /**
+         * Отпускает узел после выгрузки: span-ы поддерева помечаются выгруженными.
+         *
+         * @return сколько узлов записей освободилось
+         */
+        int release(Map<String, SpanNode> spans);
+    }
+
+    /**
+     * Узлы хранят только локализованные подписи и флаги, без ссылок на {@link AuditLogEntry}: записи,
+     * выгруженные {@link AuditLogBuffer} на диск, не удерживаются деревом.
+     */
+    private static final class SpanNode implements Node {
+        private final String spanId;
+        private final boolean openByDefault;
+        private final String summaryHtml;
+        private final String summaryClass;
+        private final List<Node> children = new ArrayList<>();
+        private SpanNode parent;
+        private boolean containsWarningOrError;
+        /** Получил строку закрытия: новых детей не ждём, узел можно выгрузить. */
+        private boolean closed;
+        /** HTML закрытого span-а с последней сборки; сбрасывается, когда в поддерево подвешена запись. */
+        private String cachedHtml;
+        private int cachedDepth;
+
+        private SpanNode() {
+            this.spanId = null;
+            this.openByDefault = false;
+            this.summaryHtml = "";
+            this.summaryClass = "";
+        }
+
+        private SpanNode(AuditLogEntry anchor) {
+            this.spanId = anchor.getSpanId();
+            this.openByDefault = isOpenByDefault(anchor);
+            this.summaryHtml = phaseBadge(anchor)
+                    + normalizeSummaryHtml(AuditLogLocalizer.localize(anchor.getMessageHtml()));
+            this.summaryClass = "summary " + levelClass(anchor.getLevel()) + " " + phaseClass(anchor);
+            this.containsWarningOrError = isWarningOrError(anchor.getLevel());
+        }
+
+        @Override
+        public void renderTo(StringBuilder out, int depth, byte[] spilled) {
+            if (cachedHtml != null && cachedDepth == depth) {
+                out.append(cachedHtml);
+                return;
+            }
+            int start = out.length();
+            boolean open = openByDefault || containsWarningOrError;
+            out.append("<details");
+            if (open) {
+                out.append(" open");
+            }
+            out.append(" style=\"padding-left:").append(Math.max(0, depth) * INDENT_STEP_PX).append("px\">");
+            out.append("<summary class=\"").append(summaryClass).append("\">").append(summaryHtml).append("</summary>");
+            renderChildren(children, out, depth + 1, spilled);
+            out.append("</details>");
+            if (closed) {
+                cachedHtml = out.substring(start);
+                cachedDepth = depth;
+                dropChildCaches();
+            }
+        }
+
+        /**
+         * HTML детей уже входит в кэш span-а: вложенные копии не держим.
+         */
+        private void dropChildCaches() {
+            for (Node child : children) {
+                if (child instanceof SpanNode span) {
+                    span.cachedHtml = null;
+                    span.dropChildCaches();
+                }
+            }
+        }
+
+        @Override
+        public boolean containsWarningOrError() {
+            return containsWarningOrError;
+        }
+
+        @Override
+        public int estimatedLength() {
+            int length = summaryHtml.length() + 128;
+            for (Node child : children) {
+                length += child.estimatedLength();
+            }
+            return length;
+        }
+
+        @Override
+        public long heapHtmlLength() {
+            long length = summaryHtml.length() + (cachedHtml == null ? 0 : cachedHtml.length());
+            for (Node child : children) {
+                length += child.heapHtmlLength();
+            }
+            return length;
+        }
+
+        @Override
+        public int release(Map<String, SpanNode> spans) {
+            spans.put(spanId, SPILLED);
+            int released = 1;
+            for (Node child : children) {
+                released += child.release(spans);
+            }
+            children.clear();
+            cachedHtml = null;
+            return released;
+        }
+    }
+
+    private static final class LeafNode implements Node {
+        private final AuditLogLevel level;
+        private final boolean closingLine;
+        private final String messageHtml;
+
+        private LeafNode(AuditLogEntry entry) {
+            this.level = entry.getLevel();
+            this.closingLine = isClosingLine(entry);
+            this.messageHtml = AuditLogLocalizer.localize(entry.getMessageHtml());
+        }
+
+        @Override
+        public void renderTo(StringBuilder out, int depth, byte[] spilled) {
+            out.append("<div class=\"row ").append(levelClass(level)).append("\" style=\"padding-left:")
+                    .append(Math.max(0, depth) * INDENT_STEP_PX).append("px\">").append(messageHtml).append("</div>");
+        }
+
+        @Override
+        public boolean containsWarningOrError() {
+            return isWarningOrError(level);
+        }
+
+        @Override
+        public int estimatedLength() {
+            return messageHtml.length() + 64;
+        }
+
+        @Override
+        public long heapHtmlLength() {
+            return messageHtml.length();
+        }
+
+        @Override
+        public int release(Map<String, SpanNode> spans) {
+            return 1;
+        }
+    }
+
+    /**
+     * Серия соседних узлов, уже нарисованная и выгруженная на диск; отступы зашиты в HTML.
+     */
+    private static final class FragmentNode implements Node {
+        private final long offset;
+        private int length;
+
+        private FragmentNode(long offset, int length) {
+            this.offset = offset;
+            this.length = length;
+        }
+
+        @Override
+        public void renderTo(StringBuilder out, int depth, byte[] spilled) {
+            out.append(new String(spilled, Math.toIntExact(offset), length, StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public boolean containsWarningOrError() {
+            return false;
+        }
+
+        @Override
+        public int estimatedLength() {
+            return length;
+        }
+
+        @Override
+        public long heapHtmlLength() {
+            return 0;
+        }
+
+        @Override
+        public int release(Map<String, SpanNode> spans) {
+            return 0;
+        }
+    }
+
+    private static boolean isClosingLine(AuditLogEntry entry) {
+        if (entry == null || entry.getCode() == null) {
+            return false;
+        }
+        return entry.getCode().endsWith("_END") || entry.getCode().endsWith("_CLOSE");
+    }
+
+    private static boolean isOpenByDefault(AuditLogEntry anchor) {
+        if (anchor == null) {
+            return true;
+        }
+        AuditLogScope scope = anchor.getScope();
+        // Contract: AUDIT and FILE are open by default.
+        return scope == AuditLogScope.AUDIT || scope == AuditLogScope.FILE;
+    }
+
+    private static String levelClass(AuditLogLevel level) {
+        if (level == null) {
+            return "lvl-info";
+        }
+        return switch (level) {
+            case INFO -> "lvl-info";
+            case SUCCESS -> "lvl-success";
+            case WARNING -> "lvl-warning";
+            case ERROR -> "lvl-error";
+            case SUMMARY -> "lvl-summary";
+        };
+    }
+
+    private static String phaseClass(AuditLogEntry entry) {
+        if (entry == null || entry.getCode() == null) {
+            return "";
+        }
+        if (entry.getCode().endsWith("_START")) {
+            return "phase-start";
+        }
+        if (entry.getCode().endsWith("_END")) {
+            return "phase-end";
+        }
+        return "";
+    }
+
+    private static String phaseBadge(AuditLogEntry entry) {
+        if (entry == null || entry.getCode() == null) {
+            return "<span class=\"badge badge-info\">INFO</span>";
+        }
+        if (entry.getCode().endsWith("_START")) {
+            return "<span class=\"badge badge-start\">+</span>";
+        }
+        if (entry.getCode().endsWith("_END")) {
+            return "<span class=\"badge badge-end\">END</span>";
+        }
+        return "<span class=\"badge badge-info\">" + escape(localizeCode(entry.getCode())) + "</span>";
+    }
+
+    private static String escape(String value) {
+        return value == null ? "" : value.replace("<", "&lt;").replace(">", "&gt;");
+    }
+
+    private static String normalizeSummaryHtml(String html) {
+        if (html == null) {
+            return "";
+        }
+        String trimmed = html.trim();
+        if (trimmed.startsWith("<P>") && trimmed.endsWith("</P>")) {
+            return trimmed.substring(3, trimmed.length() - 4);
+        }
+        return trimmed;
+    }
+
+    private static String localizeCode(String code) {
+        if (code == null || code.isBlank()) {
+            return "СОБЫТИЕ";
+        }
+        return switch (code) {
+            case "WORKBOOK_OPEN" -> "КНИГА";
+            case "SHEET_FOUND" -> "ЛИСТ";
+            case "STAGING_ROW_INSERTED" -> "STAGING";
+            case "STAGING_STATS" -> "СТАТИСТИКА";
+            case "FILE_FS_FOUND" -> "ФАЙЛ";
+            case "DIR_FS_EXISTS" -> "ПАПКА";
+            default -> "СОБЫТИЕ";
+        };
+    }
+
+    private static boolean isWarningOrError(AuditLogLevel level) {
+        return level == AuditLogLevel.WARNING || level == AuditLogLevel.ERROR;
+    }
+}
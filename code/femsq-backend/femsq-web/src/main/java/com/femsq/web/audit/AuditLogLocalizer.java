@@ -0,0 +1,225 @@
+package com.femsq.web.audit;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Локализация служебных подписей в HTML записей лога ревизии.
+ *
+ * <p>Все подписи ищутся за один проход по строке по префиксному дереву: в каждой позиции берётся
+ * самое длинное совпадение, поэтому {@code table=ags.ra_stg_ralp_sm} не перехватывается более коротким
+ * {@code table=ags.ra_stg_ra}, а {@code UNCHANGED=} — подписью {@code CHANGED=}. Порядок в {@link #RULES}
+ * важен только для одинаковых шаблонов (побеждает первый).</p>
+ */
+final class AuditLogLocalizer {
+
+    /**
+     * Пары «исходная подпись → русская подпись».
+     */
+    private static final String[][] RULES = {
+            {"Reconcile start:", "Начало сверки:"},
+            {"<b>Reconcile</b>:", "<b>Сверка</b>:"},
+            {"counters:", "показатели:"},
+            {"Duration:", "Длительность:"},
+            {"duration=", "длительность = "},
+            {"affectedRows=", "изменено строк = "},
+            {"applied=true", "применено = да"},
+            {"applied=false", "применено = нет"},
+            {"applied=", "применено = "},
+            {"execKey=", "ключ выполнения = "},
+            {"Stage 1 (AllAgents)", "Этап 1 (Все агенты)"},
+            {"Stage 1 (RALP)", "Этап 1 (RALP)"},
+            {"Stage 1 (AgFee2306)", "Этап 1 (AgFee2306)"},
+            {"Stage 2 (RALP)", "Этап 2 (RALP)"},
+            {"Stage 2 (AgFee2306)", "Этап 2 (AgFee2306)"},
+            {"Stage 2a (AgFee2306)", "Этап 2a (AgFee2306)"},
+            {"Stage 2 (AllAgents): no-op, дополнительные FK/derived вычисления не требуются",
+                    "Этап 2 (Все агенты): пропуск, дополнительные вычисления внешних ключей/производных не требуются"},
+            {"Stage 2a (CnPrDoc)", "Этап 2a (CnPrDoc)"},
+            {"Stage 1 (CnPrDoc)", "Этап 1 (CnPrDoc)"},
+            {"Stage 2 (CnPrDoc)", "Этап 2 (CnPrDoc)"},
+            {"Staging start:", "Начало загрузки в промежуточную таблицу:"},
+            {"Staging end:", "Завершение загрузки в промежуточную таблицу:"},
+            {"Начало загрузки в staging:", "Начало загрузки в промежуточную таблицу:"},
+            {"Завершение загрузки в staging:", "Завершение загрузки в промежуточную таблицу:"},
+            {"[Загрузка staging]", "[Загрузка промежуточной таблицы]"},
+            {"внесено в staging:", "внесено в промежуточную таблицу:"},
+            {"details:", "подробности:"},
+            {"table=", "таблица = "},
+            {"sheet=", "лист = "},
+            {"inserted=", "добавлено = "},
+            {"updated=", "обновлено = "},
+            {"unchanged=", "без изменений = "},
+            {"errors=", "ошибок = "},
+            {"dryRun=", "сухой прогон = "},
+            {"applyRequested=", "применение запрошено = "},
+            {"applyBlocked=", "применение заблокировано = "},
+            {"type=", "тип = "},
+            {"sourceRows=", "строк в диапазоне = "},
+            {"rowRange=", "диапазон строк = "},
+            {"skippedNullRow=", "пропущено пустых строк = "},
+            {"skippedNoBusinessData=", "пропущено без бизнес-данных = "},
+            {"skippedMissingRequired=", "пропущено без обязательных полей = "},
+            {"skippedBeyondRange=", "за пределами диапазона = "},
+            {"acceptedBySign=", "принято по типу = "},
+            {"filteredBySign=", "отфильтровано по типу = "},
+            {"filteredSignsTop=", "топ отфильтрованных типов = "},
+            {"parseErrorFields=", "ошибок формата полей = "},
+            {"skippedParseError=", "пропущено из‑за ошибки формата = "},
+            {"rowsWithTruncation=", "строк с усечением = "},
+            {"truncatedFields=", "усечённых полей = "},
+            {"signStats=", "статистика по типам = "},
+            {"flushes=", "записей в БД = "},
+            {"skippedUnchanged=", "пропущено без изменений = "},
+            {"skippedThrottled=", "пропущено по интервалу = "},
+            {"buildHtmlMs=", "сборка HTML = "},
+            {"dbUpdateMs=", "запись в БД = "},
+            {"lastHtmlChars=", "размер HTML = "},
+            {"таблица=ags.ra_stg_ra", "таблица = промежуточная РА"},
+            {"таблица = ags.ra_stg_ra", "таблица = промежуточная РА"},
+            {"таблица=ags.ra_stg_cn_prdoc", "таблица = промежуточная CN_PrDoc"},
+            {"таблица = ags.ra_stg_cn_prdoc", "таблица = промежуточная CN_PrDoc"},
+            {"таблица=ags.ra_stg_ralp", "таблица = промежуточная RALP"},
+            {"таблица = ags.ra_stg_ralp", "таблица = промежуточная RALP"},
+            {"таблица=ags.ra_stg_ralp_sm", "таблица = промежуточная RALP_SM"},
+            {"таблица = ags.ra_stg_ralp_sm", "таблица = промежуточная RALP_SM"},
+            {"таблица=ags.ra_stg_agfee", "таблица = промежуточная AgFee"},
+            {"таблица = ags.ra_stg_agfee", "таблица = промежуточная AgFee"},
+            {"таблица = staging РА", "таблица = промежуточная РА"},
+            {"таблица = staging CN_PrDoc", "таблица = промежуточная CN_PrDoc"},
+            {"таблица = staging RALP", "таблица = промежуточная RALP"},
+            {"таблица = staging RALP_SM", "таблица = промежуточная RALP_SM"},
+            {"таблица = staging AgFee", "таблица = промежуточная AgFee"},
+            {"таблица=staging РА", "таблица = промежуточная РА"},
+            {"таблица=staging CN_PrDoc", "таблица = промежуточная CN_PrDoc"},
+            {"таблица=staging RALP", "таблица = промежуточная RALP"},
+            {"таблица=staging RALP_SM", "таблица = промежуточная RALP_SM"},
+            {"таблица=staging AgFee", "таблица = промежуточная AgFee"},
+            // legacy camelCase (до P4) → читаемые подписи
+            {"пропущеноПустыхСтрок=", "пропущено пустых строк = "},
+            {"пропущеноБезБизнесДанных=", "пропущено без бизнес-данных = "},
+            {"пропущеноБезОбязательныхПолей=", "пропущено без обязательных полей = "},
+            {"диапазонСтрок=", "диапазон строк = "},
+            {"строкВИсточнике=", "строк в диапазоне = "},
+            {"строкСУсечением=", "строк с усечением = "},
+            {"усечённыхПолей=", "усечённых полей = "},
+            {"статистикаПоТипам=", "статистика по типам = "},
+            {"измененоСтрок=", "изменено строк = "},
+            {"безИзменений=", "без изменений = "},
+            {"ключВыполнения=", "ключ выполнения = "},
+            {"длительность=", "длительность = "},
+            {"добавлено=", "добавлено = "},
+            {"таблица=", "таблица = "},
+            {"лист=", "лист = "},
+            {"тип=", "тип = "},
+            {"применено=", "применено = "},
+
+            // Reconcile counters: переводим служебные ключи в пользовательские подписи.
+            {"rcRowsConsidered=", "строкИзмененийРассмотрено="},
+            {"rcParseInvalid=", "ошибокПарсингаИзменений="},
+            {"rcMissingBaseRa=", "измененийБезБазовойЗаписи="},
+            {"rcCategoryNEW=", "категорияНовые="},
+            {"rcCategoryUNCHANGED=", "категорияБезИзменений="},
+            {"rcCategoryCHANGED=", "категорияИзменённые="},
+            {"rcApplyDeltaNew=", "кПрименениюНовых="},
+            {"rcApplyDeltaChanged=", "кПрименениюИзменённых="},
+            {"marker_raStepAlreadyDone=", "маркерШагRAУжеВыполнен="},
+            {"marker_rcStepAlreadyDone=", "маркерШагИзмененийУжеВыполнен="},
+            {"deleteEnabled=", "удалениеВключено="},
+
+            // Type5 reconcile (русские подписи; fallback для старых записей в adt_results).
+            {"Type5 match — RA:", "Сверка type=5 — отчёты:"},
+            {"Type5 apply — RA:", "Применение type=5 — отчёты:"},
+            {"Type5 match/apply counters:", "Сверка type=5 — показатели:"},
+            {"Type5 diagnostics (top):", "Диагностика type=5 (топ):"},
+            {"NEW=", "новые="},
+            {"CHANGED=", "изменённые="},
+            {"UNCHANGED=", "безИзменений="},
+            {"INVALID=", "некорректные="},
+            {"AMBIGUOUS=", "неоднозначные="},
+            {"; RC:", "; изменения:"},
+            {"deleted=", "удалено="},
+            {"sums inserted (RA+RC)=", "сумм добавлено (отчёты+изменения)="},
+    };
+
+    private static final TrieNode ROOT = buildTrie();
+
+    private AuditLogLocalizer() {
+    }
+
+    /**
+     * @param html HTML записи лога
+     * @return HTML с русскими подписями (тот же экземпляр, если замен нет)
+     */
+    static String localize(String html) {
+        if (html == null || html.isBlank()) {
+            return html;
+        }
+        StringBuilder out = null;
+        int copiedUpTo = 0;
+        int length = html.length();
+        int i = 0;
+        while (i < length) {
+            TrieNode node = ROOT.next.get(html.charAt(i));
+            TrieNode match = null;
+            int matchEnd = 0;
+            int j = i + 1;
+            while (node != null) {
+                if (node.replacement != null) {
+                    match = node;
+                    matchEnd = j;
+                }
+                if (j >= length) {
+                    break;
+                }
+                node = node.next.get(html.charAt(j++));
+            }
+            if (match == null) {
+                i++;
+                continue;
+            }
+            if (out == null) {
+                out = new StringBuilder(length + 64);
+            }
+            out.append(html, copiedUpTo, i).append(match.replacement);
+            i = matchEnd;
+            copiedUpTo = matchEnd;
+        }
+        if (out == null) {
+            return html;
+        }
+        return out.append(html, copiedUpTo, length).toString();
+    }
+
+    private static TrieNode buildTrie() {
+        Map<String, String> patterns = new HashMap<>();
+        for (String[] rule : RULES) {
+            patterns.putIfAbsent(rule[0], rule[1]);
+        }
+        // Часть правил написана по результату более ранних (table= → "таблица = " → "таблица = ags.ra_stg_ra").
+        // Для одного прохода такие цепочки разворачиваются в исходный шаблон: table=ags.ra_stg_ra.
+        for (int i = 0; i < RULES.length; i++) {
+            String produced = RULES[i][1];
+            for (int j = i + 1; j < RULES.length; j++) {
+                String later = RULES[j][0];
+                if (later.length() > produced.length() && later.startsWith(produced)) {
+                    patterns.putIfAbsent(RULES[i][0] + later.substring(produced.length()), RULES[j][1]);
+                }
+            }
+        }
+        TrieNode root = new TrieNode();
+        patterns.forEach((pattern, replacement) -> {
+            TrieNode node = root;
+            for (int k = 0; k < pattern.length(); k++) {
+                node = node.next.computeIfAbsent(pattern.charAt(k), ignored -> new TrieNode());
+            }
+            node.replacement = replacement;
+        });
+        return root;
+    }
+
+    private static final class TrieNode {
+        private final Map<Character, TrieNode> next = new HashMap<>();
+        private String replacement;
+    }
+}
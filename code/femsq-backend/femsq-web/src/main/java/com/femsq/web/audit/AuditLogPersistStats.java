@@ -2,15 +2,23 @@ package com.femsq.web.audit;
 
 /**
  * Счётчики и тайминги сохранения HTML-лога ревизии в {@code adt_results} (задача 0046).
+ *
+ * <p>Инкрементальные flush пишут в {@code ags.ra_a_log} только новые записи; полная перезапись
+ * {@code adt_results} выполняется при компактизации в конце ревизии (или как fallback).</p>
  */
 public final class AuditLogPersistStats {
 
     private int flushCount;
+    private int fullRewriteCount;
     private int skippedUnchanged;
     private int skippedThrottled;
     private long buildHtmlTotalMs;
     private long dbUpdateTotalMs;
     private int lastHtmlChars;
+    private int appendedEntries;
+    private long bytesWrittenTotal;
+    private long lastFlushBytes;
+    private long maxFlushBytes;
 
     /**
      * @return число фактических записей в БД через {@code saveProgress}
@@ -19,6 +27,13 @@ public final class AuditLogPersistStats {
         return flushCount;
     }
 
+    /**
+     * @return число полных перезаписей {@code adt_results} (компактизация и fallback)
+     */
+    public int getFullRewriteCount() {
+        return fullRewriteCount;
+    }
+
     public int getSkippedUnchanged() {
         return skippedUnchanged;
     }
@@ -39,6 +54,34 @@ public final class AuditLogPersistStats {
         return lastHtmlChars;
     }
 
+    /**
+     * @return число записей, дописанных в {@code ags.ra_a_log}
+     */
+    public int getAppendedEntries() {
+        return appendedEntries;
+    }
+
+    /**
+     * @return суммарный объём записи лога в БД, байт (оценка NVARCHAR, UTF-16)
+     */
+    public long getBytesWrittenTotal() {
+        return bytesWrittenTotal;
+    }
+
+    /**
+     * @return объём последнего flush, байт
+     */
+    public long getLastFlushBytes() {
+        return lastFlushBytes;
+    }
+
+    /**
+     * @return максимальный объём одного flush, байт
+     */
+    public long getMaxFlushBytes() {
+        return maxFlushBytes;
+    }
+
     public void recordSkippedUnchanged() {
         skippedUnchanged++;
     }
@@ -48,14 +91,36 @@ public final class AuditLogPersistStats {
     }
 
     /**
+     * Полная перезапись {@code adt_results}.
+     *
      * @param buildMs время {@link AuditExecutionContext#buildHtmlLog()}
      * @param updateMs время {@code raAService.update}
      * @param htmlChars длина HTML-блоба
      */
     public void recordFlush(long buildMs, long updateMs, int htmlChars) {
-        flushCount++;
+        fullRewriteCount++;
         buildHtmlTotalMs += buildMs;
-        dbUpdateTotalMs += updateMs;
         lastHtmlChars = htmlChars;
+        recordBytes(updateMs, htmlChars * 2L);
+    }
+
+    /**
+     * Инкрементальный flush в {@code ags.ra_a_log}.
+     *
+     * @param entries число дописанных записей
+     * @param updateMs время batch-вставки
+     * @param bytes оценка записанных байт
+     */
+    public void recordAppend(int entries, long updateMs, long bytes) {
+        appendedEntries += entries;
+        recordBytes(updateMs, bytes);
+    }
+
+    private void recordBytes(long updateMs, long bytes) {
+        flushCount++;
+        dbUpdateTotalMs += updateMs;
+        lastFlushBytes = bytes;
+        bytesWrittenTotal += bytes;
+        maxFlushBytes = Math.max(maxFlushBytes, bytes);
     }
 }
@@ -0,0 +1,224 @@
+package com.femsq.web.audit;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Сегмент записей лога на диске: файл из записей {@code [int length][payload]}, адресуемых смещением.
+ * Тот же файл хранит и готовые фрагменты HTML ({@link #append(byte[])}) — без заголовка, по смещению и длине.
+ *
+ * <p>Файл создаётся при первой записи во временном каталоге и открывается с
+ * {@link StandardOpenOption#DELETE_ON_CLOSE}: удаляется в {@link #close()} (на POSIX — сразу после
+ * открытия, поэтому не остаётся на диске и при аварийном завершении).</p>
+ */
+final class AuditLogSpillFile implements AutoCloseable {
+
+    private static final int NULL_LENGTH = -1;
+
+    private final Path directory;
+    private FileChannel channel;
+    private long size;
+
+    AuditLogSpillFile(Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Дописывает записи одним блоком.
+     *
+     * @return смещения записей в файле (в порядке списка)
+     */
+    long[] writeAll(List<AuditLogEntry> entries) {
+        long[] offsets = new long[entries.size()];
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(Math.max(1024, entries.size() * 256));
+        DataOutputStream out = new DataOutputStream(bytes);
+        try {
+            ByteArrayOutputStream payload = new ByteArrayOutputStream(512);
+            DataOutputStream record = new DataOutputStream(payload);
+            for (int i = 0; i < entries.size(); i++) {
+                payload.reset();
+                encode(record, entries.get(i));
+                offsets[i] = size + bytes.size();
+                out.writeInt(payload.size());
+                payload.writeTo(out);
+            }
+            ByteBuffer buffer = ByteBuffer.wrap(bytes.toByteArray());
+            FileChannel target = channel();
+            while (buffer.hasRemaining()) {
+                size += target.write(buffer, size);
+            }
+            return offsets;
+        } catch (IOException exception) {
+            throw new UncheckedIOException("Не удалось выгрузить записи лога ревизии на диск", exception);
+        }
+    }
+
+    AuditLogEntry read(long offset) {
+        try {
+            ByteBuffer header = ByteBuffer.allocate(Integer.BYTES);
+            readFully(header, offset);
+            ByteBuffer payload = ByteBuffer.allocate(header.flip().getInt());
+            readFully(payload, offset + Integer.BYTES);
+            return decode(new DataInputStream(new ByteArrayInputStream(payload.array())));
+        } catch (IOException exception) {
+            throw new UncheckedIOException("Не удалось прочитать запись лога ревизии с диска", exception);
+        }
+    }
+
+    /**
+     * Дописывает байты как есть.
+     *
+     * @return смещение первого байта
+     */
+    long append(byte[] bytes) {
+        try {
+            FileChannel target = channel();
+            long offset = size;
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            while (buffer.hasRemaining()) {
+                size += target.write(buffer, size);
+            }
+            return offset;
+        } catch (IOException exception) {
+            throw new UncheckedIOException("Не удалось выгрузить фрагмент лога ревизии на диск", exception);
+        }
+    }
+
+    /**
+     * Читает {@code length} байт, записанных {@link #append(byte[])}.
+     */
+    byte[] read(long offset, int length) {
+        try {
+            ByteBuffer buffer = ByteBuffer.allocate(length);
+            readFully(buffer, offset);
+            return buffer.array();
+        } catch (IOException exception) {
+            throw new UncheckedIOException("Не удалось прочитать фрагмент лога ревизии с диска", exception);
+        }
+    }
+
+    /**
+     * @return размер сегмента в байтах
+     */
+    long size() {
+        return size;
+    }
+
+    @Override
+    public void close() {
+        if (channel == null) {
+            return;
+        }
+        try {
+            channel.close();
+        } catch (IOException exception) {
+            throw new UncheckedIOException("Не удалось закрыть файл лога ревизии", exception);
+        } finally {
+            channel = null;
+        }
+    }
+
+    private FileChannel channel() throws IOException {
+        if (channel == null) {
+            Files.createDirectories(directory);
+            Path file = Files.createTempFile(directory, "femsq-audit-log-", ".bin");
+            channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE,
+                    StandardOpenOption.DELETE_ON_CLOSE);
+            size = 0;
+        }
+        return channel;
+    }
+
+    private void readFully(ByteBuffer buffer, long position) throws IOException {
+        if (channel == null) {
+            throw new IOException("spill file is closed");
+        }
+        long at = position;
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, at);
+            if (read < 0) {
+                throw new IOException("unexpected end of spill file at " + at);
+            }
+            at += read;
+        }
+    }
+
+    private static void encode(DataOutputStream out, AuditLogEntry entry) throws IOException {
+        Instant timestamp = entry.getTimestamp();
+        out.writeBoolean(timestamp != null);
+        if (timestamp != null) {
+            out.writeLong(timestamp.getEpochSecond());
+            out.writeInt(timestamp.getNano());
+        }
+        out.writeByte(entry.getLevel() != null ? entry.getLevel().ordinal() : NULL_LENGTH);
+        out.writeByte(entry.getScope() != null ? entry.getScope().ordinal() : NULL_LENGTH);
+        writeString(out, entry.getSpanId());
+        writeString(out, entry.getParentSpanId());
+        writeString(out, entry.getCode());
+        writeString(out, entry.getMessageHtml());
+        Map<String, String> meta = entry.getMeta();
+        out.writeInt(meta.size());
+        for (Map.Entry<String, String> item : meta.entrySet()) {
+            writeString(out, item.getKey());
+            writeString(out, item.getValue());
+        }
+    }
+
+    private static AuditLogEntry decode(DataInputStream in) throws IOException {
+        Instant timestamp = in.readBoolean() ? Instant.ofEpochSecond(in.readLong(), in.readInt()) : null;
+        byte level = in.readByte();
+        byte scope = in.readByte();
+        String spanId = readString(in);
+        String parentSpanId = readString(in);
+        String code = readString(in);
+        String messageHtml = readString(in);
+        int metaSize = in.readInt();
+        Map<String, String> meta = metaSize > 0 ? new HashMap<>(metaSize * 2) : null;
+        for (int i = 0; i < metaSize; i++) {
+            meta.put(readString(in), readString(in));
+        }
+        return new AuditLogEntry(
+                timestamp,
+                level >= 0 ? AuditLogLevel.values()[level] : null,
+                scope >= 0 ? AuditLogScope.values()[scope] : null,
+                spanId,
+                parentSpanId,
+                code,
+                messageHtml,
+                meta);
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(NULL_LENGTH);
+            return;
+        }
+        byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(utf8.length);
+        out.write(utf8);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length == NULL_LENGTH) {
+            return null;
+        }
+        byte[] utf8 = new byte[length];
+        in.readFully(utf8);
+        return new String(utf8, StandardCharsets.UTF_8);
+    }
+}
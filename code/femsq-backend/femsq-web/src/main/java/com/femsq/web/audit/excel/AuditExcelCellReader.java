@@ -21,7 +21,8 @@ import org.springframework.stereotype.Component;
 @Component
 public class AuditExcelCellReader {
 
-    private final DataFormatter dataFormatter = new DataFormatter();
+    /** {@link DataFormatter} кэширует форматы без синхронизации — по экземпляру на поток. */
+    private final ThreadLocal<DataFormatter> dataFormatter = ThreadLocal.withInitial(DataFormatter::new);
 
     /** Двухзначный год в диапазоне 2000–2099 (как в Excel для «25» → 2025). */
     private static final DateTimeFormatter DD_MM_YY = new DateTimeFormatterBuilder()
@@ -57,7 +58,7 @@ public class AuditExcelCellReader {
             case BOOLEAN -> raw = Boolean.toString(cell.getBooleanCellValue());
             case NUMERIC -> raw = formatNumericAsPlainString(cell);
             case STRING -> raw = cell.getStringCellValue();
-            default -> raw = dataFormatter.formatCellValue(cell);
+            default -> raw = dataFormatter.get().formatCellValue(cell);
         }
         if (raw == null) {
             return null;
@@ -74,16 +75,16 @@ public class AuditExcelCellReader {
      */
     private String formatNumericAsPlainString(Cell cell) {
         if (DateUtil.isCellDateFormatted(cell)) {
-            return dataFormatter.formatCellValue(cell);
+            return dataFormatter.get().formatCellValue(cell);
         }
         double value = cell.getNumericCellValue();
         if (Double.isNaN(value) || Double.isInfinite(value)) {
-            return dataFormatter.formatCellValue(cell);
+            return dataFormatter.get().formatCellValue(cell);
         }
         if (Math.abs(value - Math.rint(value)) < 1e-9) {
             return BigDecimal.valueOf(value).toBigInteger().toString();
         }
-        String formatted = dataFormatter.formatCellValue(cell);
+        String formatted = dataFormatter.get().formatCellValue(cell);
         if (formatted != null && looksScientific(formatted)) {
             return BigDecimal.valueOf(value).stripTrailingZeros().toPlainString();
         }
@@ -122,7 +123,7 @@ public class AuditExcelCellReader {
             if (Math.abs(value - Math.rint(value)) < 1e-9) {
                 return Long.toString(Math.round(value));
             }
-            return ReportNumberNormalizer.normalize(dataFormatter.formatCellValue(cell));
+            return ReportNumberNormalizer.normalize(dataFormatter.get().formatCellValue(cell));
         }
         return ReportNumberNormalizer.normalize(readString(cell));
     }
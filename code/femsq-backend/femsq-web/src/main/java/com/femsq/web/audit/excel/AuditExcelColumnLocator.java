@@ -11,7 +11,6 @@ import java.util.Map;
 import java.util.OptionalInt;
 import org.apache.poi.ss.usermodel.Cell;
 import org.apache.poi.ss.usermodel.Row;
-import org.apache.poi.ss.usermodel.Sheet;
 import org.springframework.stereotype.Component;
 
 /**
@@ -39,7 +38,7 @@ public class AuditExcelColumnLocator {
      * @param anchor      текст якорного заголовка
      * @param anchorMatch режим матчинга ({@code "W"} или {@code "P"})
      */
-    public OptionalInt findAnchorRow(Sheet sheet, String anchor, String anchorMatch) {
+    public OptionalInt findAnchorRow(AuditSheet sheet, String anchor, String anchorMatch) {
         if (sheet == null || anchor == null || anchor.isBlank()) {
             return OptionalInt.empty();
         }
@@ -1,5 +1,6 @@
 package com.femsq.web.audit.excel;
 
+import java.io.BufferedInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.file.Files;
@@ -8,6 +9,7 @@ import java.util.Objects;
 import java.util.function.Function;
 import org.apache.poi.EncryptedDocumentException;
 import org.apache.poi.openxml4j.util.ZipSecureFile;
+import org.apache.poi.poifs.filesystem.FileMagic;
 import org.apache.poi.ss.usermodel.Workbook;
 import org.apache.poi.ss.usermodel.WorkbookFactory;
 import org.springframework.stereotype.Component;
@@ -15,6 +17,9 @@ import org.springframework.stereotype.Component;
 /**
  * Единая точка входа для безопасного открытия Excel-книги в audit-конвейере.
  * Поддерживает Zip bomb mitigation, зашифрованные файлы (legacy-пароль) и гарантированное закрытие ресурсов.
+ *
+ * <p>Для Stage 1 есть потоковый режим ({@link #withAuditWorkbook(Path, boolean, Function)}): незашифрованный
+ * {@code .xlsx} читается по строкам без DOM; зашифрованные книги и legacy {@code .xls} открываются как раньше.</p>
  */
 @Component
 public class AuditExcelReader {
@@ -22,6 +27,14 @@ public class AuditExcelReader {
     /** Пароль по умолчанию для legacy audit Excel (VBA-конвенция). */
     private static final String DEFAULT_EXCEL_PASSWORD = "303";
 
+    /**
+     * {@link ZipSecureFile#setMinInflateRatio(double)} — глобальная настройка POI; при параллельной обработке
+     * файлов исходное значение восстанавливает последний закрывший книгу поток.
+     */
+    private static final Object INFLATE_RATIO_LOCK = new Object();
+    private static int inflateRatioHolders;
+    private static double savedInflateRatio;
+
     /**
      * Открывает workbook по строковому пути.
      *
@@ -51,8 +64,7 @@ public class AuditExcelReader {
         if (!Files.exists(filePath)) {
             throw new AuditExcelException("Excel file not found: " + filePath);
         }
-        double previousRatio = ZipSecureFile.getMinInflateRatio();
-        ZipSecureFile.setMinInflateRatio(0.0);
+        relaxInflateRatio();
         try {
             try {
                 return withWorkbookUsingPassword(filePath, consumer, null);
@@ -66,7 +78,72 @@ public class AuditExcelReader {
         } catch (Exception exception) {
             throw new AuditExcelException("Failed to open Excel file: " + filePath + " — " + exception.getMessage(), exception);
         } finally {
-            ZipSecureFile.setMinInflateRatio(previousRatio);
+            restoreInflateRatio();
+        }
+    }
+
+    /**
+     * Открывает книгу как {@link AuditWorkbook}: потоково для незашифрованного OOXML, иначе через DOM.
+     *
+     * @param filePath  путь к файлу Excel
+     * @param streaming разрешить потоковое чтение
+     * @param consumer  функция обработки книги
+     * @param <T>       тип результата
+     * @return результат consumer
+     * @throws AuditExcelException при ошибке открытия или чтения файла
+     */
+    public <T> T withAuditWorkbook(Path filePath, boolean streaming, Function<AuditWorkbook, T> consumer) {
+        Objects.requireNonNull(filePath, "filePath");
+        Objects.requireNonNull(consumer, "consumer");
+        if (streaming && isPlainOoxml(filePath)) {
+            return withStreamingWorkbook(filePath, consumer);
+        }
+        return withWorkbook(filePath, workbook -> consumer.apply(new DomAuditWorkbook(workbook)));
+    }
+
+    /**
+     * Зашифрованный {@code .xlsx} и {@code .xls} — OLE2-контейнеры; потоково читается только ZIP-пакет OOXML.
+     */
+    private static boolean isPlainOoxml(Path filePath) {
+        if (!Files.exists(filePath)) {
+            return false;
+        }
+        try (InputStream inputStream = new BufferedInputStream(Files.newInputStream(filePath))) {
+            return FileMagic.valueOf(inputStream) == FileMagic.OOXML;
+        } catch (IOException exception) {
+            return false;
+        }
+    }
+
+    private <T> T withStreamingWorkbook(Path filePath, Function<AuditWorkbook, T> consumer) {
+        relaxInflateRatio();
+        try (StreamingAuditWorkbook workbook = StreamingAuditWorkbook.open(filePath)) {
+            return consumer.apply(workbook);
+        } catch (AuditExcelException exception) {
+            throw exception;
+        } catch (IOException exception) {
+            throw new AuditExcelException("Failed to read Excel file: " + filePath, exception);
+        } catch (Exception exception) {
+            throw new AuditExcelException("Failed to open Excel file: " + filePath + " — " + exception.getMessage(), exception);
+        } finally {
+            restoreInflateRatio();
+        }
+    }
+
+    private static void relaxInflateRatio() {
+        synchronized (INFLATE_RATIO_LOCK) {
+            if (inflateRatioHolders++ == 0) {
+                savedInflateRatio = ZipSecureFile.getMinInflateRatio();
+                ZipSecureFile.setMinInflateRatio(0.0);
+            }
+        }
+    }
+
+    private static void restoreInflateRatio() {
+        synchronized (INFLATE_RATIO_LOCK) {
+            if (--inflateRatioHolders == 0) {
+                ZipSecureFile.setMinInflateRatio(savedInflateRatio);
+            }
         }
     }
 
@@ -0,0 +1,35 @@
+package com.femsq.web.audit.excel;
+
+import org.apache.poi.ss.usermodel.Row;
+
+/**
+ * Read-only представление листа для Stage 1: DOM ({@link org.apache.poi.ss.usermodel.Sheet})
+ * или потоковое чтение OOXML.
+ *
+ * <p>Для потокового листа строка, возвращённая {@link #getRow(int)}, действительна только до следующего
+ * вызова с другим индексом. Обход по неубывающим индексам — один проход по XML листа;
+ * обращение к уже пройденной строке перечитывает лист с начала.</p>
+ */
+public interface AuditSheet {
+
+    /**
+     * @return имя листа
+     */
+    String getSheetName();
+
+    /**
+     * @return 0-based индекс первой строки листа или {@code -1}, если строк нет
+     */
+    int getFirstRowNum();
+
+    /**
+     * @return 0-based индекс последней строки листа или {@code -1}, если строк нет
+     */
+    int getLastRowNum();
+
+    /**
+     * @param rowIndex 0-based индекс строки
+     * @return строка или {@code null}, если строки нет на листе
+     */
+    Row getRow(int rowIndex);
+}
@@ -0,0 +1,31 @@
+package com.femsq.web.audit.excel;
+
+/**
+ * Книга Excel в audit-конвейере: набор {@link AuditSheet} без привязки к способу чтения.
+ *
+ * @see AuditExcelReader#withAuditWorkbook(java.nio.file.Path, boolean, java.util.function.Function)
+ */
+public interface AuditWorkbook {
+
+    /**
+     * @return число листов книги
+     */
+    int getNumberOfSheets();
+
+    /**
+     * @param index 0-based индекс листа
+     * @return лист
+     */
+    AuditSheet getSheetAt(int index);
+
+    /**
+     * @param name имя листа (без учёта регистра, как {@link org.apache.poi.ss.usermodel.Workbook#getSheet(String)})
+     * @return лист или {@code null}
+     */
+    AuditSheet getSheet(String name);
+
+    /**
+     * @return {@code true}, если книга читается потоково (OOXML event model), а не через DOM
+     */
+    boolean isStreaming();
+}
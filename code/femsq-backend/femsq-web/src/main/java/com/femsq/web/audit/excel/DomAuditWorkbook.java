@@ -0,0 +1,65 @@
+package com.femsq.web.audit.excel;
+
+import java.util.Objects;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+
+/**
+ * {@link AuditWorkbook} поверх полностью загруженной книги POI (зашифрованные файлы, legacy {@code .xls}).
+ */
+final class DomAuditWorkbook implements AuditWorkbook {
+
+    private final Workbook workbook;
+
+    DomAuditWorkbook(Workbook workbook) {
+        this.workbook = Objects.requireNonNull(workbook, "workbook");
+    }
+
+    @Override
+    public int getNumberOfSheets() {
+        return workbook.getNumberOfSheets();
+    }
+
+    @Override
+    public AuditSheet getSheetAt(int index) {
+        return wrap(workbook.getSheetAt(index));
+    }
+
+    @Override
+    public AuditSheet getSheet(String name) {
+        return wrap(workbook.getSheet(name));
+    }
+
+    @Override
+    public boolean isStreaming() {
+        return false;
+    }
+
+    private static AuditSheet wrap(Sheet sheet) {
+        return sheet == null ? null : new DomAuditSheet(sheet);
+    }
+
+    private record DomAuditSheet(Sheet sheet) implements AuditSheet {
+
+        @Override
+        public String getSheetName() {
+            return sheet.getSheetName();
+        }
+
+        @Override
+        public int getFirstRowNum() {
+            return sheet.getFirstRowNum();
+        }
+
+        @Override
+        public int getLastRowNum() {
+            return sheet.getLastRowNum();
+        }
+
+        @Override
+        public Row getRow(int rowIndex) {
+            return sheet.getRow(rowIndex);
+        }
+    }
+}
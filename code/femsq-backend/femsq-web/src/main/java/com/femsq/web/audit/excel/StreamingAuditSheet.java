@@ -0,0 +1,368 @@
+package com.femsq.web.audit.excel;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import org.apache.poi.openxml4j.opc.PackagePart;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.FormulaError;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.xssf.streaming.SXSSFSheet;
+
+/**
+ * Лист {@link StreamingAuditWorkbook}: StAX-курсор по {@code sheetN.xml} с окном в одну строку.
+ *
+ * <p>Текущая строка материализуется в служебном {@link SXSSFSheet} и удаляется при переходе к следующей,
+ * поэтому потребление памяти не зависит от числа строк листа. Значения формул берутся из кэша
+ * ({@code <v>}), как и при DOM-чтении через {@code getCachedFormulaResultType}.</p>
+ */
+final class StreamingAuditSheet implements AuditSheet {
+
+    private static final Logger log = Logger.getLogger(StreamingAuditSheet.class.getName());
+
+    private final StreamingAuditWorkbook workbook;
+    private final String sheetName;
+    private final PackagePart part;
+    private final SXSSFSheet scratchSheet;
+
+    private InputStream input;
+    private XMLStreamReader xml;
+    private boolean exhausted;
+    /** Индекс последней строки, чей {@code <row>} уже прочитан целиком (материализован или пропущен). */
+    private int lastConsumedIndex = -1;
+    /** Индекс строки, у которой прочитан только открывающий тег; {@code -1} — нет. */
+    private int pendingRowIndex = -1;
+    private Row current;
+    private int currentIndex = -1;
+
+    private boolean boundsKnown;
+    private int firstRowNum = -1;
+    private int lastRowNum = -1;
+
+    StreamingAuditSheet(StreamingAuditWorkbook workbook, String sheetName, PackagePart part, SXSSFSheet scratchSheet) {
+        this.workbook = workbook;
+        this.sheetName = sheetName;
+        this.part = part;
+        this.scratchSheet = scratchSheet;
+    }
+
+    @Override
+    public String getSheetName() {
+        return sheetName;
+    }
+
+    @Override
+    public int getFirstRowNum() {
+        ensureBounds();
+        return firstRowNum;
+    }
+
+    @Override
+    public int getLastRowNum() {
+        ensureBounds();
+        return lastRowNum;
+    }
+
+    @Override
+    public Row getRow(int rowIndex) {
+        if (rowIndex < 0) {
+            return null;
+        }
+        if (current != null && currentIndex == rowIndex) {
+            return current;
+        }
+        try {
+            if (xml == null || rowIndex <= lastConsumedIndex) {
+                restart();
+            }
+            while (true) {
+                if (pendingRowIndex < 0) {
+                    if (exhausted || !advanceToRowStart()) {
+                        exhausted = true;
+                        return null;
+                    }
+                }
+                if (pendingRowIndex > rowIndex) {
+                    return null;
+                }
+                if (pendingRowIndex == rowIndex) {
+                    return materializePendingRow();
+                }
+                skipPendingRow();
+            }
+        } catch (XMLStreamException | IOException exception) {
+            throw new AuditExcelException("Failed to stream sheet «" + sheetName + "»: " + exception.getMessage(), exception);
+        }
+    }
+
+    void closeReader() {
+        releaseCurrent();
+        if (xml != null) {
+            try {
+                xml.close();
+            } catch (XMLStreamException exception) {
+                log.log(Level.FINE, "Failed to close sheet reader", exception);
+            }
+            xml = null;
+        }
+        if (input != null) {
+            try {
+                input.close();
+            } catch (IOException exception) {
+                log.log(Level.FINE, "Failed to close sheet stream", exception);
+            }
+            input = null;
+        }
+    }
+
+    private void restart() throws IOException, XMLStreamException {
+        closeReader();
+        input = part.getInputStream();
+        xml = workbook.xmlInputFactory().createXMLStreamReader(input);
+        exhausted = false;
+        lastConsumedIndex = -1;
+        pendingRowIndex = -1;
+    }
+
+    /**
+     * Отдельный лёгкий проход: только атрибуты {@code <row r>}, без разбора ячеек.
+     */
+    private void ensureBounds() {
+        if (boundsKnown) {
+            return;
+        }
+        try (InputStream in = part.getInputStream()) {
+            XMLStreamReader reader = workbook.xmlInputFactory().createXMLStreamReader(in);
+            try {
+                int previous = -1;
+                while (reader.hasNext()) {
+                    int event = reader.next();
+                    if (event == XMLStreamConstants.START_ELEMENT && "row".equals(reader.getLocalName())) {
+                        previous = readRowIndex(reader, previous);
+                        if (firstRowNum < 0) {
+                            firstRowNum = previous;
+                        }
+                        lastRowNum = Math.max(lastRowNum, previous);
+                    } else if (event == XMLStreamConstants.END_ELEMENT && "sheetData".equals(reader.getLocalName())) {
+                        break;
+                    }
+                }
+            } finally {
+                reader.close();
+            }
+        } catch (XMLStreamException | IOException exception) {
+            throw new AuditExcelException("Failed to stream sheet «" + sheetName + "»: " + exception.getMessage(), exception);
+        }
+        boundsKnown = true;
+    }
+
+    private boolean advanceToRowStart() throws XMLStreamException {
+        while (xml.hasNext()) {
+            int event = xml.next();
+            if (event == XMLStreamConstants.START_ELEMENT && "row".equals(xml.getLocalName())) {
+                pendingRowIndex = readRowIndex(xml, lastConsumedIndex);
+                return true;
+            }
+            if (event == XMLStreamConstants.END_ELEMENT && "sheetData".equals(xml.getLocalName())) {
+                return false;
+            }
+        }
+        return false;
+    }
+
+    private void skipPendingRow() throws XMLStreamException {
+        skipElement();
+        lastConsumedIndex = pendingRowIndex;
+        pendingRowIndex = -1;
+    }
+
+    private Row materializePendingRow() throws XMLStreamException {
+        releaseCurrent();
+        int rowIndex = pendingRowIndex;
+        Row row = scratchSheet.createRow(rowIndex);
+        int previousColumn = -1;
+        while (xml.hasNext()) {
+            int event = xml.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                if ("c".equals(xml.getLocalName())) {
+                    previousColumn = readCell(row, previousColumn);
+                } else {
+                    skipElement();
+                }
+            } else if (event == XMLStreamConstants.END_ELEMENT && "row".equals(xml.getLocalName())) {
+                break;
+            }
+        }
+        lastConsumedIndex = rowIndex;
+        pendingRowIndex = -1;
+        current = row;
+        currentIndex = rowIndex;
+        return row;
+    }
+
+    /**
+     * Читает {@code <c>} и создаёт ячейку в строке-окне.
+     *
+     * @return 0-based индекс колонки прочитанной ячейки
+     */
+    private int readCell(Row row, int previousColumn) throws XMLStreamException {
+        String ref = xml.getAttributeValue(null, "r");
+        String type = xml.getAttributeValue(null, "t");
+        String styleAttr = xml.getAttributeValue(null, "s");
+        int column = ref != null ? columnIndex(ref) : previousColumn + 1;
+        String value = null;
+        StringBuilder inline = null;
+        while (xml.hasNext()) {
+            int event = xml.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                String name = xml.getLocalName();
+                if ("v".equals(name)) {
+                    value = xml.getElementText();
+                } else if ("is".equals(name)) {
+                    inline = readInlineString();
+                } else {
+                    skipElement();
+                }
+            } else if (event == XMLStreamConstants.END_ELEMENT && "c".equals(xml.getLocalName())) {
+                break;
+            }
+        }
+        if (inline != null && value == null) {
+            value = inline.toString();
+        }
+        if (value != null) {
+            setCellValue(row.createCell(column), type, value, styleAttr);
+        }
+        return column;
+    }
+
+    private StringBuilder readInlineString() throws XMLStreamException {
+        StringBuilder text = new StringBuilder();
+        while (xml.hasNext()) {
+            int event = xml.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                String name = xml.getLocalName();
+                if ("t".equals(name)) {
+                    text.append(xml.getElementText());
+                } else if ("rPh".equals(name)) {
+                    skipElement();
+                }
+            } else if (event == XMLStreamConstants.END_ELEMENT && "is".equals(xml.getLocalName())) {
+                break;
+            }
+        }
+        return text;
+    }
+
+    private void setCellValue(Cell cell, String type, String value, String styleAttr) {
+        if (type == null || "n".equals(type)) {
+            try {
+                cell.setCellValue(Double.parseDouble(value.trim()));
+                applyStyle(cell, styleAttr);
+            } catch (NumberFormatException exception) {
+                cell.setCellValue(value);
+            }
+            return;
+        }
+        switch (type) {
+            case "s" -> cell.setCellValue(sharedString(value));
+            case "inlineStr", "str" -> cell.setCellValue(value);
+            case "b" -> cell.setCellValue("1".equals(value.trim()) || "true".equalsIgnoreCase(value.trim()));
+            case "e" -> setError(cell, value);
+            case "d" -> setIsoDate(cell, value, styleAttr);
+            default -> cell.setCellValue(value);
+        }
+    }
+
+    private String sharedString(String value) {
+        try {
+            return workbook.sharedStrings().getItemAt(Integer.parseInt(value.trim())).getString();
+        } catch (NumberFormatException exception) {
+            return value;
+        }
+    }
+
+    private static void setError(Cell cell, String value) {
+        try {
+            cell.setCellErrorValue(FormulaError.forString(value.trim()).getCode());
+        } catch (IllegalArgumentException exception) {
+            cell.setCellValue(value);
+        }
+    }
+
+    private void setIsoDate(Cell cell, String value, String styleAttr) {
+        String trimmed = value.trim();
+        try {
+            cell.setCellValue(trimmed.indexOf('T') >= 0 ? LocalDateTime.parse(trimmed) : LocalDate.parse(trimmed).atStartOfDay());
+            applyStyle(cell, styleAttr);
+        } catch (DateTimeParseException exception) {
+            cell.setCellValue(value);
+        }
+    }
+
+    private void applyStyle(Cell cell, String styleAttr) {
+        if (styleAttr == null || styleAttr.isBlank()) {
+            return;
+        }
+        try {
+            CellStyle style = workbook.scratchStyle(Integer.parseInt(styleAttr.trim()));
+            if (style != null) {
+                cell.setCellStyle(style);
+            }
+        } catch (NumberFormatException ignored) {
+            // без стиля — как общий формат
+        }
+    }
+
+    private void releaseCurrent() {
+        if (current != null) {
+            scratchSheet.removeRow(current);
+            current = null;
+            currentIndex = -1;
+        }
+    }
+
+    /**
+     * Пропускает текущий элемент целиком (курсор стоит на его START_ELEMENT).
+     */
+    private void skipElement() throws XMLStreamException {
+        int depth = 1;
+        while (depth > 0 && xml.hasNext()) {
+            int event = xml.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                depth++;
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                depth--;
+            }
+        }
+    }
+
+    private static int readRowIndex(XMLStreamReader reader, int previous) {
+        String r = reader.getAttributeValue(null, "r");
+        if (r == null || r.isBlank()) {
+            return previous + 1;
+        }
+        try {
+            return Integer.parseInt(r.trim()) - 1;
+        } catch (NumberFormatException exception) {
+            return previous + 1;
+        }
+    }
+
+    private static int columnIndex(String ref) {
+        int end = 0;
+        while (end < ref.length() && Character.isLetter(ref.charAt(end))) {
+            end++;
+        }
+        return CellReference.convertColStringToIndex(ref.substring(0, end));
+    }
+}
@@ -0,0 +1,201 @@
+package com.femsq.web.audit.excel;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.openxml4j.opc.PackagePart;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.model.SharedStrings;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.streaming.SXSSFSheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.apache.poi.xssf.usermodel.XSSFCellStyle;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.openxmlformats.schemas.spreadsheetml.x2006.main.CTWorkbook;
+import org.xml.sax.SAXException;
+
+/**
+ * Потоковое чтение {@code .xlsx} через OOXML event model ({@link XSSFReader}) без построения DOM листов.
+ *
+ * <p>В памяти держатся только shared strings и стили книги; строки листа разбираются StAX-ом по одной
+ * и материализуются в служебном {@link SXSSFWorkbook} (без shared strings, без сброса на диск), чтобы
+ * существующие {@link AuditExcelCellReader}/{@link AuditExcelColumnLocator} работали с обычными
+ * {@link org.apache.poi.ss.usermodel.Cell}.</p>
+ */
+final class StreamingAuditWorkbook implements AuditWorkbook, Closeable {
+
+    private static final Logger log = Logger.getLogger(StreamingAuditWorkbook.class.getName());
+
+    private final OPCPackage pkg;
+    private final SharedStrings sharedStrings;
+    private final StylesTable styles;
+    private final XMLInputFactory xmlInputFactory = XMLHelper.newXMLInputFactory();
+    private final List<SheetRef> sheetRefs;
+    private final SXSSFWorkbook scratch;
+    private final Map<Integer, CellStyle> scratchStyles = new HashMap<>();
+    private final Map<String, StreamingAuditSheet> openedSheets = new HashMap<>();
+
+    private StreamingAuditWorkbook(OPCPackage pkg) throws IOException, OpenXML4JException, SAXException {
+        this.pkg = pkg;
+        XSSFReader reader = new XSSFReader(pkg);
+        this.sharedStrings = new ReadOnlySharedStringsTable(pkg, false);
+        this.styles = reader.getStylesTable();
+        this.sheetRefs = readSheetRefs(reader);
+        XSSFWorkbook base = new XSSFWorkbook();
+        if (readDate1904(reader)) {
+            CTWorkbook ctWorkbook = base.getCTWorkbook();
+            (ctWorkbook.isSetWorkbookPr() ? ctWorkbook.getWorkbookPr() : ctWorkbook.addNewWorkbookPr()).setDate1904(true);
+        }
+        this.scratch = new SXSSFWorkbook(base, -1, false, false);
+    }
+
+    /**
+     * Открывает книгу только на чтение.
+     *
+     * @param filePath путь к {@code .xlsx}
+     * @return книга; закрывается вызывающим
+     */
+    static StreamingAuditWorkbook open(Path filePath) throws IOException, OpenXML4JException, SAXException {
+        OPCPackage pkg = OPCPackage.open(filePath.toFile(), PackageAccess.READ);
+        try {
+            return new StreamingAuditWorkbook(pkg);
+        } catch (IOException | OpenXML4JException | SAXException | RuntimeException exception) {
+            pkg.revert();
+            throw exception;
+        }
+    }
+
+    @Override
+    public int getNumberOfSheets() {
+        return sheetRefs.size();
+    }
+
+    @Override
+    public AuditSheet getSheetAt(int index) {
+        return sheet(sheetRefs.get(index));
+    }
+
+    @Override
+    public AuditSheet getSheet(String name) {
+        if (name == null) {
+            return null;
+        }
+        for (SheetRef ref : sheetRefs) {
+            if (ref.name().equalsIgnoreCase(name)) {
+                return sheet(ref);
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public boolean isStreaming() {
+        return true;
+    }
+
+    @Override
+    public void close() throws IOException {
+        for (StreamingAuditSheet sheet : openedSheets.values()) {
+            sheet.closeReader();
+        }
+        openedSheets.clear();
+        try {
+            scratch.close();
+        } finally {
+            scratch.dispose();
+            pkg.revert();
+        }
+    }
+
+    XMLInputFactory xmlInputFactory() {
+        return xmlInputFactory;
+    }
+
+    SharedStrings sharedStrings() {
+        return sharedStrings;
+    }
+
+    /**
+     * Стиль служебной книги с тем же форматом числа, что у стиля {@code styleIndex} исходной книги
+     * (нужен для {@link org.apache.poi.ss.usermodel.DateUtil#isCellDateFormatted}).
+     */
+    CellStyle scratchStyle(int styleIndex) {
+        return scratchStyles.computeIfAbsent(styleIndex, index -> {
+            if (index < 0 || index >= styles.getNumCellStyles()) {
+                return null;
+            }
+            XSSFCellStyle source = styles.getStyleAt(index);
+            String format = source != null ? source.getDataFormatString() : null;
+            if (format == null) {
+                return null;
+            }
+            CellStyle style = scratch.createCellStyle();
+            style.setDataFormat(scratch.createDataFormat().getFormat(format));
+            return style;
+        });
+    }
+
+    private StreamingAuditSheet sheet(SheetRef ref) {
+        return openedSheets.computeIfAbsent(ref.name(), name -> {
+            SXSSFSheet scratchSheet = scratch.createSheet();
+            return new StreamingAuditSheet(this, name, ref.part(), scratchSheet);
+        });
+    }
+
+    private static List<SheetRef> readSheetRefs(XSSFReader reader) throws IOException, OpenXML4JException {
+        List<SheetRef> refs = new ArrayList<>();
+        XSSFReader.SheetIterator iterator = (XSSFReader.SheetIterator) reader.getSheetsData();
+        while (iterator.hasNext()) {
+            try (InputStream ignored = iterator.next()) {
+                refs.add(new SheetRef(iterator.getSheetName(), iterator.getSheetPart()));
+            }
+        }
+        return refs;
+    }
+
+    private boolean readDate1904(XSSFReader reader) throws IOException, OpenXML4JException {
+        try (InputStream in = reader.getWorkbookData()) {
+            XMLStreamReader xml = xmlInputFactory.createXMLStreamReader(in);
+            try {
+                while (xml.hasNext()) {
+                    if (xml.next() == XMLStreamConstants.START_ELEMENT) {
+                        String localName = xml.getLocalName();
+                        if ("workbookPr".equals(localName)) {
+                            String value = xml.getAttributeValue(null, "date1904");
+                            return "1".equals(value) || "true".equalsIgnoreCase(value);
+                        }
+                        if ("sheets".equals(localName)) {
+                            return false;
+                        }
+                    }
+                }
+                return false;
+            } finally {
+                xml.close();
+            }
+        } catch (XMLStreamException exception) {
+            log.log(Level.FINE, "Failed to read workbookPr, assuming 1900 date system", exception);
+            return false;
+        }
+    }
+
+    private record SheetRef(String name, PackagePart part) {
+    }
+}
@@ -0,0 +1,57 @@
+package com.femsq.web.audit.log;
+
+import java.util.logging.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Авто-очистка {@code ags.ra_a_log} от строк запусков, не дошедших до компактизации.
+ *
+ * <p>Завершённый запуск удаляет свои строки сам ({@link AuditLogStore#deleteEntries}); здесь остаются
+ * только записи упавших процессов. Удаление пакетами {@code DELETE TOP (batch-size)}, чтобы не держать
+ * длинную блокировку. Реализация "best-effort": ошибка очистки не должна ломать работу приложения.</p>
+ */
+@Service
+public class AuditLogCleanupService {
+
+    private static final Logger log = Logger.getLogger(AuditLogCleanupService.class.getName());
+
+    private final AuditLogStore auditLogStore;
+    private final int retentionDays;
+    private final int batchSize;
+
+    public AuditLogCleanupService(
+            AuditLogStore auditLogStore,
+            @Value("${audit.execution.log-retention.retention-days:30}") int retentionDays,
+            @Value("${audit.execution.log-retention.batch-size:5000}") int batchSize
+    ) {
+        this.auditLogStore = auditLogStore;
+        this.retentionDays = retentionDays;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Запуск раз в сутки (по умолчанию в 03:50). Время задаётся через cron.
+     */
+    @Scheduled(cron = "${audit.execution.log-retention.cron:0 50 3 * * *}")
+    public void cleanup() {
+        if (retentionDays <= 0 || batchSize <= 0) {
+            return;
+        }
+        int total = 0;
+        try {
+            int deleted;
+            do {
+                deleted = auditLogStore.deleteOlderThan(retentionDays, batchSize);
+                total += deleted;
+            } while (deleted >= batchSize);
+        } catch (Exception ex) {
+            log.warning("[AuditLogCleanup] cleanup failed: " + ex.getMessage());
+        }
+        if (total > 0) {
+            int deletedTotal = total;
+            log.info(() -> "[AuditLogCleanup] deleted=" + deletedTotal + ", retentionDays=" + retentionDays);
+        }
+    }
+}
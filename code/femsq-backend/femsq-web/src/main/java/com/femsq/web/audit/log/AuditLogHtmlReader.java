@@ -0,0 +1,55 @@
+package com.femsq.web.audit.log;
+
+import com.femsq.database.model.RaExecution;
+import com.femsq.database.service.RaExecutionService;
+import com.femsq.web.audit.AuditExecutionContext;
+import com.femsq.web.audit.AuditLogEntry;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.springframework.stereotype.Component;
+
+/**
+ * Ленивая сборка HTML-лога выполняющейся ревизии из {@code ags.ra_a_log}.
+ *
+ * <p>Пока ревизия в статусе {@code RUNNING}, {@code adt_results} не перезаписывается;
+ * при чтении HTML собирается из дописанных записей текущего запуска.</p>
+ */
+@Component
+public class AuditLogHtmlReader {
+
+    private static final Logger log = Logger.getLogger(AuditLogHtmlReader.class.getName());
+
+    private final AuditLogStore auditLogStore;
+    private final RaExecutionService raExecutionService;
+
+    public AuditLogHtmlReader(AuditLogStore auditLogStore, RaExecutionService raExecutionService) {
+        this.auditLogStore = Objects.requireNonNull(auditLogStore, "auditLogStore");
+        this.raExecutionService = Objects.requireNonNull(raExecutionService, "raExecutionService");
+    }
+
+    /**
+     * @param auditId ключ ревизии
+     * @return HTML текущего запуска; пусто, если запуск не RUNNING или журнал уже компактизирован
+     */
+    public Optional<String> renderRunning(long auditId) {
+        try {
+            Optional<RaExecution> execution = raExecutionService.getLatestByAuditId((int) auditId)
+                    .filter(exec -> "RUNNING".equalsIgnoreCase(exec.execStatus()));
+            if (execution.isEmpty()) {
+                return Optional.empty();
+            }
+            Integer execKey = execution.get().execKey();
+            List<AuditLogEntry> entries = auditLogStore.loadEntries(auditId, execKey != null ? execKey.longValue() : null);
+            if (entries.isEmpty()) {
+                return Optional.empty();
+            }
+            return Optional.of(AuditExecutionContext.renderHtml(auditId, entries));
+        } catch (RuntimeException ex) {
+            log.log(Level.WARNING, "[AuditLog] failed to render running log for auditId=" + auditId, ex);
+            return Optional.empty();
+        }
+    }
+}
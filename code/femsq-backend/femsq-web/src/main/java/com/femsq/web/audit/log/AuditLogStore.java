@@ -0,0 +1,50 @@
+package com.femsq.web.audit.log;
+
+import com.femsq.web.audit.AuditLogEntry;
+import java.util.List;
+
+/**
+ * Append-only хранилище записей лога ревизии ({@code ags.ra_a_log}).
+ *
+ * <p>Во время выполнения ревизии на каждом flush дописываются только новые {@link AuditLogEntry};
+ * HTML для {@code adt_results} собирается один раз в конце (компактизация) или лениво при чтении.</p>
+ */
+public interface AuditLogStore {
+
+    /**
+     * Дописывает записи лога одним batch.
+     *
+     * @param auditId  ключ ревизии ({@code adt_key})
+     * @param execKey  ключ запуска ({@code exec_key}); {@code null} — запуск без записи в {@code ra_execution}
+     * @param firstSeq порядковый номер первой записи (0-based индекс в контексте)
+     * @param entries  новые записи в хронологическом порядке
+     * @return оценка записанных байт (NVARCHAR, UTF-16)
+     */
+    long appendEntries(long auditId, Long execKey, int firstSeq, List<AuditLogEntry> entries);
+
+    /**
+     * Читает все записи запуска в порядке {@code ral_seq}.
+     *
+     * @param auditId ключ ревизии
+     * @param execKey ключ запуска; {@code null} — запуск без записи в {@code ra_execution}
+     * @return записи (пустой список, если журнал уже компактизирован)
+     */
+    List<AuditLogEntry> loadEntries(long auditId, Long execKey);
+
+    /**
+     * Удаляет записи запуска после компактизации в {@code adt_results}.
+     *
+     * @return число удалённых строк
+     */
+    int deleteEntries(long auditId, Long execKey);
+
+    /**
+     * Удаляет пакет записей старше {@code retentionDays} дней независимо от статуса запуска:
+     * запуск, упавший до компактизации, может навсегда остаться в {@code RUNNING}.
+     *
+     * @param retentionDays срок хранения в днях
+     * @param limit         максимальное число строк за вызов ({@code DELETE TOP})
+     * @return число удалённых строк
+     */
+    int deleteOlderThan(int retentionDays, int limit);
+}
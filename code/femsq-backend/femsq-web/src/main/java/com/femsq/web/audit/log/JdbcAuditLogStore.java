@@ -0,0 +1,264 @@
+package com.femsq.web.audit.log;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.femsq.database.connection.ConnectionFactory;
+import com.femsq.database.exception.DaoException;
+import com.femsq.web.audit.AuditLogEntry;
+import com.femsq.web.audit.AuditLogLevel;
+import com.femsq.web.audit.AuditLogScope;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.springframework.stereotype.Repository;
+
+/**
+ * JDBC-реализация {@link AuditLogStore} для таблицы {@code ags.ra_a_log}.
+ *
+ * <p>Таблица создаётся при первом обращении (как {@code ags.ra_reconcile_marker}): changelog приложение
+ * не применяет. DDL продублирован в {@code 2026-10-17-ra-a-log.sql}. Строки запусков, не дошедших
+ * до компактизации (падение процесса), удаляет {@link AuditLogCleanupService}.</p>
+ */
+@Repository
+public class JdbcAuditLogStore implements AuditLogStore {
+
+    private static final Logger log = Logger.getLogger(JdbcAuditLogStore.class.getName());
+    private static final String TABLE_NAME = "ags.ra_a_log";
+    /** Запуск без записи {@code ra_execution} хранится под exec_key = 0. */
+    private static final int NO_EXEC_KEY = 0;
+    private static final int BATCH_SIZE = 500;
+    static final String DELETE_OLDER_THAN_SQL =
+            "DELETE TOP (?) FROM " + TABLE_NAME + " WHERE ral_ts < DATEADD(day, -?, SYSDATETIME())";
+    private static final ObjectMapper META_MAPPER = new ObjectMapper();
+    private static final TypeReference<Map<String, String>> META_TYPE = new TypeReference<>() {
+    };
+
+    private final ConnectionFactory connectionFactory;
+    private volatile boolean tableEnsured;
+
+    public JdbcAuditLogStore(ConnectionFactory connectionFactory) {
+        this.connectionFactory = Objects.requireNonNull(connectionFactory, "connectionFactory");
+    }
+
+    @Override
+    public long appendEntries(long auditId, Long execKey, int firstSeq, List<AuditLogEntry> entries) {
+        if (entries == null || entries.isEmpty()) {
+            return 0L;
+        }
+        String sql = "INSERT INTO " + TABLE_NAME
+                + " (ral_adt_key, ral_exec_key, ral_seq, ral_ts, ral_level, ral_scope, ral_span_id, ral_parent_span_id,"
+                + " ral_code, ral_message, ral_meta) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+        long bytes = 0L;
+        try (Connection connection = connectionFactory.createConnection()) {
+            ensureTableExists(connection);
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try (PreparedStatement statement = connection.prepareStatement(sql)) {
+                int seq = firstSeq;
+                int pending = 0;
+                for (AuditLogEntry entry : entries) {
+                    String meta = writeMeta(entry.getMeta());
+                    statement.setInt(1, (int) auditId);
+                    statement.setInt(2, toStoredExecKey(execKey));
+                    statement.setInt(3, seq++);
+                    statement.setTimestamp(4, Timestamp.from(
+                            entry.getTimestamp() != null ? entry.getTimestamp() : Instant.now()));
+                    setNStringNullable(statement, 5, entry.getLevel() != null ? entry.getLevel().name() : null);
+                    setNStringNullable(statement, 6, entry.getScope() != null ? entry.getScope().name() : null);
+                    setNStringNullable(statement, 7, entry.getSpanId());
+                    setNStringNullable(statement, 8, entry.getParentSpanId());
+                    setNStringNullable(statement, 9, entry.getCode());
+                    statement.setNString(10, entry.getMessageHtml());
+                    setNStringNullable(statement, 11, meta);
+                    statement.addBatch();
+                    bytes += estimateBytes(entry, meta);
+                    if (++pending >= BATCH_SIZE) {
+                        statement.executeBatch();
+                        pending = 0;
+                    }
+                }
+                if (pending > 0) {
+                    statement.executeBatch();
+                }
+                connection.commit();
+            } catch (SQLException exception) {
+                connection.rollback();
+                throw exception;
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+            return bytes;
+        } catch (SQLException exception) {
+            log.log(Level.SEVERE, "Failed to append audit log entries", exception);
+            throw new DaoException("Не удалось дописать журнал ревизии " + auditId, exception);
+        }
+    }
+
+    @Override
+    public List<AuditLogEntry> loadEntries(long auditId, Long execKey) {
+        String sql = "SELECT ral_ts, ral_level, ral_scope, ral_span_id, ral_parent_span_id, ral_code, ral_message, ral_meta "
+                + "FROM " + TABLE_NAME + " WHERE ral_adt_key = ? AND ral_exec_key = ? ORDER BY ral_seq";
+        try (Connection connection = connectionFactory.createConnection()) {
+            ensureTableExists(connection);
+            try (PreparedStatement statement = connection.prepareStatement(sql)) {
+                statement.setInt(1, (int) auditId);
+                statement.setInt(2, toStoredExecKey(execKey));
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    List<AuditLogEntry> result = new ArrayList<>();
+                    while (resultSet.next()) {
+                        result.add(mapEntry(resultSet));
+                    }
+                    return result;
+                }
+            }
+        } catch (SQLException exception) {
+            log.log(Level.SEVERE, "Failed to load audit log entries", exception);
+            throw new DaoException("Не удалось прочитать журнал ревизии " + auditId, exception);
+        }
+    }
+
+    @Override
+    public int deleteEntries(long auditId, Long execKey) {
+        String sql = "DELETE FROM " + TABLE_NAME + " WHERE ral_adt_key = ? AND ral_exec_key = ?";
+        try (Connection connection = connectionFactory.createConnection()) {
+            ensureTableExists(connection);
+            try (PreparedStatement statement = connection.prepareStatement(sql)) {
+                statement.setInt(1, (int) auditId);
+                statement.setInt(2, toStoredExecKey(execKey));
+                return statement.executeUpdate();
+            }
+        } catch (SQLException exception) {
+            log.log(Level.SEVERE, "Failed to delete audit log entries", exception);
+            throw new DaoException("Не удалось очистить журнал ревизии " + auditId, exception);
+        }
+    }
+
+    @Override
+    public int deleteOlderThan(int retentionDays, int limit) {
+        try (Connection connection = connectionFactory.createConnection()) {
+            ensureTableExists(connection);
+            try (PreparedStatement statement = connection.prepareStatement(DELETE_OLDER_THAN_SQL)) {
+                statement.setInt(1, limit);
+                statement.setInt(2, retentionDays);
+                return statement.executeUpdate();
+            }
+        } catch (SQLException exception) {
+            log.log(Level.SEVERE, "Failed to purge expired audit log entries", exception);
+            throw new DaoException("Не удалось удалить устаревшие записи журнала ревизий", exception);
+        }
+    }
+
+    private void ensureTableExists(Connection connection) throws SQLException {
+        if (tableEnsured) {
+            return;
+        }
+        String sql = """
+                IF OBJECT_ID(N'ags.ra_a_log', N'U') IS NULL
+                BEGIN
+                    CREATE TABLE ags.ra_a_log (
+                        ral_key BIGINT IDENTITY(1,1) NOT NULL,
+                        ral_adt_key INT NOT NULL,
+                        ral_exec_key INT NOT NULL,
+                        ral_seq INT NOT NULL,
+                        ral_ts DATETIME2 NOT NULL,
+                        ral_level NVARCHAR(16) NULL,
+                        ral_scope NVARCHAR(16) NULL,
+                        ral_span_id NVARCHAR(32) NULL,
+                        ral_parent_span_id NVARCHAR(32) NULL,
+                        ral_code NVARCHAR(128) NULL,
+                        ral_message NVARCHAR(MAX) NOT NULL,
+                        ral_meta NVARCHAR(MAX) NULL,
+                        CONSTRAINT PK_ra_a_log PRIMARY KEY (ral_key)
+                    );
+                    CREATE UNIQUE INDEX UX_ra_a_log_adt_exec_seq
+                        ON ags.ra_a_log(ral_adt_key, ral_exec_key, ral_seq);
+                END
+                """;
+        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+            ps.execute();
+        }
+        tableEnsured = true;
+    }
+
+    private AuditLogEntry mapEntry(ResultSet resultSet) throws SQLException {
+        Timestamp ts = resultSet.getTimestamp("ral_ts");
+        return new AuditLogEntry(
+                ts != null ? ts.toInstant() : null,
+                parseEnum(AuditLogLevel.class, resultSet.getNString("ral_level")),
+                parseEnum(AuditLogScope.class, resultSet.getNString("ral_scope")),
+                resultSet.getNString("ral_span_id"),
+                resultSet.getNString("ral_parent_span_id"),
+                resultSet.getNString("ral_code"),
+                resultSet.getNString("ral_message"),
+                readMeta(resultSet.getNString("ral_meta"))
+        );
+    }
+
+    private static <E extends Enum<E>> E parseEnum(Class<E> type, String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            return Enum.valueOf(type, value.trim());
+        } catch (IllegalArgumentException ignored) {
+            return null;
+        }
+    }
+
+    private static int toStoredExecKey(Long execKey) {
+        return execKey != null ? execKey.intValue() : NO_EXEC_KEY;
+    }
+
+    private static String writeMeta(Map<String, String> meta) {
+        if (meta == null || meta.isEmpty()) {
+            return null;
+        }
+        try {
+            return META_MAPPER.writeValueAsString(meta);
+        } catch (JsonProcessingException exception) {
+            log.log(Level.FINE, "Failed to serialize audit log meta", exception);
+            return null;
+        }
+    }
+
+    private static Map<String, String> readMeta(String json) {
+        if (json == null || json.isBlank()) {
+            return null;
+        }
+        try {
+            return META_MAPPER.readValue(json, META_TYPE);
+        } catch (JsonProcessingException exception) {
+            log.log(Level.FINE, "Failed to parse audit log meta", exception);
+            return null;
+        }
+    }
+
+    private static long estimateBytes(AuditLogEntry entry, String meta) {
+        long chars = length(entry.getMessageHtml()) + length(entry.getCode()) + length(entry.getSpanId())
+                + length(entry.getParentSpanId()) + length(meta);
+        return chars * 2L;
+    }
+
+    private static int length(String value) {
+        return value == null ? 0 : value.length();
+    }
+
+    private static void setNStringNullable(PreparedStatement statement, int index, String value) throws SQLException {
+        if (value == null) {
+            statement.setNull(index, Types.NVARCHAR);
+        } else {
+            statement.setNString(index, value);
+        }
+    }
+}
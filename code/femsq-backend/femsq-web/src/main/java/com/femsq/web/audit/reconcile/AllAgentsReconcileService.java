@@ -86,7 +86,12 @@ public class AllAgentsReconcileService extends AbstractTransactionalReconcileSer
         LookupResolutionResult lookupResult = resolveLookupKeys(stagingRowsData, lookupCaches);
         LookupResolutionStats lookupStats = lookupResult.stats();
         CanonicalKeyStats canonicalKeyStats = buildCanonicalKeyStats(stagingRowsData, lookupResult.byRowKey());
-        RaReadModelResult readModelResult = buildRaReadModel(connection, stagingRowsData, lookupResult.byRowKey(), context);
+        DomainScope domainScope = buildDomainScope(stagingRowsData, lookupResult.byRowKey(), lookupCaches);
+        Map<CanonicalMatchKey, List<DomainRaRow>> domainRaByKey = loadDomainRaRows(connection, domainScope.raPeriods());
+        DomainSnapshotStats domainStats = DomainSnapshotStats.empty()
+                .withRa(domainScope.raPeriods().size(), countRows(domainRaByKey),
+                        countMatchedRows(domainRaByKey, domainScope.raKeys()));
+        RaReadModelResult readModelResult = buildRaReadModel(stagingRowsData, lookupResult.byRowKey(), domainRaByKey, context);
         RaReadModelStats readModelStats = readModelResult.stats();
         // RC read-model строим позже:
         // - в dry-run можно строить сразу
@@ -122,7 +127,7 @@ public class AllAgentsReconcileService extends AbstractTransactionalReconcileSer
         int rcSumsUnchangedSkipped = 0;
         int rcNewPlanned = 0;
         int rcChangedPlanned = 0;
-        RaDeletePlan raDeletePlan = planRaDeletes(connection, stagingRowsData, lookupResult.byRowKey());
+        RaDeletePlan raDeletePlan = planRaDeletes(stagingRowsData, lookupResult.byRowKey(), domainRaByKey);
         // rcDeletePlan зависит от domainRcByKey, который для apply нужно грузить после RA apply.
         RcDeletePlan rcDeletePlan = new RcDeletePlan(List.of(), 0);
         int raDeleted = 0;
@@ -132,9 +137,11 @@ public class AllAgentsReconcileService extends AbstractTransactionalReconcileSer
         boolean raDeleteAlreadyDone = false;
         boolean rcDeleteAlreadyDone = false;
         if (dryRun) {
-            RaPeriodNumIndex raIndex = loadRaKeysByPeriodAndRaNum(connection);
+            RaPeriodNumIndex raIndex = loadRaKeysByPeriodAndRaNum(connection, domainScope.reportPeriods());
             Map<PeriodRaNumKey, List<Long>> raByPeriodAndNum = raIndex.byPeriodAndNum();
-            Map<RcChangeMatchKey, List<DomainRcChangeRow>> domainRcByKey = loadDomainRcChangeRows(connection);
+            Map<RcChangeMatchKey, List<DomainRcChangeRow>> domainRcByKey =
+                    loadDomainRcChangeRows(connection, domainScope.rcPeriods());
+            domainStats = withRcSnapshotStats(domainStats, domainScope, raByPeriodAndNum, domainRcByKey);
             rcReadModelResult = buildRcChangeReadModel(
                     stagingRowsData,
                     lookupResult.byRowKey(),
@@ -192,9 +199,11 @@ public class AllAgentsReconcileService extends AbstractTransactionalReconcileSer
             }
 
             // После apply RA обновляем кэши, которые нужны для RC сопоставления/удалений.
-            RaPeriodNumIndex raIndex = loadRaKeysByPeriodAndRaNum(connection);
+            RaPeriodNumIndex raIndex = loadRaKeysByPeriodAndRaNum(connection, domainScope.reportPeriods());
             Map<PeriodRaNumKey, List<Long>> raByPeriodAndNum = raIndex.byPeriodAndNum();
-            Map<RcChangeMatchKey, List<DomainRcChangeRow>> domainRcByKey = loadDomainRcChangeRows(connection);
+            Map<RcChangeMatchKey, List<DomainRcChangeRow>> domainRcByKey =
+                    loadDomainRcChangeRows(connection, domainScope.rcPeriods());
+            domainStats = withRcSnapshotStats(domainStats, domainScope, raByPeriodAndNum, domainRcByKey);
             rcReadModelResult = buildRcChangeReadModel(
                     stagingRowsData,
                     lookupResult.byRowKey(),
@@ -276,6 +285,7 @@ public class AllAgentsReconcileService extends AbstractTransactionalReconcileSer
                 + ", marker_rcStepAlreadyDone=" + rcStepAlreadyDone
                 + ", marker_raDeleteAlreadyDone=" + raDeleteAlreadyDone
                 + ", marker_rcDeleteAlreadyDone=" + rcDeleteAlreadyDone;
+        counters = counters + ", " + domainStats.format();
         counters = counters + ", deleteEnabled=" + ENABLE_DELETES
                 + ", raDeletePlanned=" + raDeletePlan.planned()
                 + ", raDeleteApplied=" + raDeleted
@@ -521,12 +531,11 @@ public class AllAgentsReconcileService extends AbstractTransactionalReconcileSer
     }
 
     private RaReadModelResult buildRaReadModel(
-            Connection connection,
             List<StagingRaRow> rows,
             Map<Long, ResolvedLookupKeys> byRowKey,
+            Map<CanonicalMatchKey, List<DomainRaRow>> domainByKey,
             ReconcileContext context
-    ) throws SQLException {
-        Map<CanonicalMatchKey, List<DomainRaRow>> domainByKey = loadDomainRaRows(connection);
+    ) {
         List<NewRaRow> newRows = new ArrayList<>();
         List<ChangedRaRow> changedRows = new ArrayList<>();
         List<Type5ReconcileErrorGrouper.ErrorHit> errorHits = new ArrayList<>();
@@ -1102,7 +1111,27 @@ public class AllAgentsReconcileService extends AbstractTransactionalReconcileSer
         statement.setBigDecimal(index, value);
     }
 
-    private Map<CanonicalMatchKey, List<DomainRaRow>> loadDomainRaRows(Connection connection) throws SQLException {
+    /**
+     * Domain snapshot {@code ags.ra} + {@code raSmLt} только по периодам источника.
+     * <p>Период — граница delete-планирования ({@link #planRaDeletes}), поэтому сужать snapshot до точных ключей нельзя.</p>
+     */
+    Map<CanonicalMatchKey, List<DomainRaRow>> loadDomainRaRows(Connection connection, Set<Integer> periods)
+            throws SQLException {
+        Map<CanonicalMatchKey, List<DomainRaRow>> byKey = new HashMap<>();
+        List<Integer> sortedPeriods = periods.stream().sorted().toList();
+        for (int offset = 0; offset < sortedPeriods.size(); offset += BULK_IN_CHUNK) {
+            List<Integer> chunk = sortedPeriods.subList(offset, Math.min(offset + BULK_IN_CHUNK, sortedPeriods.size()));
+            loadDomainRaRowsChunk(connection, chunk, byKey);
+        }
+        return byKey;
+    }
+
+    private void loadDomainRaRowsChunk(
+            Connection connection,
+            List<Integer> periods,
+            Map<CanonicalMatchKey, List<DomainRaRow>> byKey
+    ) throws SQLException {
+        String inClause = String.join(",", Collections.nCopies(periods.size(), "?"));
         String sql = """
                 SELECT
                     r.ra_key,
@@ -1126,38 +1155,39 @@ public class AllAgentsReconcileService extends AbstractTransactionalReconcileSer
                     s.ras_others
                 FROM ags.ra AS r
                 LEFT JOIN ags.raSmLt AS s ON s.ras_ra = r.ra_key
-                """;
-        Map<CanonicalMatchKey, List<DomainRaRow>> byKey = new HashMap<>();
-        try (PreparedStatement statement = connection.prepareStatement(sql);
-             ResultSet resultSet = statement.executeQuery()) {
-            while (resultSet.next()) {
-                CanonicalMatchKey key = new CanonicalMatchKey(
-                        resultSet.getInt("ra_org_sender"),
-                        resultSet.getInt("ra_cac"),
-                        resultSet.getInt("ra_period"),
-                        trimToNull(resultSet.getString("ra_num"))
-                );
-                DomainRaRow row = new DomainRaRow(
-                        resultSet.getLong("ra_key"),
-                        trimToNull(resultSet.getString("ra_type")),
-                        toLocalDate(resultSet, "ra_date"),
-                        trimToNull(resultSet.getString("ra_arrived")),
-                        toLocalDate(resultSet, "ra_arrived_date"),
-                        toLocalDate(resultSet, "ra_arrived_dateFact"),
-                        trimToNull(resultSet.getString("ra_returned")),
-                        toLocalDate(resultSet, "ra_returned_date"),
-                        trimToNull(resultSet.getString("ra_returnedReason")),
-                        trimToNull(resultSet.getString("ra_sent")),
-                        toLocalDate(resultSet, "ra_sent_date"),
-                        resultSet.getBigDecimal("ras_total"),
-                        resultSet.getBigDecimal("ras_work"),
-                        resultSet.getBigDecimal("ras_equip"),
-                        resultSet.getBigDecimal("ras_others")
-                );
-                byKey.computeIfAbsent(key, ignored -> new ArrayList<>()).add(row);
+                WHERE r.ra_period IN (%s)
+                """.formatted(inClause);
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            bindIntegers(statement, periods);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    CanonicalMatchKey key = new CanonicalMatchKey(
+                            resultSet.getInt("ra_org_sender"),
+                            resultSet.getInt("ra_cac"),
+                            resultSet.getInt("ra_period"),
+                            trimToNull(resultSet.getString("ra_num"))
+                    );
+                    DomainRaRow row = new DomainRaRow(
+                            resultSet.getLong("ra_key"),
+                            trimToNull(resultSet.getString("ra_type")),
+                            toLocalDate(resultSet, "ra_date"),
+                            trimToNull(resultSet.getString("ra_arrived")),
+                            toLocalDate(resultSet, "ra_arrived_date"),
+                            toLocalDate(resultSet, "ra_arrived_dateFact"),
+                            trimToNull(resultSet.getString("ra_returned")),
+                            toLocalDate(resultSet, "ra_returned_date"),
+                            trimToNull(resultSet.getString("ra_returnedReason")),
+                            trimToNull(resultSet.getString("ra_sent")),
+                            toLocalDate(resultSet, "ra_sent_date"),
+                            resultSet.getBigDecimal("ras_total"),
+                            resultSet.getBigDecimal("ras_work"),
+                            resultSet.getBigDecimal("ras_equip"),
+                            resultSet.getBigDecimal("ras_others")
+                    );
+                    byKey.computeIfAbsent(key, ignored -> new ArrayList<>()).add(row);
+                }
             }
         }
-        return byKey;
     }
 
     private boolean isSameAsSource(DomainRaRow domain, StagingRaRow source, ResolvedLookupKeys keys) {
@@ -1299,71 +1329,190 @@ public class AllAgentsReconcileService extends AbstractTransactionalReconcileSer
     /**
      * Индекс {@code ags.ra} по (период, №) плюс {@code ra_type} по ключу — для ветки RC (§9.3.8).
      */
-    private RaPeriodNumIndex loadRaKeysByPeriodAndRaNum(Connection connection) throws SQLException {
-        String sql = """
-                SELECT r.ra_key, r.ra_period, r.ra_num, r.ra_type
-                FROM ags.ra r
-                """;
+    private RaPeriodNumIndex loadRaKeysByPeriodAndRaNum(Connection connection, Set<Integer> reportPeriods)
+            throws SQLException {
         Map<PeriodRaNumKey, List<Long>> byKey = new HashMap<>();
         Map<Long, String> typeByKey = new HashMap<>();
-        try (PreparedStatement statement = connection.prepareStatement(sql);
-             ResultSet resultSet = statement.executeQuery()) {
-            while (resultSet.next()) {
-                String raNum = trimToNull(resultSet.getString("ra_num"));
-                if (raNum == null) {
-                    continue;
+        List<Integer> sortedPeriods = reportPeriods.stream().sorted().toList();
+        for (int offset = 0; offset < sortedPeriods.size(); offset += BULK_IN_CHUNK) {
+            List<Integer> chunk = sortedPeriods.subList(offset, Math.min(offset + BULK_IN_CHUNK, sortedPeriods.size()));
+            String sql = """
+                    SELECT r.ra_key, r.ra_period, r.ra_num, r.ra_type
+                    FROM ags.ra r
+                    WHERE r.ra_period IN (%s)
+                    """.formatted(String.join(",", Collections.nCopies(chunk.size(), "?")));
+            try (PreparedStatement statement = connection.prepareStatement(sql)) {
+                bindIntegers(statement, chunk);
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    while (resultSet.next()) {
+                        String raNum = trimToNull(resultSet.getString("ra_num"));
+                        if (raNum == null) {
+                            continue;
+                        }
+                        PeriodRaNumKey key = new PeriodRaNumKey(resultSet.getInt("ra_period"), raNum);
+                        long raKey = resultSet.getLong("ra_key");
+                        byKey.computeIfAbsent(key, ignored -> new ArrayList<>()).add(raKey);
+                        typeByKey.put(raKey, trimToNull(resultSet.getString("ra_type")));
+                    }
                 }
-                PeriodRaNumKey key = new PeriodRaNumKey(resultSet.getInt("ra_period"), raNum);
-                long raKey = resultSet.getLong("ra_key");
-                byKey.computeIfAbsent(key, ignored -> new ArrayList<>()).add(raKey);
-                typeByKey.put(raKey, trimToNull(resultSet.getString("ra_type")));
             }
         }
         return new RaPeriodNumIndex(byKey, typeByKey);
     }
 
-    private Map<RcChangeMatchKey, List<DomainRcChangeRow>> loadDomainRcChangeRows(Connection connection) throws SQLException {
+    /**
+     * Domain snapshot {@code ags.ra_change} + {@code ra_chSmLt} только по периодам изменений источника
+     * (граница delete-планирования {@link #planRcDeletes}).
+     */
+    Map<RcChangeMatchKey, List<DomainRcChangeRow>> loadDomainRcChangeRows(Connection connection, Set<Integer> rcPeriods)
+            throws SQLException {
+        Map<RcChangeMatchKey, List<DomainRcChangeRow>> byKey = new HashMap<>();
+        List<Integer> sortedPeriods = rcPeriods.stream().sorted().toList();
+        for (int offset = 0; offset < sortedPeriods.size(); offset += BULK_IN_CHUNK) {
+            List<Integer> chunk = sortedPeriods.subList(offset, Math.min(offset + BULK_IN_CHUNK, sortedPeriods.size()));
+            loadDomainRcChangeRowsChunk(connection, chunk, byKey);
+        }
+        return byKey;
+    }
+
+    private void loadDomainRcChangeRowsChunk(
+            Connection connection,
+            List<Integer> rcPeriods,
+            Map<RcChangeMatchKey, List<DomainRcChangeRow>> byKey
+    ) throws SQLException {
         String sql = "SELECT c.rac_key, c." + RC_COL_RA_FK + " AS rac_ra_fk, c." + RC_COL_NUM + " AS rac_change_num, c.ra_period, "
                 + "c." + RC_COL_DATE + " AS rac_rc_date, c.ra_org_sender, c.ra_arrived, c.ra_arrived_date, c.ra_arrived_dateFact, "
                 + "c.ra_returned, c.ra_returned_date, c.ra_returnedReason, c.ra_sent, c.ra_sent_date, "
                 + "s." + RACS_TOTAL + " AS racs_total, s." + RACS_WORK + " AS racs_work, s." + RACS_EQUIP + " AS racs_equip, s."
                 + RACS_OTHERS + " AS racs_others "
                 + "FROM ags.ra_change c "
-                + "LEFT JOIN ags.ra_chSmLt s ON c.rac_key = s." + RACS_FK_RAC;
-        Map<RcChangeMatchKey, List<DomainRcChangeRow>> byKey = new HashMap<>();
-        try (PreparedStatement statement = connection.prepareStatement(sql);
-             ResultSet resultSet = statement.executeQuery()) {
-            while (resultSet.next()) {
-                String changeNum = normalizeRcChangeNumKey(resultSet.getString("rac_change_num"));
-                RcChangeMatchKey key = new RcChangeMatchKey(
-                        resultSet.getInt("ra_period"),
-                        resultSet.getLong("rac_ra_fk"),
-                        changeNum
-                );
-                DomainRcChangeRow row = new DomainRcChangeRow(
-                        resultSet.getLong("rac_key"),
-                        resultSet.getLong("rac_ra_fk"),
-                        changeNum,
-                        resultSet.getInt("ra_period"),
-                        toLocalDate(resultSet, "rac_rc_date"),
-                        resultSet.getInt("ra_org_sender"),
-                        trimToNull(resultSet.getString("ra_arrived")),
-                        toLocalDate(resultSet, "ra_arrived_date"),
-                        toLocalDate(resultSet, "ra_arrived_dateFact"),
-                        trimToNull(resultSet.getString("ra_returned")),
-                        toLocalDate(resultSet, "ra_returned_date"),
-                        trimToNull(resultSet.getString("ra_returnedReason")),
-                        trimToNull(resultSet.getString("ra_sent")),
-                        toLocalDate(resultSet, "ra_sent_date"),
-                        resultSet.getBigDecimal("racs_total"),
-                        resultSet.getBigDecimal("racs_work"),
-                        resultSet.getBigDecimal("racs_equip"),
-                        resultSet.getBigDecimal("racs_others")
-                );
-                byKey.computeIfAbsent(key, ignored -> new ArrayList<>()).add(row);
+                + "LEFT JOIN ags.ra_chSmLt s ON c.rac_key = s." + RACS_FK_RAC + " "
+                + "WHERE c.ra_period IN (" + String.join(",", Collections.nCopies(rcPeriods.size(), "?")) + ")";
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            bindIntegers(statement, rcPeriods);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    String changeNum = normalizeRcChangeNumKey(resultSet.getString("rac_change_num"));
+                    RcChangeMatchKey key = new RcChangeMatchKey(
+                            resultSet.getInt("ra_period"),
+                            resultSet.getLong("rac_ra_fk"),
+                            changeNum
+                    );
+                    DomainRcChangeRow row = new DomainRcChangeRow(
+                            resultSet.getLong("rac_key"),
+                            resultSet.getLong("rac_ra_fk"),
+                            changeNum,
+                            resultSet.getInt("ra_period"),
+                            toLocalDate(resultSet, "rac_rc_date"),
+                            resultSet.getInt("ra_org_sender"),
+                            trimToNull(resultSet.getString("ra_arrived")),
+                            toLocalDate(resultSet, "ra_arrived_date"),
+                            toLocalDate(resultSet, "ra_arrived_dateFact"),
+                            trimToNull(resultSet.getString("ra_returned")),
+                            toLocalDate(resultSet, "ra_returned_date"),
+                            trimToNull(resultSet.getString("ra_returnedReason")),
+                            trimToNull(resultSet.getString("ra_sent")),
+                            toLocalDate(resultSet, "ra_sent_date"),
+                            resultSet.getBigDecimal("racs_total"),
+                            resultSet.getBigDecimal("racs_work"),
+                            resultSet.getBigDecimal("racs_equip"),
+                            resultSet.getBigDecimal("racs_others")
+                    );
+                    byKey.computeIfAbsent(key, ignored -> new ArrayList<>()).add(row);
+                }
             }
         }
-        return byKey;
+    }
+
+    /**
+     * Пространство ключей источника для domain snapshot: периоды RA-строк, периоды базовых отчётов ветки RC
+     * и периоды самих изменений. Domain read-model растёт с размером файла, а не с историей {@code ags.ra}.
+     */
+    private DomainScope buildDomainScope(
+            List<StagingRaRow> rows,
+            Map<Long, ResolvedLookupKeys> byRowKey,
+            LookupCaches lookupCaches
+    ) {
+        Set<Integer> raPeriods = new HashSet<>();
+        Set<CanonicalMatchKey> raKeys = new HashSet<>();
+        Set<Integer> reportPeriods = new HashSet<>();
+        Set<Integer> rcPeriods = new HashSet<>();
+        List<RcScopeLine> rcLines = new ArrayList<>();
+        Map<LocalDate, Integer> periodByDate = lookupCaches.periodByDate();
+        for (StagingRaRow row : rows) {
+            if (!"ОА изм".equals(trimToNull(row.sign()))) {
+                CanonicalMatchKey key = toCanonicalMatchKey(row, byRowKey.get(row.key()));
+                if (key != null) {
+                    raKeys.add(key);
+                    raPeriods.add(key.raPeriod());
+                }
+                continue;
+            }
+            Optional<RcStagingLineParser.ParsedRcLine> parsedOpt = RcStagingLineParser.parse(row.raNum());
+            Integer rcPeriod = resolvePeriodKey(row.raDate(), periodByDate);
+            if (parsedOpt.isEmpty() || rcPeriod == null) {
+                continue;
+            }
+            rcPeriods.add(rcPeriod);
+            RcStagingLineParser.ParsedRcLine parsed = parsedOpt.get();
+            Integer reportPeriodKey = resolvePeriodKey(parsed.reportDate(), periodByDate);
+            String reportNum = trimToNull(parsed.reportNumber());
+            if (reportPeriodKey == null || reportNum == null) {
+                continue;
+            }
+            reportPeriods.add(reportPeriodKey);
+            rcLines.add(new RcScopeLine(
+                    rcPeriod,
+                    new PeriodRaNumKey(reportPeriodKey, reportNum),
+                    normalizeRcChangeNumKey(String.valueOf(parsed.changeNumber()))));
+        }
+        return new DomainScope(raPeriods, raKeys, reportPeriods, rcPeriods, rcLines);
+    }
+
+    static DomainSnapshotStats withRcSnapshotStats(
+            DomainSnapshotStats stats,
+            DomainScope scope,
+            Map<PeriodRaNumKey, List<Long>> raByPeriodAndNum,
+            Map<RcChangeMatchKey, List<DomainRcChangeRow>> domainRcByKey
+    ) {
+        Set<PeriodRaNumKey> reportKeys = new HashSet<>();
+        Set<RcChangeMatchKey> rcKeys = new HashSet<>();
+        for (RcScopeLine line : scope.rcLines()) {
+            reportKeys.add(line.reportKey());
+            List<Long> raKeys = raByPeriodAndNum.getOrDefault(line.reportKey(), List.of());
+            if (raKeys.size() == 1) {
+                rcKeys.add(new RcChangeMatchKey(line.rcPeriod(), raKeys.get(0), line.changeNum()));
+            }
+        }
+        return stats
+                .withRaIndex(scope.reportPeriods().size(), countRows(raByPeriodAndNum),
+                        countMatchedRows(raByPeriodAndNum, reportKeys))
+                .withRc(scope.rcPeriods().size(), countRows(domainRcByKey), countMatchedRows(domainRcByKey, rcKeys));
+    }
+
+    static int countRows(Map<?, ? extends List<?>> byKey) {
+        int total = 0;
+        for (List<?> rows : byKey.values()) {
+            total += rows.size();
+        }
+        return total;
+    }
+
+    static <K> int countMatchedRows(Map<K, ? extends List<?>> byKey, Set<K> sourceKeys) {
+        int matched = 0;
+        for (K key : sourceKeys) {
+            List<?> rows = byKey.get(key);
+            if (rows != null) {
+                matched += rows.size();
+            }
+        }
+        return matched;
+    }
+
+    private static void bindIntegers(PreparedStatement statement, List<Integer> values) throws SQLException {
+        for (int i = 0; i < values.size(); i++) {
+            statement.setInt(i + 1, values.get(i));
+        }
     }
 
     private static String normalizeRcChangeNumKey(String raw) {
@@ -2067,10 +2216,10 @@ public class AllAgentsReconcileService extends AbstractTransactionalReconcileSer
      * <p>Delete применяется только при {@code addRa=true} и включённом флаге {@link #ENABLE_DELETES}.</p>
      */
     private RaDeletePlan planRaDeletes(
-            Connection connection,
             List<StagingRaRow> rows,
-            Map<Long, ResolvedLookupKeys> byRowKey
-    ) throws SQLException {
+            Map<Long, ResolvedLookupKeys> byRowKey,
+            Map<CanonicalMatchKey, List<DomainRaRow>> domainByKey
+    ) {
         // Source set: только кондиционные строки RA-ветки (ОА/ОА прочие) с валидным canonical key.
         Set<CanonicalMatchKey> sourceKeys = new HashSet<>();
         Set<Integer> sourcePeriods = new HashSet<>();
@@ -2087,9 +2236,7 @@ public class AllAgentsReconcileService extends AbstractTransactionalReconcileSer
             sourcePeriods.add(key.raPeriod());
         }
 
-        // Domain set, grouped by canonical key.
-        Map<CanonicalMatchKey, List<DomainRaRow>> domainByKey = loadDomainRaRows(connection);
-
+        // Domain set, grouped by canonical key: snapshot уже ограничен периодами источника (см. DomainScope).
         List<RaExcessPlanned> excessItems = new ArrayList<>();
         int skippedAmbiguous = 0;
         for (Map.Entry<CanonicalMatchKey, List<DomainRaRow>> entry : domainByKey.entrySet()) {
@@ -3578,7 +3725,7 @@ public class AllAgentsReconcileService extends AbstractTransactionalReconcileSer
     ) {
     }
 
-    private record CanonicalMatchKey(
+    record CanonicalMatchKey(
             Integer raOrgSender,
             Integer raCac,
             Integer raPeriod,
@@ -3626,7 +3773,7 @@ public class AllAgentsReconcileService extends AbstractTransactionalReconcileSer
     ) {
     }
 
-    private record DomainRaRow(
+    record DomainRaRow(
             long raKey,
             String raType,
             LocalDate raDate,
@@ -3646,17 +3793,84 @@ public class AllAgentsReconcileService extends AbstractTransactionalReconcileSer
     }
 
     /** Ключ поиска {@code ags.ra} для ветки RC: только период отчёта и {@code ra_num} (как в {@code ra_ImpNewQuRc}). */
-    private record PeriodRaNumKey(int raPeriod, String raNum) {
+    record PeriodRaNumKey(int raPeriod, String raNum) {
+    }
+
+    /**
+     * Пространство ключей текущего exec_key для domain snapshot.
+     *
+     * @param raPeriods     периоды канонических ключей RA-ветки
+     * @param raKeys        канонические ключи RA-ветки (для метрики matched)
+     * @param reportPeriods периоды базовых отчётов, на которые ссылаются строки «ОА изм»
+     * @param rcPeriods     периоды строк «ОА изм»
+     * @param rcLines       разобранные строки «ОА изм» (для метрики matched)
+     */
+    record DomainScope(
+            Set<Integer> raPeriods,
+            Set<CanonicalMatchKey> raKeys,
+            Set<Integer> reportPeriods,
+            Set<Integer> rcPeriods,
+            List<RcScopeLine> rcLines
+    ) {
+    }
+
+    record RcScopeLine(int rcPeriod, PeriodRaNumKey reportKey, String changeNum) {
+    }
+
+    /**
+     * Метрика domain snapshot: сколько строк загружено по периодам источника и сколько из них совпало с ключами staging.
+     */
+    record DomainSnapshotStats(
+            int raScopePeriods,
+            int raLoaded,
+            int raMatched,
+            int raIndexScopePeriods,
+            int raIndexLoaded,
+            int raIndexMatched,
+            int rcScopePeriods,
+            int rcLoaded,
+            int rcMatched
+    ) {
+        static DomainSnapshotStats empty() {
+            return new DomainSnapshotStats(0, 0, 0, 0, 0, 0, 0, 0, 0);
+        }
+
+        DomainSnapshotStats withRa(int scopePeriods, int loaded, int matched) {
+            return new DomainSnapshotStats(scopePeriods, loaded, matched,
+                    raIndexScopePeriods, raIndexLoaded, raIndexMatched, rcScopePeriods, rcLoaded, rcMatched);
+        }
+
+        DomainSnapshotStats withRaIndex(int scopePeriods, int loaded, int matched) {
+            return new DomainSnapshotStats(raScopePeriods, raLoaded, raMatched,
+                    scopePeriods, loaded, matched, rcScopePeriods, rcLoaded, rcMatched);
+        }
+
+        DomainSnapshotStats withRc(int scopePeriods, int loaded, int matched) {
+            return new DomainSnapshotStats(raScopePeriods, raLoaded, raMatched,
+                    raIndexScopePeriods, raIndexLoaded, raIndexMatched, scopePeriods, loaded, matched);
+        }
+
+        String format() {
+            return "domainRaScopePeriods=" + raScopePeriods
+                    + ", domainRaLoaded=" + raLoaded
+                    + ", domainRaMatched=" + raMatched
+                    + ", domainRaIndexScopePeriods=" + raIndexScopePeriods
+                    + ", domainRaIndexLoaded=" + raIndexLoaded
+                    + ", domainRaIndexMatched=" + raIndexMatched
+                    + ", domainRcScopePeriods=" + rcScopePeriods
+                    + ", domainRcLoaded=" + rcLoaded
+                    + ", domainRcMatched=" + rcMatched;
+        }
     }
 
     /** Ключ строки {@code ags.ra_change}: период изменения, родительский {@code ra_key}, номер изменения. */
-    private record RcChangeMatchKey(int rcPeriod, long raKey, String changeNum) {
+    record RcChangeMatchKey(int rcPeriod, long raKey, String changeNum) {
     }
 
     /**
      * Строка {@code ags.ra_change} с последними суммами из {@code ags.ra_chSmLt} (как в {@code ra_ImpNewQuRc}).
      */
-    private record DomainRcChangeRow(
+    record DomainRcChangeRow(
             long racKey,
             long raFk,
             String changeNum,
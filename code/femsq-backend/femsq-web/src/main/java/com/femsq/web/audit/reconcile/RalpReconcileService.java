@@ -14,14 +14,15 @@ import java.sql.Date;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.sql.Statement;
 import java.sql.Types;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -55,6 +56,15 @@ public class RalpReconcileService extends AbstractTransactionalReconcileService
 
     private static final Logger log = Logger.getLogger(RalpReconcileService.class.getName());
     private static final int TYPE_RALP = 3;
+    private static final int APPLY_BATCH_SIZE = 200;
+    /** Лимит SQL Server на параметры запроса; драйвер берёт одно место себе, поэтому используется на один меньше. */
+    private static final int MAX_STATEMENT_PARAMS = 2100;
+
+    /** Параметров на строку staging в {@code VALUES}: ключ строки, {@code ra_key}, {@code au_key}. */
+    private static final int STAGING_LINK_PARAMS = 3;
+
+    /** Строк staging в одном {@code UPDATE ... FROM (VALUES ...)}: наибольшее, что помещается в лимит (699). */
+    private static final int STAGING_LINK_CHUNK = (MAX_STATEMENT_PARAMS - 1) / STAGING_LINK_PARAMS;
 
     /** Шаблон для извлечения даты в формате {@code dd.mm.yyyy} из строкового поля письма (аналог VBA {@code ParseDate}). */
     private static final Pattern DATE_PATTERN = Pattern.compile("\\b(\\d{2})\\.(\\d{2})\\.(\\d{4})\\b");
@@ -95,6 +105,10 @@ public class RalpReconcileService extends AbstractTransactionalReconcileService
         log.info("[RALP] domain loaded: ralpRa=%d ralpRaAu=%d (year=%d)"
                 .formatted(domainRa.size(), domainRaAu.size(), year));
 
+        // Новые ralpRa вставляются пакетами до основного прохода: их ключи нужны для ralpRaAu и demote.
+        Map<RaKey, Integer> insertedRa = addRa ? insertNewRa(conn, staging, domainRa) : Map.of();
+        List<PendingRaAu> pendingRaAu = new ArrayList<>();
+
         int invalid = 0;
         int emptyArrivedSkipped = 0;
         int raInserted = 0;
@@ -143,7 +157,7 @@ public class RalpReconcileService extends AbstractTransactionalReconcileService
                         null
                 ));
                 if (addRa) {
-                    raDbKey = insertRa(conn, normalizedNum, row);
+                    raDbKey = insertedRa.get(raKey);
                     row.resolvedRaKey = raDbKey;
                     domainRa.put(raKey, new DomainRa(raDbKey, normalizedNum, row.date, row.cstAgPn, row.ogSender));
                     domainRaKeySet.add(raDbKey);
@@ -184,9 +198,7 @@ public class RalpReconcileService extends AbstractTransactionalReconcileService
                 newAuIdx++;
                 newAuLines.add(formatNewAuTreeLine(newAuIdx, row, arrived));
                 if (addRa) {
-                    int raAuDbKey = insertRaAu(conn, raDbKey, arrived, row);
-                    row.resolvedRaAuKey = raAuDbKey;
-                    survivingRaAuKeys.add(raAuDbKey);
+                    pendingRaAu.add(new PendingRaAu(raDbKey, arrived, row));
                     raAuInserted++;
                 } else {
                     raAuInserted++;
@@ -207,6 +219,10 @@ public class RalpReconcileService extends AbstractTransactionalReconcileService
             }
         }
 
+        if (!pendingRaAu.isEmpty()) {
+            survivingRaAuKeys.addAll(insertNewRaAu(conn, pendingRaAu));
+        }
+
         // DELETE orphan ralpRaAu и ralpRa (только при addRa=true)
         int raDeleted = 0;
         int raAuDeleted = 0;
@@ -236,7 +252,7 @@ public class RalpReconcileService extends AbstractTransactionalReconcileService
             }
         }
 
-        // Обновление staging-ссылок (batch)
+        // Обновление staging-ссылок (set-based)
         int stagingLinked = updateStagingRefs(conn, staging);
 
         appendType3ReconcileTree(
@@ -518,34 +534,110 @@ public class RalpReconcileService extends AbstractTransactionalReconcileService
     // INSERT / UPDATE / DELETE
     // -------------------------------------------------------------------------
 
-    private int insertRa(Connection conn, String normalizedNum, StgRow row) throws SQLException {
+    /**
+     * Пакетно вставляет отсутствующие в домене {@code ralpRa} (по одной строке на натуральный ключ,
+     * в порядке staging) и возвращает их ключи.
+     *
+     * <p>{@code getGeneratedKeys()} после {@code executeBatch()} на SQL Server недоступен, а OUTPUT INSERTED
+     * нельзя из-за триггеров, поэтому ключи дочитываются по натуральному ключу выше водяного знака
+     * {@code MAX(ralprKey)}, снятого до вставки (как {@code executeRaInsertBatch} в type=5).
+     */
+    private Map<RaKey, Integer> insertNewRa(Connection conn, List<StgRow> staging, Map<RaKey, DomainRa> domainRa)
+            throws SQLException {
+        Set<RaKey> pending = new LinkedHashSet<>();
+        for (StgRow row : staging) {
+            if (row.cstAgPn == null || row.ogSender == null || row.date == null) {
+                continue;
+            }
+            RaKey raKey = new RaKey(normalizeNum(row.num, row.presented), row.date, row.cstAgPn, row.ogSender);
+            if (!domainRa.containsKey(raKey)) {
+                pending.add(raKey);
+            }
+        }
+        if (pending.isEmpty()) {
+            return Map.of();
+        }
         // ralprY и ralprM — вычисляемые колонки (YEAR/MONTH от ralprDate), в INSERT не указываются.
-        // OUTPUT INSERTED нельзя использовать при наличии триггеров → используем RETURN_GENERATED_KEYS.
         String sqlInsert = """
                 INSERT INTO ags.ralpRa (ralprNum, ralprDate, ralprCstAgPn, ralprOgSender)
                 VALUES (?, ?, ?, ?)
                 """;
-        try (PreparedStatement ps = conn.prepareStatement(sqlInsert, Statement.RETURN_GENERATED_KEYS)) {
-            ps.setString(1, normalizedNum);
-            ps.setDate(2, Date.valueOf(row.date));
-            ps.setInt(3, row.cstAgPn);
-            ps.setInt(4, row.ogSender);
-            ps.executeUpdate();
-            try (ResultSet rs = ps.getGeneratedKeys()) {
-                if (rs.next()) {
-                    return rs.getInt(1);
+        int watermark = loadMaxKey(conn, "SELECT ISNULL(MAX(ralprKey), 0) FROM ags.ralpRa");
+        Map<RaKey, Integer> result = new HashMap<>();
+        try (PreparedStatement ps = conn.prepareStatement(sqlInsert)) {
+            List<RaKey> batch = new ArrayList<>();
+            for (RaKey key : pending) {
+                ps.setString(1, key.num());
+                ps.setDate(2, Date.valueOf(key.date()));
+                ps.setInt(3, key.cstAgPn());
+                ps.setInt(4, key.ogSender());
+                ps.addBatch();
+                batch.add(key);
+                if (batch.size() >= APPLY_BATCH_SIZE) {
+                    executeRaInsertBatch(conn, ps, batch, watermark, result);
+                    batch.clear();
                 }
             }
+            if (!batch.isEmpty()) {
+                executeRaInsertBatch(conn, ps, batch, watermark, result);
+            }
         }
-        throw new SQLException("INSERT ralpRa: getGeneratedKeys() вернул пустой ResultSet для num=" + normalizedNum + " date=" + row.date);
+        return result;
     }
 
-    private int insertRaAu(Connection conn, int raKey, String arrivedTrimmed, StgRow row) throws SQLException {
-        LocalDate arrivedDate = parseDate(arrivedTrimmed);
-        LocalDate sentDate = parseDate(row.sent);
-        LocalDate returnedDate = parseDate(row.returned);
+    private void executeRaInsertBatch(
+            Connection conn,
+            PreparedStatement ps,
+            List<RaKey> batch,
+            int watermark,
+            Map<RaKey, Integer> result
+    ) throws SQLException {
+        ps.executeBatch();
+        ps.clearBatch();
+        String sql = """
+                SELECT v.idx, r.ralprKey
+                FROM ags.ralpRa r
+                INNER JOIN (VALUES %s) AS v(idx, num, dt, cst, og)
+                    ON r.ralprDate = v.dt AND r.ralprCstAgPn = v.cst AND r.ralprOgSender = v.og
+                   AND (r.ralprNum = v.num OR (r.ralprNum IS NULL AND v.num IS NULL))
+                WHERE r.ralprKey > ?
+                ORDER BY v.idx, r.ralprKey
+                """.formatted(String.join(", ", Collections.nCopies(batch.size(), "(?, ?, ?, ?, ?)")));
+        List<int[]> matches = new ArrayList<>();
+        try (PreparedStatement select = conn.prepareStatement(sql)) {
+            int idx = 1;
+            for (int i = 0; i < batch.size(); i++) {
+                RaKey key = batch.get(i);
+                select.setInt(idx++, i);
+                setStringOrNull(select, idx++, key.num());
+                select.setDate(idx++, Date.valueOf(key.date()));
+                select.setInt(idx++, key.cstAgPn());
+                select.setInt(idx++, key.ogSender());
+            }
+            select.setInt(idx, watermark);
+            try (ResultSet rs = select.executeQuery()) {
+                while (rs.next()) {
+                    matches.add(new int[]{rs.getInt(1), rs.getInt(2)});
+                }
+            }
+        }
+        int[] keys = assignBackFetchedKeys(batch.size(), matches, new HashSet<>());
+        for (int i = 0; i < keys.length; i++) {
+            RaKey key = batch.get(i);
+            if (keys[i] < 0) {
+                throw new SQLException("INSERT ralpRa: ключ не найден после пакетной вставки для num="
+                        + key.num() + " date=" + key.date());
+            }
+            result.put(key, keys[i]);
+        }
+    }
 
-        // OUTPUT INSERTED нельзя использовать при наличии триггеров → RETURN_GENERATED_KEYS.
+    /**
+     * Пакетно вставляет новые {@code ralpRaAu}, проставляет {@code resolvedRaAuKey} строкам staging
+     * и возвращает ключи вставленных записей. Ключи дочитываются по {@code (ralpraRa, ralpraArrived)}
+     * выше водяного знака; повторы одного ключа в staging получают ключи в порядке вставки.
+     */
+    private List<Integer> insertNewRaAu(Connection conn, List<PendingRaAu> pending) throws SQLException {
         String sqlInsert = """
                 INSERT INTO ags.ralpRaAu
                     (ralpraRa, ralpraArrived, ralpraArrivedDate,
@@ -554,26 +646,110 @@ public class RalpReconcileService extends AbstractTransactionalReconcileService
                      ralpraNote, ralpraStatus, ralpraTestStartDate)
                 VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
                 """;
-        try (PreparedStatement ps = conn.prepareStatement(sqlInsert, Statement.RETURN_GENERATED_KEYS)) {
-            ps.setInt(1, raKey);
-            ps.setString(2, arrivedTrimmed);
-            setDateOrNull(ps, 3, arrivedDate);
-            setBigDecimalOrNull(ps, 4, row.costAndVat);
-            setStringOrNull(ps, 5, row.sent);
-            setDateOrNull(ps, 6, sentDate);
-            setStringOrNull(ps, 7, row.returned);
-            setDateOrNull(ps, 8, returnedDate);
-            setStringOrNull(ps, 9, row.note);
-            ps.setInt(10, row.status);
-            setDateOrNull(ps, 11, row.testStartDate);
-            ps.executeUpdate();
-            try (ResultSet rs = ps.getGeneratedKeys()) {
-                if (rs.next()) {
-                    return rs.getInt(1);
+        int watermark = loadMaxKey(conn, "SELECT ISNULL(MAX(ralpraKey), 0) FROM ags.ralpRaAu");
+        List<Integer> inserted = new ArrayList<>(pending.size());
+        Set<Integer> taken = new HashSet<>();
+        try (PreparedStatement ps = conn.prepareStatement(sqlInsert)) {
+            List<PendingRaAu> batch = new ArrayList<>();
+            for (PendingRaAu au : pending) {
+                StgRow row = au.row();
+                ps.setInt(1, au.raKey());
+                ps.setString(2, au.arrived());
+                setDateOrNull(ps, 3, parseDate(au.arrived()));
+                setBigDecimalOrNull(ps, 4, row.costAndVat);
+                setStringOrNull(ps, 5, row.sent);
+                setDateOrNull(ps, 6, parseDate(row.sent));
+                setStringOrNull(ps, 7, row.returned);
+                setDateOrNull(ps, 8, parseDate(row.returned));
+                setStringOrNull(ps, 9, row.note);
+                ps.setInt(10, row.status);
+                setDateOrNull(ps, 11, row.testStartDate);
+                ps.addBatch();
+                batch.add(au);
+                if (batch.size() >= APPLY_BATCH_SIZE) {
+                    executeRaAuInsertBatch(conn, ps, batch, watermark, taken, inserted);
+                    batch.clear();
+                }
+            }
+            if (!batch.isEmpty()) {
+                executeRaAuInsertBatch(conn, ps, batch, watermark, taken, inserted);
+            }
+        }
+        return inserted;
+    }
+
+    private void executeRaAuInsertBatch(
+            Connection conn,
+            PreparedStatement ps,
+            List<PendingRaAu> batch,
+            int watermark,
+            Set<Integer> taken,
+            List<Integer> inserted
+    ) throws SQLException {
+        ps.executeBatch();
+        ps.clearBatch();
+        String sql = """
+                SELECT v.idx, a.ralpraKey
+                FROM ags.ralpRaAu a
+                INNER JOIN (VALUES %s) AS v(idx, ra, arrived)
+                    ON a.ralpraRa = v.ra AND a.ralpraArrived = v.arrived
+                WHERE a.ralpraKey > ?
+                ORDER BY v.idx, a.ralpraKey
+                """.formatted(String.join(", ", Collections.nCopies(batch.size(), "(?, ?, ?)")));
+        List<int[]> matches = new ArrayList<>();
+        try (PreparedStatement select = conn.prepareStatement(sql)) {
+            int idx = 1;
+            for (int i = 0; i < batch.size(); i++) {
+                select.setInt(idx++, i);
+                select.setInt(idx++, batch.get(i).raKey());
+                select.setString(idx++, batch.get(i).arrived());
+            }
+            select.setInt(idx, watermark);
+            try (ResultSet rs = select.executeQuery()) {
+                while (rs.next()) {
+                    matches.add(new int[]{rs.getInt(1), rs.getInt(2)});
                 }
             }
         }
-        throw new SQLException("INSERT ralpRaAu: getGeneratedKeys() вернул пустой ResultSet для raKey=" + raKey + " arrived=" + arrivedTrimmed);
+        int[] keys = assignBackFetchedKeys(batch.size(), matches, taken);
+        for (int i = 0; i < keys.length; i++) {
+            PendingRaAu au = batch.get(i);
+            if (keys[i] < 0) {
+                throw new SQLException("INSERT ralpRaAu: ключ не найден после пакетной вставки для raKey="
+                        + au.raKey() + " arrived=" + au.arrived());
+            }
+            au.row().resolvedRaAuKey = keys[i];
+            inserted.add(keys[i]);
+        }
+    }
+
+    /**
+     * Сопоставляет дочитанные пары {@code (idx, key)} (по возрастанию idx, затем key) позициям пакета:
+     * каждой позиции — первый ещё не занятый ключ. Так повторяющиеся натуральные ключи в одном
+     * пакете или в разных пакетах получают разные записи в порядке вставки.
+     *
+     * @return ключ для каждой позиции или {@code -1}, если ключ не найден
+     */
+    static int[] assignBackFetchedKeys(int batchSize, List<int[]> matches, Set<Integer> taken) {
+        int[] keys = new int[batchSize];
+        Arrays.fill(keys, -1);
+        for (int[] match : matches) {
+            int idx = match[0];
+            if (idx < 0 || idx >= batchSize || keys[idx] >= 0) {
+                continue;
+            }
+            if (taken.add(match[1])) {
+                keys[idx] = match[1];
+            }
+        }
+        return keys;
+    }
+
+    private static int loadMaxKey(Connection conn, String sql) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(sql);
+             ResultSet rs = ps.executeQuery()) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
     }
 
     private void updateRaAu(Connection conn, int raAuKey, StgRow row) throws SQLException {
@@ -621,26 +797,37 @@ public class RalpReconcileService extends AbstractTransactionalReconcileService
         }
     }
 
+    /**
+     * Проставляет ссылки {@code ralprtRaKey}/{@code ralprtRaAuKey} всем строкам staging одним
+     * {@code UPDATE ... FROM (VALUES ...)} на порцию из {@link #STAGING_LINK_CHUNK} строк.
+     */
     private int updateStagingRefs(Connection conn, List<StgRow> staging) throws SQLException {
-        String sql = "UPDATE ags.ra_stg_ralp SET ralprtRaKey = ?, ralprtRaAuKey = ? WHERE ralprt_key = ?";
         int linked = 0;
-        try (PreparedStatement ps = conn.prepareStatement(sql)) {
-            for (StgRow row : staging) {
-                if (row.resolvedRaKey != null) {
-                    ps.setInt(1, row.resolvedRaKey);
-                    linked++;
-                } else {
-                    ps.setNull(1, Types.INTEGER);
-                }
-                if (row.resolvedRaAuKey != null) {
-                    ps.setInt(2, row.resolvedRaAuKey);
-                } else {
-                    ps.setNull(2, Types.INTEGER);
+        for (int offset = 0; offset < staging.size(); offset += STAGING_LINK_CHUNK) {
+            List<StgRow> chunk = staging.subList(offset, Math.min(offset + STAGING_LINK_CHUNK, staging.size()));
+            String sql = """
+                    UPDATE s SET s.ralprtRaKey = v.ra_key, s.ralprtRaAuKey = v.au_key
+                    FROM ags.ra_stg_ralp s
+                    INNER JOIN (VALUES %s) AS v(stg_key, ra_key, au_key) ON s.ralprt_key = v.stg_key
+                    """.formatted(String.join(", ", Collections.nCopies(chunk.size(), "(?, ?, ?)")));
+            try (PreparedStatement ps = conn.prepareStatement(sql)) {
+                int idx = 1;
+                for (StgRow row : chunk) {
+                    ps.setLong(idx++, row.stgKey);
+                    if (row.resolvedRaKey != null) {
+                        ps.setInt(idx++, row.resolvedRaKey);
+                        linked++;
+                    } else {
+                        ps.setNull(idx++, Types.INTEGER);
+                    }
+                    if (row.resolvedRaAuKey != null) {
+                        ps.setInt(idx++, row.resolvedRaAuKey);
+                    } else {
+                        ps.setNull(idx++, Types.INTEGER);
+                    }
                 }
-                ps.setLong(3, row.stgKey);
-                ps.addBatch();
+                ps.executeUpdate();
             }
-            ps.executeBatch();
         }
         return linked;
     }
@@ -762,6 +949,8 @@ public class RalpReconcileService extends AbstractTransactionalReconcileService
 
     private record RaAuKey(int ralpraRa, String arrived) {}
 
+    private record PendingRaAu(int raKey, String arrived, StgRow row) {}
+
     private record DomainRa(int key, String num, LocalDate date, int cstAgPn, int ogSender) {}
 
     private static class DomainRaAu {
@@ -0,0 +1,12 @@
+package com.femsq.web.audit.runtime;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Регистрация {@link AuditParallelFilesProperties} и {@link AuditLogBufferProperties} в Spring-контексте.
+ */
+@Configuration
+@EnableConfigurationProperties({AuditParallelFilesProperties.class, AuditLogBufferProperties.class})
+public class AuditExecutionConfiguration {
+}
@@ -15,9 +15,11 @@ public class AuditExecutionRegistry {
     private static final Logger log = Logger.getLogger(AuditExecutionRegistry.class.getName());
 
     private final RaExecutionService raExecutionService;
+    private final AuditProgressHub auditProgressHub;
 
-    public AuditExecutionRegistry(RaExecutionService raExecutionService) {
+    public AuditExecutionRegistry(RaExecutionService raExecutionService, AuditProgressHub auditProgressHub) {
         this.raExecutionService = raExecutionService;
+        this.auditProgressHub = auditProgressHub;
     }
 
     public Optional<AuditExecutionState> getState(long auditId) {
@@ -43,17 +45,20 @@ public class AuditExecutionRegistry {
             return false;
         }
         raExecutionService.startExecution((int) auditId, addRa);
+        auditProgressHub.begin(auditId);
         return true;
     }
 
     public void markRunning(long auditId, boolean addRa) {
         raExecutionService.startExecution((int) auditId, addRa);
+        auditProgressHub.begin(auditId);
     }
 
     public void markCompleted(long auditId) {
         raExecutionService.getLatestByAuditId((int) auditId)
                 .filter(exec -> "RUNNING".equalsIgnoreCase(exec.execStatus()))
                 .ifPresent(exec -> raExecutionService.completeExecution(exec.execKey()));
+        auditProgressHub.publishStatus(auditId, AuditRunStatus.COMPLETED);
     }
 
     public void markFailed(long auditId, String errorMessage) {
@@ -62,6 +67,7 @@ public class AuditExecutionRegistry {
                         exec -> raExecutionService.failExecution(exec.execKey(), errorMessage),
                         () -> log.warning("No execution record found to mark failed for auditId=" + auditId)
                 );
+        auditProgressHub.publishStatus(auditId, AuditRunStatus.FAILED);
     }
 
     private AuditExecutionState toState(RaExecution execution) {
@@ -0,0 +1,44 @@
+package com.femsq.web.audit.runtime;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Буфер записей лога запуска ревизии в памяти.
+ *
+ * <p>Префикс: {@code audit.execution.log-buffer}.</p>
+ *
+ * <p>При построчном логе ({@code STAGING_ROW_INSERTED}, {@code ROW_PARAGRAPH_PREVIEW}) запуск копит
+ * сотни тысяч записей. Сверх {@link #getMemoryWindow()} старшие записи выгружаются во временный файл
+ * в {@link #getSpillDirectory()} и читаются обратно при сборке HTML, дозаписи журнала и отдаче live-каналу.
+ * То же окно ограничивает дерево HTML лога: готовые фрагменты сверх него хранятся в файле и читаются
+ * при каждой сборке.</p>
+ */
+@ConfigurationProperties(prefix = "audit.execution.log-buffer")
+public class AuditLogBufferProperties {
+
+    private int memoryWindow = 20_000;
+
+    private String spillDirectory = "";
+
+    /**
+     * @return максимум записей лога (и узлов дерева HTML) в памяти на контекст; {@code 0} — без выгрузки на диск
+     */
+    public int getMemoryWindow() {
+        return memoryWindow;
+    }
+
+    public void setMemoryWindow(int memoryWindow) {
+        this.memoryWindow = Math.max(0, memoryWindow);
+    }
+
+    /**
+     * @return каталог временных файлов выгрузки; пусто — {@code java.io.tmpdir}
+     */
+    public String getSpillDirectory() {
+        return spillDirectory;
+    }
+
+    public void setSpillDirectory(String spillDirectory) {
+        this.spillDirectory = spillDirectory != null ? spillDirectory : "";
+    }
+}
@@ -0,0 +1,97 @@
+package com.femsq.web.audit.runtime;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Параллельная обработка файлов ревизии (opt-in).
+ *
+ * <p>Префикс: {@code audit.execution.parallel-files}.</p>
+ *
+ * <p>Файлы одного {@code af_type} всегда выполняются последовательно в порядке списка (общая staging-таблица
+ * и marker {@code exec_key + file_type}). Типы из одной группы {@link #getSerialTypeGroups()} тоже
+ * упорядочены между собой: по умолчанию AgFee (type=6, пишет {@code ags.og}) предшествует RALP (type=3)
+ * и отчётам агентов (type=5), которые читают {@code ags.og}.</p>
+ */
+@ConfigurationProperties(prefix = "audit.execution.parallel-files")
+public class AuditParallelFilesProperties {
+
+    private boolean enabled;
+
+    private int maxConcurrent = 4;
+
+    private List<String> serialTypeGroups = new ArrayList<>(List.of("6,3", "6,5"));
+
+    /**
+     * @return {@code true} — независимые файлы обрабатываются параллельно
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * @return максимум одновременно обрабатываемых файлов (виртуальные потоки)
+     */
+    public int getMaxConcurrent() {
+        return maxConcurrent;
+    }
+
+    public void setMaxConcurrent(int maxConcurrent) {
+        this.maxConcurrent = Math.max(1, maxConcurrent);
+    }
+
+    /**
+     * @return группы {@code af_type} через запятую, файлы которых не пересекаются по времени
+     */
+    public List<String> getSerialTypeGroups() {
+        return serialTypeGroups;
+    }
+
+    public void setSerialTypeGroups(List<String> serialTypeGroups) {
+        this.serialTypeGroups = serialTypeGroups != null ? new ArrayList<>(serialTypeGroups) : new ArrayList<>();
+    }
+
+    /**
+     * Должен ли файл типа {@code laterType} дождаться файла типа {@code earlierType}, стоящего раньше в списке.
+     */
+    public boolean mustSerialize(Integer earlierType, Integer laterType) {
+        if (Objects.equals(earlierType, laterType)) {
+            return true;
+        }
+        if (earlierType == null || laterType == null) {
+            return false;
+        }
+        for (String group : serialTypeGroups) {
+            Set<Integer> types = parseGroup(group);
+            if (types.contains(earlierType) && types.contains(laterType)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Set<Integer> parseGroup(String group) {
+        Set<Integer> types = new TreeSet<>();
+        if (group == null) {
+            return types;
+        }
+        for (String token : group.split("[,;\\s]+")) {
+            if (!token.isBlank()) {
+                try {
+                    types.add(Integer.parseInt(token.trim()));
+                } catch (NumberFormatException ignored) {
+                    // некорректный элемент группы игнорируется
+                }
+            }
+        }
+        return types;
+    }
+}
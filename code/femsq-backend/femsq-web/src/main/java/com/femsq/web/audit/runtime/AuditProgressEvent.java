@@ -0,0 +1,28 @@
+package com.femsq.web.audit.runtime;
+
+import com.femsq.web.audit.AuditLogEntry;
+
+/**
+ * Событие live-канала выполнения ревизии ({@link AuditProgressHub}).
+ *
+ * @param runId  запуск, к которому относится {@code seq} ({@link #NO_RUN} — канала в процессе нет)
+ * @param seq    номер события в канале запуска (с 1, без пропусков); курсор возобновления подписки
+ * @param kind   вид события
+ * @param status статус запуска для {@link Kind#STATUS}, иначе {@code null}
+ * @param entry  новая запись лога для {@link Kind#ENTRY}, иначе {@code null}
+ */
+public record AuditProgressEvent(long runId, long seq, Kind kind, AuditRunStatus status, AuditLogEntry entry) {
+
+    /**
+     * {@code runId} события без канала (текущий статус из реестра).
+     */
+    public static final long NO_RUN = 0L;
+
+    /**
+     * Вид события канала.
+     */
+    public enum Kind {
+        STATUS,
+        ENTRY
+    }
+}
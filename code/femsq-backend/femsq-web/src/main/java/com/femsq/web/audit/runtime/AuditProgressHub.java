@@ -0,0 +1,345 @@
+package com.femsq.web.audit.runtime;
+
+import com.femsq.web.audit.AuditLogEntry;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Logger;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Live-каналы выполнения ревизий: новые записи {@link com.femsq.web.audit.AuditExecutionContext}
+ * и смены статуса без перечитывания {@code adt_results}.
+ *
+ * <p>На каждый запуск ревизии — один {@link Channel} с нумерованной (с 1) лентой событий и своим
+ * {@code runId}. Подписчик передаёт курсор {@code runId}/{@code afterSeq} и получает только события
+ * после него: при переподключении клиент продолжает с последнего увиденного {@code seq}. Курсор другого
+ * запуска (чужой {@code runId} или {@code afterSeq} дальше конца ленты) не применяется — лента отдаётся
+ * с начала текущего запуска. Канал живёт в памяти процесса; закрытый канал
+ * хранится {@link #CLOSED_RETENTION}, чтобы поздний подписчик дочитал финал.</p>
+ *
+ * <p>Копии лога канал не держит: лента — это номера записей и статусы, записи читаются по индексу
+ * из списка контекста запуска (в том числе выгруженные на диск). Перед закрытием контекста канал
+ * отцепляется от него ({@link Channel#detach(int)}) и сохраняет только хвост, бывший в памяти.</p>
+ *
+ * <p>Поток выполнения только дописывает события в ленту и будит подписчиков; отправка клиенту идёт
+ * на {@code boundedElastic}, поэтому медленный клиент не тормозит ревизию.</p>
+ */
+@Component
+public class AuditProgressHub {
+
+    private static final Logger log = Logger.getLogger(AuditProgressHub.class.getName());
+
+    /**
+     * Сколько хранить закрытый канал для поздних подписчиков.
+     */
+    static final Duration CLOSED_RETENTION = Duration.ofMinutes(10);
+
+    private static final int DRAIN_BATCH = 256;
+
+    private final Map<Long, Channel> channels = new ConcurrentHashMap<>();
+    /** Последний выданный {@code runId}: время старта в мс, строго возрастающее в процессе. */
+    private final AtomicLong lastRunId = new AtomicLong();
+
+    /**
+     * Открывает канал нового запуска (статус {@link AuditRunStatus#RUNNING}); канал прошлого запуска закрывается.
+     */
+    public Channel begin(long auditId) {
+        evictClosed();
+        long runId = lastRunId.updateAndGet(previous -> Math.max(previous + 1, System.currentTimeMillis()));
+        Channel channel = new Channel(auditId, runId);
+        Channel previous = channels.put(auditId, channel);
+        if (previous != null) {
+            previous.close();
+        }
+        log.fine(() -> "[AuditProgress] channel opened auditId=" + auditId);
+        return channel;
+    }
+
+    /**
+     * @return открытый канал ревизии или новый, если открытого нет
+     */
+    public Channel attach(long auditId) {
+        Channel current = channels.get(auditId);
+        return current != null && !current.isClosed() ? current : begin(auditId);
+    }
+
+    /**
+     * Публикует смену статуса в текущий канал ревизии (если он есть).
+     */
+    public void publishStatus(long auditId, AuditRunStatus status) {
+        Channel channel = channels.get(auditId);
+        if (channel != null) {
+            channel.publishStatus(status);
+        }
+    }
+
+    /**
+     * Поток событий ревизии после курсора; завершается, когда канал закрыт и всё отправлено.
+     *
+     * @param runId          запуск, к которому относится курсор; {@code null} — не проверять
+     * @param afterSeq       последний увиденный клиентом {@code seq} ({@code 0} — с начала запуска)
+     * @param fallbackStatus статус, если канала в этом процессе нет (одно событие {@code seq=0})
+     */
+    public Flux<AuditProgressEvent> subscribe(long auditId, Long runId, long afterSeq, AuditRunStatus fallbackStatus) {
+        Channel channel = channels.get(auditId);
+        if (channel == null) {
+            return Flux.just(new AuditProgressEvent(
+                    AuditProgressEvent.NO_RUN, 0L, AuditProgressEvent.Kind.STATUS, fallbackStatus, null));
+        }
+        boolean otherRun = runId != null && runId != channel.runId() || afterSeq > channel.lastSeq();
+        if (otherRun) {
+            log.fine(() -> "[AuditProgress] cursor of another run, replay from start auditId=" + auditId
+                    + " runId=" + runId + " afterSeq=" + afterSeq + " currentRunId=" + channel.runId());
+        }
+        return channel.events(otherRun ? 0L : afterSeq);
+    }
+
+    private void evictClosed() {
+        Instant threshold = Instant.now().minus(CLOSED_RETENTION);
+        channels.values().removeIf(channel -> channel.closedAt != null && channel.closedAt.isBefore(threshold));
+    }
+
+    /**
+     * Лента событий одного запуска ревизии.
+     *
+     * <p>Событие хранится одним {@code int}: индекс записи в списке контекста или закодированный статус.</p>
+     */
+    public static final class Channel {
+
+        private static final AuditRunStatus[] STATUSES = AuditRunStatus.values();
+
+        private final long auditId;
+        private final long runId;
+        private final ReentrantLock lock = new ReentrantLock();
+        private int[] marks = new int[64];
+        private int lastSeq;
+        private final List<Cursor> cursors = new CopyOnWriteArrayList<>();
+        private List<AuditLogEntry> source;
+        private int syncedEntries;
+        private List<AuditLogEntry> detachedTail = List.of();
+        private int detachedFrom;
+        private volatile Instant closedAt;
+
+        private Channel(long auditId, long runId) {
+            this.auditId = auditId;
+            this.runId = runId;
+            publishStatus(AuditRunStatus.RUNNING);
+        }
+
+        public long auditId() {
+            return auditId;
+        }
+
+        /**
+         * @return идентификатор запуска: время открытия канала в мс (уникально в процессе)
+         */
+        public long runId() {
+            return runId;
+        }
+
+        /**
+         * Дописывает в ленту записи, появившиеся после прошлого вызова. Канал запоминает список и читает
+         * из него записи по индексу при отдаче подписчикам, поэтому список должен допускать чтение
+         * с другого потока.
+         *
+         * @param entries все записи контекста в хронологическом порядке
+         */
+        public void sync(List<AuditLogEntry> entries) {
+            lock.lock();
+            try {
+                source = entries;
+                int size = entries.size();
+                if (size <= syncedEntries) {
+                    return;
+                }
+                for (int i = syncedEntries; i < size; i++) {
+                    mark(i);
+                }
+                syncedEntries = size;
+            } finally {
+                lock.unlock();
+            }
+            signal();
+        }
+
+        /**
+         * Отцепляет канал от списка записей перед его закрытием. Остаются последние {@code keepLast}
+         * записей; более ранние события {@link AuditProgressEvent.Kind#ENTRY} поздний подписчик
+         * пропускает (полный лог после запуска читается из {@code adt_results}).
+         *
+         * @param keepLast сколько последних записей сохранить (обычно — те, что ещё в памяти)
+         */
+        public void detach(int keepLast) {
+            lock.lock();
+            try {
+                if (source == null) {
+                    return;
+                }
+                detachedFrom = Math.max(0, syncedEntries - Math.max(0, keepLast));
+                detachedTail = new ArrayList<>(source.subList(detachedFrom, syncedEntries));
+                source = null;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void publishStatus(AuditRunStatus status) {
+            lock.lock();
+            try {
+                mark(-1 - status.ordinal());
+            } finally {
+                lock.unlock();
+            }
+            signal();
+        }
+
+        /**
+         * Закрывает канал: подписчики дочитывают ленту и завершаются.
+         */
+        public void close() {
+            if (closedAt == null) {
+                closedAt = Instant.now();
+                signal();
+            }
+        }
+
+        public boolean isClosed() {
+            return closedAt != null;
+        }
+
+        long lastSeq() {
+            lock.lock();
+            try {
+                return lastSeq;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * События после {@code seq}, не больше {@code limit} номеров ленты.
+         *
+         * @return события и номер, до которого лента просмотрена (записи, уже недоступные после
+         *         {@link #detach(int)}, пропускаются)
+         */
+        Batch after(long seq, long limit) {
+            lock.lock();
+            try {
+                int from = (int) Math.max(0L, Math.min(seq, lastSeq));
+                int to = (int) Math.min(lastSeq, from + limit);
+                List<AuditProgressEvent> events = new ArrayList<>(to - from);
+                for (int i = from; i < to; i++) {
+                    int mark = marks[i];
+                    if (mark < 0) {
+                        events.add(new AuditProgressEvent(runId, i + 1L, AuditProgressEvent.Kind.STATUS, STATUSES[-1 - mark], null));
+                        continue;
+                    }
+                    AuditLogEntry entry = entryAt(mark);
+                    if (entry != null) {
+                        events.add(new AuditProgressEvent(runId, i + 1L, AuditProgressEvent.Kind.ENTRY, null, entry));
+                    }
+                }
+                return new Batch(events, to);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        Flux<AuditProgressEvent> events(long afterSeq) {
+            return Flux.<AuditProgressEvent>create(sink -> {
+                Cursor cursor = new Cursor(this, sink, Math.max(0L, afterSeq));
+                cursors.add(cursor);
+                sink.onDispose(() -> cursors.remove(cursor));
+                sink.onRequest(ignored -> cursor.drain());
+            }).publishOn(Schedulers.boundedElastic());
+        }
+
+        private void mark(int mark) {
+            if (lastSeq == marks.length) {
+                marks = Arrays.copyOf(marks, marks.length * 2);
+            }
+            marks[lastSeq++] = mark;
+        }
+
+        private AuditLogEntry entryAt(int index) {
+            if (source != null) {
+                return source.get(index);
+            }
+            return index >= detachedFrom ? detachedTail.get(index - detachedFrom) : null;
+        }
+
+        private void signal() {
+            for (Cursor cursor : cursors) {
+                cursor.drain();
+            }
+        }
+    }
+
+    /**
+     * Порция ленты: события и номер последнего просмотренного события.
+     */
+    record Batch(List<AuditProgressEvent> events, long end) {
+    }
+
+    /**
+     * Позиция подписчика в ленте. Отдаёт события не больше запрошенного; повторные сигналы во время
+     * отдачи не теряются (счётчик {@code wip}).
+     */
+    private static final class Cursor {
+
+        private final Channel channel;
+        private final FluxSink<AuditProgressEvent> sink;
+        private final AtomicInteger wip = new AtomicInteger();
+        private long position;
+        private boolean done;
+
+        private Cursor(Channel channel, FluxSink<AuditProgressEvent> sink, long position) {
+            this.channel = channel;
+            this.sink = sink;
+            this.position = position;
+        }
+
+        private void drain() {
+            if (wip.getAndIncrement() != 0) {
+                return;
+            }
+            int missed = 1;
+            do {
+                if (done) {
+                    return;
+                }
+                boolean closed = channel.isClosed();
+                long requested = sink.requestedFromDownstream();
+                while (requested > 0) {
+                    Batch batch = channel.after(position, Math.min(requested, DRAIN_BATCH));
+                    if (batch.end() <= position) {
+                        break;
+                    }
+                    for (AuditProgressEvent event : batch.events()) {
+                        sink.next(event);
+                    }
+                    position = batch.end();
+                    requested = sink.requestedFromDownstream();
+                }
+                if (closed && position >= channel.lastSeq()) {
+                    done = true;
+                    sink.complete();
+                    return;
+                }
+                missed = wip.addAndGet(-missed);
+            } while (missed != 0);
+        }
+    }
+}
@@ -14,6 +14,17 @@ public class AuditStagingProperties {
 
     private Type5 type5 = new Type5();
 
+    private Retention retention = new Retention();
+
+    private BulkInsert bulkInsert = new BulkInsert();
+
+    private ParallelSheets parallelSheets = new ParallelSheets();
+
+    /**
+     * Потоковое чтение незашифрованных {@code .xlsx} (OOXML event model) вместо DOM всей книги.
+     */
+    private boolean streamingRead = true;
+
     /**
      * @return уровень лога по умолчанию, если в ревизии {@code adt_staging_log_level IS NULL}
      */
@@ -25,6 +36,17 @@ public class AuditStagingProperties {
         this.defaultLogLevel = defaultLogLevel != null ? defaultLogLevel : StagingLogLevel.SUMMARY;
     }
 
+    /**
+     * @return {@code true} — читать незашифрованные {@code .xlsx} потоково; зашифрованные и {@code .xls} всегда через DOM
+     */
+    public boolean isStreamingRead() {
+        return streamingRead;
+    }
+
+    public void setStreamingRead(boolean streamingRead) {
+        this.streamingRead = streamingRead;
+    }
+
     /**
      * @return настройки Stage 1 для type=5 (отчёты агентов)
      */
@@ -36,6 +58,39 @@ public class AuditStagingProperties {
         this.type5 = type5 != null ? type5 : new Type5();
     }
 
+    /**
+     * @return настройки очистки staging-строк завершённых запусков
+     */
+    public Retention getRetention() {
+        return retention;
+    }
+
+    public void setRetention(Retention retention) {
+        this.retention = retention != null ? retention : new Retention();
+    }
+
+    /**
+     * @return настройки записи строк Stage 1 через bulk copy
+     */
+    public BulkInsert getBulkInsert() {
+        return bulkInsert;
+    }
+
+    public void setBulkInsert(BulkInsert bulkInsert) {
+        this.bulkInsert = bulkInsert != null ? bulkInsert : new BulkInsert();
+    }
+
+    /**
+     * @return настройки параллельной загрузки листов одной книги
+     */
+    public ParallelSheets getParallelSheets() {
+        return parallelSheets;
+    }
+
+    public void setParallelSheets(ParallelSheets parallelSheets) {
+        this.parallelSheets = parallelSheets != null ? parallelSheets : new ParallelSheets();
+    }
+
     /**
      * Подмножество настроек для файлов type=5.
      */
@@ -60,4 +115,160 @@ public class AuditStagingProperties {
                     : raNumRegex.trim();
         }
     }
+
+    /**
+     * Очистка staging-таблиц от строк завершённых запусков ({@link StagingRetentionService}).
+     *
+     * <p>Префикс: {@code audit.staging.retention}.</p>
+     */
+    public static class Retention {
+
+        private boolean enabled = true;
+
+        private int retentionDays = 30;
+
+        private boolean keepLatestPerAudit = true;
+
+        private int batchSize = 2000;
+
+        private long pauseMillis = 200;
+
+        private int maxRunMinutes = 30;
+
+        /**
+         * @return {@code false} — плановая очистка не выполняется
+         */
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        /**
+         * @return сколько дней после завершения запуска хранить его staging-строки; {@code <= 0} — не удалять
+         */
+        public int getRetentionDays() {
+            return retentionDays;
+        }
+
+        public void setRetentionDays(int retentionDays) {
+            this.retentionDays = retentionDays;
+        }
+
+        /**
+         * @return {@code true} — строки последнего запуска каждой ревизии не удаляются независимо от возраста
+         */
+        public boolean isKeepLatestPerAudit() {
+            return keepLatestPerAudit;
+        }
+
+        public void setKeepLatestPerAudit(boolean keepLatestPerAudit) {
+            this.keepLatestPerAudit = keepLatestPerAudit;
+        }
+
+        /**
+         * @return строк в одном {@code DELETE TOP (n)}; ниже порога эскалации блокировок SQL Server (5000)
+         */
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = Math.max(1, batchSize);
+        }
+
+        /**
+         * @return пауза между пакетами, чтобы не занимать журнал и блокировки подряд
+         */
+        public long getPauseMillis() {
+            return pauseMillis;
+        }
+
+        public void setPauseMillis(long pauseMillis) {
+            this.pauseMillis = Math.max(0, pauseMillis);
+        }
+
+        /**
+         * @return предел длительности одного прогона; остаток удаляется в следующий раз
+         */
+        public int getMaxRunMinutes() {
+            return maxRunMinutes;
+        }
+
+        public void setMaxRunMinutes(int maxRunMinutes) {
+            this.maxRunMinutes = Math.max(1, maxRunMinutes);
+        }
+    }
+
+    /**
+     * Запись строк Stage 1 через bulk copy драйвера SQL Server (opt-in).
+     *
+     * <p>Префикс: {@code audit.staging.bulk-insert}. Если соединение не от драйвера SQL Server,
+     * используется обычный JDBC {@code INSERT}.</p>
+     */
+    public static class BulkInsert {
+
+        private boolean enabled;
+
+        private int batchSize = 5000;
+
+        /**
+         * @return {@code true} — строки листа пишутся через {@code SQLServerBulkCopy}, в том числе при построчном логе
+         */
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        /**
+         * @return строк в одном вызове bulk copy; при построчном логе это и период дочитывания ключей
+         */
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = Math.max(1, batchSize);
+        }
+    }
+
+    /**
+     * Параллельная загрузка листов одной книги (opt-in).
+     *
+     * <p>Префикс: {@code audit.staging.parallel-sheets}. Каждый лист пишется в своей транзакции;
+     * фиксация выполняется только после загрузки всех листов.</p>
+     */
+    public static class ParallelSheets {
+
+        private boolean enabled;
+
+        private int maxConcurrent = 4;
+
+        /**
+         * @return {@code true} — листы книги с несколькими {@code ra_sheet_conf} загружаются параллельно
+         */
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        /**
+         * @return максимум одновременно загружаемых листов (и соединений с БД) на одну книгу
+         */
+        public int getMaxConcurrent() {
+            return maxConcurrent;
+        }
+
+        public void setMaxConcurrent(int maxConcurrent) {
+            this.maxConcurrent = Math.max(1, maxConcurrent);
+        }
+    }
 }
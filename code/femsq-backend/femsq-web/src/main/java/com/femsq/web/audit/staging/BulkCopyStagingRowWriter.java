@@ -0,0 +1,355 @@
+package com.femsq.web.audit.staging;
+
+import com.microsoft.sqlserver.jdbc.ISQLServerBulkData;
+import com.microsoft.sqlserver.jdbc.SQLServerBulkCopy;
+import com.microsoft.sqlserver.jdbc.SQLServerBulkCopyOptions;
+import com.microsoft.sqlserver.jdbc.SQLServerConnection;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Запись строк staging через bulk copy драйвера SQL Server ({@link SQLServerBulkCopy}).
+ *
+ * <p>Строки копятся до {@code chunkSize} и уходят одним потоком TDS вместо тысяч {@code INSERT}.
+ * Копирование идёт в текущей транзакции соединения, с проверкой ограничений и триггерами, явные
+ * {@code NULL} сохраняются — как при обычном {@code INSERT}.</p>
+ *
+ * <p>Ключи (identity-колонка, например {@code rain_key}) при bulk copy не возвращаются, поэтому для
+ * построчного лога они дочитываются после каждого пакета одним запросом по диапазону: строки этого
+ * запуска ({@code *_exec_key}) с ключом больше отметки до начала записи и номером Excel-строки в
+ * диапазоне пакета. Без колонки номера строки ключи сопоставляются по порядку вставки.</p>
+ */
+final class BulkCopyStagingRowWriter implements StagingRowWriter {
+
+    private final Connection connection;
+    private final RowsLoader loader;
+    private final String tableName;
+    private final ColumnShape[] columns;
+    private final int chunkSize;
+    private final KeyListener keyListener;
+    private final KeyLookup keyLookup;
+    private final List<Object[]> rows = new ArrayList<>();
+    private final List<Integer> excelRows = new ArrayList<>();
+    private long keyWatermark;
+    private int inserted;
+
+    BulkCopyStagingRowWriter(
+            Connection connection,
+            RowsLoader loader,
+            String tableName,
+            List<ColumnShape> columns,
+            int chunkSize,
+            KeyListener keyListener,
+            KeyLookup keyLookup
+    ) throws SQLException {
+        this.connection = connection;
+        this.loader = loader;
+        this.tableName = tableName;
+        this.columns = columns.toArray(ColumnShape[]::new);
+        this.chunkSize = Math.max(1, chunkSize);
+        this.keyListener = keyListener;
+        this.keyLookup = keyListener != null ? keyLookup : null;
+        if (this.keyLookup != null) {
+            this.keyWatermark = readMaxKey();
+        }
+    }
+
+    /**
+     * @return {@code true}, если соединение принадлежит драйверу SQL Server и bulk copy доступен
+     */
+    static boolean isAvailable(Connection connection) {
+        try {
+            return connection instanceof SQLServerConnection || connection.isWrapperFor(SQLServerConnection.class);
+        } catch (SQLException exception) {
+            return false;
+        }
+    }
+
+    /**
+     * Открывает writer поверх {@link SQLServerBulkCopy}: читает форму колонок и identity-колонку таблицы.
+     *
+     * @param insertColumns  колонки в порядке значений строки
+     * @param execColumn     колонка {@code *_exec_key} или {@code null}
+     * @param executionKey   ключ запуска или {@code null}
+     * @param excelRowColumn колонка номера Excel-строки или {@code null}
+     * @param keyListener    {@code null} — ключи не нужны
+     */
+    static BulkCopyStagingRowWriter open(
+            Connection connection,
+            String tableName,
+            List<String> insertColumns,
+            Map<String, Integer> dbColumnTypes,
+            int chunkSize,
+            String execColumn,
+            Long executionKey,
+            String excelRowColumn,
+            KeyListener keyListener
+    ) throws SQLException {
+        String[] parts = tableName.split("\\.");
+        Map<String, int[]> sizes = new HashMap<>();
+        String identityColumn = null;
+        try (ResultSet rs = connection.getMetaData().getColumns(null, parts[0], parts[parts.length - 1], null)) {
+            while (rs.next()) {
+                String name = rs.getString("COLUMN_NAME");
+                sizes.put(name.toLowerCase(Locale.ROOT), new int[]{rs.getInt("COLUMN_SIZE"), rs.getInt("DECIMAL_DIGITS")});
+                if ("YES".equalsIgnoreCase(rs.getString("IS_AUTOINCREMENT"))) {
+                    identityColumn = name;
+                }
+            }
+        }
+        List<ColumnShape> shapes = new ArrayList<>(insertColumns.size());
+        for (String column : insertColumns) {
+            int[] size = sizes.getOrDefault(column.toLowerCase(Locale.ROOT), new int[]{0, 0});
+            shapes.add(new ColumnShape(column, dbColumnTypes.getOrDefault(column, Types.NVARCHAR), size[0], size[1]));
+        }
+        KeyLookup keyLookup = identityColumn != null && execColumn != null && executionKey != null
+                ? new KeyLookup(identityColumn, execColumn, executionKey, excelRowColumn)
+                : null;
+        SQLServerBulkCopy bulkCopy = new SQLServerBulkCopy(connection.unwrap(SQLServerConnection.class));
+        try {
+            SQLServerBulkCopyOptions options = new SQLServerBulkCopyOptions();
+            options.setKeepNulls(true);
+            options.setCheckConstraints(true);
+            options.setFireTriggers(true);
+            options.setUseInternalTransaction(false);
+            options.setBulkCopyTimeout(0);
+            bulkCopy.setBulkCopyOptions(options);
+            bulkCopy.setDestinationTableName(tableName);
+            for (int i = 0; i < shapes.size(); i++) {
+                bulkCopy.addColumnMapping(i + 1, shapes.get(i).name());
+            }
+        } catch (SQLException exception) {
+            bulkCopy.close();
+            throw exception;
+        }
+        return new BulkCopyStagingRowWriter(connection, new DriverRowsLoader(bulkCopy), tableName, shapes,
+                chunkSize, keyListener, keyLookup);
+    }
+
+    @Override
+    public void write(Object[] values, int excelRowOneBased) throws SQLException {
+        Object[] row = new Object[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            row[i] = toBulkValue(columns[i].jdbcType(), values[i]);
+        }
+        rows.add(row);
+        excelRows.add(excelRowOneBased);
+        if (rows.size() >= chunkSize) {
+            flush();
+        }
+    }
+
+    @Override
+    public void flush() throws SQLException {
+        if (rows.isEmpty()) {
+            return;
+        }
+        loader.load(new RowsBulkData(columns, List.copyOf(rows)));
+        inserted += rows.size();
+        if (keyListener != null) {
+            publishKeys();
+        }
+        rows.clear();
+        excelRows.clear();
+    }
+
+    @Override
+    public int inserted() {
+        return inserted;
+    }
+
+    @Override
+    public void close() throws SQLException {
+        loader.close();
+    }
+
+    private void publishKeys() throws SQLException {
+        if (keyLookup == null) {
+            excelRows.forEach(excelRow -> keyListener.inserted(excelRow, -1L));
+            return;
+        }
+        if (keyLookup.excelRowColumn() != null) {
+            int first = Integer.MAX_VALUE;
+            int last = Integer.MIN_VALUE;
+            for (int excelRow : excelRows) {
+                first = Math.min(first, excelRow);
+                last = Math.max(last, excelRow);
+            }
+            String sql = "SELECT " + keyLookup.keyColumn() + ", " + keyLookup.excelRowColumn() + " FROM " + tableName
+                    + " WHERE " + keyLookup.execColumn() + " = ? AND " + keyLookup.keyColumn() + " > ?"
+                    + " AND " + keyLookup.excelRowColumn() + " BETWEEN ? AND ?";
+            Map<Integer, Long> keysByRow = new HashMap<>();
+            try (PreparedStatement statement = connection.prepareStatement(sql)) {
+                statement.setLong(1, keyLookup.executionKey());
+                statement.setLong(2, keyWatermark);
+                statement.setInt(3, first);
+                statement.setInt(4, last);
+                try (ResultSet rs = statement.executeQuery()) {
+                    while (rs.next()) {
+                        long key = rs.getLong(1);
+                        keysByRow.put(rs.getInt(2), key);
+                        keyWatermark = Math.max(keyWatermark, key);
+                    }
+                }
+            }
+            excelRows.forEach(excelRow -> keyListener.inserted(excelRow, keysByRow.getOrDefault(excelRow, -1L)));
+            return;
+        }
+        String sql = "SELECT " + keyLookup.keyColumn() + " FROM " + tableName
+                + " WHERE " + keyLookup.execColumn() + " = ? AND " + keyLookup.keyColumn() + " > ?"
+                + " ORDER BY " + keyLookup.keyColumn();
+        List<Long> keys = new ArrayList<>(excelRows.size());
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setLong(1, keyLookup.executionKey());
+            statement.setLong(2, keyWatermark);
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    keys.add(rs.getLong(1));
+                }
+            }
+        }
+        if (!keys.isEmpty()) {
+            keyWatermark = Math.max(keyWatermark, keys.get(keys.size() - 1));
+        }
+        for (int i = 0; i < excelRows.size(); i++) {
+            keyListener.inserted(excelRows.get(i), i < keys.size() ? keys.get(i) : -1L);
+        }
+    }
+
+    private long readMaxKey() throws SQLException {
+        String sql = "SELECT ISNULL(MAX(" + keyLookup.keyColumn() + "), 0) FROM " + tableName
+                + " WHERE " + keyLookup.execColumn() + " = ?";
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setLong(1, keyLookup.executionKey());
+            try (ResultSet rs = statement.executeQuery()) {
+                return rs.next() ? rs.getLong(1) : 0L;
+            }
+        }
+    }
+
+    /**
+     * Приводит значение к типу, который bulk copy ожидает для JDBC-типа колонки (как {@code bindValue}).
+     */
+    static Object toBulkValue(int jdbcType, Object value) {
+        if (value == null) {
+            return null;
+        }
+        return switch (jdbcType) {
+            case Types.DATE -> value instanceof LocalDate date ? java.sql.Date.valueOf(date) : value;
+            case Types.INTEGER, Types.SMALLINT, Types.TINYINT -> ((Number) value).intValue();
+            case Types.BIGINT -> ((Number) value).longValue();
+            case Types.DECIMAL, Types.NUMERIC, Types.FLOAT, Types.DOUBLE, Types.REAL ->
+                    value instanceof BigDecimal ? value : BigDecimal.valueOf(((Number) value).doubleValue());
+            default -> value;
+        };
+    }
+
+    /**
+     * Колонка назначения: имя, JDBC-тип, размер/точность и масштаб.
+     */
+    record ColumnShape(String name, int jdbcType, int precision, int scale) {
+    }
+
+    /**
+     * Как найти ключи записанных строк: identity-колонка, ключ запуска и (если есть) номер Excel-строки.
+     */
+    record KeyLookup(String keyColumn, String execColumn, long executionKey, String excelRowColumn) {
+    }
+
+    /**
+     * Отправка пакета строк в таблицу.
+     */
+    interface RowsLoader extends AutoCloseable {
+
+        void load(ISQLServerBulkData rows) throws SQLException;
+
+        @Override
+        void close() throws SQLException;
+    }
+
+    private record DriverRowsLoader(SQLServerBulkCopy bulkCopy) implements RowsLoader {
+
+        @Override
+        public void load(ISQLServerBulkData rows) throws SQLException {
+            bulkCopy.writeToServer(rows);
+        }
+
+        @Override
+        public void close() {
+            bulkCopy.close();
+        }
+    }
+
+    /**
+     * Пакет строк в виде источника bulk copy; ординалы колонок начинаются с 1.
+     */
+    static final class RowsBulkData implements ISQLServerBulkData {
+
+        private static final long serialVersionUID = 1L;
+
+        private final ColumnShape[] columns;
+        private final List<Object[]> rows;
+        private int cursor = -1;
+
+        RowsBulkData(ColumnShape[] columns, List<Object[]> rows) {
+            this.columns = columns;
+            this.rows = rows;
+        }
+
+        int size() {
+            return rows.size();
+        }
+
+        @Override
+        public Set<Integer> getColumnOrdinals() {
+            Set<Integer> ordinals = new TreeSet<>();
+            for (int i = 1; i <= columns.length; i++) {
+                ordinals.add(i);
+            }
+            return ordinals;
+        }
+
+        @Override
+        public String getColumnName(int column) {
+            return columns[column - 1].name();
+        }
+
+        @Override
+        public int getColumnType(int column) {
+            return columns[column - 1].jdbcType();
+        }
+
+        @Override
+        public int getPrecision(int column) {
+            return columns[column - 1].precision();
+        }
+
+        @Override
+        public int getScale(int column) {
+            return columns[column - 1].scale();
+        }
+
+        @Override
+        public Object[] getRowData() {
+            return rows.get(cursor);
+        }
+
+        @Override
+        public boolean next() {
+            cursor++;
+            return cursor < rows.size();
+        }
+    }
+}
@@ -12,14 +12,15 @@ import com.femsq.web.audit.excel.AuditExcelCellReader;
 import com.femsq.web.audit.excel.AuditExcelColumnLocator;
 import com.femsq.web.audit.excel.AuditExcelException;
 import com.femsq.web.audit.excel.AuditExcelReader;
+import com.femsq.web.audit.excel.AuditSheet;
+import com.femsq.web.audit.excel.AuditWorkbook;
 import com.femsq.web.audit.excel.CellReadResult;
 import com.femsq.web.audit.mapping.AuditColumnMappingRepository;
 import java.math.BigDecimal;
+import java.nio.file.Path;
 import java.sql.Connection;
-import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.sql.Statement;
 import java.sql.Types;
 import java.time.Instant;
 import java.time.LocalDate;
@@ -28,6 +29,8 @@ import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Locale;
@@ -35,11 +38,14 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.OptionalInt;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.stream.Collectors;
+import java.util.logging.Level;
 import java.util.logging.Logger;
 import org.apache.poi.ss.usermodel.Row;
-import org.apache.poi.ss.usermodel.Sheet;
-import org.apache.poi.ss.usermodel.Workbook;
 import org.apache.poi.ss.util.CellReference;
 import org.springframework.stereotype.Service;
 
@@ -132,8 +138,9 @@ public class DefaultAuditStagingService implements AuditStagingService {
         try {
             return context.inSpan(
                     workbookSpanId,
-                    () -> excelReader.withWorkbook(file.getPath(), workbook -> loadWorkbook(context, workbook, sheetConfigs,
-                            stagingLogLevel, isType5))
+                    () -> excelReader.withAuditWorkbook(Path.of(file.getPath()), auditStagingProperties.isStreamingRead(),
+                            workbook -> loadWorkbook(context, workbook, Path.of(file.getPath()), workbookSpanId,
+                                    sheetConfigs, stagingLogLevel, isType5))
             );
         } finally {
             Instant closedAt = Instant.now();
@@ -154,11 +161,21 @@ public class DefaultAuditStagingService implements AuditStagingService {
     }
 
     private int loadWorkbook(AuditExecutionContext context,
-                             Workbook workbook,
+                             AuditWorkbook workbook,
+                             Path filePath,
+                             String workbookSpanId,
                              List<RaSheetConf> sheetConfigs,
                              StagingLogLevel stagingLogLevel,
                              boolean isType5) {
         int totalInserted = 0;
+        log.info(() -> "[AuditStaging] workbook read mode=" + (workbook.isStreaming() ? "STREAMING" : "DOM"));
+        if (auditStagingProperties.getParallelSheets().isEnabled() && sheetConfigs.size() > 1) {
+            List<List<RaSheetConf>> tableGroups = groupByStagingTable(sheetConfigs);
+            if (tableGroups.size() > 1) {
+                return loadSheetsInParallel(
+                        context, workbook, filePath, workbookSpanId, sheetConfigs, tableGroups, stagingLogLevel, isType5);
+            }
+        }
         try (Connection connection = connectionFactory.createConnection()) {
             connection.setAutoCommit(false);
             try {
@@ -177,9 +194,213 @@ public class DefaultAuditStagingService implements AuditStagingService {
         return totalInserted;
     }
 
+    /**
+     * Группирует листы по staging-таблице в порядке первого появления таблицы; порядок листов внутри группы
+     * сохраняется. Имена таблиц сравниваются без учёта регистра.
+     */
+    static List<List<RaSheetConf>> groupByStagingTable(List<RaSheetConf> sheetConfigs) {
+        Map<String, List<RaSheetConf>> groups = new LinkedHashMap<>();
+        for (RaSheetConf config : sheetConfigs) {
+            String table = config.rscStgTbl() == null ? "" : config.rscStgTbl().trim().toLowerCase(Locale.ROOT);
+            groups.computeIfAbsent(table, key -> new ArrayList<>()).add(config);
+        }
+        return new ArrayList<>(groups.values());
+    }
+
+    /**
+     * Параллельная загрузка листов книги на виртуальных потоках (не более {@code max-concurrent} одновременно).
+     *
+     * <p>Единица параллелизма — staging-таблица: листы одной таблицы пишутся одним потоком по очереди
+     * в одном соединении и одной транзакции. Иначе незафиксированные строки одного листа блокировали бы
+     * у соседнего листа той же таблицы снятие {@link StagingRollbackMarker} и чтение ключей после bulk copy,
+     * а соседний лист держал бы свою транзакцию до завершения всех — взаимная блокировка без таймаута.
+     * Разные таблицы пишутся параллельно: свой {@link StagingRowWriter}, лог каждого листа — в свой
+     * {@link AuditExecutionContext#fork(String)}. Логи (в том числе {@code STAGING_LOAD_STATS}) сливаются
+     * в родителя в порядке {@code sheetConfigs}, независимо от порядка завершения. Потоковая книга
+     * не потокобезопасна, поэтому в этом режиме каждый поток читает файл своим экземпляром книги;
+     * DOM-книга читается совместно.</p>
+     *
+     * <p>Фиксация «всё или ничего»: транзакции фиксируются только после успешной загрузки всех листов,
+     * иначе откатываются все. Если сбой случился уже во время фиксации, строки уже зафиксированных таблиц
+     * удаляются по {@link StagingRollbackMarker} (компенсирующий откат).</p>
+     */
+    private int loadSheetsInParallel(AuditExecutionContext context,
+                                     AuditWorkbook workbook,
+                                     Path filePath,
+                                     String workbookSpanId,
+                                     List<RaSheetConf> sheetConfigs,
+                                     List<List<RaSheetConf>> tableGroups,
+                                     StagingLogLevel stagingLogLevel,
+                                     boolean isType5) {
+        int maxConcurrent = Math.min(auditStagingProperties.getParallelSheets().getMaxConcurrent(), tableGroups.size());
+        context.append(AuditLogLevel.INFO, AuditLogScope.FILE, "STAGING_PARALLEL_SHEETS",
+                "<P>Параллельная загрузка листов: " + sheetConfigs.size() + " в " + tableGroups.size()
+                        + " таблиц, одновременно не более " + maxConcurrent + "</P>",
+                withPresentationMeta(
+                        Map.of(
+                                "auditId", String.valueOf(context.getAuditId()),
+                                "sheets", String.valueOf(sheetConfigs.size()),
+                                "tables", String.valueOf(tableGroups.size()),
+                                "maxConcurrent", String.valueOf(maxConcurrent)
+                        ),
+                        "INFO",
+                        "BLUE",
+                        "NORMAL"
+                ));
+        String forkPrefix = (workbookSpanId != null ? workbookSpanId : "wb") + "w";
+        Map<RaSheetConf, SheetLoad> sheetLoads = new IdentityHashMap<>();
+        for (int i = 0; i < sheetConfigs.size(); i++) {
+            sheetLoads.put(sheetConfigs.get(i), new SheetLoad(sheetConfigs.get(i), context.fork(forkPrefix + (i + 1))));
+        }
+        List<TableLoad> loads = new ArrayList<>(tableGroups.size());
+        ExecutorService executor = Executors.newFixedThreadPool(
+                maxConcurrent, Thread.ofVirtual().name("audit-" + context.getAuditId() + "-sheet-", 1).factory());
+        try {
+            List<CompletableFuture<Integer>> futures = new ArrayList<>(tableGroups.size());
+            for (List<RaSheetConf> group : tableGroups) {
+                TableLoad load = new TableLoad(group.get(0).rscStgTbl(), group.stream().map(sheetLoads::get).toList());
+                loads.add(load);
+                futures.add(CompletableFuture.supplyAsync(
+                        () -> loadTableInWorker(load, workbook, filePath, stagingLogLevel, isType5), executor));
+            }
+            int totalInserted = 0;
+            Throwable failure = null;
+            for (CompletableFuture<Integer> future : futures) {
+                try {
+                    totalInserted += future.join();
+                } catch (CompletionException exception) {
+                    if (failure == null) {
+                        failure = exception.getCause() != null ? exception.getCause() : exception;
+                    }
+                }
+            }
+            for (RaSheetConf config : sheetConfigs) {
+                context.mergeFork(sheetLoads.get(config).context);
+            }
+            if (failure instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (failure instanceof Error error) {
+                throw error;
+            }
+            if (failure != null) {
+                throw new AuditExcelException("Failed to load staging data: " + failure.getMessage(), failure);
+            }
+            commitSheetLoads(context, loads);
+            return totalInserted;
+        } finally {
+            executor.shutdownNow();
+            for (TableLoad load : loads) {
+                load.close();
+            }
+        }
+    }
+
+    /**
+     * Загружает листы одной staging-таблицы по очереди в одной транзакции; отметка отката снимается
+     * один раз до первого листа и покрывает все листы группы.
+     */
+    private int loadTableInWorker(TableLoad load,
+                                  AuditWorkbook workbook,
+                                  Path filePath,
+                                  StagingLogLevel stagingLogLevel,
+                                  boolean isType5) {
+        try {
+            load.connection = connectionFactory.createConnection();
+            load.connection.setAutoCommit(false);
+            load.rollbackMarker = StagingRollbackMarker.capture(
+                    load.connection, load.tableName, load.sheets.get(0).context.getExecutionKey());
+            if (!workbook.isStreaming()) {
+                return loadTableSheets(load, workbook, stagingLogLevel, isType5);
+            }
+            return excelReader.withAuditWorkbook(filePath, true, ownWorkbook -> {
+                try {
+                    return loadTableSheets(load, ownWorkbook, stagingLogLevel, isType5);
+                } catch (SQLException exception) {
+                    throw new AuditExcelException("Failed to load staging data: " + exception.getMessage(), exception);
+                }
+            });
+        } catch (SQLException exception) {
+            throw new AuditExcelException("Failed to load staging data: " + exception.getMessage(), exception);
+        }
+    }
+
+    private int loadTableSheets(TableLoad load,
+                                AuditWorkbook workbook,
+                                StagingLogLevel stagingLogLevel,
+                                boolean isType5) throws SQLException {
+        int inserted = 0;
+        for (SheetLoad sheet : load.sheets) {
+            Set<String> allowedSigns = resolveAllowedSigns(sheet.config, isType5);
+            inserted += loadSheet(sheet.context, load.connection, workbook, sheet.config, stagingLogLevel, allowedSigns);
+        }
+        return inserted;
+    }
+
+    /**
+     * Фиксирует транзакции таблиц по порядку; при сбое удаляет строки уже зафиксированных таблиц.
+     */
+    private void commitSheetLoads(AuditExecutionContext context, List<TableLoad> loads) {
+        List<TableLoad> committed = new ArrayList<>(loads.size());
+        for (TableLoad load : loads) {
+            try {
+                load.connection.commit();
+                load.committed = true;
+                committed.add(load);
+            } catch (SQLException exception) {
+                AuditExcelException failure = new AuditExcelException(
+                        "Failed to commit staging data: " + exception.getMessage(), exception);
+                compensateCommittedSheets(context, committed, failure);
+                throw failure;
+            }
+        }
+    }
+
+    private void compensateCommittedSheets(AuditExecutionContext context,
+                                           List<TableLoad> committed,
+                                           AuditExcelException failure) {
+        if (committed.isEmpty()) {
+            return;
+        }
+        int deleted = 0;
+        try (Connection connection = connectionFactory.createConnection()) {
+            connection.setAutoCommit(false);
+            try {
+                for (TableLoad load : committed) {
+                    if (load.rollbackMarker != null) {
+                        deleted += load.rollbackMarker.rollback(connection);
+                    }
+                }
+                connection.commit();
+            } catch (SQLException exception) {
+                connection.rollback();
+                throw exception;
+            }
+        } catch (SQLException exception) {
+            log.log(Level.SEVERE, "[AuditStaging] compensating rollback failed auditId=" + context.getAuditId(), exception);
+            failure.addSuppressed(exception);
+            return;
+        }
+        int deletedRows = deleted;
+        log.warning(() -> "[AuditStaging] compensating rollback auditId=" + context.getAuditId()
+                + " tables=" + committed.size() + " deleted=" + deletedRows);
+        context.append(AuditLogLevel.WARNING, AuditLogScope.FILE, "STAGING_PARALLEL_ROLLBACK",
+                "<P>Загрузка листов не зафиксирована: строки уже записанных таблиц удалены (" + deletedRows + ")</P>",
+                withPresentationMeta(
+                        Map.of(
+                                "auditId", String.valueOf(context.getAuditId()),
+                                "tables", String.valueOf(committed.size()),
+                                "deleted", String.valueOf(deletedRows)
+                        ),
+                        "WARN",
+                        "RED",
+                        "BOLD"
+                ));
+    }
+
     private int loadSheet(AuditExecutionContext context,
                           Connection connection,
-                          Workbook workbook,
+                          AuditWorkbook workbook,
                           RaSheetConf config,
                           StagingLogLevel stagingLogLevel,
                           Set<String> allowedSigns)
@@ -202,7 +423,7 @@ public class DefaultAuditStagingService implements AuditStagingService {
                         "BOLD"
                 )
         );
-        Sheet sheet = resolveSheet(workbook, config.rscSheet());
+        AuditSheet sheet = resolveSheet(workbook, config.rscSheet());
         if (sheet == null) {
             context.append(AuditLogLevel.WARNING, AuditLogScope.FILE, "SHEET_MISSING",
                     "<P>Лист не найден: " + escape(config.rscSheet()) + "</P>",
@@ -314,8 +535,7 @@ public class DefaultAuditStagingService implements AuditStagingService {
         }
 
         String insertSql = buildInsertSql(config.rscStgTbl(), insertColumns);
-        int inserted = 0;
-        int batchCount = 0;
+        int inserted;
         int firstDataRowIndex0 = headerRowIndex + 1;
         int lastDataRowIndex0 = Math.max(firstDataRowIndex0 - 1, dataRange.lastRowOneBased() - 1);
         int poiLastRowIndex0 = sheet.getLastRowNum();
@@ -334,9 +554,15 @@ public class DefaultAuditStagingService implements AuditStagingService {
         int summaryProgressInterval = stagingLogLevel.summaryProgressInterval();
         // Накопитель пустых строк → одно INFO SUMMARY вместо тысяч ⚠.
         EmptyRowSkipBatch emptyRowSkipBatch = new EmptyRowSkipBatch();
-        try (PreparedStatement statement = logEachStagingRow
-                ? connection.prepareStatement(insertSql, Statement.RETURN_GENERATED_KEYS)
-                : connection.prepareStatement(insertSql)) {
+        // Построчный лог принятых строк ждёт ключ: сразу (JDBC) или после пакета bulk copy.
+        Map<Integer, RowParagraph> awaitingKey = new HashMap<>();
+        StagingRowWriter.KeyListener keyListener = logEachStagingRow
+                ? (excelRowOneBased, rainKey) -> appendAcceptedRowLog(
+                        context, sheet, config, excelRowOneBased, awaitingKey.remove(excelRowOneBased), rainKey, stats)
+                : null;
+        try (StagingRowWriter writer = openRowWriter(
+                connection, config.rscStgTbl(), insertColumns, dbColumnTypes, insertSql,
+                execColumn, context.getExecutionKey(), excelRowColumn, keyListener)) {
             for (int rowIndex = firstDataRowIndex0; rowIndex <= lastDataRowIndex0; rowIndex++) {
                 stats.sourceRows++;
                 Row row = sheet.getRow(rowIndex);
@@ -388,8 +614,9 @@ public class DefaultAuditStagingService implements AuditStagingService {
                     }
                     stats.acceptedBySign++;
                 }
+                Object[] values = new Object[insertColumns.size()];
                 RowBindOutcome outcome = bindRow(
-                        statement,
+                        values,
                         row,
                         insertColumns,
                         excelColumns,
@@ -422,7 +649,8 @@ public class DefaultAuditStagingService implements AuditStagingService {
                         flushEmptyRowSkipBatch(context, sheet, emptyRowSkipBatch);
                         stats.rowParagraphTotal++;
                         stats.rowParagraphSampled++;
-                        String html = buildRowParagraphVbaHtml(row, excelColumns, rowIndex + 1, false, -1L);
+                        String html = renderRowParagraphVbaHtml(
+                                readRowParagraph(row, excelColumns), rowIndex + 1, false, -1L);
                         context.append(
                                 AuditLogLevel.WARNING,
                                 AuditLogScope.FILE,
@@ -469,62 +697,34 @@ public class DefaultAuditStagingService implements AuditStagingService {
                 stats.acceptedSignCounts.compute(outcome.rainSign(), (k, v) -> v == null ? 1 : v + 1);
                 if (logEachStagingRow) {
                     stats.rowParagraphTotal++;
-                    statement.executeUpdate();
-                    inserted++;
-                    if (inserted % 50 == 0) {
+                    awaitingKey.put(rowIndex + 1, readRowParagraph(row, excelColumns));
+                    writer.write(values, rowIndex + 1);
+                    if (stats.acceptedRows % 50 == 0) {
                         int excelRowOneBased = rowIndex + 1;
-                        int insertedSnapshot = inserted;
+                        int insertedSnapshot = writer.inserted();
                         log.info(() -> "[AuditStaging] progress auditId=" + context.getAuditId()
                                 + " sheet=" + sheet.getSheetName()
                                 + " excelRow=" + excelRowOneBased
                                 + " inserted=" + insertedSnapshot);
                     }
-                    long rainKey = readGeneratedRainKey(statement);
-                    appendStagingRowInserted(context, sheet, config, rowIndex + 1, rainKey);
-                    stats.rowParagraphSampled++;
-                    String html = buildRowParagraphVbaHtml(row, excelColumns, rowIndex + 1, true, rainKey);
-                    context.append(
-                            AuditLogLevel.INFO,
-                            AuditLogScope.FILE,
-                            "ROW_PARAGRAPH_PREVIEW",
-                            "<P>" + html + "</P>",
-                            withPresentationMeta(
-                                    Map.of(
-                                            "auditId", String.valueOf(context.getAuditId()),
-                                            "sheetName", String.valueOf(sheet.getSheetName()),
-                                            "rowIndex", String.valueOf(rowIndex + 1),
-                                            "rainKey", String.valueOf(rainKey),
-                                            "status", "ACCEPTED"
-                                    ),
-                                    "INFO",
-                                    "TEAL",
-                                    "NORMAL"
-                            )
-                    );
                 } else {
-                    statement.addBatch();
-                    batchCount++;
+                    writer.write(values, rowIndex + 1);
                     if (emitSummaryProgress && stats.sourceRows % summaryProgressInterval == 0) {
-                        appendSummaryProgress(context, sheet, rowIndex + 1, inserted);
+                        appendSummaryProgress(context, sheet, rowIndex + 1, writer.inserted());
                     }
                     if (stats.sourceRows % 200 == 0) {
                         int excelRowOneBased = rowIndex + 1;
-                        int insertedSnapshot = inserted;
+                        int insertedSnapshot = writer.inserted();
                         log.info(() -> "[AuditStaging] progress auditId=" + context.getAuditId()
                                 + " sheet=" + sheet.getSheetName()
                                 + " excelRow=" + excelRowOneBased
                                 + " inserted=" + insertedSnapshot
                                 + " (batch mode)");
                     }
-                    if (batchCount >= BATCH_SIZE) {
-                        inserted += executeBatch(statement);
-                        batchCount = 0;
-                    }
                 }
             }
-            if (!logEachStagingRow && batchCount > 0) {
-                inserted += executeBatch(statement);
-            }
+            writer.flush();
+            inserted = writer.inserted();
             flushEmptyRowSkipBatch(context, sheet, emptyRowSkipBatch);
         }
         if (allowedSigns != null && type5RaNumPattern != null && stagingLogLevel != StagingLogLevel.MINIMAL) {
@@ -678,7 +878,7 @@ public class DefaultAuditStagingService implements AuditStagingService {
      */
     private void appendBeyondDataRangeInfo(
             AuditExecutionContext context,
-            Sheet sheet,
+            AuditSheet sheet,
             SheetDataRangeSpec range,
             int beyondRangeRows
     ) {
@@ -712,7 +912,7 @@ public class DefaultAuditStagingService implements AuditStagingService {
      */
     private void scanType5OtherBeyondRange(
             AuditExecutionContext context,
-            Sheet sheet,
+            AuditSheet sheet,
             int lastDataRowIndex0,
             int poiLastRowIndex0,
             Map<String, Integer> excelColumns,
@@ -743,7 +943,7 @@ public class DefaultAuditStagingService implements AuditStagingService {
      */
     private void recordType5OtherRow(
             AuditExecutionContext context,
-            Sheet sheet,
+            AuditSheet sheet,
             int excelRowOneBased,
             String signRaw,
             String raNumRaw,
@@ -782,7 +982,7 @@ public class DefaultAuditStagingService implements AuditStagingService {
      */
     private void appendType5OtherOverflowIfNeeded(
             AuditExecutionContext context,
-            Sheet sheet,
+            AuditSheet sheet,
             SheetLoadStats stats,
             StagingLogLevel stagingLogLevel
     ) {
@@ -838,7 +1038,7 @@ public class DefaultAuditStagingService implements AuditStagingService {
         return auditStagingProperties.getDefaultLogLevel();
     }
 
-    private void appendSummaryProgress(AuditExecutionContext context, Sheet sheet, int excelRowOneBased, int inserted) {
+    private void appendSummaryProgress(AuditExecutionContext context, AuditSheet sheet, int excelRowOneBased, int inserted) {
         context.append(
                 AuditLogLevel.INFO,
                 AuditLogScope.FILE,
@@ -860,7 +1060,7 @@ public class DefaultAuditStagingService implements AuditStagingService {
 
     private void appendStagingRowParseIssues(
             AuditExecutionContext context,
-            Sheet sheet,
+            AuditSheet sheet,
             int excelRowOneBased,
             List<CellParseIssue> issues
     ) {
@@ -914,7 +1114,7 @@ public class DefaultAuditStagingService implements AuditStagingService {
         return null;
     }
 
-    private void appendSummaryIssue(AuditExecutionContext context, Sheet sheet, int excelRowOneBased, String reason) {
+    private void appendSummaryIssue(AuditExecutionContext context, AuditSheet sheet, int excelRowOneBased, String reason) {
         context.append(
                 AuditLogLevel.WARNING,
                 AuditLogScope.FILE,
@@ -937,7 +1137,7 @@ public class DefaultAuditStagingService implements AuditStagingService {
     /**
      * Сбрасывает накопленный диапазон пустых строк одним INFO-сообщением SUMMARY.
      */
-    private void flushEmptyRowSkipBatch(AuditExecutionContext context, Sheet sheet, EmptyRowSkipBatch batch) {
+    private void flushEmptyRowSkipBatch(AuditExecutionContext context, AuditSheet sheet, EmptyRowSkipBatch batch) {
         if (batch == null || batch.isEmpty()) {
             return;
         }
@@ -1006,6 +1206,45 @@ public class DefaultAuditStagingService implements AuditStagingService {
         }
     }
 
+    /**
+     * Построчный лог принятой строки после её записи: {@code STAGING_ROW_INSERTED} и {@code ROW_PARAGRAPH_PREVIEW}.
+     * При bulk copy вызывается по окончании пакета, когда ключи дочитаны.
+     */
+    private void appendAcceptedRowLog(
+            AuditExecutionContext context,
+            AuditSheet sheet,
+            RaSheetConf config,
+            int excelRowOneBased,
+            RowParagraph paragraph,
+            long rainKey,
+            SheetLoadStats stats
+    ) {
+        appendStagingRowInserted(context, sheet, config, excelRowOneBased, rainKey);
+        if (paragraph == null) {
+            return;
+        }
+        stats.rowParagraphSampled++;
+        String html = renderRowParagraphVbaHtml(paragraph, excelRowOneBased, true, rainKey);
+        context.append(
+                AuditLogLevel.INFO,
+                AuditLogScope.FILE,
+                "ROW_PARAGRAPH_PREVIEW",
+                "<P>" + html + "</P>",
+                withPresentationMeta(
+                        Map.of(
+                                "auditId", String.valueOf(context.getAuditId()),
+                                "sheetName", String.valueOf(sheet.getSheetName()),
+                                "rowIndex", String.valueOf(excelRowOneBased),
+                                "rainKey", String.valueOf(rainKey),
+                                "status", "ACCEPTED"
+                        ),
+                        "INFO",
+                        "TEAL",
+                        "NORMAL"
+                )
+        );
+    }
+
     /**
      * Текст строки лога staging в стиле VBA (SCR-003-D): тип (teal), хвост «Отчёт внесён…» (dark green), ID (orange).
      *
@@ -1015,11 +1254,11 @@ public class DefaultAuditStagingService implements AuditStagingService {
      */
     /**
      * Событие {@code STAGING_ROW_INSERTED} (V-C.2.1.a.1.1.a.2.a.1 / 1.8.11.7.1): только после успешного {@code INSERT} и чтения {@code rain_key}.
-     * При пакетной загрузке ({@code logEachStagingRow=false}) не вызывается — нет по-строчного {@code RETURN_GENERATED_KEYS}.
+     * При пакетной загрузке ({@code logEachStagingRow=false}) не вызывается — ключи строк не запрашиваются.
      */
     private void appendStagingRowInserted(
             AuditExecutionContext context,
-            Sheet sheet,
+            AuditSheet sheet,
             RaSheetConf config,
             int excelRowOneBased,
             long rainKey
@@ -1054,13 +1293,10 @@ public class DefaultAuditStagingService implements AuditStagingService {
         }
     }
 
-    private String buildRowParagraphVbaHtml(
-            Row row,
-            Map<String, Integer> excelColumns,
-            int excelRowOneBased,
-            boolean accepted,
-            long rainKey
-    ) {
+    /**
+     * Поля строки для построчного лога; читаются сразу, пока строка потокового листа действительна.
+     */
+    private RowParagraph readRowParagraph(Row row, Map<String, Integer> excelColumns) {
         String sign = readStringByColumnName(row, excelColumns, "rainSign");
         String raNum = readStringByColumnName(row, excelColumns, "rainRaNum");
         String cst = readStringByColumnName(row, excelColumns, "rainCstAgPnStr");
@@ -1079,13 +1315,21 @@ public class DefaultAuditStagingService implements AuditStagingService {
         } else {
             cst = cst.trim();
         }
-        String raDateLabel = formatRainRaDateForLog(row, excelColumns);
+        return new RowParagraph(sign, raNum, cst, formatRainRaDateForLog(row, excelColumns));
+    }
+
+    private String renderRowParagraphVbaHtml(
+            RowParagraph paragraph,
+            int excelRowOneBased,
+            boolean accepted,
+            long rainKey
+    ) {
         StringBuilder sb = new StringBuilder();
         sb.append("Найден тип <b><font color=\"").append(HTML_TEAL_SIGN).append("\">*")
-                .append(escape(sign)).append("*</font></b>");
-        sb.append("; имя: ").append(escape(raNum));
-        sb.append("; Стр. - ").append(escape(cst)).append(". ");
-        sb.append("ОА ").append(escape(raNum)).append(" от ").append(raDateLabel).append(";");
+                .append(escape(paragraph.sign())).append("*</font></b>");
+        sb.append("; имя: ").append(escape(paragraph.raNum()));
+        sb.append("; Стр. - ").append(escape(paragraph.cst())).append(". ");
+        sb.append("ОА ").append(escape(paragraph.raNum())).append(" от ").append(paragraph.raDateLabel()).append(";");
         if (!accepted) {
             sb.append(" <font color=\"").append(HTML_GRAY_NOTE).append("\">— пропущено (нет достаточных данных)</font>");
         } else if (rainKey > 0) {
@@ -1128,15 +1372,6 @@ public class DefaultAuditStagingService implements AuditStagingService {
         }
     }
 
-    private static long readGeneratedRainKey(PreparedStatement statement) throws SQLException {
-        try (ResultSet keys = statement.getGeneratedKeys()) {
-            if (keys.next()) {
-                return keys.getLong(1);
-            }
-        }
-        return -1L;
-    }
-
     private String readStringByColumnName(Row row, Map<String, Integer> excelColumns, String columnName) {
         Integer idx = excelColumns.get(columnName);
         if (idx == null) {
@@ -1151,7 +1386,7 @@ public class DefaultAuditStagingService implements AuditStagingService {
     private void appendSheetFound(
             AuditExecutionContext context,
             RaSheetConf config,
-            Sheet sheet,
+            AuditSheet sheet,
             SheetDataRangeSpec range
     ) {
         String sheetLabel = escape(sheet.getSheetName());
@@ -1211,9 +1446,13 @@ public class DefaultAuditStagingService implements AuditStagingService {
      * (не хвост UsedRange с итогами/счётчиками вроде «665» без стройки).
      * Для прочих типов — по-прежнему последняя непустая ячейка в колонке диапазона.
      * </p>
+     * <p>
+     * Поиск идёт сверху вниз с запоминанием последнего совпадения: потоковый лист
+     * ({@link AuditSheet}) дёшево читается только по возрастанию индексов.
+     * </p>
      */
     private SheetDataRangeSpec buildSheetDataRangeSpec(
-            Sheet sheet,
+            AuditSheet sheet,
             int headerRowIndex,
             int rangeColumnIndex0,
             Map<String, Integer> excelColumns,
@@ -1261,7 +1500,7 @@ public class DefaultAuditStagingService implements AuditStagingService {
      * Иначе — fallback на последнюю непустую ячейку в колонке диапазона.
      */
     private int findLastSignificantAgFeeRowIndex0(
-            Sheet sheet,
+            AuditSheet sheet,
             int firstDataRowIndex,
             int lastPoi,
             Map<String, Integer> excelColumns,
@@ -1273,21 +1512,22 @@ public class DefaultAuditStagingService implements AuditStagingService {
         }
         Integer cstCol = excelColumns.get("oafptPnCstAgPn");
         Integer dateCol = excelColumns.get("oafptOafDate");
-        for (int r = lastPoi; r >= firstDataRowIndex; r--) {
+        int last = -1;
+        for (int r = firstDataRowIndex; r <= lastPoi; r++) {
             Row row = sheet.getRow(r);
             if (AgFeeDataRangeClassifier.isSignificantRow(
                     row, nameCol, cstCol, dateCol, cellReader)) {
-                return r;
+                last = r;
             }
         }
-        return -1;
+        return last;
     }
 
     /**
      * Индекс последней значимой строки type=5 (0-based) или {@code -1}, если таких нет.
      */
     private int findLastSignificantType5RowIndex0(
-            Sheet sheet,
+            AuditSheet sheet,
             int firstDataRowIndex,
             int lastPoi,
             Map<String, Integer> excelColumns,
@@ -1300,7 +1540,8 @@ public class DefaultAuditStagingService implements AuditStagingService {
             return findLastNonEmptyInColumnIndex0(sheet, firstDataRowIndex, lastPoi,
                     excelColumns.values().stream().min(Integer::compareTo).orElse(0));
         }
-        for (int r = lastPoi; r >= firstDataRowIndex; r--) {
+        int last = -1;
+        for (int r = firstDataRowIndex; r <= lastPoi; r++) {
             Row row = sheet.getRow(r);
             if (row == null) {
                 continue;
@@ -1309,31 +1550,32 @@ public class DefaultAuditStagingService implements AuditStagingService {
             String raNumRaw = raNumCol != null ? cellReader.readString(row.getCell(raNumCol)) : null;
             if (Type5SignFilterClassifier.isSignificantForDataRange(
                     signRaw, raNumRaw, allowedSigns, type5RaNumPattern)) {
-                return r;
+                last = r;
             }
         }
-        return -1;
+        return last;
     }
 
     /**
      * Индекс последней непустой ячейки в колонке (0-based) или {@code -1}.
      */
     private int findLastNonEmptyInColumnIndex0(
-            Sheet sheet,
+            AuditSheet sheet,
             int firstDataRowIndex,
             int lastPoi,
             int rangeColumnIndex0
     ) {
-        for (int r = lastPoi; r >= firstDataRowIndex; r--) {
+        int last = -1;
+        for (int r = firstDataRowIndex; r <= lastPoi; r++) {
             Row row = sheet.getRow(r);
             if (row == null) {
                 continue;
             }
             if (cellReader.readString(row.getCell(rangeColumnIndex0)) != null) {
-                return r;
+                last = r;
             }
         }
-        return -1;
+        return last;
     }
 
     /**
@@ -1492,7 +1734,7 @@ public class DefaultAuditStagingService implements AuditStagingService {
         return headers;
     }
 
-    private Sheet resolveSheet(Workbook workbook, String sheetName) {
+    private AuditSheet resolveSheet(AuditWorkbook workbook, String sheetName) {
         if (sheetName == null || sheetName.isBlank()) {
             return workbook.getNumberOfSheets() > 0 ? workbook.getSheetAt(0) : null;
         }
@@ -1583,13 +1825,45 @@ public class DefaultAuditStagingService implements AuditStagingService {
     }
 
     /**
-     * Биндит одну Excel-строку в {@link PreparedStatement}.
+     * Bulk copy, если включён {@code audit.staging.bulk-insert} и соединение от драйвера SQL Server;
+     * иначе JDBC {@code INSERT} (пакетами или по строке, если нужны ключи для построчного лога).
+     */
+    private StagingRowWriter openRowWriter(
+            Connection connection,
+            String tableName,
+            List<String> insertColumns,
+            Map<String, Integer> dbColumnTypes,
+            String insertSql,
+            String execColumn,
+            Long executionKey,
+            String excelRowColumn,
+            StagingRowWriter.KeyListener keyListener
+    ) throws SQLException {
+        AuditStagingProperties.BulkInsert bulkInsert = auditStagingProperties.getBulkInsert();
+        if (bulkInsert.isEnabled()) {
+            if (BulkCopyStagingRowWriter.isAvailable(connection)) {
+                log.fine(() -> "[AuditStaging] bulk copy into " + tableName);
+                return BulkCopyStagingRowWriter.open(connection, tableName, insertColumns, dbColumnTypes,
+                        bulkInsert.getBatchSize(), execColumn, executionKey, excelRowColumn, keyListener);
+            }
+            log.info(() -> "[AuditStaging] bulk copy unavailable for this connection, using JDBC INSERT into " + tableName);
+        }
+        int[] jdbcTypes = insertColumns.stream()
+                .mapToInt(column -> dbColumnTypes.getOrDefault(column, Types.NVARCHAR))
+                .toArray();
+        return new JdbcStagingRowWriter(connection, insertSql, jdbcTypes, BATCH_SIZE, keyListener);
+    }
+
+    /**
+     * Привязывает одну Excel-строку к значениям колонок {@code INSERT}.
+     *
+     * @param values           массив значений по числу колонок {@code INSERT}; заполняется методом
      *
      * @param excelRowColumn   синтетическая колонка номера строки или {@code null}
      * @param excelRowOneBased номер строки на листе (1-based)
      */
     private RowBindOutcome bindRow(
-            PreparedStatement statement,
+            Object[] values,
             Row row,
             List<String> insertColumns,
             Map<String, Integer> excelColumns,
@@ -1601,7 +1875,7 @@ public class DefaultAuditStagingService implements AuditStagingService {
             String excelRowColumn,
             int excelRowOneBased,
             Set<String> requiredColumns
-    ) throws SQLException {
+    ) {
         boolean hasBusinessData = false;
         boolean missingRequiredData = false;
         boolean skippedDueToRequiredParseError = false;
@@ -1613,21 +1887,12 @@ public class DefaultAuditStagingService implements AuditStagingService {
         for (int i = 0; i < insertColumns.size(); i++) {
             String column = insertColumns.get(i);
             int jdbcType = dbColumnTypes.getOrDefault(column, Types.NVARCHAR);
-            int parameterIndex = i + 1;
             if (execColumn != null && execColumn.equals(column)) {
-                if (executionKey == null) {
-                    statement.setNull(parameterIndex, Types.INTEGER);
-                } else {
-                    statement.setLong(parameterIndex, executionKey);
-                }
+                values[i] = executionKey;
                 continue;
             }
             if (StagingExcelRowColumns.isSynthetic(column, excelRowColumn)) {
-                if (excelRowOneBased > 0) {
-                    statement.setInt(parameterIndex, excelRowOneBased);
-                } else {
-                    statement.setNull(parameterIndex, Types.INTEGER);
-                }
+                values[i] = excelRowOneBased > 0 ? excelRowOneBased : null;
                 continue;
             }
             Integer excelColIndex = excelColumns.get(column);
@@ -1661,7 +1926,7 @@ public class DefaultAuditStagingService implements AuditStagingService {
             if (value != null) {
                 hasBusinessData = true;
             }
-            bindValue(statement, parameterIndex, jdbcType, value);
+            values[i] = value;
         }
         boolean insertable = hasBusinessData && !missingRequiredData && !skippedDueToRequiredParseError;
         return new RowBindOutcome(
@@ -1781,31 +2046,10 @@ public class DefaultAuditStagingService implements AuditStagingService {
     private record CellParseIssue(String column, String excelHeader, String rawValue, String expectedType, boolean required) {
     }
 
-    private void bindValue(PreparedStatement statement, int parameterIndex, int jdbcType, Object value) throws SQLException {
-        if (value == null) {
-            statement.setNull(parameterIndex, jdbcType);
-            return;
-        }
-        switch (jdbcType) {
-            case Types.DATE -> statement.setDate(parameterIndex, java.sql.Date.valueOf((LocalDate) value));
-            case Types.INTEGER, Types.SMALLINT, Types.TINYINT -> statement.setInt(parameterIndex, ((Number) value).intValue());
-            case Types.BIGINT -> statement.setLong(parameterIndex, ((Number) value).longValue());
-            case Types.DECIMAL, Types.NUMERIC, Types.FLOAT, Types.DOUBLE, Types.REAL ->
-                    statement.setBigDecimal(parameterIndex, value instanceof BigDecimal ? (BigDecimal) value : BigDecimal.valueOf(((Number) value).doubleValue()));
-            case Types.BIT, Types.BOOLEAN -> statement.setBoolean(parameterIndex, (Boolean) value);
-            default -> statement.setObject(parameterIndex, value);
-        }
-    }
-
-    private int executeBatch(PreparedStatement statement) throws SQLException {
-        int[] results = statement.executeBatch();
-        int affected = 0;
-        for (int value : results) {
-            if (value > 0) {
-                affected += value;
-            }
-        }
-        return affected;
+    /**
+     * Поля Excel-строки для построчного лога в стиле VBA.
+     */
+    private record RowParagraph(String sign, String raNum, String cst, String raDateLabel) {
     }
 
     private record RowBindOutcome(
@@ -1821,6 +2065,51 @@ public class DefaultAuditStagingService implements AuditStagingService {
     ) {
     }
 
+    /**
+     * Состояние загрузки одного листа в параллельном режиме. Поля пишет поток листа, читает поток-владелец
+     * после {@code join()}.
+     */
+    private static final class SheetLoad {
+        private final RaSheetConf config;
+        private final AuditExecutionContext context;
+
+        private SheetLoad(RaSheetConf config, AuditExecutionContext context) {
+            this.config = config;
+            this.context = context;
+        }
+    }
+
+    private static final class TableLoad {
+        private final String tableName;
+        private final List<SheetLoad> sheets;
+        private Connection connection;
+        private StagingRollbackMarker rollbackMarker;
+        private boolean committed;
+
+        private TableLoad(String tableName, List<SheetLoad> sheets) {
+            this.tableName = tableName;
+            this.sheets = sheets;
+        }
+
+        private void close() {
+            if (connection == null) {
+                return;
+            }
+            try {
+                if (!committed) {
+                    connection.rollback();
+                }
+            } catch (SQLException exception) {
+                log.log(Level.WARNING, "[AuditStaging] rollback failed for table " + tableName, exception);
+            }
+            try {
+                connection.close();
+            } catch (SQLException exception) {
+                log.log(Level.WARNING, "[AuditStaging] close failed for table " + tableName, exception);
+            }
+        }
+    }
+
     private static final class SheetLoadStats {
         private final String sheetName;
         private final String stagingTable;
@@ -0,0 +1,112 @@
+package com.femsq.web.audit.staging;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.time.LocalDate;
+
+/**
+ * Запись строк staging через JDBC {@code INSERT}: {@code addBatch} пакетами или, если нужны ключи,
+ * по одной строке с {@code RETURN_GENERATED_KEYS}. Используется, когда bulk copy выключен или недоступен.
+ */
+final class JdbcStagingRowWriter implements StagingRowWriter {
+
+    private final PreparedStatement statement;
+    private final int[] jdbcTypes;
+    private final int batchSize;
+    private final KeyListener keyListener;
+    private int pending;
+    private int inserted;
+
+    /**
+     * @param insertSql   {@code INSERT} с параметрами в порядке колонок
+     * @param jdbcTypes   JDBC-типы колонок
+     * @param batchSize   строк в одном {@code executeBatch}
+     * @param keyListener {@code null} — пакетный режим без ключей
+     */
+    JdbcStagingRowWriter(
+            Connection connection,
+            String insertSql,
+            int[] jdbcTypes,
+            int batchSize,
+            KeyListener keyListener
+    ) throws SQLException {
+        this.statement = keyListener != null
+                ? connection.prepareStatement(insertSql, Statement.RETURN_GENERATED_KEYS)
+                : connection.prepareStatement(insertSql);
+        this.jdbcTypes = jdbcTypes.clone();
+        this.batchSize = Math.max(1, batchSize);
+        this.keyListener = keyListener;
+    }
+
+    @Override
+    public void write(Object[] values, int excelRowOneBased) throws SQLException {
+        for (int i = 0; i < jdbcTypes.length; i++) {
+            bindValue(statement, i + 1, jdbcTypes[i], values[i]);
+        }
+        if (keyListener != null) {
+            statement.executeUpdate();
+            inserted++;
+            keyListener.inserted(excelRowOneBased, readGeneratedKey(statement));
+            return;
+        }
+        statement.addBatch();
+        pending++;
+        if (pending >= batchSize) {
+            flush();
+        }
+    }
+
+    @Override
+    public void flush() throws SQLException {
+        if (pending == 0) {
+            return;
+        }
+        int[] results = statement.executeBatch();
+        for (int value : results) {
+            if (value > 0) {
+                inserted += value;
+            }
+        }
+        pending = 0;
+    }
+
+    @Override
+    public int inserted() {
+        return inserted;
+    }
+
+    @Override
+    public void close() throws SQLException {
+        statement.close();
+    }
+
+    static void bindValue(PreparedStatement statement, int parameterIndex, int jdbcType, Object value) throws SQLException {
+        if (value == null) {
+            statement.setNull(parameterIndex, jdbcType);
+            return;
+        }
+        switch (jdbcType) {
+            case Types.DATE -> statement.setDate(parameterIndex, java.sql.Date.valueOf((LocalDate) value));
+            case Types.INTEGER, Types.SMALLINT, Types.TINYINT -> statement.setInt(parameterIndex, ((Number) value).intValue());
+            case Types.BIGINT -> statement.setLong(parameterIndex, ((Number) value).longValue());
+            case Types.DECIMAL, Types.NUMERIC, Types.FLOAT, Types.DOUBLE, Types.REAL ->
+                    statement.setBigDecimal(parameterIndex, value instanceof BigDecimal ? (BigDecimal) value : BigDecimal.valueOf(((Number) value).doubleValue()));
+            case Types.BIT, Types.BOOLEAN -> statement.setBoolean(parameterIndex, (Boolean) value);
+            default -> statement.setObject(parameterIndex, value);
+        }
+    }
+
+    private static long readGeneratedKey(PreparedStatement statement) throws SQLException {
+        try (ResultSet keys = statement.getGeneratedKeys()) {
+            if (keys.next()) {
+                return keys.getLong(1);
+            }
+        }
+        return -1L;
+    }
+}
@@ -9,7 +9,7 @@ import java.util.Locale;
  */
 public enum StagingLogLevel {
 
-    /** Построчный HTML-лог и одиночный INSERT (сравнение с VBA). */
+    /** Построчный HTML-лог с ключом каждой строки (сравнение с VBA); одиночный INSERT, если bulk copy выключен. */
     VERBOSE,
 
     /** Batch INSERT, прогресс раз в 100 строк, лог только ошибочных строк. */
@@ -21,8 +21,8 @@ public enum StagingLogLevel {
     private static final int SUMMARY_PROGRESS_INTERVAL = 100;
 
     /**
-     * @return {@code true}, если каждая строка вставляется отдельным {@code executeUpdate}
-     *         с {@code RETURN_GENERATED_KEYS}
+     * @return {@code true}, если для каждой строки нужен её ключ: отдельный {@code executeUpdate}
+     *         с {@code RETURN_GENERATED_KEYS} или дочитывание ключей после пакета bulk copy
      */
     public boolean logEachStagingRow() {
         return this == VERBOSE;
@@ -0,0 +1,205 @@
+package com.femsq.web.audit.staging;
+
+import com.femsq.database.connection.ConnectionFactory;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Logger;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Плановая очистка staging-таблиц Stage 1 от строк завершённых запусков.
+ *
+ * <p>Stage 1 пишет строки под {@code exec_key} запуска, но сами строки нужны только до конца его
+ * reconcile. Без очистки таблицы растут бесконечно, и выборки по {@code exec_key} дорожают.</p>
+ *
+ * <p>Удаляются строки запусков в статусе {@code COMPLETED}/{@code FAILED}, завершённых раньше
+ * {@code retention-days}; по умолчанию последний запуск каждой ревизии сохраняется. Удаление идёт
+ * пакетами {@code DELETE TOP (n)} в автокоммите с паузой между пакетами: блокировки короткие и не
+ * эскалируются до таблицы, а при взаимоблокировке с живой ревизией жертвой выбирается очистка
+ * ({@code DEADLOCK_PRIORITY LOW}). Прогон ограничен по времени, остаток удаляется в следующий раз.</p>
+ *
+ * <p>Как и {@code AuditMarkerCleanupService}, очистка «best-effort»: ошибка по одной таблице
+ * логируется и не мешает остальным.</p>
+ */
+@Service
+public class StagingRetentionService {
+
+    private static final Logger log = Logger.getLogger(StagingRetentionService.class.getName());
+
+    /**
+     * Staging-таблицы Stage 1 и их колонка {@code exec_key}.
+     */
+    static final List<StagingTable> TABLES = List.of(
+            new StagingTable("ags.ra_stg_ra", "rain_exec_key"),
+            new StagingTable("ags.ra_stg_cn_prdoc", "cnpd_exec_key"),
+            new StagingTable("ags.ra_stg_ralp", "ralprt_exec_key"),
+            new StagingTable("ags.ra_stg_ralp_sm", "ralprs_exec_key"),
+            new StagingTable("ags.ra_stg_agfee", "oafpt_exec_key")
+    );
+
+    private final ConnectionFactory connectionFactory;
+    private final AuditStagingProperties.Retention retention;
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final Map<String, Counter> purgedRows = new LinkedHashMap<>();
+    private final Counter failureTotal;
+    private final Timer runTimer;
+
+    public StagingRetentionService(
+            ConnectionFactory connectionFactory,
+            AuditStagingProperties properties,
+            ObjectProvider<MeterRegistry> meterRegistryProvider) {
+        this.connectionFactory = connectionFactory;
+        this.retention = properties.getRetention();
+        MeterRegistry registry = meterRegistryProvider.getIfAvailable();
+        if (registry != null) {
+            for (StagingTable table : TABLES) {
+                purgedRows.put(table.name(), Counter.builder("audit.staging.retention.rows.purged")
+                        .tag("table", table.shortName())
+                        .description("Строки staging, удалённые очисткой завершённых запусков")
+                        .register(registry));
+            }
+            this.failureTotal = Counter.builder("audit.staging.retention.failure")
+                    .description("Ошибки очистки staging-таблиц (по таблице)")
+                    .register(registry);
+            this.runTimer = Timer.builder("audit.staging.retention.run")
+                    .description("Длительность прогона очистки staging-таблиц")
+                    .register(registry);
+        } else {
+            this.failureTotal = null;
+            this.runTimer = null;
+        }
+    }
+
+    /**
+     * По умолчанию раз в сутки в 03:40, после очистки marker-таблицы.
+     */
+    @Scheduled(cron = "${audit.staging.retention.cron:0 40 3 * * *}")
+    public void purgeExpired() {
+        if (!retention.isEnabled() || retention.getRetentionDays() <= 0) {
+            return;
+        }
+        if (!running.compareAndSet(false, true)) {
+            log.info("[StagingRetention] previous run still in progress, skipped");
+            return;
+        }
+        long startNanos = System.nanoTime();
+        long deadlineNanos = startNanos + TimeUnit.MINUTES.toNanos(retention.getMaxRunMinutes());
+        try (Connection connection = connectionFactory.createConnection()) {
+            connection.setAutoCommit(true);
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("SET DEADLOCK_PRIORITY LOW");
+            }
+            for (StagingTable table : TABLES) {
+                if (System.nanoTime() - deadlineNanos >= 0 || Thread.currentThread().isInterrupted()) {
+                    log.info("[StagingRetention] run limit reached, remaining tables postponed");
+                    break;
+                }
+                try {
+                    long purged = purgeTable(connection, table, deadlineNanos);
+                    if (purged > 0) {
+                        Counter counter = purgedRows.get(table.name());
+                        if (counter != null) {
+                            counter.increment(purged);
+                        }
+                        log.info(() -> "[StagingRetention] table=" + table.name() + ", deleted=" + purged
+                                + ", retentionDays=" + retention.getRetentionDays());
+                    }
+                } catch (SQLException ex) {
+                    countFailure();
+                    log.warning("[StagingRetention] cleanup of " + table.name() + " failed: " + ex.getMessage());
+                }
+            }
+        } catch (Exception ex) {
+            countFailure();
+            log.warning("[StagingRetention] cleanup failed: " + ex.getMessage());
+        } finally {
+            if (runTimer != null) {
+                runTimer.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+            }
+            running.set(false);
+        }
+    }
+
+    /**
+     * Удаляет устаревшие строки одной таблицы пакетами, пока пакет заполнен и не вышел срок прогона.
+     *
+     * @return число удалённых строк
+     */
+    long purgeTable(Connection connection, StagingTable table, long deadlineNanos) throws SQLException {
+        int batchSize = retention.getBatchSize();
+        long purged = 0;
+        try (PreparedStatement statement = connection.prepareStatement(deleteSql(table))) {
+            while (System.nanoTime() - deadlineNanos < 0) {
+                statement.setInt(1, batchSize);
+                statement.setInt(2, retention.getRetentionDays());
+                int deleted = statement.executeUpdate();
+                purged += deleted;
+                if (deleted < batchSize || !pause()) {
+                    break;
+                }
+            }
+        }
+        return purged;
+    }
+
+    String deleteSql(StagingTable table) {
+        StringBuilder sql = new StringBuilder()
+                .append("DELETE TOP (?) FROM ").append(table.name())
+                .append(" WHERE ").append(table.execColumn()).append(" IN (")
+                .append("SELECT e.exec_key FROM ags.ra_execution e")
+                .append(" WHERE e.exec_status IN (N'COMPLETED', N'FAILED')")
+                .append(" AND e.exec_finished < DATEADD(day, -?, SYSUTCDATETIME())");
+        if (retention.isKeepLatestPerAudit()) {
+            sql.append(" AND e.exec_key < (SELECT MAX(l.exec_key) FROM ags.ra_execution l")
+                    .append(" WHERE l.exec_adt_key = e.exec_adt_key)");
+        }
+        return sql.append(")").toString();
+    }
+
+    /**
+     * @return {@code false}, если поток прерван и очистку нужно остановить
+     */
+    private boolean pause() {
+        long pauseMillis = retention.getPauseMillis();
+        if (pauseMillis <= 0) {
+            return !Thread.currentThread().isInterrupted();
+        }
+        try {
+            Thread.sleep(pauseMillis);
+            return true;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private void countFailure() {
+        if (failureTotal != null) {
+            failureTotal.increment();
+        }
+    }
+
+    /**
+     * @param name       полное имя таблицы
+     * @param execColumn колонка ключа запуска
+     */
+    record StagingTable(String name, String execColumn) {
+
+        String shortName() {
+            int dot = name.lastIndexOf('.');
+            return dot < 0 ? name : name.substring(dot + 1);
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.femsq.web.audit.staging;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Locale;
+
+/**
+ * Отметка для компенсирующего отката строк загрузки в staging-таблицу.
+ *
+ * <p>Снимается один раз до записи первого листа таблицы: все листы одной таблицы пишутся одной
+ * транзакцией, поэтому строки запуска ({@code *_exec_key}) с identity-ключом выше {@code watermark} —
+ * это строки этих листов. Без identity-колонки откат удаляет все строки запуска в таблице.</p>
+ *
+ * @param tableName    staging-таблица ({@code ags.ra_stg_*})
+ * @param execColumn   колонка {@code *_exec_key}
+ * @param executionKey ключ запуска
+ * @param keyColumn    identity-колонка или {@code null}
+ * @param watermark    {@code MAX(keyColumn)} строк запуска до записи первого листа таблицы
+ */
+record StagingRollbackMarker(String tableName, String execColumn, long executionKey, String keyColumn, long watermark) {
+
+    /**
+     * @return отметка или {@code null}, если в таблице нет {@code *_exec_key} или не задан ключ запуска
+     */
+    static StagingRollbackMarker capture(Connection connection, String tableName, Long executionKey) throws SQLException {
+        if (executionKey == null) {
+            return null;
+        }
+        String[] parts = tableName.split("\\.");
+        String execColumn = null;
+        String keyColumn = null;
+        try (ResultSet rs = connection.getMetaData().getColumns(null, parts[0], parts[parts.length - 1], null)) {
+            while (rs.next()) {
+                String name = rs.getString("COLUMN_NAME");
+                if (execColumn == null && name.toLowerCase(Locale.ROOT).endsWith("_exec_key")) {
+                    execColumn = name;
+                }
+                if ("YES".equalsIgnoreCase(rs.getString("IS_AUTOINCREMENT"))) {
+                    keyColumn = name;
+                }
+            }
+        }
+        if (execColumn == null) {
+            return null;
+        }
+        long watermark = 0L;
+        if (keyColumn != null) {
+            String sql = "SELECT ISNULL(MAX(" + keyColumn + "), 0) FROM " + tableName + " WHERE " + execColumn + " = ?";
+            try (PreparedStatement ps = connection.prepareStatement(sql)) {
+                ps.setLong(1, executionKey);
+                try (ResultSet rs = ps.executeQuery()) {
+                    if (rs.next()) {
+                        watermark = rs.getLong(1);
+                    }
+                }
+            }
+        }
+        return new StagingRollbackMarker(tableName, execColumn, executionKey, keyColumn, watermark);
+    }
+
+    String deleteSql() {
+        String sql = "DELETE FROM " + tableName + " WHERE " + execColumn + " = ?";
+        return keyColumn != null ? sql + " AND " + keyColumn + " > ?" : sql;
+    }
+
+    /**
+     * Удаляет строки листа в транзакции {@code connection} (фиксирует вызывающий).
+     *
+     * @return число удалённых строк
+     */
+    int rollback(Connection connection) throws SQLException {
+        try (PreparedStatement ps = connection.prepareStatement(deleteSql())) {
+            ps.setLong(1, executionKey);
+            if (keyColumn != null) {
+                ps.setLong(2, watermark);
+            }
+            return ps.executeUpdate();
+        }
+    }
+}
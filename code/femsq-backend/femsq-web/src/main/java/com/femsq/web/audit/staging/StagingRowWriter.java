@@ -0,0 +1,46 @@
+package com.femsq.web.audit.staging;
+
+import java.sql.SQLException;
+
+/**
+ * Приёмник привязанных строк Stage 1 для одной staging-таблицы.
+ *
+ * <p>Строка — массив значений в порядке колонок {@code INSERT} (см. {@code resolveInsertColumns}).
+ * Реализация может копить строки и записывать их пакетом; {@link #flush()} дописывает остаток.
+ * Если передан {@link KeyListener}, после записи каждой строки сообщается её сгенерированный ключ
+ * (для {@code rain_key} в построчном логе) — сразу или по окончании пакета, в порядке записи.</p>
+ */
+interface StagingRowWriter extends AutoCloseable {
+
+    /**
+     * @param values           значения колонок {@code INSERT}; массив не переиспользуется вызывающим кодом
+     * @param excelRowOneBased номер строки на листе (1-based)
+     */
+    void write(Object[] values, int excelRowOneBased) throws SQLException;
+
+    /**
+     * Записывает накопленные строки.
+     */
+    void flush() throws SQLException;
+
+    /**
+     * @return число строк, уже записанных в таблицу
+     */
+    int inserted();
+
+    @Override
+    void close() throws SQLException;
+
+    /**
+     * Получатель сгенерированных ключей записанных строк.
+     */
+    @FunctionalInterface
+    interface KeyListener {
+
+        /**
+         * @param excelRowOneBased номер строки на листе
+         * @param generatedKey     ключ строки или {@code -1}, если не получен
+         */
+        void inserted(int excelRowOneBased, long generatedKey);
+    }
+}
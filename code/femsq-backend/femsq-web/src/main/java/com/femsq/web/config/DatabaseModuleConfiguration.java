@@ -6,6 +6,7 @@ import com.femsq.database.config.ConfigurationValidator;
 import com.femsq.database.config.DatabaseConfigurationService;
 import com.femsq.database.connection.ConnectionFactory;
 import com.femsq.database.connection.ConnectionManager;
+import com.femsq.database.connection.HikariPoolSettings;
 import com.femsq.database.dao.IpgChainDao;
 import com.femsq.database.dao.IpgChainRelationDao;
 import com.femsq.database.dao.InvestmentPlanGroupDao;
@@ -170,6 +171,9 @@ import com.femsq.database.service.RaFtStService;
 import com.femsq.database.service.RaColMapService;
 import com.femsq.database.service.RaSheetConfService;
 import com.femsq.database.service.StNetworkService;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -202,17 +206,20 @@ public class DatabaseModuleConfiguration {
     }
 
     /**
-     * Создает сервис работы с конфигурацией подключения.
+     * Создает сервис работы с конфигурацией подключения и запускает наблюдение за файлом конфигурации,
+     * чтобы выдача соединений читала snapshot без обращений к файловой системе.
      *
      * @param fileManager менеджер конфигурационного файла
      * @param validator   валидатор параметров
      * @return сервис конфигурации
      */
-    @Bean
+    @Bean(destroyMethod = "stopWatching")
     public DatabaseConfigurationService databaseConfigurationService(
             ConfigurationFileManager fileManager,
             ConfigurationValidator validator) {
-        return new DatabaseConfigurationService(fileManager, validator);
+        DatabaseConfigurationService service = new DatabaseConfigurationService(fileManager, validator);
+        service.startWatching();
+        return service;
     }
 
     /**
@@ -227,16 +234,33 @@ public class DatabaseModuleConfiguration {
 
     /**
      * Создает фабрику JDBC-подключений. Bean закрывается при остановке контекста.
+     * <p>
+     * Размер пула задаётся ключами {@code femsq.database.pool.*}; при наличии Actuator метрики HikariCP
+     * ({@code hikaricp.connections.*}) публикуются в общий {@link MeterRegistry}.
+     * </p>
      *
-     * @param configurationService сервис конфигурации базы данных
+     * @param configurationService  сервис конфигурации базы данных
      * @param providerFactory       фабрика провайдеров аутентификации
+     * @param maximumPoolSize       максимальное число соединений
+     * @param minimumIdle           минимальное число простаивающих соединений
+     * @param drainTimeoutSeconds   сколько ждать возврата соединений старого пула после переподключения
+     * @param meterRegistryProvider реестр метрик Micrometer (если доступен)
      * @return фабрика подключений
      */
     @Bean(destroyMethod = "close")
     public ConnectionFactory connectionFactory(
             DatabaseConfigurationService configurationService,
-            AuthenticationProviderFactory providerFactory) {
-        return new ConnectionFactory(configurationService, providerFactory);
+            AuthenticationProviderFactory providerFactory,
+            @Value("${femsq.database.pool.maximum-pool-size:10}") int maximumPoolSize,
+            @Value("${femsq.database.pool.minimum-idle:2}") int minimumIdle,
+            @Value("${femsq.database.pool.drain-timeout-seconds:30}") long drainTimeoutSeconds,
+            ObjectProvider<MeterRegistry> meterRegistryProvider) {
+        HikariPoolSettings poolSettings = new HikariPoolSettings(
+                maximumPoolSize,
+                minimumIdle,
+                Duration.ofSeconds(drainTimeoutSeconds),
+                meterRegistryProvider.getIfAvailable());
+        return new ConnectionFactory(poolSettings, configurationService, providerFactory);
     }
 
     /**
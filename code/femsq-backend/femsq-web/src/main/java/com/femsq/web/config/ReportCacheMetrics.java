@@ -0,0 +1,70 @@
+package com.femsq.web.config;
+
+import com.femsq.reports.core.JasperReportsEngine;
+import com.femsq.reports.core.JasperReportsEngine.CacheStatistics;
+import com.femsq.reports.core.ReportResultCache;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.concurrent.TimeUnit;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+/**
+ * Публикует статистику кэша скомпилированных отчётов {@link JasperReportsEngine} и кэша готовых
+ * результатов {@link ReportResultCache} в Micrometer.
+ * <p>
+ * Модуль отчётов не зависит от Micrometer, поэтому счётчики читаются из {@link CacheStatistics}
+ * функциональными метриками в момент сбора.
+ * </p>
+ */
+@Component
+public class ReportCacheMetrics {
+
+    public ReportCacheMetrics(JasperReportsEngine jasperEngine,
+                              ReportResultCache resultCache,
+                              ObjectProvider<MeterRegistry> meterRegistryProvider) {
+        MeterRegistry registry = meterRegistryProvider.getIfAvailable();
+        if (registry == null) {
+            return;
+        }
+        Gauge.builder("reports.template.cache.size", jasperEngine, engine -> engine.getCacheStatistics().size())
+                .description("Число скомпилированных шаблонов отчётов в памяти")
+                .register(registry);
+        FunctionCounter.builder("reports.template.cache.hits", jasperEngine,
+                        engine -> engine.getCacheStatistics().hits())
+                .description("Загрузки шаблонов, обслуженные из памяти без чтения файла")
+                .register(registry);
+        FunctionCounter.builder("reports.template.cache.misses", jasperEngine,
+                        engine -> engine.getCacheStatistics().misses())
+                .description("Загрузки шаблонов, потребовавшие десериализации .jasper или компиляции JRXML")
+                .register(registry);
+        FunctionTimer.builder("reports.template.load", jasperEngine,
+                        engine -> engine.getCacheStatistics().loads(),
+                        engine -> engine.getCacheStatistics().loadTimeNanos(),
+                        TimeUnit.NANOSECONDS)
+                .description("Время загрузки шаблонов отчётов при промахе кэша")
+                .register(registry);
+
+        Gauge.builder("reports.result.cache.size", resultCache, cache -> cache.getStatistics().entries())
+                .description("Число готовых результатов отчётов в кэше")
+                .register(registry);
+        Gauge.builder("reports.result.cache.bytes", resultCache, cache -> cache.getStatistics().size())
+                .description("Общий размер готовых результатов в кэше")
+                .baseUnit("bytes")
+                .register(registry);
+        FunctionCounter.builder("reports.result.cache.hits", resultCache,
+                        cache -> cache.getStatistics().hits())
+                .description("Генерации, обслуженные из кэша результатов без заполнения отчёта")
+                .register(registry);
+        FunctionCounter.builder("reports.result.cache.misses", resultCache,
+                        cache -> cache.getStatistics().misses())
+                .description("Промахи кэша результатов")
+                .register(registry);
+        FunctionCounter.builder("reports.result.cache.evictions", resultCache,
+                        cache -> cache.getStatistics().evictions())
+                .description("Результаты, вытесненные по TTL или лимитам размера")
+                .register(registry);
+    }
+}
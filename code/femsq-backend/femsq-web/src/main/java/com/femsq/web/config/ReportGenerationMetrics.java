@@ -0,0 +1,70 @@
+package com.femsq.web.config;
+
+import com.femsq.reports.core.GenerationAdmission.Lane;
+import com.femsq.reports.core.GenerationAdmission.LaneStatistics;
+import com.femsq.reports.core.ReportGenerationService;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToDoubleFunction;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+/**
+ * Публикует статистику допуска заполнений отчётов в Micrometer по полосам
+ * ({@code lane=preview|full}): ожидание места, время заполнения, занятые места, очередь и отказы.
+ * <p>
+ * Как и {@link ReportCacheMetrics}, счётчики читаются из {@link LaneStatistics} в момент сбора.
+ * </p>
+ */
+@Component
+public class ReportGenerationMetrics {
+
+    public ReportGenerationMetrics(ReportGenerationService generationService,
+                                   ObjectProvider<MeterRegistry> meterRegistryProvider) {
+        MeterRegistry registry = meterRegistryProvider.getIfAvailable();
+        if (registry == null) {
+            return;
+        }
+        for (Lane lane : Lane.values()) {
+            String tag = lane.name().toLowerCase(Locale.ROOT);
+            FunctionTimer.builder("reports.generation.queue.wait", generationService,
+                            service -> service.getAdmissionStatistics(lane).admitted(),
+                            service -> service.getAdmissionStatistics(lane).waitNanos(),
+                            TimeUnit.NANOSECONDS)
+                    .tag("lane", tag)
+                    .description("Ожидание свободного места перед заполнением отчёта")
+                    .register(registry);
+            FunctionTimer.builder("reports.generation.fill", generationService,
+                            service -> service.getAdmissionStatistics(lane).completed(),
+                            service -> service.getAdmissionStatistics(lane).heldNanos(),
+                            TimeUnit.NANOSECONDS)
+                    .tag("lane", tag)
+                    .description("Заполнение и экспорт отчёта (время удержания места)")
+                    .register(registry);
+            gauge(registry, "reports.generation.active", tag, generationService,
+                    service -> service.getAdmissionStatistics(lane).active(),
+                    "Заполнения, занимающие место");
+            gauge(registry, "reports.generation.waiting", tag, generationService,
+                    service -> service.getAdmissionStatistics(lane).waiting(),
+                    "Запросы в очереди на заполнение");
+            FunctionCounter.builder("reports.generation.admission.timeouts", generationService,
+                            service -> service.getAdmissionStatistics(lane).timedOut())
+                    .tag("lane", tag)
+                    .description("Запросы, не дождавшиеся места до истечения срока")
+                    .register(registry);
+        }
+    }
+
+    private static void gauge(MeterRegistry registry, String name, String lane,
+                              ReportGenerationService generationService,
+                              ToDoubleFunction<ReportGenerationService> value, String description) {
+        Gauge.builder(name, generationService, value)
+                .tag("lane", lane)
+                .description(description)
+                .register(registry);
+    }
+}
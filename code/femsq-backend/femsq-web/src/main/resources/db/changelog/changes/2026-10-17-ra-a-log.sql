@@ -0,0 +1,24 @@
+--liquibase formatted sql
+
+--changeset femsq:2026-10-17-ra-a-log runOnChange:false
+--comment: инкрементальный журнал ревизии (append-only) вместо перезаписи adt_results на каждом flush
+IF OBJECT_ID(N'ags.ra_a_log', N'U') IS NULL
+BEGIN
+    CREATE TABLE ags.ra_a_log (
+        ral_key BIGINT IDENTITY(1,1) NOT NULL,
+        ral_adt_key INT NOT NULL,
+        ral_exec_key INT NOT NULL,
+        ral_seq INT NOT NULL,
+        ral_ts DATETIME2 NOT NULL,
+        ral_level NVARCHAR(16) NULL,
+        ral_scope NVARCHAR(16) NULL,
+        ral_span_id NVARCHAR(32) NULL,
+        ral_parent_span_id NVARCHAR(32) NULL,
+        ral_code NVARCHAR(128) NULL,
+        ral_message NVARCHAR(MAX) NOT NULL,
+        ral_meta NVARCHAR(MAX) NULL,
+        CONSTRAINT PK_ra_a_log PRIMARY KEY (ral_key)
+    );
+    CREATE UNIQUE INDEX UX_ra_a_log_adt_exec_seq
+        ON ags.ra_a_log(ral_adt_key, ral_exec_key, ral_seq);
+END;
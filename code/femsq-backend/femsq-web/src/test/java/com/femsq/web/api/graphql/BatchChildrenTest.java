@@ -0,0 +1,48 @@
+package com.femsq.web.api.graphql;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.femsq.web.api.dto.OgAgDto;
+import com.femsq.web.api.dto.OgDto;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Раскладка детей по родителям для пакетных полей GraphQL.
+ */
+class BatchChildrenTest {
+
+    @Test
+    void keysAreDistinctAndSkipNull() {
+        List<OgDto> organizations = List.of(organization(3), organization(null), organization(1), organization(3));
+
+        assertEquals(List.of(3, 1), List.copyOf(BatchChildren.keys(organizations, OgDto::ogKey)));
+        assertEquals(Set.of(), BatchChildren.keys(List.<OgDto>of(), OgDto::ogKey));
+    }
+
+    @Test
+    void everyParentGetsItsChildrenInDatabaseOrder() {
+        OgDto first = organization(1);
+        OgDto second = organization(2);
+        OgDto unsaved = organization(null);
+        List<OgAgDto> agents = List.of(agent(10, 1), agent(11, 1), agent(20, 9));
+
+        Map<OgDto, List<OgAgDto>> grouped = BatchChildren.group(
+                List.of(first, second, unsaved), OgDto::ogKey, agents, OgAgDto::organizationKey);
+
+        assertEquals(List.of(first, second, unsaved), List.copyOf(grouped.keySet()));
+        assertEquals(List.of(10, 11), grouped.get(first).stream().map(OgAgDto::ogAgKey).toList());
+        assertEquals(List.of(), grouped.get(second));
+        assertEquals(List.of(), grouped.get(unsaved));
+    }
+
+    private static OgDto organization(Integer key) {
+        return new OgDto(key, "og" + key, "og" + key, null, null, null, null, null, null, null, "og");
+    }
+
+    private static OgAgDto agent(int key, int organizationKey) {
+        return new OgAgDto(key, "A" + key, organizationKey, null);
+    }
+}
@@ -199,6 +199,39 @@ class OgGraphqlControllerIT {
                 .containsExactly("Рога, ООО", "Рога и копыта, АО", "Копыта и хвосты, ИП");
     }
 
+    @Test
+    @Order(2)
+    @SuppressWarnings("unchecked")
+    void shouldPageOrganizationsConnectionByCursor() {
+        Map<String, Object> first = graphQl("{ organizationsConnection(first: 2) "
+                + "{ edges { node { ogKey } } pageInfo { hasNextPage endCursor } } }");
+        Map<String, Object> firstPageInfo = (Map<String, Object>) first.get("pageInfo");
+        assertThat((List<?>) first.get("edges")).hasSize(2);
+        assertThat(firstPageInfo.get("hasNextPage")).isEqualTo(true);
+
+        Map<String, Object> second = graphQl("{ organizationsConnection(first: 2, after: \""
+                + firstPageInfo.get("endCursor") + "\") { edges { node { ogKey } } pageInfo { hasNextPage hasPreviousPage } } }");
+        Map<String, Object> secondPageInfo = (Map<String, Object>) second.get("pageInfo");
+        assertThat((List<?>) second.get("edges")).hasSize(1);
+        assertThat(secondPageInfo.get("hasNextPage")).isEqualTo(false);
+        assertThat(secondPageInfo.get("hasPreviousPage")).isEqualTo(true);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> graphQl(String query) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        ResponseEntity<Map<String, Object>> response = restTemplate.exchange(
+                "/graphql",
+                HttpMethod.POST,
+                new HttpEntity<>(Map.of("query", query), headers),
+                new ParameterizedTypeReference<>() {
+                });
+        Map<String, Object> data = (Map<String, Object>) Objects.requireNonNull(response.getBody()).get("data");
+        assertThat(data).isNotNull();
+        return (Map<String, Object>) data.get("organizationsConnection");
+    }
+
     private boolean isDatabaseConfigured() {
         return System.getenv("FEMSQ_DB_HOST") != null &&
                 System.getenv("FEMSQ_DB_PORT") != null &&
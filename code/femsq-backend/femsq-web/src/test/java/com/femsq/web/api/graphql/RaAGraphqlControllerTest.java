@@ -0,0 +1,119 @@
+package com.femsq.web.api.graphql;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.femsq.database.model.RaA;
+import com.femsq.database.service.RaAService;
+import com.femsq.database.service.RaAtService;
+import com.femsq.database.service.RaDirService;
+import com.femsq.web.api.dto.RaADto;
+import com.femsq.web.api.mapper.AuditProgressMapper;
+import com.femsq.web.api.mapper.RaAMapper;
+import com.femsq.web.api.mapper.RaAtMapper;
+import com.femsq.web.api.mapper.RaDirMapper;
+import com.femsq.web.audit.AuditExecutionService;
+import com.femsq.web.audit.log.AuditLogHtmlReader;
+import com.femsq.web.audit.runtime.AuditExecutionRegistry;
+import com.femsq.web.audit.runtime.AuditProgressHub;
+import com.femsq.web.audit.runtime.AuditRunStatus;
+import graphql.schema.DataFetchingFieldSelectionSet;
+import java.util.List;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+/**
+ * {@code adt_results} читается, только если клиент выбрал поле {@code adtResults}.
+ */
+@ExtendWith(MockitoExtension.class)
+class RaAGraphqlControllerTest {
+
+    @Mock
+    private RaAService raAService;
+    @Mock
+    private RaAtService raAtService;
+    @Mock
+    private RaDirService raDirService;
+    @Mock
+    private RaAtMapper raAtMapper;
+    @Mock
+    private RaDirMapper raDirMapper;
+    @Mock
+    private AuditExecutionService auditExecutionService;
+    @Mock
+    private AuditExecutionRegistry auditExecutionRegistry;
+    @Mock
+    private AuditLogHtmlReader auditLogHtmlReader;
+    @Mock
+    private DataFetchingFieldSelectionSet selection;
+
+    private RaAGraphqlController controller;
+
+    @BeforeEach
+    void setUp() {
+        when(auditExecutionRegistry.getStatusOrIdle(anyLong())).thenReturn(AuditRunStatus.IDLE);
+        controller = new RaAGraphqlController(
+                raAService, raAtService, raDirService,
+                new RaAMapper(auditExecutionRegistry), raAtMapper, raDirMapper,
+                auditExecutionService, auditExecutionRegistry, auditLogHtmlReader,
+                new AuditProgressHub(), new AuditProgressMapper());
+    }
+
+    @Test
+    void auditListWithoutResultsFieldUsesSummaryQuery() {
+        when(selection.contains("adtResults")).thenReturn(false);
+        when(raAService.getAllSummaries()).thenReturn(List.of(audit(1L, null), audit(2L, null)));
+
+        List<RaADto> audits = controller.audits(selection);
+
+        assertEquals(List.of(1L, 2L), audits.stream().map(RaADto::adtKey).toList());
+        verify(raAService, never()).getAll();
+    }
+
+    @Test
+    void auditListWithResultsFieldOverlaysLiveLogOfRunningAudit() {
+        when(selection.contains("adtResults")).thenReturn(true);
+        when(auditExecutionRegistry.getStatusOrIdle(5L)).thenReturn(AuditRunStatus.RUNNING);
+        when(raAService.getAll()).thenReturn(List.of(audit(5L, "<P>stale</P>"), audit(6L, "<P>done</P>")));
+        when(auditLogHtmlReader.renderRunning(5L)).thenReturn(Optional.of("<P>live</P>"));
+
+        List<RaADto> audits = controller.audits(selection);
+
+        assertEquals(List.of("<P>live</P>", "<P>done</P>"), audits.stream().map(RaADto::adtResults).toList());
+        verify(auditLogHtmlReader, never()).renderRunning(6L);
+    }
+
+    @Test
+    void auditWithResultsFieldLoadsLog() {
+        when(selection.contains("adtResults")).thenReturn(true);
+        when(raAService.getById(3L)).thenReturn(Optional.of(audit(3L, "<P>log</P>")));
+
+        RaADto audit = controller.audit(3, selection);
+
+        assertEquals("<P>log</P>", audit.adtResults());
+        verify(raAService, never()).getSummaryById(anyLong());
+    }
+
+    @Test
+    void auditWithoutResultsFieldSkipsLog() {
+        when(selection.contains("adtResults")).thenReturn(false);
+        when(raAService.getSummaryById(4L)).thenReturn(Optional.of(audit(4L, null)));
+
+        RaADto audit = controller.audit(4, selection);
+
+        assertNull(audit.adtResults());
+        verify(raAService, never()).getById(anyLong());
+    }
+
+    private static RaA audit(long key, String results) {
+        return new RaA(key, "audit" + key, null, results, 1, 1, false, null, null, null);
+    }
+}
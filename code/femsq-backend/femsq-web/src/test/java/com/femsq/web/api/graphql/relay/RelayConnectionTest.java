@@ -0,0 +1,46 @@
+package com.femsq.web.api.graphql.relay;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Keyset-курсоры и сборка страницы Relay.
+ */
+class RelayConnectionTest {
+
+    @Test
+    void cursorRoundTripAndKindCheck() {
+        String cursor = KeysetCursor.encode("dbtKey", 85);
+        assertEquals(85, KeysetCursor.decodeInt("dbtKey", cursor));
+        assertNull(KeysetCursor.decodeInt("dbtKey", null));
+        assertThrows(IllegalArgumentException.class, () -> KeysetCursor.decodeInt("ogKey", cursor));
+        assertThrows(IllegalArgumentException.class, () -> KeysetCursor.decodeInt("dbtKey", "%%%"));
+    }
+
+    @Test
+    void extraFetchedElementMeansNextPage() {
+        RelayConnection<Integer> page = RelayConnection.of(List.of(1, 2, 3), 2, true,
+                key -> KeysetCursor.encode("k", key));
+
+        assertEquals(2, page.edges().size());
+        assertTrue(page.pageInfo().hasNextPage());
+        assertTrue(page.pageInfo().hasPreviousPage());
+        assertEquals(KeysetCursor.encode("k", 2), page.pageInfo().endCursor());
+
+        RelayConnection<Integer> last = RelayConnection.of(List.of(3), 2, true, key -> KeysetCursor.encode("k", key));
+        assertFalse(last.pageInfo().hasNextPage());
+    }
+
+    @Test
+    void pageSizeBounds() {
+        assertEquals(RelayConnection.DEFAULT_PAGE_SIZE, RelayConnection.pageSize(null));
+        assertThrows(IllegalArgumentException.class, () -> RelayConnection.pageSize(0));
+        assertThrows(IllegalArgumentException.class, () -> RelayConnection.pageSize(RelayConnection.MAX_PAGE_SIZE + 1));
+    }
+}
@@ -0,0 +1,60 @@
+package com.femsq.web.api.sudz;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+import com.femsq.database.model.sudz.SudzD644Row;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.poi.ss.usermodel.FillPatternType;
+import org.apache.poi.ss.usermodel.IndexedColors;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Потоковая запись D644: строк больше окна SXSSF, итоговые SUM и стили сохраняются.
+ */
+class SudzD644ExcelExporterTest {
+
+    @Test
+    void writeD644_rowsBeyondWindowKeepTotalsAndStyles() throws Exception {
+        int perAccount = SudzRsltExcelExporter.ROW_WINDOW + 50;
+        List<SudzD644Row> rows = new ArrayList<>();
+        for (int i = 0; i < perAccount; i++) {
+            rows.add(row(i + 1, 606012));
+            rows.add(row(perAccount + i + 1, 762210));
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        SudzD644ExcelExporter.writeD644(rows, out);
+
+        try (XSSFWorkbook workbook = new XSSFWorkbook(new ByteArrayInputStream(out.toByteArray()))) {
+            Sheet sheet = workbook.getSheetAt(0);
+            assertEquals("ags_Yr_DbtChangesRsltD644_26-03", sheet.getSheetName());
+            int firstTotal = 4 + perAccount;
+            Row total = sheet.getRow(firstTotal);
+            assertNotNull(total);
+            assertEquals("SUM(K5:K" + firstTotal + ")", total.getCell(10).getCellFormula());
+            assertEquals(IndexedColors.YELLOW.getIndex(), total.getCell(10).getCellStyle().getFillForegroundColor());
+            Row lastTotal = sheet.getRow(firstTotal + perAccount + 1);
+            assertEquals(762210d, lastTotal.getCell(0).getNumericCellValue());
+            Row data = sheet.getRow(5);
+            assertEquals(FillPatternType.SOLID_FOREGROUND, data.getCell(11).getCellStyle().getFillPattern());
+            assertEquals(firstTotal + perAccount + 1, sheet.getLastRowNum());
+        }
+    }
+
+    private static SudzD644Row row(int dbtKey, int account) {
+        LocalDate base = LocalDate.of(2026, 1, 15);
+        LocalDate curr = LocalDate.of(2026, 3, 20);
+        return new SudzD644Row(dbtKey, account, "Агент", 100L + dbtKey, "7700000000", "Контрагент", "Д-1",
+                base, "СФ " + dbtKey, base, base, BigDecimal.TEN, BigDecimal.ONE, curr, BigDecimal.ONE,
+                BigDecimal.ZERO, "C1", "Стройка", null, base, curr, 1, 2);
+    }
+}
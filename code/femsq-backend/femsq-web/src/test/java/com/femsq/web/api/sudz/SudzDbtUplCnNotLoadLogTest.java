@@ -4,9 +4,11 @@ import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import com.femsq.database.model.sudz.SudzDbtUplCnNotLoad;
+import com.femsq.database.model.sudz.SudzDbtUplCnNotLoadApplyResult;
 import com.femsq.database.model.sudz.SudzDbtUplCnNotLoadInserted;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 import org.junit.jupiter.api.Test;
 
 /**
@@ -59,6 +61,22 @@ class SudzDbtUplCnNotLoadLogTest {
         assertTrue(html.contains("CnS_OrgId: <font color=\"Teal\">50</font>"));
     }
 
+    @Test
+    void applyHeaderShowsMarkCountAndDuration() {
+        SudzDbtUplCnNotLoad row = new SudzDbtUplCnNotLoad(
+                1, 2, "Орг", "123", "CN", LocalDate.of(2021, 1, 2), 0, 1
+        );
+        SudzDbtUplCnNotLoadApplyResult applyResult = new SudzDbtUplCnNotLoadApplyResult(
+                260817, "Добавлено", Map.of(1, new SudzDbtUplCnNotLoadInserted(10, 20, 30, 40, 50)), 1, 42L
+        );
+        SudzDbtUplProgressLog log = new SudzDbtUplProgressLog();
+        SudzDbtUplCnNotLoadLog.append(log, List.of(row), applyResult);
+        String html = log.toHtml();
+        assertTrue(html.contains("rollbackSudzCnNotLoad(cnMark: 260817)"));
+        assertTrue(html.contains("Вставлено договоров: <b>1</b> за <font color=\"DarkCyan\">42</font> мс."));
+        assertTrue(html.contains("CnId: <font color=\"CadetBlue\">10</font>"));
+    }
+
     @Test
     void rowWithNullDateAndRepeats() {
         SudzDbtUplCnNotLoad row = new SudzDbtUplCnNotLoad(
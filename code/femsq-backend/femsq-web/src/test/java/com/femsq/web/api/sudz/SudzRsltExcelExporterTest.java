@@ -0,0 +1,93 @@
+package com.femsq.web.api.sudz;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.femsq.database.model.sudz.SudzRsltDebt;
+import com.femsq.database.model.sudz.SudzRsltOutline;
+import com.femsq.database.model.sudz.SudzRsltPeriod;
+import com.femsq.database.model.sudz.SudzRsltSlice;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Потоковая запись Rslt по контуру совпадает по структуре с записью из списка.
+ */
+class SudzRsltExcelExporterTest {
+
+    private static final LocalDate BASE = LocalDate.of(2025, 12, 31);
+    private static final LocalDate CURR = LocalDate.of(2026, 3, 31);
+
+    @Test
+    void streamedWriterMatchesListExport() throws Exception {
+        List<SudzRsltDebt> debts = new ArrayList<>();
+        for (int key = 1; key <= SudzRsltExcelExporter.ROW_WINDOW + 30; key++) {
+            debts.add(debt(key));
+        }
+        SudzRsltOutline outline = new SudzRsltOutline(
+                List.of(new SudzRsltSlice(BASE, BASE), new SudzRsltSlice(CURR, CURR)), debts.size());
+
+        ByteArrayOutputStream streamed = new ByteArrayOutputStream();
+        try (SudzRsltExcelExporter.RsltWorkbookWriter writer = SudzRsltExcelExporter.openRsltSborn(outline)) {
+            debts.forEach(writer::append);
+            writer.finish(streamed);
+            assertEquals(debts.size(), writer.written());
+        }
+        byte[] listed = SudzRsltExcelExporter.exportRsltSborn(debts);
+
+        try (XSSFWorkbook fromStream = new XSSFWorkbook(new ByteArrayInputStream(streamed.toByteArray()));
+             XSSFWorkbook fromList = new XSSFWorkbook(new ByteArrayInputStream(listed))) {
+            Sheet a = fromStream.getSheetAt(0);
+            Sheet b = fromList.getSheetAt(0);
+            assertEquals(b.getLastRowNum(), a.getLastRowNum());
+            Row headerA = a.getRow(2);
+            Row headerB = b.getRow(2);
+            assertEquals(headerB.getLastCellNum(), headerA.getLastCellNum());
+            for (int c = 0; c < headerB.getLastCellNum(); c++) {
+                assertEquals(headerB.getCell(c).getStringCellValue(), headerA.getCell(c).getStringCellValue());
+            }
+            int ttlCol = 10;
+            assertEquals(b.getRow(0).getCell(ttlCol).getCellFormula(), a.getRow(0).getCell(ttlCol).getCellFormula());
+            assertEquals(debts.size() + 2, a.getLastRowNum());
+        }
+    }
+
+    @Test
+    void subtotalRangeDoesNotDependOnOutlineDebtCount() throws Exception {
+        // Контур читается отдельным запросом: число долгов в нём может разойтись с потоком.
+        SudzRsltOutline outline = new SudzRsltOutline(
+                List.of(new SudzRsltSlice(BASE, BASE), new SudzRsltSlice(CURR, CURR)), 2);
+
+        ByteArrayOutputStream streamed = new ByteArrayOutputStream();
+        try (SudzRsltExcelExporter.RsltWorkbookWriter writer = SudzRsltExcelExporter.openRsltSborn(outline)) {
+            for (int key = 1; key <= 5; key++) {
+                writer.append(debt(key));
+            }
+            writer.finish(streamed);
+        }
+
+        try (XSSFWorkbook book = new XSSFWorkbook(new ByteArrayInputStream(streamed.toByteArray()))) {
+            Sheet sheet = book.getSheetAt(0);
+            assertEquals(7, sheet.getLastRowNum());
+            assertEquals("SUBTOTAL(9,K4:K1048576)", sheet.getRow(0).getCell(10).getCellFormula());
+        }
+    }
+
+    private static SudzRsltDebt debt(int key) {
+        return new SudzRsltDebt(key, "606012", null, null, null, null, null, null, null, List.of(
+                period(BASE, new BigDecimal("100"), null),
+                period(CURR, new BigDecimal("40"), new BigDecimal("60"))));
+    }
+
+    private static SudzRsltPeriod period(LocalDate upl, BigDecimal overd, BigDecimal pogasheno) {
+        return new SudzRsltPeriod(1, upl, upl, "СФ", 1, "Д-1", upl, 10L, "7700000000", "Контрагент",
+                upl, new BigDecimal("100"), overd, "C1", "Стройка", "Агент", pogasheno);
+    }
+}
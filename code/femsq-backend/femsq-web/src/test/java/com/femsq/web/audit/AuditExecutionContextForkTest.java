@@ -0,0 +1,44 @@
+package com.femsq.web.audit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Дочерние контексты параллельной обработки файлов и уведомления родителя о новых записях.
+ */
+class AuditExecutionContextForkTest {
+
+    @Test
+    void forkDoesNotNotifyParentAndMergeNotifiesOnce() {
+        AuditExecutionContext parent = new AuditExecutionContext(1L);
+        List<Integer> notifiedSizes = new ArrayList<>();
+        parent.setOnEntryAppended(ctx -> notifiedSizes.add(ctx.getEntries().size()));
+        String audit = parent.beginSpan(AuditLogLevel.INFO, AuditLogScope.AUDIT, "AUDIT_START", "<P>start</P>", null);
+
+        AuditExecutionContext fork = parent.fork("f1");
+        String file = fork.beginSpan(AuditLogLevel.INFO, AuditLogScope.FILE, "FILE_START", "<P>file</P>", null);
+        fork.append(AuditLogLevel.INFO, AuditLogScope.SHEET, "ROW", "<P>row</P>", null);
+        fork.endSpan(file, AuditLogLevel.INFO, AuditLogScope.FILE, "FILE_END", "<P>end</P>", null);
+
+        assertEquals(List.of(1), notifiedSizes);
+
+        parent.mergeFork(fork);
+
+        assertEquals(List.of(1, 4), notifiedSizes);
+        assertEquals(audit, parent.getEntries().get(1).getParentSpanId());
+    }
+
+    @Test
+    void mergingEmptyForkDoesNotNotify() {
+        AuditExecutionContext parent = new AuditExecutionContext(1L);
+        List<Integer> notifiedSizes = new ArrayList<>();
+        parent.setOnEntryAppended(ctx -> notifiedSizes.add(ctx.getEntries().size()));
+
+        parent.mergeFork(parent.fork("f1"));
+
+        assertEquals(List.of(), notifiedSizes);
+    }
+}
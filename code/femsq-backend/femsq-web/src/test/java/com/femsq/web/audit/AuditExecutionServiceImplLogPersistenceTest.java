@@ -0,0 +1,149 @@
+package com.femsq.web.audit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.femsq.database.exception.DaoException;
+import com.femsq.database.model.RaA;
+import com.femsq.database.model.RaDir;
+import com.femsq.database.model.RaExecution;
+import com.femsq.database.model.RaF;
+import com.femsq.database.service.RaAService;
+import com.femsq.database.service.RaDirService;
+import com.femsq.database.service.RaExecutionService;
+import com.femsq.database.service.RaFService;
+import com.femsq.web.audit.log.AuditLogStore;
+import com.femsq.web.audit.runtime.AuditExecutionRegistry;
+import com.femsq.web.audit.runtime.AuditLogBufferProperties;
+import com.femsq.web.audit.runtime.AuditParallelFilesProperties;
+import com.femsq.web.audit.runtime.AuditProgressHub;
+import com.femsq.web.audit.staging.AuditStagingProperties;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+/**
+ * Инкрементальное сохранение лога: flush дописывает только новые записи в {@code ags.ra_a_log},
+ * {@code adt_results} пишется один раз при компактизации.
+ */
+@ExtendWith(MockitoExtension.class)
+class AuditExecutionServiceImplLogPersistenceTest {
+
+    private static final long AUDIT_ID = 42L;
+
+    @Mock
+    private RaAService raAService;
+    @Mock
+    private RaDirService raDirService;
+    @Mock
+    private RaExecutionService raExecutionService;
+    @Mock
+    private RaFService raFService;
+    @Mock
+    private AuditExecutionRegistry auditExecutionRegistry;
+    @Mock
+    private AuditLogStore auditLogStore;
+
+    @Test
+    void executeAudit_appendsOnlyNewEntriesAndRewritesHtmlOnce(@TempDir Path tempDir) throws Exception {
+        AuditExecutionServiceImpl service = prepare(tempDir);
+
+        service.executeAudit(AUDIT_ID);
+
+        ArgumentCaptor<Integer> firstSeq = ArgumentCaptor.forClass(Integer.class);
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<AuditLogEntry>> batches = ArgumentCaptor.forClass(List.class);
+        verify(auditLogStore, atLeastOnce()).appendEntries(eq(AUDIT_ID), eq(7L), firstSeq.capture(), batches.capture());
+        int expectedSeq = 0;
+        for (int i = 0; i < firstSeq.getAllValues().size(); i++) {
+            assertEquals(expectedSeq, firstSeq.getAllValues().get(i));
+            expectedSeq += batches.getAllValues().get(i).size();
+        }
+        verify(raAService, times(1)).update(any(RaA.class));
+        verify(auditLogStore).deleteEntries(AUDIT_ID, 7L);
+        verify(auditExecutionRegistry).markCompleted(AUDIT_ID);
+    }
+
+    @Test
+    void executeAudit_whenLogStoreFails_fallsBackToHtmlRewrite(@TempDir Path tempDir) throws Exception {
+        AuditExecutionServiceImpl service = prepare(tempDir);
+        when(auditLogStore.appendEntries(anyLong(), any(), anyInt(), anyList()))
+                .thenThrow(new DaoException("ra_a_log unavailable"));
+
+        service.executeAudit(AUDIT_ID);
+
+        verify(auditLogStore, times(1)).appendEntries(anyLong(), any(), anyInt(), anyList());
+        verify(raAService, atLeastOnce()).update(any(RaA.class));
+        verify(auditLogStore, never()).deleteEntries(anyLong(), any());
+        verify(auditExecutionRegistry).markCompleted(AUDIT_ID);
+    }
+
+    @Test
+    void renderHtml_fromStoredEntries_matchesContextHtml() {
+        AuditExecutionContext context = new AuditExecutionContext(AUDIT_ID);
+        String span = context.beginSpan(AuditLogLevel.INFO, AuditLogScope.FILE, "FILE_START", "<P>start</P>", null);
+        context.append(AuditLogLevel.WARNING, AuditLogScope.FILE, "X", "<P>warn</P>", null);
+        context.endSpan(span, AuditLogLevel.INFO, AuditLogScope.FILE, "FILE_END", "<P>end</P>", null);
+
+        String rendered = AuditExecutionContext.renderHtml(AUDIT_ID, new ArrayList<>(context.getEntries()));
+
+        assertEquals(context.buildHtmlLog(), rendered);
+        assertTrue(rendered.contains("warn"));
+    }
+
+    private AuditExecutionServiceImpl prepare(Path tempDir) throws Exception {
+        Files.createFile(tempDir.resolve("stub.xlsx"));
+        RaA audit = new RaA(AUDIT_ID, "test-audit", LocalDateTime.now(), "", 1, 5, true, "VERBOSE",
+                LocalDateTime.now(), LocalDateTime.now());
+        when(raAService.getSummaryById(AUDIT_ID)).thenReturn(Optional.of(audit));
+        when(raExecutionService.getLatestByAuditId((int) AUDIT_ID))
+                .thenReturn(Optional.of(new RaExecution(7, (int) AUDIT_ID, "RUNNING", true, null, null, null)));
+        when(raDirService.getById(1)).thenReturn(Optional.of(new RaDir(1, "dir", tempDir.toString(), null, null)));
+        when(raFService.getByDirId(1)).thenReturn(List.of(new RaF(1L, "stub.xlsx", 1, 5, true, true, null, null, null, null)));
+
+        AuditFileProcessor processor = new AuditFileProcessor() {
+            @Override
+            public boolean supports(Integer type) {
+                return Integer.valueOf(5).equals(type);
+            }
+
+            @Override
+            public void process(AuditExecutionContext context, AuditFile file) {
+                for (int i = 0; i < 5; i++) {
+                    context.append(AuditLogLevel.INFO, AuditLogScope.SHEET, "ROW", "<P>row " + i + "</P>", null);
+                }
+            }
+        };
+        return new AuditExecutionServiceImpl(
+                raAService,
+                raDirService,
+                raExecutionService,
+                raFService,
+                List.of(processor),
+                auditExecutionRegistry,
+                new AuditStagingProperties(),
+                auditLogStore,
+                new AuditParallelFilesProperties(),
+                new AuditProgressHub(),
+                new AuditLogBufferProperties());
+    }
+}
@@ -0,0 +1,180 @@
+package com.femsq.web.audit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.femsq.database.model.RaA;
+import com.femsq.database.model.RaDir;
+import com.femsq.database.model.RaExecution;
+import com.femsq.database.model.RaF;
+import com.femsq.database.service.RaAService;
+import com.femsq.database.service.RaDirService;
+import com.femsq.database.service.RaExecutionService;
+import com.femsq.database.service.RaFService;
+import com.femsq.web.audit.log.AuditLogStore;
+import com.femsq.web.audit.runtime.AuditExecutionRegistry;
+import com.femsq.web.audit.runtime.AuditLogBufferProperties;
+import com.femsq.web.audit.runtime.AuditParallelFilesProperties;
+import com.femsq.web.audit.runtime.AuditProgressHub;
+import com.femsq.web.audit.staging.AuditStagingProperties;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+/**
+ * Параллельная обработка файлов: независимые типы выполняются одновременно, файлы одного типа — по очереди,
+ * лог сливается в порядке списка файлов.
+ */
+@ExtendWith(MockitoExtension.class)
+class AuditExecutionServiceImplParallelTest {
+
+    private static final long AUDIT_ID = 42L;
+
+    @Mock
+    private RaAService raAService;
+    @Mock
+    private RaDirService raDirService;
+    @Mock
+    private RaExecutionService raExecutionService;
+    @Mock
+    private RaFService raFService;
+    @Mock
+    private AuditExecutionRegistry auditExecutionRegistry;
+    @Mock
+    private AuditLogStore auditLogStore;
+
+    @Test
+    void executeAudit_independentTypesRunConcurrentlyAndMergeInListOrder(@TempDir Path tempDir) throws Exception {
+        CountDownLatch releasedByRalp = new CountDownLatch(1);
+        AuditFileProcessor processor = new AuditFileProcessor() {
+            @Override
+            public boolean supports(Integer type) {
+                return true;
+            }
+
+            @Override
+            public void process(AuditExecutionContext context, AuditFile file) {
+                context.append(AuditLogLevel.INFO, AuditLogScope.FILE, "TYPE_" + file.getType(), "<P>work</P>", null);
+                if (Integer.valueOf(5).equals(file.getType())) {
+                    // Первый в списке файл ждёт второй: при последовательной обработке ожидание истекло бы.
+                    try {
+                        assertTrue(releasedByRalp.await(10, TimeUnit.SECONDS), "type=3 file did not run concurrently");
+                    } catch (InterruptedException exception) {
+                        Thread.currentThread().interrupt();
+                        throw new IllegalStateException(exception);
+                    }
+                } else {
+                    releasedByRalp.countDown();
+                }
+            }
+        };
+        AuditExecutionServiceImpl service = prepare(tempDir, List.of(5, 3), processor);
+
+        service.executeAudit(AUDIT_ID);
+
+        verify(auditExecutionRegistry).markCompleted(AUDIT_ID);
+        List<String> codes = persistedCodes();
+        assertEquals(List.of("TYPE_5", "TYPE_3"),
+                codes.stream().filter(code -> code.startsWith("TYPE_")).toList());
+        int firstFileEnd = codes.indexOf("FILE_END");
+        int secondFileStart = codes.lastIndexOf("FILE_START");
+        assertTrue(firstFileEnd < secondFileStart, "file logs must not interleave: " + codes);
+    }
+
+    @Test
+    void executeAudit_sameTypeFilesNeverOverlap(@TempDir Path tempDir) throws Exception {
+        AtomicInteger active = new AtomicInteger();
+        AtomicInteger maxActive = new AtomicInteger();
+        List<Long> order = new ArrayList<>();
+        AuditFileProcessor processor = new AuditFileProcessor() {
+            @Override
+            public boolean supports(Integer type) {
+                return true;
+            }
+
+            @Override
+            public void process(AuditExecutionContext context, AuditFile file) {
+                int now = active.incrementAndGet();
+                maxActive.accumulateAndGet(now, Math::max);
+                try {
+                    Thread.sleep(20);
+                } catch (InterruptedException exception) {
+                    Thread.currentThread().interrupt();
+                }
+                synchronized (order) {
+                    order.add(file.getId());
+                }
+                active.decrementAndGet();
+            }
+        };
+        AuditExecutionServiceImpl service = prepare(tempDir, List.of(5, 5, 5), processor);
+
+        service.executeAudit(AUDIT_ID);
+
+        verify(auditExecutionRegistry).markCompleted(AUDIT_ID);
+        assertEquals(1, maxActive.get());
+        assertEquals(List.of(1L, 2L, 3L), order);
+    }
+
+    private List<String> persistedCodes() {
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<AuditLogEntry>> batches = ArgumentCaptor.forClass(List.class);
+        verify(auditLogStore, atLeastOnce()).appendEntries(eq(AUDIT_ID), eq(7L), anyInt(), batches.capture());
+        List<String> codes = new ArrayList<>();
+        for (List<AuditLogEntry> batch : batches.getAllValues()) {
+            for (AuditLogEntry entry : batch) {
+                codes.add(entry.getCode());
+            }
+        }
+        return codes;
+    }
+
+    private AuditExecutionServiceImpl prepare(Path tempDir, List<Integer> types, AuditFileProcessor processor)
+            throws Exception {
+        List<RaF> files = new ArrayList<>();
+        for (int i = 0; i < types.size(); i++) {
+            String name = "file" + (i + 1) + ".xlsx";
+            Files.createFile(tempDir.resolve(name));
+            files.add(new RaF((long) (i + 1), name, 1, types.get(i), true, true, null, null, null, null));
+        }
+        RaA audit = new RaA(AUDIT_ID, "test-audit", LocalDateTime.now(), "", 1, 5, true, "VERBOSE",
+                LocalDateTime.now(), LocalDateTime.now());
+        when(raAService.getSummaryById(AUDIT_ID)).thenReturn(Optional.of(audit));
+        when(raExecutionService.getLatestByAuditId((int) AUDIT_ID))
+                .thenReturn(Optional.of(new RaExecution(7, (int) AUDIT_ID, "RUNNING", true, null, null, null)));
+        when(raDirService.getById(1)).thenReturn(Optional.of(new RaDir(1, "dir", tempDir.toString(), null, null)));
+        when(raFService.getByDirId(1)).thenReturn(files);
+
+        AuditParallelFilesProperties parallelFilesProperties = new AuditParallelFilesProperties();
+        parallelFilesProperties.setEnabled(true);
+        return new AuditExecutionServiceImpl(
+                raAService,
+                raDirService,
+                raExecutionService,
+                raFService,
+                List.of(processor),
+                auditExecutionRegistry,
+                new AuditStagingProperties(),
+                auditLogStore,
+                parallelFilesProperties,
+                new AuditProgressHub(),
+                new AuditLogBufferProperties());
+    }
+}
@@ -14,7 +14,11 @@ import com.femsq.database.service.RaAService;
 import com.femsq.database.service.RaDirService;
 import com.femsq.database.service.RaExecutionService;
 import com.femsq.database.service.RaFService;
+import com.femsq.web.audit.log.AuditLogStore;
 import com.femsq.web.audit.runtime.AuditExecutionRegistry;
+import com.femsq.web.audit.runtime.AuditLogBufferProperties;
+import com.femsq.web.audit.runtime.AuditParallelFilesProperties;
+import com.femsq.web.audit.runtime.AuditProgressHub;
 import com.femsq.web.audit.staging.AuditStagingProperties;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -43,6 +47,8 @@ class AuditExecutionServiceImplThrowableTest {
     private RaFService raFService;
     @Mock
     private AuditExecutionRegistry auditExecutionRegistry;
+    @Mock
+    private AuditLogStore auditLogStore;
 
     @Test
     void executeAudit_whenProcessorThrowsError_callsMarkFailedNotMarkCompleted(@TempDir Path tempDir) throws Exception {
@@ -61,7 +67,7 @@ class AuditExecutionServiceImplThrowableTest {
                 null,
                 LocalDateTime.now(),
                 LocalDateTime.now());
-        when(raAService.getById(auditId)).thenReturn(Optional.of(audit));
+        when(raAService.getSummaryById(auditId)).thenReturn(Optional.of(audit));
         when(raExecutionService.getLatestByAuditId((int) auditId)).thenReturn(Optional.empty());
         when(raDirService.getById(1)).thenReturn(Optional.of(new RaDir(1, "dir", tempDir.toString(), null, null)));
 
@@ -89,7 +95,11 @@ class AuditExecutionServiceImplThrowableTest {
                 raFService,
                 List.of(throwingProcessor),
                 auditExecutionRegistry,
-                auditStagingProperties);
+                auditStagingProperties,
+                auditLogStore,
+                new AuditParallelFilesProperties(),
+                new AuditProgressHub(),
+                new AuditLogBufferProperties());
 
         service.executeAudit(auditId);
 
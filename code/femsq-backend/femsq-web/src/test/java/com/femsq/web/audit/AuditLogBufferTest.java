@@ -0,0 +1,95 @@
+package com.femsq.web.audit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Окно записей лога в памяти и чтение выгруженных записей с диска.
+ */
+class AuditLogBufferTest {
+
+    @Test
+    void spilledEntriesAreReadBackUnchanged(@TempDir Path spillDir) {
+        List<AuditLogEntry> written = new ArrayList<>();
+        try (AuditLogBuffer buffer = new AuditLogBuffer(4, spillDir)) {
+            for (int i = 0; i < 11; i++) {
+                AuditLogEntry entry = new AuditLogEntry(
+                        Instant.ofEpochSecond(1_700_000_000L, i), i % 2 == 0 ? AuditLogLevel.INFO : null,
+                        AuditLogScope.SHEET, i == 0 ? "s1" : null, i == 0 ? null : "s1", "ROW_" + i,
+                        "<P>строка " + i + "</P>", i % 3 == 0 ? null : Map.of("rowIndex", String.valueOf(i)));
+                written.add(entry);
+                buffer.add(entry);
+            }
+
+            assertEquals(11, buffer.size());
+            assertTrue(buffer.spilledCount() >= 7, "spilled=" + buffer.spilledCount());
+            for (int i = 0; i < written.size(); i++) {
+                assertSameEntry(written.get(i), buffer.get(i));
+            }
+        }
+    }
+
+    @Test
+    void metaKeysAreInterned(@TempDir Path spillDir) {
+        String key = new String("rowIndex".toCharArray());
+        try (AuditLogBuffer buffer = new AuditLogBuffer(1, spillDir)) {
+            buffer.add(new AuditLogEntry(Instant.EPOCH, AuditLogLevel.INFO, AuditLogScope.SHEET, "ROW", "<P>1</P>",
+                    Map.of(key, "1")));
+            buffer.add(new AuditLogEntry(Instant.EPOCH, AuditLogLevel.INFO, AuditLogScope.SHEET, "ROW", "<P>2</P>",
+                    Map.of(key, "2")));
+
+            assertEquals(2, buffer.spilledCount());
+            assertSame("rowIndex", buffer.get(0).getMeta().keySet().iterator().next());
+            assertSame("rowIndex", buffer.get(1).getMeta().keySet().iterator().next());
+        }
+    }
+
+    @Test
+    void spilledContextRendersSameHtmlAndReleasesFile(@TempDir Path spillDir) throws Exception {
+        AuditExecutionContext spilling = new AuditExecutionContext(1L, 8, spillDir);
+        AuditExecutionContext inMemory = new AuditExecutionContext(1L);
+        for (AuditExecutionContext context : List.of(spilling, inMemory)) {
+            String audit = context.beginSpan(AuditLogLevel.INFO, AuditLogScope.AUDIT, "AUDIT_START", "<P>start</P>", null);
+            for (int file = 0; file < 3; file++) {
+                String span = context.beginSpan(AuditLogLevel.INFO, AuditLogScope.FILE, "FILE_START", "<P>file</P>", null);
+                for (int row = 0; row < 10; row++) {
+                    context.append(row == 7 ? AuditLogLevel.WARNING : AuditLogLevel.INFO, AuditLogScope.SHEET,
+                            "STAGING_ROW_INSERTED", "<P>table=ags.ra_stg_ra inserted=" + row + "</P>",
+                            Map.of("rowIndex", String.valueOf(row)));
+                }
+                context.endSpan(span, AuditLogLevel.INFO, AuditLogScope.FILE, "FILE_END", "<P>end</P>", null);
+            }
+            context.endSpan(audit, AuditLogLevel.INFO, AuditLogScope.AUDIT, "AUDIT_END", "<P>done</P>", null);
+        }
+
+        assertTrue(spilling.getSpilledEntryCount() > 0);
+        assertEquals(inMemory.buildHtmlLog(), spilling.buildHtmlLog());
+
+        spilling.close();
+        try (Stream<Path> files = Files.list(spillDir)) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    private static void assertSameEntry(AuditLogEntry expected, AuditLogEntry actual) {
+        assertEquals(expected.getTimestamp(), actual.getTimestamp());
+        assertEquals(expected.getLevel(), actual.getLevel());
+        assertEquals(expected.getScope(), actual.getScope());
+        assertEquals(expected.getSpanId(), actual.getSpanId());
+        assertEquals(expected.getParentSpanId(), actual.getParentSpanId());
+        assertEquals(expected.getCode(), actual.getCode());
+        assertEquals(expected.getMessageHtml(), actual.getMessageHtml());
+        assertEquals(expected.getMeta(), actual.getMeta());
+    }
+}
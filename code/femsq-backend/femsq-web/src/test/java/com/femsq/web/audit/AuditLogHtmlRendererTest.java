@@ -0,0 +1,153 @@
+package com.femsq.web.audit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Инкрементальная сборка HTML совпадает с полной сборкой дерева, в том числе с выгрузкой фрагментов на диск.
+ */
+class AuditLogHtmlRendererTest {
+
+    @Test
+    void incrementalRenderMatchesFullRenderAfterEveryEntry() {
+        List<AuditLogEntry> entries = mixedLog();
+
+        AuditLogHtmlRenderer incremental = new AuditLogHtmlRenderer();
+        for (int i = 1; i <= entries.size(); i++) {
+            List<AuditLogEntry> prefix = entries.subList(0, i);
+            assertEquals(new AuditLogHtmlRenderer().render(prefix), incremental.render(prefix), "entries=" + i);
+        }
+    }
+
+    @Test
+    void spilledRenderMatchesInMemoryRenderAfterEveryEntry(@TempDir Path spillDir) {
+        List<AuditLogEntry> entries = new ArrayList<>();
+        entries.add(leaf("s29", AuditLogLevel.INFO, "EARLY", "<P>до своего span</P>"));
+        entries.add(span("s20", null, AuditLogScope.AUDIT, "AUDIT_START"));
+        for (int sheet = 0; sheet < 6; sheet++) {
+            entries.add(span("sh" + sheet, "s20", AuditLogScope.SHEET, "SHEET_START"));
+            entries.add(leaf("sh" + sheet, sheet == 3 ? AuditLogLevel.WARNING : AuditLogLevel.INFO, "ROW", "<P>ряд " + sheet + "</P>"));
+            entries.add(leaf("sh" + sheet, AuditLogLevel.INFO, "SHEET_END", "<P>end " + sheet + "</P>"));
+            entries.add(leaf("s20", AuditLogLevel.INFO, "ROW", "<P>между листами " + sheet + "</P>"));
+        }
+        // запись в выгруженный span: дерево перестраивается по всем записям
+        entries.add(leaf("sh1", AuditLogLevel.WARNING, "LATE", "<P>late</P>"));
+        entries.add(leaf(null, AuditLogLevel.INFO, "ROOT", "<P>root</P>"));
+        entries.add(leaf("s20", AuditLogLevel.INFO, "AUDIT_END", "<P>done</P>"));
+
+        int minHeap = Integer.MAX_VALUE;
+        try (AuditLogHtmlRenderer spilled = new AuditLogHtmlRenderer(4, spillDir)) {
+            AuditLogHtmlRenderer inMemory = new AuditLogHtmlRenderer();
+            for (int i = 1; i <= entries.size(); i++) {
+                List<AuditLogEntry> prefix = entries.subList(0, i);
+                assertEquals(inMemory.render(prefix), spilled.render(prefix), "entries=" + i);
+                minHeap = Math.min(minHeap, spilled.heapNodeCount() - i);
+            }
+        }
+        assertTrue(minHeap < -10, "nothing spilled: " + minHeap);
+    }
+
+    @Test
+    void heapStaysFlatWhileLogGrowsPastWindow(@TempDir Path spillDir) {
+        int window = 40;
+        List<AuditLogEntry> entries = new ArrayList<>();
+        entries.add(span("a", null, AuditLogScope.AUDIT, "AUDIT_START"));
+        long[] maxHeapHtml = new long[2];
+        try (AuditLogHtmlRenderer renderer = new AuditLogHtmlRenderer(window, spillDir)) {
+            for (int sheet = 1; sheet <= 400; sheet++) {
+                String spanId = "sh" + sheet;
+                entries.add(span(spanId, "a", AuditLogScope.SHEET, "SHEET_START"));
+                for (int row = 0; row < 20; row++) {
+                    entries.add(leaf(spanId, AuditLogLevel.INFO, "STAGING_ROW_INSERTED",
+                            "<P>лист " + sheet + ", строка " + row + ": значение</P>"));
+                }
+                entries.add(leaf(spanId, AuditLogLevel.INFO, "SHEET_END", "<P>конец листа " + sheet + "</P>"));
+                entries.add(leaf("a", AuditLogLevel.INFO, "FILE_FS_FOUND", "<P>файл " + sheet + "</P>"));
+                renderer.render(entries);
+
+                assertTrue(renderer.heapNodeCount() <= window, "sheet=" + sheet + " heap=" + renderer.heapNodeCount());
+                if (sheet > 20) {
+                    int half = sheet <= 100 ? 0 : 1;
+                    maxHeapHtml[half] = Math.max(maxHeapHtml[half], renderer.heapHtmlLength());
+                }
+            }
+            assertEquals(new AuditLogHtmlRenderer().render(entries), renderer.render(entries));
+        }
+        // 9 000 записей против 1 800: в памяти столько же HTML (разница — только длина номеров листов)
+        assertTrue(maxHeapHtml[1] <= maxHeapHtml[0] + maxHeapHtml[0] / 10,
+                "early=" + maxHeapHtml[0] + " late=" + maxHeapHtml[1]);
+    }
+
+    private static List<AuditLogEntry> mixedLog() {
+        List<AuditLogEntry> entries = new ArrayList<>();
+        entries.add(span("s1", null, AuditLogScope.AUDIT, "AUDIT_START"));
+        entries.add(span("s2", "s1", AuditLogScope.FILE, "FILE_START"));
+        entries.add(span("s3", "s2", AuditLogScope.SHEET, "SHEET_START"));
+        entries.add(leaf("s3", AuditLogLevel.INFO, "STAGING_STATS", "<P>table=ags.ra_stg_ra inserted=3</P>"));
+        entries.add(leaf("s3", AuditLogLevel.INFO, "SHEET_END", "<P>end</P>"));
+        entries.add(span("s4", "s2", AuditLogScope.SHEET, "SHEET_START"));
+        entries.add(leaf("s4", AuditLogLevel.INFO, "ROW", "<P>row</P>"));
+        // запись в уже закрытый span (перенос fork-а) раскрывает его предупреждением
+        entries.add(leaf("s3", AuditLogLevel.WARNING, "LATE", "<P>late</P>"));
+        entries.add(leaf("s2", AuditLogLevel.INFO, "FILE_CLOSE", "<P>close</P>"));
+        entries.add(leaf(null, AuditLogLevel.INFO, "ROOT", "<P>root</P>"));
+        entries.add(leaf("s9", AuditLogLevel.INFO, "EARLY", "<P>до своего span</P>"));
+        entries.add(span("s9", "s1", AuditLogScope.SHEET, "SHEET_START"));
+        entries.add(span("s4", "s1", AuditLogScope.SHEET, "SHEET_START"));
+        entries.add(leaf("s4", AuditLogLevel.ERROR, "DUP", "<P>dup</P>"));
+        entries.add(leaf("s1", AuditLogLevel.INFO, "AUDIT_END", "<P>done</P>"));
+        return entries;
+    }
+
+    @Test
+    void closedSpanOpensWhenWarningArrivesLater() {
+        List<AuditLogEntry> entries = new ArrayList<>();
+        entries.add(span("s1", null, AuditLogScope.SHEET, "SHEET_START"));
+        entries.add(leaf("s1", AuditLogLevel.INFO, "ROW", "<P>row</P>"));
+        AuditLogHtmlRenderer renderer = new AuditLogHtmlRenderer();
+        assertTrue(renderer.render(entries).contains("<details style="));
+
+        entries.add(leaf("s1", AuditLogLevel.WARNING, "ROW", "<P>warn</P>"));
+
+        assertTrue(renderer.render(entries).contains("<details open style="));
+    }
+
+    @Test
+    void closedSpanKeepsRenderedHtmlUntilChildArrives() {
+        List<AuditLogEntry> entries = new ArrayList<>();
+        entries.add(span("s1", null, AuditLogScope.AUDIT, "AUDIT_START"));
+        entries.add(span("s2", "s1", AuditLogScope.SHEET, "SHEET_START"));
+        entries.add(leaf("s2", AuditLogLevel.INFO, "ROW", "<P>row</P>"));
+        AuditLogHtmlRenderer renderer = new AuditLogHtmlRenderer();
+        renderer.render(entries);
+        long open = renderer.heapHtmlLength();
+
+        entries.add(leaf("s2", AuditLogLevel.INFO, "SHEET_END", "<P>end</P>"));
+        String closedHtml = renderer.render(entries);
+
+        // сверх новой строки в памяти — готовый HTML закрытого span-а
+        assertTrue(renderer.heapHtmlLength() > open + "<P>end</P>".length() + "<details".length(),
+                "closed span is not memoized");
+        assertEquals(closedHtml, renderer.render(entries));
+
+        entries.add(leaf("s2", AuditLogLevel.WARNING, "LATE", "<P>late</P>"));
+
+        assertEquals(new AuditLogHtmlRenderer().render(entries), renderer.render(entries));
+    }
+
+    private static AuditLogEntry span(String spanId, String parentSpanId, AuditLogScope scope, String code) {
+        return new AuditLogEntry(Instant.EPOCH, AuditLogLevel.INFO, scope, spanId, parentSpanId, code,
+                "<P>" + code + " " + spanId + "</P>", null);
+    }
+
+    private static AuditLogEntry leaf(String parentSpanId, AuditLogLevel level, String code, String messageHtml) {
+        return new AuditLogEntry(Instant.EPOCH, level, AuditLogScope.SHEET, null, parentSpanId, code, messageHtml, null);
+    }
+}
@@ -0,0 +1,38 @@
+package com.femsq.web.audit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Однопроходная локализация подписей лога.
+ */
+class AuditLogLocalizerTest {
+
+    @Test
+    void longestPatternWinsOverItsPrefix() {
+        assertEquals("<P>таблица = промежуточная RALP_SM; таблица = промежуточная RALP; таблица = промежуточная РА</P>",
+                AuditLogLocalizer.localize(
+                        "<P>таблица = ags.ra_stg_ralp_sm; таблица=ags.ra_stg_ralp; таблица = ags.ra_stg_ra</P>"));
+        assertEquals("изменённые=1 безИзменений=2 категорияБезИзменений=3",
+                AuditLogLocalizer.localize("CHANGED=1 UNCHANGED=2 rcCategoryUNCHANGED=3"));
+    }
+
+    @Test
+    void rulesWrittenForLocalizedTextApplyToSourceText() {
+        assertEquals("таблица = промежуточная РА лист = Ф1 добавлено = 5",
+                AuditLogLocalizer.localize("table=ags.ra_stg_ra sheet=Ф1 inserted=5"));
+        assertEquals("таблица = промежуточная AgFee", AuditLogLocalizer.localize("table=staging AgFee"));
+        assertEquals("применено = да, применено = нет, применено = 3",
+                AuditLogLocalizer.localize("applied=true, applied=false, applied=3"));
+    }
+
+    @Test
+    void textWithoutPatternsIsReturnedAsIs() {
+        String html = "<P>Файл обработан</P>";
+        assertSame(html, AuditLogLocalizer.localize(html));
+        assertNull(AuditLogLocalizer.localize(null));
+    }
+}
@@ -0,0 +1,85 @@
+package com.femsq.web.audit;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Замер стоимости сборки HTML лога на 10k записей (не входит в {@code mvn test}).
+ *
+ * <p>Моделирует ревизию: файлы → листы → строки статистики, сборка HTML после каждых {@code flushEvery}
+ * записей (как троттлинг flush). Сравнивает инкрементальный {@link AuditLogHtmlRenderer} с полной
+ * пересборкой дерева. Запуск из IDE или:
+ * {@code java -cp target/classes:target/test-classes com.femsq.web.audit.AuditLogRenderBenchmark [entries] [flushEvery]}.</p>
+ */
+public final class AuditLogRenderBenchmark {
+
+    private static final int WARMUP_ROUNDS = 3;
+    private static final int MEASURED_ROUNDS = 5;
+
+    private AuditLogRenderBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        int entryCount = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        int flushEvery = args.length > 1 ? Integer.parseInt(args[1]) : 50;
+        List<AuditLogEntry> entries = auditEntries(entryCount);
+
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            run(entries, flushEvery, true);
+            run(entries, flushEvery, false);
+        }
+        double incrementalMs = 0;
+        double fullMs = 0;
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            incrementalMs += run(entries, flushEvery, true);
+            fullMs += run(entries, flushEvery, false);
+        }
+        double perTenK = 10_000.0 / entryCount / MEASURED_ROUNDS;
+        System.out.printf(Locale.ROOT, "entries=%d flushEvery=%d%n", entryCount, flushEvery);
+        System.out.printf(Locale.ROOT, "incremental: %.1f ms per 10k entries%n", incrementalMs * perTenK);
+        System.out.printf(Locale.ROOT, "full rebuild: %.1f ms per 10k entries%n", fullMs * perTenK);
+    }
+
+    private static double run(List<AuditLogEntry> entries, int flushEvery, boolean incremental) {
+        AuditLogHtmlRenderer renderer = new AuditLogHtmlRenderer();
+        long sink = 0;
+        long start = System.nanoTime();
+        for (int i = flushEvery; i <= entries.size(); i += flushEvery) {
+            List<AuditLogEntry> prefix = entries.subList(0, i);
+            sink += (incremental ? renderer : new AuditLogHtmlRenderer()).render(prefix).length();
+        }
+        double elapsedMs = (System.nanoTime() - start) / 1_000_000.0;
+        if (sink == 0) {
+            throw new IllegalStateException("empty render");
+        }
+        return elapsedMs;
+    }
+
+    private static List<AuditLogEntry> auditEntries(int count) {
+        List<AuditLogEntry> entries = new ArrayList<>(count);
+        entries.add(entry("a", null, AuditLogScope.AUDIT, "AUDIT_START", "<P>Reconcile start: execKey=1</P>"));
+        int file = 0;
+        while (entries.size() < count) {
+            String fileSpan = "f" + (++file);
+            entries.add(entry(fileSpan, "a", AuditLogScope.FILE, "FILE_START", "<P>Файл " + file + "</P>"));
+            for (int sheet = 1; sheet <= 5 && entries.size() < count; sheet++) {
+                String sheetSpan = fileSpan + "s" + sheet;
+                entries.add(entry(sheetSpan, fileSpan, AuditLogScope.SHEET, "SHEET_START",
+                        "<P>Staging start: table=ags.ra_stg_ralp sheet=Лист" + sheet + "</P>"));
+                for (int row = 0; row < 40 && entries.size() < count; row++) {
+                    entries.add(entry(null, sheetSpan, AuditLogScope.SHEET, "STAGING_STATS",
+                            "<P>inserted=" + row + " updated=0 unchanged=" + row + " errors=0 duration=" + row + "ms</P>"));
+                }
+                entries.add(entry(null, sheetSpan, AuditLogScope.SHEET, "SHEET_END", "<P>Staging end: counters: ok</P>"));
+            }
+            entries.add(entry(null, fileSpan, AuditLogScope.FILE, "FILE_END", "<P>Файл обработан</P>"));
+        }
+        return entries.subList(0, count);
+    }
+
+    private static AuditLogEntry entry(String spanId, String parentSpanId, AuditLogScope scope, String code, String html) {
+        return new AuditLogEntry(Instant.EPOCH, AuditLogLevel.INFO, scope, spanId, parentSpanId, code, html, null);
+    }
+}
@@ -0,0 +1,132 @@
+package com.femsq.web.audit.excel;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.OptionalInt;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Потоковое чтение {@code .xlsx} для Stage 1 даёт те же значения ячеек, что и DOM.
+ */
+class AuditExcelReaderStreamingTest {
+
+    private final AuditExcelReader reader = new AuditExcelReader();
+    private final AuditExcelCellReader cellReader = new AuditExcelCellReader();
+
+    @Test
+    void withAuditWorkbook_streamingMatchesDom(@TempDir Path tempDir) throws Exception {
+        Path file = writeWorkbook(tempDir.resolve("agents.xlsx"));
+
+        List<String> dom = reader.withAuditWorkbook(file, false, workbook -> {
+            assertFalse(workbook.isStreaming());
+            return dump(workbook.getSheet("ОА"));
+        });
+        List<String> streaming = reader.withAuditWorkbook(file, true, workbook -> {
+            assertTrue(workbook.isStreaming());
+            return dump(workbook.getSheet("оа"));
+        });
+
+        assertEquals(dom, streaming);
+        assertEquals("2|ОА|1234567|480|2024-03-15|1500.5", streaming.get(2));
+        assertEquals("3|ОА|1234567|481|2024-03-15|3001", streaming.get(3));
+        assertEquals("4|null", streaming.get(4));
+    }
+
+    @Test
+    void streamingSheet_forwardAndBackwardAccess(@TempDir Path tempDir) throws Exception {
+        Path file = writeWorkbook(tempDir.resolve("agents.xlsx"));
+
+        reader.withAuditWorkbook(file, true, workbook -> {
+            AuditSheet sheet = workbook.getSheetAt(0);
+            assertEquals(0, sheet.getFirstRowNum());
+            assertEquals(6, sheet.getLastRowNum());
+            assertNull(sheet.getRow(4));
+            assertEquals("хвост", cellReader.readString(sheet.getRow(6).getCell(0)));
+            assertNull(sheet.getRow(7));
+            Row header = sheet.getRow(1);
+            assertNotNull(header);
+            assertEquals("Признак", cellReader.readString(header.getCell(0)));
+            OptionalInt anchor = new AuditExcelColumnLocator(cellReader).findAnchorRow(sheet, "№ ОА", "W");
+            assertEquals(OptionalInt.of(1), anchor);
+            assertNull(workbook.getSheet("нет такого"));
+            return null;
+        });
+    }
+
+    private List<String> dump(AuditSheet sheet) {
+        List<String> lines = new ArrayList<>();
+        for (int r = sheet.getFirstRowNum(); r <= sheet.getLastRowNum(); r++) {
+            Row row = sheet.getRow(r);
+            if (row == null) {
+                lines.add(r + "|null");
+                continue;
+            }
+            LocalDate date = cellReader.readDateResult(row.getCell(3)).value();
+            BigDecimal amount = cellReader.readDecimalResult(row.getCell(4)).value();
+            lines.add(r + "|" + cellReader.readString(row.getCell(0))
+                    + "|" + cellReader.readString(row.getCell(1))
+                    + "|" + cellReader.readReportNumber(row.getCell(2))
+                    + "|" + date
+                    + "|" + (amount == null ? null : amount.stripTrailingZeros().toPlainString()));
+        }
+        return lines;
+    }
+
+    private static Path writeWorkbook(Path file) throws Exception {
+        try (XSSFWorkbook workbook = new XSSFWorkbook()) {
+            Sheet sheet = workbook.createSheet("ОА");
+            CellStyle dateStyle = workbook.createCellStyle();
+            dateStyle.setDataFormat(workbook.createDataFormat().getFormat("dd.mm.yyyy"));
+
+            sheet.createRow(0).createCell(0).setCellValue("Отчёт агентов");
+            Row header = sheet.createRow(1);
+            header.createCell(0).setCellValue("Признак");
+            header.createCell(1).setCellValue("№ ОА");
+            header.createCell(2).setCellValue("№ отчёта");
+            header.createCell(3).setCellValue("Дата");
+            header.createCell(4).setCellValue("Сумма");
+
+            Row first = sheet.createRow(2);
+            first.createCell(0).setCellValue("ОА");
+            first.createCell(1).setCellValue(1234567d);
+            first.createCell(2).setCellValue(480d);
+            first.createCell(3).setCellValue(LocalDate.of(2024, 3, 15));
+            first.getCell(3).setCellStyle(dateStyle);
+            first.createCell(4).setCellValue(1500.5d);
+
+            Row formula = sheet.createRow(3);
+            formula.createCell(0).setCellFormula("A3");
+            formula.createCell(1).setCellValue("1234567");
+            formula.createCell(2).setCellFormula("C3+1");
+            formula.createCell(3).setCellValue("15.03.2024");
+            formula.createCell(4).setCellFormula("E3*2");
+
+            Row afterGap = sheet.createRow(5);
+            afterGap.createCell(0).setCellValue("ОА изм");
+            afterGap.createCell(2).setCellValue(true);
+
+            sheet.createRow(6).createCell(0).setCellValue("хвост");
+            workbook.getCreationHelper().createFormulaEvaluator().evaluateAll();
+            try (OutputStream out = Files.newOutputStream(file)) {
+                workbook.write(out);
+            }
+        }
+        return file;
+    }
+}
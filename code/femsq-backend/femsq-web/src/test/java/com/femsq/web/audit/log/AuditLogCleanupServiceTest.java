@@ -0,0 +1,55 @@
+package com.femsq.web.audit.log;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.femsq.database.exception.DaoException;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Очистка {@code ags.ra_a_log}: пакетное удаление по возрасту записи.
+ */
+class AuditLogCleanupServiceTest {
+
+    @Test
+    void deletesBatchesUntilShortBatch() {
+        AuditLogStore store = mock(AuditLogStore.class);
+        when(store.deleteOlderThan(30, 100)).thenReturn(100, 100, 7);
+
+        new AuditLogCleanupService(store, 30, 100).cleanup();
+
+        verify(store, times(3)).deleteOlderThan(30, 100);
+    }
+
+    @Test
+    void disabledRetentionSkipsDatabase() {
+        AuditLogStore store = mock(AuditLogStore.class);
+
+        new AuditLogCleanupService(store, 0, 100).cleanup();
+
+        verify(store, never()).deleteOlderThan(anyInt(), anyInt());
+    }
+
+    @Test
+    void failureIsSwallowed() {
+        AuditLogStore store = mock(AuditLogStore.class);
+        when(store.deleteOlderThan(30, 100)).thenThrow(new DaoException("boom"));
+
+        new AuditLogCleanupService(store, 30, 100).cleanup();
+
+        verify(store, times(1)).deleteOlderThan(30, 100);
+    }
+
+    @Test
+    void purgeSelectsByEntryAgeRegardlessOfExecutionStatus() {
+        assertEquals("DELETE TOP (?) FROM ags.ra_a_log WHERE ral_ts < DATEADD(day, -?, SYSDATETIME())",
+                JdbcAuditLogStore.DELETE_OLDER_THAN_SQL);
+        assertFalse(JdbcAuditLogStore.DELETE_OLDER_THAN_SQL.contains("ags.ra_execution"));
+    }
+}
@@ -0,0 +1,219 @@
+package com.femsq.web.audit.reconcile;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+import com.femsq.database.connection.ConnectionFactory;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Domain snapshot type=5: загрузка только по периодам источника и счётчики {@code DomainSnapshotStats}.
+ */
+class AllAgentsReconcileDomainSnapshotTest {
+
+    private final AllAgentsReconcileService service = new AllAgentsReconcileService(mock(ConnectionFactory.class));
+
+    @Test
+    void raSnapshotExcludesRowsOutsideSourcePeriods() throws Exception {
+        FakeTable table = new FakeTable(List.of(
+                raRow(1, 10, "A-1"),
+                raRow(2, 11, "A-2"),
+                raRow(3, 12, "A-3"),
+                raRow(4, 12, " A-3 ")
+        ));
+
+        Map<AllAgentsReconcileService.CanonicalMatchKey, List<AllAgentsReconcileService.DomainRaRow>> snapshot =
+                service.loadDomainRaRows(table.connection(), Set.of(12, 10));
+
+        assertEquals(1, table.sql.size());
+        assertTrue(table.sql.get(0).contains("WHERE r.ra_period IN (?,?)"), table.sql.get(0));
+        assertEquals(List.of(List.of(10, 12)), table.bound);
+        Set<Long> loadedKeys = new HashSet<>();
+        snapshot.values().forEach(rows -> rows.forEach(row -> loadedKeys.add(row.raKey())));
+        assertEquals(Set.of(1L, 3L, 4L), loadedKeys);
+        assertEquals(3, AllAgentsReconcileService.countRows(snapshot));
+        // ra_num тримится при загрузке: строки 3 и 4 попадают под один ключ
+        assertEquals(2, snapshot.get(new AllAgentsReconcileService.CanonicalMatchKey(7, 8, 12, "A-3")).size());
+    }
+
+    @Test
+    void raSnapshotChunksPeriodsAndSkipsQueryForEmptyScope() throws Exception {
+        FakeTable table = new FakeTable(List.of(raRow(1, 5, "A-1"), raRow(2, 600, "A-2"), raRow(3, 700, "A-3")));
+        Set<Integer> periods = new HashSet<>();
+        IntStream.rangeClosed(1, 501).forEach(periods::add);
+
+        var snapshot = service.loadDomainRaRows(table.connection(), periods);
+
+        assertEquals(2, table.sql.size());
+        assertEquals(500, table.bound.get(0).size());
+        assertEquals(List.of(501), table.bound.get(1));
+        assertEquals(1, AllAgentsReconcileService.countRows(snapshot));
+
+        FakeTable untouched = new FakeTable(List.of(raRow(1, 5, "A-1")));
+        assertTrue(service.loadDomainRaRows(untouched.connection(), Set.of()).isEmpty());
+        assertTrue(untouched.sql.isEmpty());
+    }
+
+    @Test
+    void rcSnapshotExcludesRowsOutsideChangePeriods() throws Exception {
+        FakeTable table = new FakeTable(List.of(
+                rcRow(100, 20, 1, "01"),
+                rcRow(101, 21, 1, "2"),
+                rcRow(102, 22, 2, "1")
+        ));
+
+        var snapshot = service.loadDomainRcChangeRows(table.connection(), Set.of(20, 22));
+
+        assertTrue(table.sql.get(0).contains("WHERE c.ra_period IN (?,?)"), table.sql.get(0));
+        assertEquals(2, AllAgentsReconcileService.countRows(snapshot));
+        assertEquals(100L, snapshot.get(new AllAgentsReconcileService.RcChangeMatchKey(20, 1L, "1")).get(0).racKey());
+        assertEquals(102L, snapshot.get(new AllAgentsReconcileService.RcChangeMatchKey(22, 2L, "1")).get(0).racKey());
+    }
+
+    @Test
+    void rcStatsCountLoadedAndMatchedRows() {
+        var reportA = new AllAgentsReconcileService.PeriodRaNumKey(30, "R-1");
+        var reportAmbiguous = new AllAgentsReconcileService.PeriodRaNumKey(30, "R-2");
+        var reportMissing = new AllAgentsReconcileService.PeriodRaNumKey(31, "R-9");
+        Map<AllAgentsReconcileService.PeriodRaNumKey, List<Long>> raIndex = new HashMap<>();
+        raIndex.put(reportA, List.of(1L));
+        raIndex.put(reportAmbiguous, List.of(2L, 3L));
+        raIndex.put(new AllAgentsReconcileService.PeriodRaNumKey(30, "R-3"), List.of(4L));
+        var scope = new AllAgentsReconcileService.DomainScope(
+                Set.of(30),
+                Set.of(),
+                Set.of(30, 31),
+                Set.of(40),
+                List.of(
+                        new AllAgentsReconcileService.RcScopeLine(40, reportA, "1"),
+                        new AllAgentsReconcileService.RcScopeLine(40, reportA, "1"),
+                        new AllAgentsReconcileService.RcScopeLine(40, reportAmbiguous, "1"),
+                        new AllAgentsReconcileService.RcScopeLine(40, reportMissing, "1")));
+        Map<AllAgentsReconcileService.RcChangeMatchKey, List<AllAgentsReconcileService.DomainRcChangeRow>> rc =
+                new HashMap<>();
+        rc.put(new AllAgentsReconcileService.RcChangeMatchKey(40, 1L, "1"), List.of(rcDomain(500), rcDomain(501)));
+        rc.put(new AllAgentsReconcileService.RcChangeMatchKey(40, 4L, "1"), List.of(rcDomain(502)));
+
+        var stats = AllAgentsReconcileService.withRcSnapshotStats(
+                AllAgentsReconcileService.DomainSnapshotStats.empty().withRa(1, 9, 5), scope, raIndex, rc);
+
+        assertEquals(new AllAgentsReconcileService.DomainSnapshotStats(1, 9, 5, 2, 4, 3, 1, 3, 2), stats);
+        assertEquals("domainRaScopePeriods=1, domainRaLoaded=9, domainRaMatched=5"
+                        + ", domainRaIndexScopePeriods=2, domainRaIndexLoaded=4, domainRaIndexMatched=3"
+                        + ", domainRcScopePeriods=1, domainRcLoaded=3, domainRcMatched=2",
+                stats.format());
+    }
+
+    @Test
+    void matchedRowsCountEachSourceKeyOnce() {
+        Map<String, List<Integer>> byKey = Map.of("a", List.of(1, 2), "b", List.of(3), "c", List.of(4));
+
+        assertEquals(4, AllAgentsReconcileService.countRows(byKey));
+        assertEquals(3, AllAgentsReconcileService.countMatchedRows(byKey, Set.of("a", "c", "missing")));
+        assertEquals(0, AllAgentsReconcileService.countMatchedRows(byKey, Set.of()));
+    }
+
+    private static Map<String, Object> raRow(long key, int period, String num) {
+        Map<String, Object> row = new HashMap<>();
+        row.put("ra_key", key);
+        row.put("ra_org_sender", 7);
+        row.put("ra_cac", 8);
+        row.put("ra_period", period);
+        row.put("ra_num", num);
+        row.put("ra_type", "ОА");
+        row.put("ras_total", BigDecimal.TEN);
+        return row;
+    }
+
+    private static Map<String, Object> rcRow(long key, int period, long raFk, String changeNum) {
+        Map<String, Object> row = new HashMap<>();
+        row.put("rac_key", key);
+        row.put("rac_ra_fk", raFk);
+        row.put("rac_change_num", changeNum);
+        row.put("ra_period", period);
+        row.put("ra_org_sender", 7);
+        return row;
+    }
+
+    private static AllAgentsReconcileService.DomainRcChangeRow rcDomain(long racKey) {
+        return new AllAgentsReconcileService.DomainRcChangeRow(racKey, 1L, "1", 40, null, 7,
+                null, null, null, null, null, null, null, null, null, null, null, null);
+    }
+
+    /**
+     * Таблица в памяти: {@code executeQuery} отдаёт строки, у которых {@code ra_period} среди привязанных параметров.
+     */
+    private static final class FakeTable {
+
+        private final List<Map<String, Object>> rows;
+        private final List<String> sql = new ArrayList<>();
+        private final List<List<Integer>> bound = new ArrayList<>();
+
+        private FakeTable(List<Map<String, Object>> rows) {
+            this.rows = rows;
+        }
+
+        Connection connection() {
+            ClassLoader loader = getClass().getClassLoader();
+            return (Connection) Proxy.newProxyInstance(loader, new Class<?>[]{Connection.class},
+                    (proxy, method, args) -> {
+                        if ("prepareStatement".equals(method.getName())) {
+                            sql.add((String) args[0]);
+                            List<Integer> params = new ArrayList<>();
+                            bound.add(params);
+                            return statement(loader, params);
+                        }
+                        throw new UnsupportedOperationException(method.getName());
+                    });
+        }
+
+        private PreparedStatement statement(ClassLoader loader, List<Integer> params) {
+            return (PreparedStatement) Proxy.newProxyInstance(loader, new Class<?>[]{PreparedStatement.class},
+                    (proxy, method, args) -> switch (method.getName()) {
+                        case "setInt" -> {
+                            params.add((Integer) args[1]);
+                            yield null;
+                        }
+                        case "executeQuery" -> resultSet(loader, rows.stream()
+                                .filter(row -> params.contains((Integer) row.get("ra_period")))
+                                .iterator());
+                        case "close" -> null;
+                        default -> throw new UnsupportedOperationException(method.getName());
+                    });
+        }
+
+        private static ResultSet resultSet(ClassLoader loader, Iterator<Map<String, Object>> iterator) {
+            Object[] current = new Object[1];
+            return (ResultSet) Proxy.newProxyInstance(loader, new Class<?>[]{ResultSet.class},
+                    (proxy, method, args) -> {
+                        @SuppressWarnings("unchecked")
+                        Map<String, Object> row = (Map<String, Object>) current[0];
+                        return switch (method.getName()) {
+                            case "next" -> {
+                                current[0] = iterator.hasNext() ? iterator.next() : null;
+                                yield current[0] != null;
+                            }
+                            case "getInt" -> row.get(args[0]) == null ? 0 : ((Number) row.get(args[0])).intValue();
+                            case "getLong" -> row.get(args[0]) == null ? 0L : ((Number) row.get(args[0])).longValue();
+                            case "getString", "getBigDecimal", "getDate" -> row.get(args[0]);
+                            case "close" -> null;
+                            default -> throw new UnsupportedOperationException(method.getName());
+                        };
+                    });
+        }
+    }
+}
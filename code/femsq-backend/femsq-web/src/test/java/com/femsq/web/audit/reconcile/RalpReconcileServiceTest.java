@@ -1,8 +1,12 @@
 package com.femsq.web.audit.reconcile;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
 import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 import org.junit.jupiter.api.Test;
 
 class RalpReconcileServiceTest {
@@ -43,4 +47,16 @@ class RalpReconcileServiceTest {
         assertEquals(LocalDate.of(2021, 5, 20),
                 RalpReconcileService.parseDate("ИЛ-02/99-4345 от 20.05.2021"));
     }
+
+    @Test
+    void assignBackFetchedKeys_givesDuplicatesDistinctKeysInInsertOrder() {
+        Set<Integer> taken = new HashSet<>(Set.of(40));
+        List<int[]> matches = List.of(
+                new int[]{0, 40}, new int[]{0, 41}, new int[]{0, 42},
+                new int[]{1, 41}, new int[]{1, 42},
+                new int[]{3, 50});
+        assertArrayEquals(new int[]{41, 42, -1, 50},
+                RalpReconcileService.assignBackFetchedKeys(4, matches, taken));
+        assertEquals(Set.of(40, 41, 42, 50), taken);
+    }
 }
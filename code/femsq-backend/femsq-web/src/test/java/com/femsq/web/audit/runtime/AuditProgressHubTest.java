@@ -0,0 +1,172 @@
+package com.femsq.web.audit.runtime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.femsq.web.audit.AuditExecutionContext;
+import com.femsq.web.audit.AuditLogEntry;
+import com.femsq.web.audit.AuditLogLevel;
+import com.femsq.web.audit.AuditLogScope;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Лента live-канала: курсор возобновления, статусы, чтение записей из контекста и завершение.
+ */
+class AuditProgressHubTest {
+
+    private final AuditProgressHub hub = new AuditProgressHub();
+
+    @Test
+    void resumeAfterSeqReturnsOnlyLaterEvents() {
+        AuditProgressHub.Channel channel = hub.begin(5L);
+        List<AuditLogEntry> entries = new ArrayList<>();
+        entries.add(entry("A"));
+        channel.sync(entries);
+        entries.add(entry("B"));
+        entries.add(entry("C"));
+        channel.sync(entries);
+        channel.close();
+
+        List<AuditProgressEvent> events = hub.subscribe(5L, null, 2L, AuditRunStatus.IDLE)
+                .collectList().block(Duration.ofSeconds(5));
+
+        assertEquals(List.of(3L, 4L), events.stream().map(AuditProgressEvent::seq).toList());
+        assertEquals(List.of("B", "C"), events.stream().map(e -> e.entry().getCode()).toList());
+    }
+
+    @Test
+    void statusChangesAreInterleavedWithEntries() {
+        AuditProgressHub.Channel channel = hub.attach(6L);
+        channel.sync(List.of(entry("A")));
+        hub.publishStatus(6L, AuditRunStatus.COMPLETED);
+        channel.close();
+
+        List<AuditProgressEvent> events = hub.subscribe(6L, null, 0L, AuditRunStatus.IDLE)
+                .collectList().block(Duration.ofSeconds(5));
+
+        assertEquals(List.of(AuditProgressEvent.Kind.STATUS, AuditProgressEvent.Kind.ENTRY, AuditProgressEvent.Kind.STATUS),
+                events.stream().map(AuditProgressEvent::kind).toList());
+        assertEquals(AuditRunStatus.RUNNING, events.get(0).status());
+        assertEquals(AuditRunStatus.COMPLETED, events.get(2).status());
+    }
+
+    @Test
+    void subscriberWaitsForEntriesUntilChannelCloses() throws Exception {
+        AuditProgressHub.Channel channel = hub.begin(7L);
+        List<AuditProgressEvent> received = new ArrayList<>();
+        Thread consumer = Thread.ofVirtual().start(() -> received.addAll(
+                hub.subscribe(7L, null, 1L, AuditRunStatus.IDLE).collectList().block(Duration.ofSeconds(5))));
+
+        channel.sync(List.of(entry("A")));
+        channel.sync(List.of(entry("A"), entry("B")));
+        channel.close();
+        consumer.join();
+
+        assertEquals(List.of("A", "B"), received.stream().map(e -> e.entry().getCode()).toList());
+    }
+
+    @Test
+    void entriesSpilledFromContextAreReadBackForReplay(@TempDir Path spillDir) {
+        AuditProgressHub.Channel channel = hub.begin(9L);
+        try (AuditExecutionContext context = new AuditExecutionContext(9L, 4, spillDir)) {
+            context.setOnEntryAppended(ctx -> channel.sync(ctx.getEntries()));
+            for (int i = 0; i < 20; i++) {
+                context.append(AuditLogLevel.INFO, AuditLogScope.AUDIT, "E" + i, "<P>" + i + "</P>", Map.of());
+            }
+            assertTrue(context.getSpilledEntryCount() > 0);
+
+            List<AuditProgressEvent> replay = hub.subscribe(9L, null, 1L, AuditRunStatus.IDLE)
+                    .take(20).collectList().block(Duration.ofSeconds(5));
+
+            assertEquals(IntStream.range(0, 20).mapToObj(i -> "E" + i).toList(),
+                    replay.stream().map(e -> e.entry().getCode()).toList());
+            assertEquals(IntStream.rangeClosed(2, 21).asLongStream().boxed().toList(),
+                    replay.stream().map(AuditProgressEvent::seq).toList());
+        }
+    }
+
+    @Test
+    void detachedChannelKeepsOnlyTailAndSkipsOlderEntries() {
+        AuditProgressHub.Channel channel = hub.begin(10L);
+        List<AuditLogEntry> entries = new ArrayList<>(List.of(entry("A"), entry("B"), entry("C")));
+        channel.sync(entries);
+        hub.publishStatus(10L, AuditRunStatus.COMPLETED);
+        channel.detach(1);
+        entries.clear();
+        channel.close();
+
+        List<AuditProgressEvent> events = hub.subscribe(10L, null, 0L, AuditRunStatus.IDLE)
+                .collectList().block(Duration.ofSeconds(5));
+
+        assertEquals(List.of(1L, 4L, 5L), events.stream().map(AuditProgressEvent::seq).toList());
+        assertEquals("C", events.get(1).entry().getCode());
+        assertEquals(AuditRunStatus.COMPLETED, events.get(2).status());
+    }
+
+    @Test
+    void cursorOfPreviousRunReplaysNewRunFromStart() {
+        AuditProgressHub.Channel previous = hub.begin(11L);
+        previous.sync(List.of(entry("A"), entry("B"), entry("C")));
+        AuditProgressHub.Channel current = hub.begin(11L);
+        current.sync(List.of(entry("D")));
+        current.close();
+
+        List<AuditProgressEvent> events = hub.subscribe(11L, previous.runId(), 3L, AuditRunStatus.IDLE)
+                .collectList().block(Duration.ofSeconds(5));
+
+        assertNotEquals(previous.runId(), current.runId());
+        assertEquals(List.of(1L, 2L), events.stream().map(AuditProgressEvent::seq).toList());
+        assertEquals("D", events.get(1).entry().getCode());
+        assertTrue(events.stream().allMatch(e -> e.runId() == current.runId()));
+    }
+
+    @Test
+    void matchingRunIdResumesAfterSeq() {
+        AuditProgressHub.Channel channel = hub.begin(12L);
+        channel.sync(List.of(entry("A"), entry("B")));
+        channel.close();
+
+        List<AuditProgressEvent> events = hub.subscribe(12L, channel.runId(), 2L, AuditRunStatus.IDLE)
+                .collectList().block(Duration.ofSeconds(5));
+
+        assertEquals(List.of(3L), events.stream().map(AuditProgressEvent::seq).toList());
+    }
+
+    @Test
+    void cursorBeyondLastSeqIsTreatedAsAnotherRun() {
+        AuditProgressHub.Channel channel = hub.begin(13L);
+        channel.sync(List.of(entry("A")));
+        channel.close();
+
+        List<AuditProgressEvent> events = hub.subscribe(13L, null, 10L, AuditRunStatus.IDLE)
+                .collectList().block(Duration.ofSeconds(5));
+
+        assertEquals(List.of(1L, 2L), events.stream().map(AuditProgressEvent::seq).toList());
+    }
+
+    @Test
+    void withoutChannelEmitsSingleFallbackStatus() {
+        List<AuditProgressEvent> events = hub.subscribe(8L, null, 0L, AuditRunStatus.COMPLETED)
+                .collectList().block(Duration.ofSeconds(5));
+
+        assertEquals(1, events.size());
+        assertEquals(0L, events.get(0).seq());
+        assertEquals(AuditProgressEvent.NO_RUN, events.get(0).runId());
+        assertEquals(AuditRunStatus.COMPLETED, events.get(0).status());
+        assertNull(events.get(0).entry());
+    }
+
+    private static AuditLogEntry entry(String code) {
+        return new AuditLogEntry(Instant.now(), AuditLogLevel.INFO, AuditLogScope.AUDIT, code, "<P>" + code + "</P>", Map.of());
+    }
+}
@@ -0,0 +1,155 @@
+package com.femsq.web.audit.staging;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.microsoft.sqlserver.jdbc.ISQLServerBulkData;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Пакеты bulk copy и дочитывание ключей по диапазону.
+ */
+class BulkCopyStagingRowWriterTest {
+
+    private static final List<BulkCopyStagingRowWriter.ColumnShape> COLUMNS = List.of(
+            new BulkCopyStagingRowWriter.ColumnShape("rain_exec_key", Types.INTEGER, 10, 0),
+            new BulkCopyStagingRowWriter.ColumnShape("rainRow", Types.INTEGER, 10, 0),
+            new BulkCopyStagingRowWriter.ColumnShape("rainRaDate", Types.DATE, 10, 0),
+            new BulkCopyStagingRowWriter.ColumnShape("rainTtl", Types.DECIMAL, 19, 2)
+    );
+
+    @Test
+    void rowsAreSentInChunksWithDriverTypes() throws Exception {
+        RecordingLoader loader = new RecordingLoader();
+        BulkCopyStagingRowWriter writer = new BulkCopyStagingRowWriter(
+                null, loader, "ags.ra_stg_ra", COLUMNS, 2, null, null);
+
+        writer.write(new Object[]{7L, 5, LocalDate.of(2024, 3, 1), 12.5d}, 5);
+        writer.write(new Object[]{7L, 6, null, new BigDecimal("1.10")}, 6);
+        writer.write(new Object[]{7L, 8, null, null}, 8);
+        assertEquals(List.of(2), loader.chunkSizes);
+        writer.flush();
+        writer.close();
+
+        assertEquals(List.of(2, 1), loader.chunkSizes);
+        assertEquals(3, writer.inserted());
+        assertTrue(loader.closed);
+        Object[] first = loader.rows.get(0);
+        assertEquals(7, first[0]);
+        assertInstanceOf(java.sql.Date.class, first[2]);
+        assertEquals(new BigDecimal("12.5"), first[3]);
+    }
+
+    @Test
+    void keysAreMatchedByExcelRowAboveWatermark() throws Exception {
+        List<List<Object>> bound = new ArrayList<>();
+        Deque<List<Object[]>> results = new ArrayDeque<>(List.of(
+                List.<Object[]>of(new Object[]{100L}),
+                List.of(new Object[]{102L, 8}, new Object[]{101L, 5})
+        ));
+        List<String> received = new ArrayList<>();
+        BulkCopyStagingRowWriter writer = new BulkCopyStagingRowWriter(
+                connection(results, bound), new RecordingLoader(), "ags.ra_stg_ra", COLUMNS, 10,
+                (row, key) -> received.add(row + "=" + key),
+                new BulkCopyStagingRowWriter.KeyLookup("rain_key", "rain_exec_key", 7L, "rainRow"));
+
+        writer.write(new Object[]{7L, 5, null, null}, 5);
+        writer.write(new Object[]{7L, 6, null, null}, 6);
+        writer.write(new Object[]{7L, 8, null, null}, 8);
+        writer.flush();
+
+        assertEquals(List.of("5=101", "6=-1", "8=102"), received);
+        assertEquals(List.of(List.of(7L), List.of(7L, 100L, 5, 8)), bound);
+    }
+
+    @Test
+    void withoutExcelRowColumnKeysFollowInsertOrder() throws Exception {
+        List<List<Object>> bound = new ArrayList<>();
+        Deque<List<Object[]>> results = new ArrayDeque<>(List.of(
+                List.<Object[]>of(new Object[]{0L}),
+                List.of(new Object[]{1L}, new Object[]{2L}),
+                List.<Object[]>of(new Object[]{3L})
+        ));
+        List<String> received = new ArrayList<>();
+        BulkCopyStagingRowWriter writer = new BulkCopyStagingRowWriter(
+                connection(results, bound), new RecordingLoader(), "ags.ra_stg_ralp", COLUMNS, 2,
+                (row, key) -> received.add(row + "=" + key),
+                new BulkCopyStagingRowWriter.KeyLookup("ralprt_key", "ralprt_exec_key", 9L, null));
+
+        writer.write(new Object[]{9L, null, null, null}, 3);
+        writer.write(new Object[]{9L, null, null, null}, 4);
+        writer.write(new Object[]{9L, null, null, null}, 9);
+        writer.flush();
+
+        assertEquals(List.of("3=1", "4=2", "9=3"), received);
+        assertEquals(List.of(9L, 2L), bound.get(2));
+    }
+
+    private static final class RecordingLoader implements BulkCopyStagingRowWriter.RowsLoader {
+        private final List<Integer> chunkSizes = new ArrayList<>();
+        private final List<Object[]> rows = new ArrayList<>();
+        private boolean closed;
+
+        @Override
+        public void load(ISQLServerBulkData data) throws SQLException {
+            assertEquals(4, data.getColumnOrdinals().size());
+            int count = 0;
+            while (data.next()) {
+                rows.add(data.getRowData());
+                count++;
+            }
+            chunkSizes.add(count);
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+    }
+
+    private static Connection connection(Deque<List<Object[]>> results, List<List<Object>> bound) {
+        ClassLoader loader = BulkCopyStagingRowWriterTest.class.getClassLoader();
+        return (Connection) Proxy.newProxyInstance(loader, new Class<?>[]{Connection.class}, (proxy, method, args) -> {
+            if (!"prepareStatement".equals(method.getName())) {
+                throw new UnsupportedOperationException(method.getName());
+            }
+            List<Object> parameters = new ArrayList<>();
+            bound.add(parameters);
+            return Proxy.newProxyInstance(loader, new Class<?>[]{PreparedStatement.class}, (stmt, call, callArgs) ->
+                    switch (call.getName()) {
+                        case "setLong", "setInt" -> {
+                            parameters.add(callArgs[1]);
+                            yield null;
+                        }
+                        case "executeQuery" -> resultSet(loader, results.poll());
+                        case "close" -> null;
+                        default -> throw new UnsupportedOperationException(call.getName());
+                    });
+        });
+    }
+
+    private static ResultSet resultSet(ClassLoader loader, List<Object[]> rows) {
+        int[] cursor = {-1};
+        return (ResultSet) Proxy.newProxyInstance(loader, new Class<?>[]{ResultSet.class}, (proxy, method, args) ->
+                switch (method.getName()) {
+                    case "next" -> ++cursor[0] < rows.size();
+                    case "getLong" -> ((Number) rows.get(cursor[0])[(int) args[0] - 1]).longValue();
+                    case "getInt" -> ((Number) rows.get(cursor[0])[(int) args[0] - 1]).intValue();
+                    case "close" -> null;
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+}
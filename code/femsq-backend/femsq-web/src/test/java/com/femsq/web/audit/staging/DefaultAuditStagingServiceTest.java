@@ -0,0 +1,38 @@
+package com.femsq.web.audit.staging;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.femsq.database.model.RaSheetConf;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Параллельная загрузка листов: листы одной staging-таблицы попадают в один поток.
+ */
+class DefaultAuditStagingServiceTest {
+
+    @Test
+    void sheetsOfSameTableShareOneGroupInSheetOrder() {
+        RaSheetConf first = sheet(1, "Лист1", "ags.ra_stg_ra");
+        RaSheetConf other = sheet(2, "Лист2", "ags.ra_stg_agfee");
+        RaSheetConf second = sheet(3, "Лист3", " AGS.RA_STG_RA ");
+        RaSheetConf third = sheet(4, "Лист4", "ags.ra_stg_ra");
+
+        List<List<RaSheetConf>> groups =
+                DefaultAuditStagingService.groupByStagingTable(List.of(first, other, second, third));
+
+        assertEquals(List.of(List.of(first, second, third), List.of(other)), groups);
+    }
+
+    @Test
+    void distinctTablesGetOwnGroups() {
+        RaSheetConf a = sheet(1, "A", "ags.ra_stg_ra");
+        RaSheetConf b = sheet(2, "B", "ags.ra_stg_agfee");
+
+        assertEquals(List.of(List.of(a), List.of(b)), DefaultAuditStagingService.groupByStagingTable(List.of(a, b)));
+    }
+
+    private static RaSheetConf sheet(int key, String name, String table) {
+        return new RaSheetConf(key, 5, name, table, "№", null, null, null);
+    }
+}
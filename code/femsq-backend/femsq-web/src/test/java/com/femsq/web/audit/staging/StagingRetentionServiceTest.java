@@ -0,0 +1,115 @@
+package com.femsq.web.audit.staging;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+/**
+ * Пакетное удаление staging-строк завершённых запусков.
+ */
+class StagingRetentionServiceTest {
+
+    private static final StagingRetentionService.StagingTable RALP =
+            new StagingRetentionService.StagingTable("ags.ra_stg_ralp", "ralprt_exec_key");
+
+    @Test
+    void deletesInBatchesUntilBatchIsNotFull() throws Exception {
+        StagingRetentionService service = service(retention(2000, 14, true));
+        Deque<Integer> results = new ArrayDeque<>(List.of(2000, 2000, 5));
+        List<String> bound = new ArrayList<>();
+
+        long purged = service.purgeTable(connection(results, bound), RALP, farDeadline());
+
+        assertEquals(4005, purged);
+        assertTrue(results.isEmpty());
+        assertEquals(List.of("1=2000", "2=14", "1=2000", "2=14", "1=2000", "2=14"), bound);
+    }
+
+    @Test
+    void stopsAtRunDeadline() throws Exception {
+        StagingRetentionService service = service(retention(10, 30, true));
+        Deque<Integer> results = new ArrayDeque<>(List.of(10));
+        List<String> bound = new ArrayList<>();
+
+        long purged = service.purgeTable(connection(results, bound), RALP, System.nanoTime() - 1);
+
+        assertEquals(0, purged);
+        assertEquals(1, results.size());
+    }
+
+    @Test
+    void deleteSqlTargetsFinishedExecutionsAndKeepsLatestWhenConfigured() {
+        String keepLatest = service(retention(100, 30, true)).deleteSql(RALP);
+        String all = service(retention(100, 30, false)).deleteSql(RALP);
+
+        assertTrue(keepLatest.startsWith("DELETE TOP (?) FROM ags.ra_stg_ralp WHERE ralprt_exec_key IN ("));
+        assertTrue(keepLatest.contains("e.exec_status IN (N'COMPLETED', N'FAILED')"));
+        assertTrue(keepLatest.contains("MAX(l.exec_key)"));
+        assertFalse(all.contains("MAX(l.exec_key)"));
+    }
+
+    @Test
+    void everyStagingTableHasExecColumn() {
+        for (StagingRetentionService.StagingTable table : StagingRetentionService.TABLES) {
+            assertTrue(table.name().startsWith("ags.ra_stg_"), table.name());
+            assertTrue(table.execColumn().endsWith("_exec_key"), table.execColumn());
+        }
+        assertEquals("ra_stg_ralp", RALP.shortName());
+    }
+
+    private static AuditStagingProperties.Retention retention(int batchSize, int days, boolean keepLatest) {
+        AuditStagingProperties.Retention retention = new AuditStagingProperties.Retention();
+        retention.setBatchSize(batchSize);
+        retention.setRetentionDays(days);
+        retention.setKeepLatestPerAudit(keepLatest);
+        retention.setPauseMillis(0);
+        return retention;
+    }
+
+    private static StagingRetentionService service(AuditStagingProperties.Retention retention) {
+        AuditStagingProperties properties = new AuditStagingProperties();
+        properties.setRetention(retention);
+        return new StagingRetentionService(null, properties,
+                new StaticListableBeanFactory().getBeanProvider(MeterRegistry.class));
+    }
+
+    private static long farDeadline() {
+        return System.nanoTime() + TimeUnit.MINUTES.toNanos(5);
+    }
+
+    private static Connection connection(Deque<Integer> results, List<String> bound) {
+        PreparedStatement statement = (PreparedStatement) Proxy.newProxyInstance(
+                StagingRetentionServiceTest.class.getClassLoader(),
+                new Class<?>[]{PreparedStatement.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "setInt" -> {
+                        bound.add(args[0] + "=" + args[1]);
+                        yield null;
+                    }
+                    case "executeUpdate" -> results.isEmpty() ? 0 : results.poll();
+                    case "close" -> null;
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+        return (Connection) Proxy.newProxyInstance(
+                StagingRetentionServiceTest.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    if ("prepareStatement".equals(method.getName())) {
+                        return statement;
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+    }
+}
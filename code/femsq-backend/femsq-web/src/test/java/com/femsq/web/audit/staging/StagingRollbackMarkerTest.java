@@ -0,0 +1,69 @@
+package com.femsq.web.audit.staging;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Компенсирующий откат строк листа при параллельной загрузке.
+ */
+class StagingRollbackMarkerTest {
+
+    @Test
+    void deletesRowsOfExecutionAboveWatermark() throws Exception {
+        StagingRollbackMarker marker = new StagingRollbackMarker(
+                "ags.ra_stg_agfee", "oafpt_exec_key", 42L, "oafpt_key", 1000L);
+        List<String> sql = new ArrayList<>();
+        List<Object> bound = new ArrayList<>();
+
+        int deleted = marker.rollback(connection(sql, bound, 7));
+
+        assertEquals(7, deleted);
+        assertEquals(List.of("DELETE FROM ags.ra_stg_agfee WHERE oafpt_exec_key = ? AND oafpt_key > ?"), sql);
+        assertEquals(List.of(42L, 1000L), bound);
+    }
+
+    @Test
+    void withoutIdentityColumnDeletesWholeExecution() throws Exception {
+        StagingRollbackMarker marker = new StagingRollbackMarker(
+                "ags.ra_stg_cn_prdoc", "cnpd_exec_key", 42L, null, 0L);
+        List<String> sql = new ArrayList<>();
+        List<Object> bound = new ArrayList<>();
+
+        marker.rollback(connection(sql, bound, 0));
+
+        assertEquals(List.of("DELETE FROM ags.ra_stg_cn_prdoc WHERE cnpd_exec_key = ?"), sql);
+        assertEquals(List.of(42L), bound);
+    }
+
+    private static Connection connection(List<String> sql, List<Object> bound, int updated) {
+        ClassLoader loader = StagingRollbackMarkerTest.class.getClassLoader();
+        PreparedStatement statement = (PreparedStatement) Proxy.newProxyInstance(
+                loader,
+                new Class<?>[]{PreparedStatement.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "setLong" -> {
+                        bound.add(args[1]);
+                        yield null;
+                    }
+                    case "executeUpdate" -> updated;
+                    case "close" -> null;
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+        return (Connection) Proxy.newProxyInstance(
+                loader,
+                new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    if ("prepareStatement".equals(method.getName())) {
+                        sql.add((String) args[0]);
+                        return statement;
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+    }
+}
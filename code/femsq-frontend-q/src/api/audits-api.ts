@@ -26,7 +26,6 @@ const GET_AUDITS = gql`
       adtKey
       adtName
       adtDate
-      adtResults
       adtDir
       adtType
       adtAddRA
@@ -62,7 +61,6 @@ const CREATE_AUDIT = gql`
       adtKey
       adtName
       adtDate
-      adtResults
       adtDir
       adtType
       adtAddRA
@@ -80,7 +78,6 @@ const UPDATE_AUDIT = gql`
       adtKey
       adtName
       adtDate
-      adtResults
       adtDir
       adtType
       adtAddRA
@@ -110,6 +107,7 @@ const EXECUTE_AUDIT = gql`
 
 /**
  * Получает список всех ревизий.
+ * Без adtResults: лог ревизии загружается только для выбранной ревизии ({@link getAuditById}).
  */
 export async function getAudits(): Promise<RaADto[]> {
   try {
@@ -10,11 +10,13 @@
  * - Все остальные доменные API-клиенты должны использовать GraphQL/Apollo.
  */
 
-import { apiGet, RequestError } from './http';
+import { apiDelete, apiGet, apiPost, RequestError } from './http';
 import type {
   ReportGenerationRequest,
   ReportInfo,
+  ReportJobStatus,
   ReportMetadata,
+  ReportPageCount,
   ReportParameter
 } from '@/types/reports';
 
@@ -182,6 +184,72 @@ export async function generatePreview(
   }
 }
 
+/**
+ * Считает полное количество страниц отчёта (полное заполнение на сервере, может занять время).
+ */
+export function getReportPageCount(
+  reportId: string,
+  parameters?: Record<string, unknown>
+): Promise<ReportPageCount> {
+  return apiPost<ReportPageCount>(`${REPORTS_API_BASE}/${reportId}/page-count`, parameters ?? {});
+}
+
+/**
+ * Ставит фоновое задание генерации отчёта; результат скачивается через `downloadReportJobResult`.
+ */
+export function submitReportJob(request: ReportGenerationRequest): Promise<ReportJobStatus> {
+  return apiPost<ReportJobStatus>(`${REPORTS_API_BASE}/jobs`, request);
+}
+
+/**
+ * Получает состояние фонового задания (позиция в очереди, готовые страницы).
+ */
+export function getReportJobStatus(jobId: string): Promise<ReportJobStatus> {
+  return apiGet<ReportJobStatus>(`${REPORTS_API_BASE}/jobs/${jobId}`);
+}
+
+/**
+ * Отменяет фоновое задание.
+ */
+export function cancelReportJob(jobId: string): Promise<ReportJobStatus> {
+  return apiDelete<ReportJobStatus>(`${REPORTS_API_BASE}/jobs/${jobId}`);
+}
+
+/**
+ * Скачивает результат завершённого задания.
+ */
+export async function downloadReportJobResult(jobId: string): Promise<Blob> {
+  const url = resolveUrl(`${REPORTS_API_BASE}/jobs/${jobId}/result`);
+
+  try {
+    const response = await fetch(url);
+
+    if (!response.ok) {
+      const errorText = await response.text();
+      throw new RequestError(errorText || response.statusText, {
+        status: response.status,
+        statusText: response.statusText,
+        url: response.url,
+        body: errorText
+      });
+    }
+
+    return await response.blob();
+  } catch (error) {
+    if (error instanceof RequestError) {
+      throw error;
+    }
+    throw new RequestError(
+      error instanceof Error ? error.message : 'Неизвестная ошибка при скачивании отчёта',
+      {
+        status: 0,
+        statusText: 'NetworkError',
+        url
+      }
+    );
+  }
+}
+
 function resolveUrl(path: string): string {
   if (path.startsWith('http://') || path.startsWith('https://')) {
     return path;
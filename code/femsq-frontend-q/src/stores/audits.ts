@@ -29,7 +29,11 @@ export const useAuditsStore = defineStore('audits', () => {
     error.value = null;
 
     try {
-      audits.value = await auditsApi.getAudits();
+      // Список приходит без adtResults: сохраняем уже загруженный лог выбранной ревизии
+      const loaded = new Map(audits.value.map(a => [a.adtKey, a.adtResults]));
+      audits.value = (await auditsApi.getAudits()).map(a =>
+        loaded.get(a.adtKey) != null ? { ...a, adtResults: loaded.get(a.adtKey) } : a
+      );
       lastUpdatedAt.value = new Date().toISOString();
     } catch (err) {
       const message = err instanceof Error ? err.message : 'Не удалось загрузить ревизии';
@@ -43,7 +47,12 @@ export const useAuditsStore = defineStore('audits', () => {
 
   async function fetchAuditById(id: number): Promise<RaADto | null> {
     try {
-      return await auditsApi.getAuditById(id);
+      const fresh = await auditsApi.getAuditById(id);
+      const index = audits.value.findIndex(a => a.adtKey === id);
+      if (index !== -1) {
+        audits.value = audits.value.map(a => (a.adtKey === id ? fresh : a));
+      }
+      return fresh;
     } catch (err) {
       const message = err instanceof Error ? err.message : 'Не удалось загрузить ревизию';
       error.value = message;
@@ -100,7 +109,7 @@ export const useAuditsStore = defineStore('audits', () => {
       const updated = await auditsApi.updateAudit(id, request);
       const index = audits.value.findIndex(a => a.adtKey === id);
       if (index !== -1) {
-        audits.value = audits.value.map(a => (a.adtKey === id ? updated : a));
+        audits.value = audits.value.map(a => (a.adtKey === id ? { ...updated, adtResults: a.adtResults } : a));
       }
       return updated;
     } catch (err) {
@@ -35,6 +35,7 @@ export interface ReportMetadata {
   uiIntegration?: UiIntegration;
   tags?: string[];
   accessLevel?: string;
+  cacheable?: boolean;
 }
 
 /**
@@ -135,3 +136,28 @@ export interface ReportGenerationResult {
 
 
 
+
+/**
+ * Полное количество страниц отчёта (предпросмотр заполняет только первые страницы).
+ */
+export interface ReportPageCount {
+  reportId: string;
+  pageCount: number;
+}
+
+export type ReportJobState = 'QUEUED' | 'RUNNING' | 'COMPLETED' | 'FAILED' | 'CANCELLED';
+
+export interface ReportJobStatus {
+  jobId: string;
+  reportId: string;
+  format: string;
+  state: ReportJobState;
+  queuePosition: number;
+  pages: number;
+  fileName?: string | null;
+  size?: number | null;
+  error?: string | null;
+  submittedAt: string;
+  startedAt?: string | null;
+  finishedAt?: string | null;
+}
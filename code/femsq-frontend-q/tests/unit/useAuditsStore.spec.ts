@@ -54,6 +54,26 @@ describe('useAuditsStore', () => {
       expect(auditsApi.getAudits).toHaveBeenCalledOnce();
     });
 
+    it('должен сохранить загруженный лог: список приходит без adtResults', async () => {
+      const store = useAuditsStore();
+      store.audits.push({
+        adtKey: 1,
+        adtName: 'Ревизия 1',
+        adtDate: '2024-01-01T10:00:00',
+        adtResults: '<P>log</P>',
+        adtDir: 1,
+        adtType: 1,
+        adtAddRA: false
+      });
+      vi.mocked(auditsApi.getAudits).mockResolvedValue([
+        { adtKey: 1, adtName: 'Ревизия 1', adtDate: '2024-01-01T10:00:00', adtDir: 1, adtType: 1, adtAddRA: false }
+      ]);
+
+      await store.fetchAudits();
+
+      expect(store.audits[0].adtResults).toBe('<P>log</P>');
+    });
+
     it('должен обработать ошибку при загрузке', async () => {
       const error = new Error('Network error');
       vi.mocked(auditsApi.getAudits).mockRejectedValue(error);
@@ -99,6 +119,31 @@ describe('useAuditsStore', () => {
       expect(auditsApi.getAuditById).toHaveBeenCalledWith(1);
     });
 
+    it('должен подставить лог ревизии в список', async () => {
+      const store = useAuditsStore();
+      store.audits.push({
+        adtKey: 1,
+        adtName: 'Ревизия 1',
+        adtDate: '2024-01-01T10:00:00',
+        adtDir: 1,
+        adtType: 1,
+        adtAddRA: false
+      });
+      vi.mocked(auditsApi.getAuditById).mockResolvedValue({
+        adtKey: 1,
+        adtName: 'Ревизия 1',
+        adtDate: '2024-01-01T10:00:00',
+        adtResults: '<P>log</P>',
+        adtDir: 1,
+        adtType: 1,
+        adtAddRA: false
+      });
+
+      await store.fetchAuditById(1);
+
+      expect(store.audits[0].adtResults).toBe('<P>log</P>');
+    });
+
     it('должен обработать ошибку при загрузке по ID', async () => {
       const error = new Error('Not found');
       vi.mocked(auditsApi.getAuditById).mockRejectedValue(error);